@@ -0,0 +1,31 @@
+package com.park_karo.vehicle.booking;
+
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+
+/**
+ * A spot with room left for the whole of a requested window.
+ */
+public class BookableSpot {
+
+	private final ParkingSpot spot;
+	private final double distanceKm;
+	private final int freeSpaces;
+
+	public BookableSpot(ParkingSpot spot, double distanceKm, int freeSpaces) {
+		this.spot = spot;
+		this.distanceKm = distanceKm;
+		this.freeSpaces = freeSpaces;
+	}
+
+	public ParkingSpot getSpot() {
+		return spot;
+	}
+
+	public double getDistanceKm() {
+		return distanceKm;
+	}
+
+	public int getFreeSpaces() {
+		return freeSpaces;
+	}
+}
@@ -0,0 +1,110 @@
+package com.park_karo.vehicle.booking;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One space at one spot for {@code [start, end)}.
+ */
+@Document(collection = "parking_bookings")
+@CompoundIndexes({
+	// A spot's calendar, in time order
+	@CompoundIndex(name = "spot_start_end", def = "{'spotId': 1, 'start': 1, 'end': 1}"),
+	// Startup rebuild reads the active bookings that haven't ended
+	@CompoundIndex(name = "status_end", def = "{'status': 1, 'end': 1}")
+})
+public class Booking {
+
+	@Id
+	private String id;
+	private String spotId;
+	private String userId;
+	private Instant start;
+	private Instant end;
+	private BookingStatus status;
+	private Instant createdAt;
+	// Idempotency-Key of the request that created it, if it sent one
+	@Indexed(unique = true, sparse = true)
+	private String idempotencyKey;
+
+	public Booking() {
+	}
+
+	public Booking(String spotId, String userId, Instant start, Instant end, Instant createdAt) {
+		this.spotId = spotId;
+		this.userId = userId;
+		this.start = start;
+		this.end = end;
+		this.status = BookingStatus.ACTIVE;
+		this.createdAt = createdAt;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getSpotId() {
+		return spotId;
+	}
+
+	public void setSpotId(String spotId) {
+		this.spotId = spotId;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public Instant getStart() {
+		return start;
+	}
+
+	public void setStart(Instant start) {
+		this.start = start;
+	}
+
+	public Instant getEnd() {
+		return end;
+	}
+
+	public void setEnd(Instant end) {
+		this.end = end;
+	}
+
+	public BookingStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(BookingStatus status) {
+		this.status = status;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	public void setIdempotencyKey(String idempotencyKey) {
+		this.idempotencyKey = idempotencyKey;
+	}
+}
@@ -0,0 +1,165 @@
+package com.park_karo.vehicle.booking;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+/**
+ * Per-spot booking calendars: one {@link OccupancyTree} per spot with
+ * bookings, over minutes counted from the day before startup.
+ *
+ * Checking and taking capacity for a window happen under the spot's own lock,
+ * so two bookings racing for the last space cannot both succeed. A rebuild
+ * takes the calendar-wide write lock so no booking lands half in the old and
+ * half in the new state.
+ */
+@Component
+public class BookingCalendar {
+
+	// About two years of minutes; far more than bookings may reach ahead
+	static final int HORIZON_MINUTES = 1 << 20;
+
+	private final long baseMinute;
+	private final Map<String, OccupancyTree> calendars = new ConcurrentHashMap<>();
+	private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+	public BookingCalendar() {
+		this(Instant.now());
+	}
+
+	BookingCalendar(Instant now) {
+		this.baseMinute = Math.floorDiv(now.minus(Duration.ofDays(1)).toEpochMilli(), 60_000L) / (24 * 60)
+				* (24 * 60);
+	}
+
+	/**
+	 * Books one space over {@code [start, end)} if fewer than {@code capacity}
+	 * are booked at every minute of it. As in {@link #rebuild}, only the part
+	 * on the calendar is checked and taken.
+	 */
+	public boolean tryBook(String spotId, int capacity, Instant start, Instant end) {
+		start = clampToCalendar(start);
+		if (!end.isAfter(start)) {
+			throw new CustomExceptions.ValidationBusinessException("end", "is before the booking calendar");
+		}
+		int from = fromMinute(start);
+		int to = toMinute(end);
+		rebuildLock.readLock().lock();
+		try {
+			OccupancyTree tree = calendars.computeIfAbsent(spotId, id -> new OccupancyTree(HORIZON_MINUTES));
+			synchronized (tree) {
+				if (tree.peak(from, to) >= capacity) {
+					return false;
+				}
+				tree.add(from, to, 1);
+				return true;
+			}
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gives back a space taken by {@link #tryBook} or loaded by
+	 * {@link #rebuild}. Only the part on the calendar is released, as only that
+	 * part was loaded.
+	 */
+	public void release(String spotId, Instant start, Instant end) {
+		start = clampToCalendar(start);
+		if (!end.isAfter(start)) {
+			return;
+		}
+		int from = fromMinute(start);
+		int to = toMinute(end);
+		rebuildLock.readLock().lock();
+		try {
+			OccupancyTree tree = calendars.get(spotId);
+			if (tree != null) {
+				synchronized (tree) {
+					tree.add(from, to, -1);
+				}
+			}
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Most spaces booked at the same time anywhere in {@code [start, end)}.
+	 */
+	public int peakBooked(String spotId, Instant start, Instant end) {
+		start = clampToCalendar(start);
+		if (!end.isAfter(start)) {
+			return 0;
+		}
+		int from = fromMinute(start);
+		int to = toMinute(end);
+		rebuildLock.readLock().lock();
+		try {
+			OccupancyTree tree = calendars.get(spotId);
+			if (tree == null) {
+				return 0;
+			}
+			synchronized (tree) {
+				return tree.peak(from, to);
+			}
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Replaces every calendar with the given bookings, without capacity checks.
+	 */
+	public int rebuild(Iterable<Booking> activeBookings) {
+		rebuildLock.writeLock().lock();
+		try {
+			calendars.clear();
+			int loaded = 0;
+			for (Booking booking : activeBookings) {
+				// Only the part still on the calendar matters
+				Instant start = clampToCalendar(booking.getStart());
+				if (!booking.getEnd().isAfter(start)) {
+					continue;
+				}
+				calendars.computeIfAbsent(booking.getSpotId(), id -> new OccupancyTree(HORIZON_MINUTES))
+						.add(fromMinute(start), toMinute(booking.getEnd()), 1);
+				loaded++;
+			}
+			return loaded;
+		} finally {
+			rebuildLock.writeLock().unlock();
+		}
+	}
+
+	public int spotCount() {
+		return calendars.size();
+	}
+
+	private Instant clampToCalendar(Instant start) {
+		Instant base = Instant.ofEpochMilli(baseMinute * 60_000L);
+		return start.isBefore(base) ? base : start;
+	}
+
+	private int fromMinute(Instant instant) {
+		return offset(Math.floorDiv(instant.toEpochMilli(), 60_000L), "start");
+	}
+
+	private int toMinute(Instant instant) {
+		return offset(-Math.floorDiv(-instant.toEpochMilli(), 60_000L), "end");
+	}
+
+	private int offset(long epochMinute, String field) {
+		long offset = epochMinute - baseMinute;
+		if (offset < 0 || offset > HORIZON_MINUTES) {
+			throw new CustomExceptions.ValidationBusinessException(field, "is outside the booking calendar");
+		}
+		return (int) offset;
+	}
+}
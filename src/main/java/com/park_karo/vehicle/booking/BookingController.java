@@ -0,0 +1,71 @@
+package com.park_karo.vehicle.booking;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.park_karo.vehicle.dedup.IdempotencyKeys;
+
+@RestController
+@RequestMapping("/api/v1/bookings")
+public class BookingController {
+
+	private static final Logger logger = LoggerFactory.getLogger(BookingController.class);
+
+	private final BookingService bookingService;
+
+	public BookingController(BookingService bookingService) {
+		this.bookingService = bookingService;
+	}
+
+	@PostMapping
+	public ResponseEntity<Booking> createBooking(@RequestBody BookingRequest request,
+			@RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+		logger.info("createBooking called: spotId={}, window=[{}, {})", request.getSpotId(), request.getStart(),
+				request.getEnd());
+		return ResponseEntity.status(HttpStatus.CREATED).body(bookingService.create(request, idempotencyKey));
+	}
+
+	@PostMapping("/{id}/cancel")
+	public ResponseEntity<Booking> cancelBooking(@PathVariable String id) {
+		logger.info("cancelBooking called: id={}", id);
+		return ResponseEntity.ok(bookingService.cancel(id));
+	}
+
+	@GetMapping("/{id}")
+	public ResponseEntity<Booking> getBooking(@PathVariable String id) {
+		return ResponseEntity.ok(bookingService.get(id));
+	}
+
+	@GetMapping("/availability")
+	public ResponseEntity<Map<String, Object>> getAvailability(@RequestParam String spotId,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end) {
+		return ResponseEntity.ok(bookingService.getAvailability(spotId, start, end));
+	}
+
+	@GetMapping("/nearby")
+	public ResponseEntity<List<BookableSpot>> findBookableNearby(@RequestParam double lat, @RequestParam double lon,
+			@RequestParam(required = false, defaultValue = "2.0") double radiusKm,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+			@RequestParam(required = false, defaultValue = "20") int limit) {
+		logger.info("findBookableNearby called: lat={}, lon={}, radius={}km, window=[{}, {})", lat, lon, radiusKm,
+				start, end);
+		return ResponseEntity.ok(bookingService.findBookableNearby(lat, lon, radiusKm, start, end, limit));
+	}
+}
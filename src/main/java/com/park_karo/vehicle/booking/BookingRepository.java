@@ -0,0 +1,18 @@
+package com.park_karo.vehicle.booking;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookingRepository extends MongoRepository<Booking, String>, BookingRepositoryCustom {
+
+	// Served by the status_end index; callers must close the stream
+	Stream<Booking> streamByStatusAndEndAfter(BookingStatus status, Instant end);
+
+	// Only reached when the Idempotency-Key filter may have seen the key
+	Optional<Booking> findByIdempotencyKey(String idempotencyKey);
+}
@@ -0,0 +1,14 @@
+package com.park_karo.vehicle.booking;
+
+/**
+ * Hand-written queries for {@link BookingRepository}.
+ */
+public interface BookingRepositoryCustom {
+
+	/**
+	 * Marks an active booking cancelled in one conditional
+	 * {@code findAndModify}. Returns the cancelled booking, or null if it was
+	 * missing or not active, so a space is only given back once.
+	 */
+	Booking cancelIfActive(String bookingId);
+}
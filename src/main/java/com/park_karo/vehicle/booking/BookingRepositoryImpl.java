@@ -0,0 +1,27 @@
+package com.park_karo.vehicle.booking;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Picked up by Spring Data as the implementation of
+ * {@link BookingRepositoryCustom}.
+ */
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+	private final MongoTemplate mongoTemplate;
+
+	public BookingRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public Booking cancelIfActive(String bookingId) {
+		Query query = new Query(Criteria.where("_id").is(bookingId).and("status").is(BookingStatus.ACTIVE));
+		return mongoTemplate.findAndModify(query, new Update().set("status", BookingStatus.CANCELLED),
+				FindAndModifyOptions.options().returnNew(true), Booking.class);
+	}
+}
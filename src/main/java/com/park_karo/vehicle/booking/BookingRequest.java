@@ -0,0 +1,46 @@
+package com.park_karo.vehicle.booking;
+
+import java.time.Instant;
+
+/**
+ * Body of {@code POST /api/v1/bookings}.
+ */
+public class BookingRequest {
+
+	private String spotId;
+	private String userId;
+	private Instant start;
+	private Instant end;
+
+	public String getSpotId() {
+		return spotId;
+	}
+
+	public void setSpotId(String spotId) {
+		this.spotId = spotId;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public Instant getStart() {
+		return start;
+	}
+
+	public void setStart(Instant start) {
+		this.start = start;
+	}
+
+	public Instant getEnd() {
+		return end;
+	}
+
+	public void setEnd(Instant end) {
+		this.end = end;
+	}
+}
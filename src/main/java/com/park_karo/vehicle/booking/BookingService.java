@@ -0,0 +1,233 @@
+package com.park_karo.vehicle.booking;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.park_karo.vehicle.dedup.IdempotencyKeys;
+import com.park_karo.vehicle.exception.CustomExceptions;
+import com.park_karo.vehicle.parkingspot.GeoUtils;
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.ParkingSpotCatalog;
+import com.park_karo.vehicle.parkingspot.ParkingSpotRepository;
+import com.park_karo.vehicle.parkingspot.ParkingSpotService;
+
+/**
+ * Advance bookings of a space for a time window.
+ *
+ * Capacity over time lives in the {@link BookingCalendar}; MongoDB's
+ * {@code parking_bookings} collection is the record it is rebuilt from on
+ * startup. A spot's booking capacity is its {@code totalSpaces}, or its current
+ * {@code availableSpaces} on documents that predate that field.
+ *
+ * A create carrying an {@code Idempotency-Key} that was already used returns
+ * the booking the first request made instead of booking again.
+ */
+@Service
+public class BookingService {
+
+	private static final Logger logger = LoggerFactory.getLogger(BookingService.class);
+
+	static final int MAX_NEARBY_LIMIT = 200;
+	static final String IDEMPOTENCY_SCOPE = "booking";
+
+	private final BookingRepository bookingRepository;
+	private final BookingCalendar bookingCalendar;
+	private final ParkingSpotCatalog parkingSpotCatalog;
+	private final ParkingSpotRepository parkingSpotRepository;
+	private final ParkingSpotService parkingSpotService;
+	private final IdempotencyKeys idempotencyKeys;
+	private final int maxDaysAhead;
+	private final int maxHours;
+
+	public BookingService(BookingRepository bookingRepository, BookingCalendar bookingCalendar,
+			ParkingSpotCatalog parkingSpotCatalog, ParkingSpotRepository parkingSpotRepository,
+			ParkingSpotService parkingSpotService, IdempotencyKeys idempotencyKeys,
+			@Value("${parking.booking.max-days-ahead:90}") int maxDaysAhead,
+			@Value("${parking.booking.max-hours:72}") int maxHours) {
+		this.bookingRepository = bookingRepository;
+		this.bookingCalendar = bookingCalendar;
+		this.parkingSpotCatalog = parkingSpotCatalog;
+		this.parkingSpotRepository = parkingSpotRepository;
+		this.parkingSpotService = parkingSpotService;
+		this.idempotencyKeys = idempotencyKeys;
+		this.maxDaysAhead = maxDaysAhead;
+		this.maxHours = maxHours;
+	}
+
+	/**
+	 * @param idempotencyKey the request's {@code Idempotency-Key}, or null
+	 */
+	public Booking create(BookingRequest request, String idempotencyKey) {
+		if (idempotencyKey == null) {
+			return book(request, null);
+		}
+		String previous = idempotencyKeys.begin(IDEMPOTENCY_SCOPE, idempotencyKey,
+				key -> bookingRepository.findByIdempotencyKey(key).map(Booking::getId).orElse(null));
+		if (previous != null) {
+			logger.info("Replaying booking {} for {} {}", previous, IdempotencyKeys.HEADER, idempotencyKey);
+			return get(previous);
+		}
+		Booking booking = null;
+		try {
+			booking = book(request, idempotencyKey);
+			return booking;
+		} finally {
+			if (booking != null) {
+				idempotencyKeys.complete(IDEMPOTENCY_SCOPE, idempotencyKey, booking.getId());
+			} else {
+				idempotencyKeys.abandon(IDEMPOTENCY_SCOPE, idempotencyKey);
+			}
+		}
+	}
+
+	private Booking book(BookingRequest request, String idempotencyKey) {
+		if (request == null || request.getSpotId() == null || request.getSpotId().isBlank()) {
+			throw new CustomExceptions.ValidationBusinessException("spotId", "is required");
+		}
+		validateWindow(request.getStart(), request.getEnd());
+		ParkingSpot spot = findSpot(request.getSpotId());
+
+		if (!bookingCalendar.tryBook(spot.getId(), capacityOf(spot), request.getStart(), request.getEnd())) {
+			throw new CustomExceptions.CapacityExhaustedBusinessException(String.format(
+					"ParkingSpot with ID %s is fully booked between %s and %s", spot.getId(), request.getStart(),
+					request.getEnd()));
+		}
+		Booking booking = new Booking(spot.getId(), request.getUserId(), request.getStart(), request.getEnd(),
+				Instant.now());
+		booking.setIdempotencyKey(idempotencyKey);
+		try {
+			return bookingRepository.save(booking);
+		} catch (DuplicateKeyException e) {
+			bookingCalendar.release(spot.getId(), request.getStart(), request.getEnd());
+			// Another instance took the same key first
+			return bookingRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+		} catch (RuntimeException e) {
+			bookingCalendar.release(spot.getId(), request.getStart(), request.getEnd());
+			throw e;
+		}
+	}
+
+	public Booking cancel(String bookingId) {
+		Booking cancelled = bookingRepository.cancelIfActive(bookingId);
+		if (cancelled == null) {
+			Booking current = get(bookingId);
+			throw new CustomExceptions.OperationNotPermittedBusinessException(
+					String.format("Booking %s is %s and cannot be cancelled", bookingId, current.getStatus()));
+		}
+		if (cancelled.getEnd().isAfter(Instant.now())) {
+			bookingCalendar.release(cancelled.getSpotId(), cancelled.getStart(), cancelled.getEnd());
+		}
+		return cancelled;
+	}
+
+	public Booking get(String bookingId) {
+		return bookingRepository.findById(bookingId)
+				.orElseThrow(() -> new CustomExceptions.ResourceNotFoundBusinessException("Booking", bookingId));
+	}
+
+	/**
+	 * Capacity, peak bookings and free spaces of one spot over the window.
+	 */
+	public Map<String, Object> getAvailability(String spotId, Instant start, Instant end) {
+		validateWindow(start, end);
+		ParkingSpot spot = findSpot(spotId);
+		int capacity = capacityOf(spot);
+		int booked = bookingCalendar.peakBooked(spotId, start, end);
+		Map<String, Object> availability = new LinkedHashMap<>();
+		availability.put("spotId", spotId);
+		availability.put("start", start);
+		availability.put("end", end);
+		availability.put("capacity", capacity);
+		availability.put("booked", booked);
+		availability.put("free", Math.max(0, capacity - booked));
+		return availability;
+	}
+
+	/**
+	 * Spots within the radius that have a space free for the whole window,
+	 * nearest first.
+	 */
+	public List<BookableSpot> findBookableNearby(double lat, double lon, double radiusKm, Instant start, Instant end,
+			int limit) {
+		validateWindow(start, end);
+		if (radiusKm <= 0) {
+			throw new CustomExceptions.ValidationBusinessException("radiusKm", "must be positive");
+		}
+		if (limit < 1 || limit > MAX_NEARBY_LIMIT) {
+			throw new CustomExceptions.ValidationBusinessException("limit", "must be between 1 and " + MAX_NEARBY_LIMIT);
+		}
+		List<BookableSpot> bookable = new ArrayList<>();
+		for (ParkingSpot spot : parkingSpotService.findNearbyParkingSpots(lat, lon, radiusKm)) {
+			int free = capacityOf(spot) - bookingCalendar.peakBooked(spot.getId(), start, end);
+			if (free > 0) {
+				bookable.add(new BookableSpot(spot,
+						GeoUtils.distanceKm(lat, lon, spot.getLatitude(), spot.getLongitude()), free));
+			}
+		}
+		bookable.sort(Comparator.comparingDouble(BookableSpot::getDistanceKm));
+		return bookable.size() > limit ? List.copyOf(bookable.subList(0, limit)) : bookable;
+	}
+
+	/**
+	 * Loads the active bookings that haven't ended into the calendar.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		long start = System.currentTimeMillis();
+		try (Stream<Booking> active = bookingRepository.streamByStatusAndEndAfter(BookingStatus.ACTIVE,
+				Instant.now())) {
+			int loaded = bookingCalendar.rebuild(active::iterator);
+			logger.info("✅ Booking calendar rebuilt with {} bookings over {} spots in {} ms", loaded,
+					bookingCalendar.spotCount(), System.currentTimeMillis() - start);
+		} catch (Exception e) {
+			logger.error("❌ Failed to rebuild booking calendar: {}", e.getMessage(), e);
+		}
+	}
+
+	private void validateWindow(Instant start, Instant end) {
+		if (start == null || end == null) {
+			throw new CustomExceptions.ValidationBusinessException("start/end", "are required");
+		}
+		if (!end.isAfter(start)) {
+			throw new CustomExceptions.ValidationBusinessException("end", "must be after start");
+		}
+		Instant now = Instant.now();
+		if (!end.isAfter(now)) {
+			throw new CustomExceptions.ValidationBusinessException("end", "must be in the future");
+		}
+		if (start.isAfter(now.plus(Duration.ofDays(maxDaysAhead)))) {
+			throw new CustomExceptions.ValidationBusinessException("start",
+					"must be within " + maxDaysAhead + " days");
+		}
+		if (Duration.between(start, end).compareTo(Duration.ofHours(maxHours)) > 0) {
+			throw new CustomExceptions.ValidationBusinessException("end", "must be within " + maxHours + " hours of start");
+		}
+	}
+
+	private ParkingSpot findSpot(String spotId) {
+		ParkingSpot spot = parkingSpotCatalog.get(spotId);
+		if (spot == null) {
+			spot = parkingSpotRepository.findById(spotId)
+					.orElseThrow(() -> new CustomExceptions.ResourceNotFoundBusinessException("ParkingSpot", spotId));
+		}
+		return spot;
+	}
+
+	private static int capacityOf(ParkingSpot spot) {
+		return spot.getTotalSpaces() > 0 ? spot.getTotalSpaces() : spot.getAvailableSpaces();
+	}
+}
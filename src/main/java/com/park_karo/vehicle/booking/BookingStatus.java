@@ -0,0 +1,5 @@
+package com.park_karo.vehicle.booking;
+
+public enum BookingStatus {
+	ACTIVE, CANCELLED
+}
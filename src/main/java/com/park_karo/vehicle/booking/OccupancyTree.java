@@ -0,0 +1,116 @@
+package com.park_karo.vehicle.booking;
+
+import java.util.Arrays;
+
+/**
+ * Sparse segment tree over minutes holding how many spaces are booked at each
+ * minute of a spot's calendar.
+ *
+ * Supports adding a count over {@code [from, to)} and reading the peak count
+ * over {@code [from, to)}, both in O(log n) of the horizon. Each node keeps the
+ * count added to its whole range plus the peak below it, so updates never push
+ * anything down. Nodes are created only where bookings fall and are stored in
+ * parallel primitive arrays rather than as objects.
+ *
+ * Not thread-safe; {@link BookingCalendar} locks per spot.
+ */
+final class OccupancyTree {
+
+	private static final int NONE = 0;
+
+	private final int size;
+	// Node 0 is the null child; the root is node 1
+	private int[] left = new int[16];
+	private int[] right = new int[16];
+	private int[] added = new int[16];
+	private int[] peak = new int[16];
+	private int nodes = 2;
+
+	/**
+	 * @param size horizon length in minutes, rounded up to a power of two
+	 */
+	OccupancyTree(int size) {
+		this.size = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+	}
+
+	int horizon() {
+		return size;
+	}
+
+	/** Adds {@code delta} booked spaces over minutes {@code [from, to)}. */
+	void add(int from, int to, int delta) {
+		checkRange(from, to);
+		add(1, 0, size, from, to, delta);
+	}
+
+	/** Highest booked count at any minute of {@code [from, to)}. */
+	int peak(int from, int to) {
+		checkRange(from, to);
+		return peak(1, 0, size, from, to);
+	}
+
+	/** Number of tree nodes in use, a proxy for memory. */
+	int nodeCount() {
+		return nodes - 1;
+	}
+
+	private void add(int node, int lo, int hi, int from, int to, int delta) {
+		if (from <= lo && hi <= to) {
+			added[node] += delta;
+			peak[node] += delta;
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		if (from < mid) {
+			if (left[node] == NONE) {
+				// Not left[node] = newNode(): growing the arrays would orphan the write
+				int child = newNode();
+				left[node] = child;
+			}
+			add(left[node], lo, mid, from, to, delta);
+		}
+		if (to > mid) {
+			if (right[node] == NONE) {
+				int child = newNode();
+				right[node] = child;
+			}
+			add(right[node], mid, hi, from, to, delta);
+		}
+		peak[node] = added[node] + Math.max(peak[left[node]], peak[right[node]]);
+	}
+
+	private int peak(int node, int lo, int hi, int from, int to) {
+		if (node == NONE) {
+			return 0;
+		}
+		if (from <= lo && hi <= to) {
+			return peak[node];
+		}
+		int mid = (lo + hi) >>> 1;
+		int below = 0;
+		if (from < mid) {
+			below = peak(left[node], lo, mid, from, to);
+		}
+		if (to > mid) {
+			below = Math.max(below, peak(right[node], mid, hi, from, to));
+		}
+		return added[node] + below;
+	}
+
+	private int newNode() {
+		if (nodes == left.length) {
+			int capacity = nodes * 2;
+			left = Arrays.copyOf(left, capacity);
+			right = Arrays.copyOf(right, capacity);
+			added = Arrays.copyOf(added, capacity);
+			peak = Arrays.copyOf(peak, capacity);
+		}
+		return nodes++;
+	}
+
+	private void checkRange(int from, int to) {
+		if (from < 0 || to > size || from >= to) {
+			throw new IllegalArgumentException("range [" + from + ", " + to + ") outside [0, " + size + ")");
+		}
+	}
+}
@@ -0,0 +1,9 @@
+package com.park_karo.vehicle.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // Runs the @Scheduled housekeeping of the in-memory parking spot structures
+public class SchedulingConfig {
+}
@@ -0,0 +1,59 @@
+package com.park_karo.vehicle.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.ServletContextAware;
+
+import com.park_karo.vehicle.live.LiveSocketEndpoint;
+import com.park_karo.vehicle.live.LiveSocketHub;
+
+import jakarta.servlet.ServletContext;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+
+@Configuration
+public class WebSocketConfig implements ServletContextAware, SmartInitializingSingleton {
+
+	private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
+
+	private final LiveSocketHub liveSocketHub;
+	private ServerContainer serverContainer;
+
+	public WebSocketConfig(LiveSocketHub liveSocketHub) {
+		this.liveSocketHub = liveSocketHub;
+	}
+
+	@Override
+	public void setServletContext(ServletContext servletContext) {
+		// Put there by the container's WebSocket support; absent in mock servlet contexts
+		this.serverContainer = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+	}
+
+	/**
+	 * Registers the live endpoint on Tomcat's own WebSocket container, the way
+	 * Spring's ServerEndpointExporter does, with instances wired to the hub.
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (serverContainer == null) {
+			logger.warn("No WebSocket container; {} is not available", LiveSocketEndpoint.PATH);
+			return;
+		}
+		ServerEndpointConfig config = ServerEndpointConfig.Builder
+				.create(LiveSocketEndpoint.class, LiveSocketEndpoint.PATH)
+				.configurator(new ServerEndpointConfig.Configurator() {
+					@Override
+					public <T> T getEndpointInstance(Class<T> endpointClass) {
+						return endpointClass.cast(new LiveSocketEndpoint(liveSocketHub));
+					}
+				}).build();
+		try {
+			serverContainer.addEndpoint(config);
+		} catch (DeploymentException e) {
+			throw new IllegalStateException("Failed to register " + LiveSocketEndpoint.PATH, e);
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.park_karo.vehicle.dedup;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/idempotency")
+public class IdempotencyController {
+
+	private final IdempotencyKeys idempotencyKeys;
+
+	public IdempotencyController(IdempotencyKeys idempotencyKeys) {
+		this.idempotencyKeys = idempotencyKeys;
+	}
+
+	/**
+	 * Replays, Bloom filter memory and false-positive rate for Idempotency-Key
+	 */
+	@GetMapping("/stats")
+	public ResponseEntity<Map<String, Object>> getStats() {
+		return ResponseEntity.ok(idempotencyKeys.stats());
+	}
+}
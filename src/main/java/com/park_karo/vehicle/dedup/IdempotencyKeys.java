@@ -0,0 +1,186 @@
+package com.park_karo.vehicle.dedup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+/**
+ * Recognises retried POSTs by their {@code Idempotency-Key} header.
+ *
+ * A {@link RotatingBloomFilter} over the retention window answers first: a key
+ * it has never seen is new, which is what nearly every request is, and
+ * nothing else is consulted. A key it may have seen is looked up in a map of
+ * recent keys and what they created, and only if that misses too (the key is
+ * older than the map keeps, or the filter was wrong) in MongoDB, through the
+ * lookup the caller passes in.
+ *
+ * Keys are scoped by the kind of request, so the same key sent to two
+ * endpoints is two requests. A request with a key is in flight from
+ * {@link #begin} until {@link #complete} or {@link #abandon}; a retry arriving
+ * meanwhile is refused rather than run twice.
+ */
+@Component
+public class IdempotencyKeys {
+
+	public static final String HEADER = "Idempotency-Key";
+
+	static final int MAX_KEY_LENGTH = 128;
+
+	// A request still marked in flight after this long died without saying so
+	private static final long IN_FLIGHT_TIMEOUT_MILLIS = 60_000;
+
+	private static final class Entry {
+		// Null while the first request with the key is still running
+		final String resourceId;
+		final long createdAt;
+
+		Entry(String resourceId, long createdAt) {
+			this.resourceId = resourceId;
+			this.createdAt = createdAt;
+		}
+	}
+
+	private final RotatingBloomFilter seen;
+	private final Map<String, Entry> recent = new ConcurrentHashMap<>();
+	private final long windowMillis;
+	private final int maxCached;
+
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder newKeys = new LongAdder();
+	private final LongAdder cachedReplays = new LongAdder();
+	private final LongAdder durableLookups = new LongAdder();
+	private final LongAdder durableReplays = new LongAdder();
+	private final LongAdder falsePositives = new LongAdder();
+	private final LongAdder inFlightRefusals = new LongAdder();
+
+	public IdempotencyKeys(@Value("${parking.idempotency.window-ms:86400000}") long windowMillis,
+			@Value("${parking.idempotency.bloom-memory-kb:4096}") int bloomMemoryKb,
+			@Value("${parking.idempotency.bloom-fpp:0.001}") double bloomFpp,
+			@Value("${parking.idempotency.max-cached:100000}") int maxCached) {
+		this.seen = new RotatingBloomFilter(bloomMemoryKb * 1024L, RotatingBloomFilter.DEFAULT_GENERATIONS, bloomFpp,
+				windowMillis, System.currentTimeMillis());
+		this.windowMillis = windowMillis;
+		this.maxCached = maxCached;
+	}
+
+	/**
+	 * Starts a request carrying {@code key}. Returns the id of what an earlier
+	 * request with the same key created, or null when this is the first; the
+	 * caller then goes ahead and must end with {@link #complete} or
+	 * {@link #abandon}.
+	 *
+	 * @param durableLookup id of the resource stored with this key, or null
+	 */
+	public String begin(String scope, String key, Function<String, String> durableLookup) {
+		if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			throw new CustomExceptions.ValidationBusinessException(HEADER,
+					"must be between 1 and " + MAX_KEY_LENGTH + " characters");
+		}
+		requests.increment();
+		String scoped = scope + ':' + key;
+		long hash = RotatingBloomFilter.hash(scoped);
+		long now = System.currentTimeMillis();
+		boolean maybeSeen;
+		synchronized (seen) {
+			maybeSeen = seen.mightContain(hash);
+			if (!maybeSeen) {
+				seen.put(hash);
+			}
+		}
+
+		if (maybeSeen) {
+			Entry cached = recent.get(scoped);
+			if (cached != null) {
+				return previous(cached, key, cachedReplays);
+			}
+			durableLookups.increment();
+			String stored = durableLookup.apply(key);
+			if (stored != null) {
+				if (recent.size() < maxCached) {
+					recent.putIfAbsent(scoped, new Entry(stored, now));
+				}
+				durableReplays.increment();
+				return stored;
+			}
+			// Or a key whose request failed and is being retried
+			falsePositives.increment();
+			synchronized (seen) {
+				// Back into the current generation, or a key near the window's end could be forgotten
+				seen.put(hash);
+			}
+		}
+		Entry raced = recent.putIfAbsent(scoped, new Entry(null, now));
+		if (raced != null) {
+			return previous(raced, key, cachedReplays);
+		}
+		newKeys.increment();
+		return null;
+	}
+
+	/**
+	 * Records what the request with {@code key} created.
+	 */
+	public void complete(String scope, String key, String resourceId) {
+		String scoped = scope + ':' + key;
+		if (recent.size() < maxCached) {
+			recent.put(scoped, new Entry(resourceId, System.currentTimeMillis()));
+		} else {
+			// MongoDB has it; a retry pays one lookup
+			recent.remove(scoped);
+		}
+	}
+
+	/**
+	 * Lets a retry of a request that failed run again.
+	 */
+	public void abandon(String scope, String key) {
+		recent.computeIfPresent(scope + ':' + key, (k, entry) -> entry.resourceId == null ? null : entry);
+	}
+
+	private String previous(Entry entry, String key, LongAdder counter) {
+		if (entry.resourceId == null) {
+			inFlightRefusals.increment();
+			throw new CustomExceptions.ResourceAlreadyExistsBusinessException(
+					String.format("A request with %s %s is still being processed", HEADER, key));
+		}
+		counter.increment();
+		return entry.resourceId;
+	}
+
+	/**
+	 * Rotates the filter and drops keys older than the window from the map.
+	 */
+	@Scheduled(fixedDelayString = "${parking.idempotency.prune-ms:60000}")
+	public void prune() {
+		long now = System.currentTimeMillis();
+		synchronized (seen) {
+			seen.rotateIfDue(now);
+		}
+		recent.values().removeIf(entry -> now - entry.createdAt > (entry.resourceId != null ? windowMillis
+				: IN_FLIGHT_TIMEOUT_MILLIS));
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("requests", requests.sum());
+		stats.put("newKeys", newKeys.sum());
+		stats.put("cachedReplays", cachedReplays.sum());
+		stats.put("durableLookups", durableLookups.sum());
+		stats.put("durableReplays", durableReplays.sum());
+		stats.put("bloomFalsePositives", falsePositives.sum());
+		stats.put("inFlightRefusals", inFlightRefusals.sum());
+		stats.put("cachedKeys", recent.size());
+		synchronized (seen) {
+			stats.put("bloom", seen.stats());
+		}
+		return stats;
+	}
+}
@@ -0,0 +1,211 @@
+package com.park_karo.vehicle.dedup;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bloom filter over a sliding time window, for telling "certainly new" from
+ * "maybe seen before" about 64-bit keys.
+ *
+ * The window is split into generations of equal length. Keys go into the
+ * current generation and a lookup checks all of them; when a generation's
+ * time is up the oldest is cleared and becomes the current one, so a key is
+ * remembered for between {@code (generations - 1) / generations} of the window
+ * and the whole window.
+ *
+ * Each generation is blocked: all of a key's bits fall in one 512-bit block,
+ * so a lookup touches one cache line per generation. The memory budget and
+ * target false-positive rate are fixed up front; the number of hash bits and
+ * how many keys a generation holds before missing that target follow from
+ * them (slightly fewer than for an unblocked filter).
+ *
+ * Not thread-safe; callers serialise access.
+ */
+public final class RotatingBloomFilter {
+
+	public static final int DEFAULT_GENERATIONS = 4;
+
+	private static final int BLOCK_BITS = 512;
+	private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+	private static final int MAX_HASHES = 16;
+	// Bit positions within a block are the top 9 bits of the hash times successive powers of an odd constant.
+	// Double hashing, (h1 + i * h2) mod 512, would only use 18 bits of the hash, and keys sharing those
+	// would share every bit
+	private static final long PROBE_STEP = 0x9e3779b97f4a7c15L;
+	private static final int PROBE_SHIFT = Long.SIZE - 9;
+
+	private final long[][] generations;
+	private final long[] bitsSet;
+	private final long[] insertions;
+	private final int blocks;
+	private final int hashes;
+	private final double targetFpp;
+	private final long capacityPerGeneration;
+	private final long windowMillis;
+	private final long generationMillis;
+
+	private int current;
+	private long generationStart;
+	private long rotations;
+
+	/**
+	 * @param memoryBytes total size of the bit arrays, across all generations
+	 * @param fpp         target false-positive rate of a lookup
+	 */
+	public RotatingBloomFilter(long memoryBytes, int generations, double fpp, long windowMillis, long nowMillis) {
+		if (generations < 2) {
+			throw new IllegalArgumentException("a rotating Bloom filter needs at least two generations");
+		}
+		if (!(fpp > 0 && fpp < 1)) {
+			throw new IllegalArgumentException("false-positive rate must be between 0 and 1");
+		}
+		if (windowMillis < generations) {
+			throw new IllegalArgumentException("window must be at least one millisecond per generation");
+		}
+		long blocksPerGeneration = memoryBytes * Byte.SIZE / generations / BLOCK_BITS;
+		if (blocksPerGeneration < 1 || blocksPerGeneration * BLOCK_LONGS > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Bloom filter memory of " + memoryBytes + " bytes is out of range");
+		}
+		this.blocks = (int) blocksPerGeneration;
+		this.generations = new long[generations][blocks * BLOCK_LONGS];
+		this.bitsSet = new long[generations];
+		this.insertions = new long[generations];
+		this.targetFpp = fpp;
+
+		// A lookup misses only if it misses every generation, so each gets a share of the target
+		double generationFpp = fpp / generations;
+		this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(-Math.log(generationFpp) / Math.log(2))));
+		double bits = (double) blocks * BLOCK_BITS;
+		this.capacityPerGeneration = (long) (bits * Math.log(2) * Math.log(2) / -Math.log(generationFpp));
+
+		this.windowMillis = windowMillis;
+		this.generationMillis = windowMillis / generations;
+		this.generationStart = nowMillis;
+	}
+
+	public boolean mightContain(long key) {
+		long hash = mix(key);
+		int block = blockOf(hash);
+		for (long[] bits : generations) {
+			if (containsAll(bits, block, hash)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void put(long key) {
+		long hash = mix(key);
+		int block = blockOf(hash);
+		long[] bits = generations[current];
+		long probe = hash;
+		for (int i = 0; i < hashes; i++) {
+			probe *= PROBE_STEP;
+			int bit = (int) (probe >>> PROBE_SHIFT);
+			int word = block + (bit >>> 6);
+			long mask = 1L << bit;
+			if ((bits[word] & mask) == 0) {
+				bits[word] |= mask;
+				bitsSet[current]++;
+			}
+		}
+		insertions[current]++;
+	}
+
+	/**
+	 * Clears the oldest generation for each generation length that has passed
+	 * since the current one started.
+	 */
+	public void rotateIfDue(long nowMillis) {
+		int due = 0;
+		while (nowMillis - generationStart >= generationMillis && due < generations.length) {
+			generationStart += generationMillis;
+			due++;
+		}
+		if (due == generations.length) {
+			// Idle for a whole window
+			generationStart = nowMillis;
+		}
+		for (int i = 0; i < due; i++) {
+			current = (current + 1) % generations.length;
+			Arrays.fill(generations[current], 0L);
+			bitsSet[current] = 0;
+			insertions[current] = 0;
+			rotations++;
+		}
+	}
+
+	/**
+	 * False-positive rate of a lookup right now, from how full each generation
+	 * is.
+	 */
+	public double estimatedFpp() {
+		double bits = (double) blocks * BLOCK_BITS;
+		double missAll = 1;
+		for (long set : bitsSet) {
+			missAll *= 1 - Math.pow(set / bits, hashes);
+		}
+		return 1 - missAll;
+	}
+
+	/**
+	 * A 64-bit hash of a string key: FNV-1a over its chars.
+	 */
+	public static long hash(CharSequence key) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			hash ^= key.charAt(i);
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private boolean containsAll(long[] bits, int block, long hash) {
+		long probe = hash;
+		for (int i = 0; i < hashes; i++) {
+			probe *= PROBE_STEP;
+			int bit = (int) (probe >>> PROBE_SHIFT);
+			if ((bits[block + (bit >>> 6)] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Remixed so the block doesn't correlate with the bit positions
+	private int blockOf(long hash) {
+		long mixed = mix(hash);
+		return (int) (((mixed >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+	}
+
+	// MurmurHash3's 64-bit finaliser
+	private static long mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	public long memoryBytes() {
+		return (long) generations.length * blocks * BLOCK_BITS / Byte.SIZE;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("memoryBytes", memoryBytes());
+		stats.put("generations", generations.length);
+		stats.put("windowMillis", windowMillis);
+		stats.put("hashes", hashes);
+		stats.put("targetFpp", targetFpp);
+		stats.put("estimatedFpp", estimatedFpp());
+		stats.put("capacityPerGeneration", capacityPerGeneration);
+		stats.put("currentInsertions", insertions[current]);
+		stats.put("currentFill", bitsSet[current] / ((double) blocks * BLOCK_BITS));
+		stats.put("saturated", insertions[current] > capacityPerGeneration);
+		stats.put("rotations", rotations);
+		return stats;
+	}
+}
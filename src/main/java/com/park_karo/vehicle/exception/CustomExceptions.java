@@ -107,4 +107,20 @@ public class CustomExceptions {
 			super(String.format("Rate limit exceeded for %s. Limit: %d requests per minute", operation, limit));
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Thrown when a spot has no free space left to reserve
+	 */
+	public static class CapacityExhaustedBusinessException extends RuntimeException {
+		@Serial
+		private static final long serialVersionUID = 7L;
+
+		public CapacityExhaustedBusinessException(String message) {
+			super(message);
+		}
+
+		public CapacityExhaustedBusinessException(String resource, String id) {
+			super(String.format("%s with ID %s has no free space", resource, id));
+		}
+	}
+}
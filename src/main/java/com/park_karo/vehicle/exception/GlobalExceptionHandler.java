@@ -111,6 +111,18 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
 	}
 
+	@ExceptionHandler(CustomExceptions.CapacityExhaustedBusinessException.class)
+	public ResponseEntity<ApiErrorResponse> handleCapacityExhaustedException(
+			CustomExceptions.CapacityExhaustedBusinessException ex, WebRequest request) {
+
+		ApiErrorResponse errorResponse = ApiErrorResponse.builder().timestamp(OffsetDateTime.now())
+				.status(HttpStatus.CONFLICT.value()).error("Capacity Exhausted").message(ex.getMessage())
+				.path(getRequestPath(request)).build();
+
+		logger.info("Capacity exhausted: {}", ex.getMessage());
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+	}
+
 	@ExceptionHandler(DataIntegrityViolationException.class)
 	public ResponseEntity<ApiErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex,
 			WebRequest request) {
@@ -0,0 +1,121 @@
+package com.park_karo.vehicle.ingest;
+
+/**
+ * Exact set of the event-id fingerprints seen over the last
+ * {@code windowMillis}, behind the ingest pipeline's Bloom filter.
+ *
+ * Fingerprints sit in an open-addressing table of longs, at most half full,
+ * and in a ring in the order they arrived; the oldest leave the table once
+ * they fall out of the window. If more than {@code maxIds} arrive within one
+ * window the oldest leave early, and {@link #evictedEarly} says so: the table
+ * is then too small for the event rate. Nothing is allocated after
+ * construction.
+ *
+ * Not thread-safe; only the dedup stage touches it.
+ */
+final class RecentEventIds {
+
+	private final long[] table;
+	private final int mask;
+	private final long[] arrivals;
+	private final long[] arrivalTimes;
+	private final long windowMillis;
+
+	private int oldest;
+	private int size;
+	private long evictedEarly;
+
+	RecentEventIds(int maxIds, long windowMillis) {
+		if (maxIds < 1) {
+			throw new IllegalArgumentException("maxIds must be positive");
+		}
+		// A power of two at least twice maxIds
+		int slots = Integer.highestOneBit(Math.max(2, maxIds) * 2 - 1) << 1;
+		this.table = new long[slots];
+		this.mask = slots - 1;
+		this.arrivals = new long[maxIds];
+		this.arrivalTimes = new long[maxIds];
+		this.windowMillis = windowMillis;
+	}
+
+	/**
+	 * @param fingerprint never 0, which marks an empty slot
+	 */
+	boolean contains(long fingerprint) {
+		for (int slot = slotOf(fingerprint);; slot = (slot + 1) & mask) {
+			long key = table[slot];
+			if (key == fingerprint) {
+				return true;
+			}
+			if (key == 0) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Records a fingerprint not already in the set.
+	 */
+	void add(long fingerprint, long nowMillis) {
+		expire(nowMillis);
+		if (size == arrivals.length) {
+			removeOldest();
+			evictedEarly++;
+		}
+		int slot = slotOf(fingerprint);
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = fingerprint;
+		int tail = (oldest + size) % arrivals.length;
+		arrivals[tail] = fingerprint;
+		arrivalTimes[tail] = nowMillis;
+		size++;
+	}
+
+	/**
+	 * Drops the fingerprints that arrived more than the window ago.
+	 */
+	void expire(long nowMillis) {
+		while (size > 0 && nowMillis - arrivalTimes[oldest] > windowMillis) {
+			removeOldest();
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	long evictedEarly() {
+		return evictedEarly;
+	}
+
+	private void removeOldest() {
+		delete(arrivals[oldest]);
+		oldest = (oldest + 1) % arrivals.length;
+		size--;
+	}
+
+	// Backward-shift deletion, so lookups never need tombstones
+	private void delete(long fingerprint) {
+		int slot = slotOf(fingerprint);
+		while (table[slot] != fingerprint) {
+			slot = (slot + 1) & mask;
+		}
+		int hole = slot;
+		for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+			int home = slotOf(table[next]);
+			// Move it back unless its home lies cyclically in (hole, next]
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				table[hole] = table[next];
+				hole = next;
+			}
+		}
+		table[hole] = 0;
+	}
+
+	private int slotOf(long fingerprint) {
+		long mixed = fingerprint * 0x9e3779b97f4a7c15L;
+		return (int) (mixed >>> 32) & mask;
+	}
+}
@@ -0,0 +1,54 @@
+package com.park_karo.vehicle.ingest;
+
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+
+/**
+ * Slot of the {@link SensorEventRing}. Slots are allocated once and
+ * overwritten on every lap, so fields are mutable and only meaningful between
+ * a slot's publication and the last stage passing it.
+ */
+public final class SensorEvent {
+
+	public static final byte OK = 0;
+	public static final byte INVALID = 1;
+	public static final byte DUPLICATE = 2;
+
+	String spotId;
+	// Null when the sender gave none; such events are never taken for resends
+	String eventId;
+	int delta;
+	long timestampMillis;
+
+	// Filled in by the stages
+	byte status;
+	ParkingSpot spot;
+
+	void set(String spotId, String eventId, int delta, long timestampMillis) {
+		this.spotId = spotId;
+		this.eventId = eventId;
+		this.delta = delta;
+		this.timestampMillis = timestampMillis;
+		this.status = OK;
+		this.spot = null;
+	}
+
+	public String getSpotId() {
+		return spotId;
+	}
+
+	public String getEventId() {
+		return eventId;
+	}
+
+	public int getDelta() {
+		return delta;
+	}
+
+	public long getTimestampMillis() {
+		return timestampMillis;
+	}
+
+	public byte getStatus() {
+		return status;
+	}
+}
@@ -0,0 +1,142 @@
+package com.park_karo.vehicle.ingest;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+/**
+ * Streams sensor events out of a request body straight into a sink, one at a
+ * time, without building a list of them first.
+ *
+ * NDJSON: one object per line,
+ * {@code {"spotId":"...","eventId":"...","delta":-1,"timestamp":1700000000000}};
+ * a missing timestamp means the time of receipt. The event id is optional; a
+ * resent event carries the same one, and only events with an id are checked
+ * for resends.
+ *
+ * Binary, big-endian:
+ *
+ * <pre>
+ * batch := 'S' 'E' version:u8 (=1) count:u32 event*count
+ * event   := flags:u8 id eventId delta:i16 timestamp:i64
+ * id      := 12 bytes                  if flags &amp; 2 (a MongoDB ObjectId)
+ *          | length:u8 utf8[length]    otherwise
+ * eventId := length:u8 utf8[length]    if flags &amp; 4
+ *          | nothing                   otherwise
+ * </pre>
+ */
+final class SensorEventParser {
+
+	static final int BINARY_VERSION = 1;
+	static final int ID_OBJECT_ID = 2;
+	static final int HAS_EVENT_ID = 4;
+
+	private static final JsonFactory JSON = new JsonFactory();
+	private static final HexFormat HEX = HexFormat.of();
+
+	@FunctionalInterface
+	interface Sink {
+		/** Returns false when the event could not be taken. */
+		boolean accept(String spotId, String eventId, int delta, long timestampMillis);
+	}
+
+	private SensorEventParser() {
+	}
+
+	/**
+	 * Returns how many events the sink took; stops at the first it refuses.
+	 */
+	static int readNdjson(InputStream body, Sink sink) throws IOException {
+		int count = 0;
+		try (JsonParser parser = JSON.createParser(body)) {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null) {
+				if (token != JsonToken.START_OBJECT) {
+					throw malformed(count, null);
+				}
+				String spotId = null;
+				String eventId = null;
+				int delta = 0;
+				long timestamp = 0;
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.currentName();
+					parser.nextToken();
+					switch (field) {
+					case "spotId" -> spotId = parser.getValueAsString();
+					case "eventId" -> eventId = parser.getValueAsString();
+					case "delta" -> delta = parser.getValueAsInt();
+					case "timestamp", "ts" -> timestamp = parser.getValueAsLong();
+					default -> parser.skipChildren();
+					}
+				}
+				if (!sink.accept(spotId, blankToNull(eventId), delta, timestamp)) {
+					return count;
+				}
+				count++;
+			}
+		} catch (JsonProcessingException e) {
+			throw malformed(count, e);
+		}
+		return count;
+	}
+
+	static int readBinary(InputStream body, Sink sink) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(body, 64 * 1024));
+		int count = 0;
+		try {
+			if (in.readUnsignedByte() != 'S' || in.readUnsignedByte() != 'E'
+					|| in.readUnsignedByte() != BINARY_VERSION) {
+				throw new CustomExceptions.ValidationBusinessException("body", "is not a version 1 sensor batch");
+			}
+			int expected = in.readInt();
+			byte[] objectId = new byte[12];
+			byte[] utf8 = new byte[255];
+			for (; count < expected; count++) {
+				int flags = in.readUnsignedByte();
+				String spotId;
+				if ((flags & ID_OBJECT_ID) != 0) {
+					in.readFully(objectId);
+					spotId = HEX.formatHex(objectId);
+				} else {
+					int length = in.readUnsignedByte();
+					in.readFully(utf8, 0, length);
+					spotId = new String(utf8, 0, length, StandardCharsets.UTF_8);
+				}
+				String eventId = null;
+				if ((flags & HAS_EVENT_ID) != 0) {
+					int length = in.readUnsignedByte();
+					in.readFully(utf8, 0, length);
+					eventId = blankToNull(new String(utf8, 0, length, StandardCharsets.UTF_8));
+				}
+				int delta = in.readShort();
+				long timestamp = in.readLong();
+				if (!sink.accept(spotId, eventId, delta, timestamp)) {
+					return count;
+				}
+			}
+		} catch (EOFException e) {
+			throw malformed(count, e);
+		}
+		return count;
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value;
+	}
+
+	private static CustomExceptions.ValidationBusinessException malformed(int accepted, Exception cause) {
+		return new CustomExceptions.ValidationBusinessException("body",
+				"is malformed after " + accepted + " events, which were accepted"
+						+ (cause != null ? " (" + cause.getMessage() + ")" : ""));
+	}
+}
@@ -0,0 +1,106 @@
+package com.park_karo.vehicle.ingest;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-allocated ring of {@link SensorEvent} slots with Disruptor-style
+ * sequencing.
+ *
+ * Producers claim sequence numbers with a CAS on one counter, fill the
+ * claimed slot and publish it by writing its lap number into a flag array,
+ * so concurrent producers never wait on each other's progress. Every other
+ * sequence has a single writer: each stage advances its own and reads the
+ * one before it. Producers wait only when the ring is full, that is when
+ * claiming would overwrite a slot the last stage hasn't passed.
+ */
+public final class SensorEventRing {
+
+	private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(int[].class);
+
+	private final SensorEvent[] slots;
+	private final int mask;
+	private final int indexShift;
+	// Lap number of the event published in each slot
+	private final int[] published;
+	private final Sequence claimed = new Sequence(-1);
+	private volatile Sequence gate = new Sequence(-1);
+
+	public SensorEventRing(int size) {
+		if (size < 2 || Integer.bitCount(size) != 1) {
+			throw new IllegalArgumentException("size must be a power of two");
+		}
+		this.slots = new SensorEvent[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = new SensorEvent();
+		}
+		this.mask = size - 1;
+		this.indexShift = Integer.numberOfTrailingZeros(size);
+		this.published = new int[size];
+		Arrays.fill(published, -1);
+	}
+
+	/**
+	 * Sequence of the last stage; claims never run more than a ring ahead of it.
+	 */
+	void gateOn(Sequence lastStage) {
+		this.gate = lastStage;
+	}
+
+	/**
+	 * Claims the next slot, waiting up to {@code timeoutNanos} for space.
+	 * Returns -1 on timeout.
+	 */
+	public long claim(long timeoutNanos) {
+		long deadline = 0;
+		while (true) {
+			long current = claimed.get();
+			long next = current + 1;
+			if (next - slots.length > gate.get()) {
+				long now = System.nanoTime();
+				if (deadline == 0) {
+					deadline = now + timeoutNanos;
+				} else if (now - deadline > 0) {
+					return -1;
+				}
+				LockSupport.parkNanos(1_000);
+				continue;
+			}
+			if (claimed.compareAndSet(current, next)) {
+				return next;
+			}
+		}
+	}
+
+	public SensorEvent get(long sequence) {
+		return slots[(int) sequence & mask];
+	}
+
+	public void publish(long sequence) {
+		PUBLISHED.setRelease(published, (int) sequence & mask, (int) (sequence >>> indexShift));
+	}
+
+	/**
+	 * Highest sequence from {@code from} on up to which every slot is
+	 * published, or {@code from - 1} if {@code from} itself isn't yet.
+	 */
+	long highestPublished(long from) {
+		long last = claimed.get();
+		for (long sequence = from; sequence <= last; sequence++) {
+			if ((int) PUBLISHED.getAcquire(published, (int) sequence & mask) != (int) (sequence >>> indexShift)) {
+				return sequence - 1;
+			}
+		}
+		return last;
+	}
+
+	public long getClaimed() {
+		return claimed.get();
+	}
+
+	public int size() {
+		return slots.length;
+	}
+}
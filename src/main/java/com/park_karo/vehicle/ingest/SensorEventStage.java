@@ -0,0 +1,93 @@
+package com.park_karo.vehicle.ingest;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One consumer of the {@link SensorEventRing}, running on its own thread. It
+ * handles every event the stage before it has passed (or, for the first
+ * stage, every published event) in sequence order, then advances its own
+ * sequence once per batch. An idle stage spins briefly, then yields, then
+ * parks.
+ */
+final class SensorEventStage implements Runnable {
+
+	private static final Logger logger = LoggerFactory.getLogger(SensorEventStage.class);
+
+	private static final int SPIN_TRIES = 100;
+	private static final int YIELD_TRIES = 200;
+	private static final long PARK_NANOS = 200_000;
+
+	@FunctionalInterface
+	interface Handler {
+		void onEvent(SensorEvent event, boolean endOfBatch);
+	}
+
+	private final String name;
+	private final SensorEventRing ring;
+	private final Sequence previous;
+	private final Handler handler;
+	private final Sequence sequence = new Sequence(-1);
+	private volatile boolean running = true;
+
+	/**
+	 * @param previous sequence of the stage before, or null for the first stage
+	 */
+	SensorEventStage(String name, SensorEventRing ring, Sequence previous, Handler handler) {
+		this.name = name;
+		this.ring = ring;
+		this.previous = previous;
+		this.handler = handler;
+	}
+
+	@Override
+	public void run() {
+		long next = sequence.get() + 1;
+		int idle = 0;
+		while (true) {
+			long available = previous == null ? ring.highestPublished(next) : previous.get();
+			if (available < next) {
+				if (!running) {
+					return;
+				}
+				if (++idle < SPIN_TRIES) {
+					Thread.onSpinWait();
+				} else if (idle < YIELD_TRIES) {
+					Thread.yield();
+				} else {
+					LockSupport.parkNanos(PARK_NANOS);
+				}
+				continue;
+			}
+			idle = 0;
+			for (long current = next; current <= available; current++) {
+				SensorEvent event = ring.get(current);
+				try {
+					handler.onEvent(event, current == available);
+				} catch (RuntimeException e) {
+					event.status = SensorEvent.INVALID;
+					logger.warn("Stage {} failed on event for spot {}: {}", name, event.spotId, e.getMessage());
+				}
+			}
+			sequence.lazySet(available);
+			next = available + 1;
+		}
+	}
+
+	/**
+	 * Lets the thread finish once nothing more is available to it.
+	 */
+	void halt() {
+		running = false;
+	}
+
+	Sequence getSequence() {
+		return sequence;
+	}
+
+	String getName() {
+		return name;
+	}
+}
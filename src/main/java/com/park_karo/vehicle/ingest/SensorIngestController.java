@@ -0,0 +1,85 @@
+package com.park_karo.vehicle.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/ingest")
+public class SensorIngestController {
+
+	private static final Logger logger = LoggerFactory.getLogger(SensorIngestController.class);
+
+	static final String NDJSON = "application/x-ndjson";
+
+	// The ring drains in well under a second once the burst passes
+	static final int RETRY_AFTER_SECONDS = 1;
+
+	private final SensorIngestPipeline sensorIngestPipeline;
+
+	public SensorIngestController(SensorIngestPipeline sensorIngestPipeline) {
+		this.sensorIngestPipeline = sensorIngestPipeline;
+	}
+
+	/**
+	 * Sensor events as newline-delimited JSON
+	 */
+	@PostMapping(value = "/sensor-events", consumes = NDJSON)
+	public ResponseEntity<Map<String, Object>> ingestNdjson(InputStream body) throws IOException {
+		RefusalTracker sink = new RefusalTracker();
+		return accepted(SensorEventParser.readNdjson(body, sink), sink);
+	}
+
+	/**
+	 * Sensor events as a compact binary batch; see {@link SensorEventParser}
+	 */
+	@PostMapping(value = "/sensor-events", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public ResponseEntity<Map<String, Object>> ingestBinary(InputStream body) throws IOException {
+		RefusalTracker sink = new RefusalTracker();
+		return accepted(SensorEventParser.readBinary(body, sink), sink);
+	}
+
+	@GetMapping("/stats")
+	public ResponseEntity<Map<String, Object>> getStats() {
+		return ResponseEntity.ok(sensorIngestPipeline.stats());
+	}
+
+	private ResponseEntity<Map<String, Object>> accepted(int count, RefusalTracker sink) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("accepted", count);
+		if (sink.refused) {
+			// The client waits, then resends from event number "accepted" onwards
+			logger.info("Sensor ingest saturated after {} events", count);
+			body.put("message", "Sensor ingest is saturated; resend the events after the first " + count);
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS)).body(body);
+		}
+		logger.debug("Ingested {} sensor events", count);
+		return ResponseEntity.status(HttpStatus.ACCEPTED).body(body);
+	}
+
+	private final class RefusalTracker implements SensorEventParser.Sink {
+		private boolean refused;
+
+		@Override
+		public boolean accept(String spotId, String eventId, int delta, long timestampMillis) {
+			if (!sensorIngestPipeline.publish(spotId, eventId, delta, timestampMillis)) {
+				refused = true;
+				return false;
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package com.park_karo.vehicle.ingest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.park_karo.vehicle.dedup.RotatingBloomFilter;
+import com.park_karo.vehicle.parkingspot.AvailabilityWriteBehind;
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.ParkingSpotCatalog;
+import com.park_karo.vehicle.parkingspot.SpotAvailabilityCounters;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Gate and loop-sensor events flowing through a {@link SensorEventRing} and
+ * four stages, each on its own thread and each seeing every event in order:
+ *
+ * <ol>
+ * <li>validate: the spot is in the catalog, the delta is plausible and the
+ * timestamp is neither in the future nor too old;</li>
+ * <li>dedup: drops resent events, recognised by the event id the sender
+ * gave them; events without one always pass. A {@link RotatingBloomFilter}
+ * over the window passes almost every new id straight on; only an id it may
+ * have seen is looked up in {@link RecentEventIds}, which holds every id of
+ * the same window exactly, and only a match there drops the event. A filter
+ * false positive costs a table lookup, never an event;</li>
+ * <li>apply: adds the delta to the spot's in-memory counter, clamped to its
+ * capacity;</li>
+ * <li>persist: queues the spot in the {@link AvailabilityWriteBehind}, which
+ * writes its latest value in the next bulk flush.</li>
+ * </ol>
+ *
+ * Slots, sequences and the dedup structures are allocated up front, and the
+ * stages allocate nothing per event; the spot id string a producer parses is
+ * the only per-event allocation.
+ */
+@Component
+public class SensorIngestPipeline {
+
+	private static final Logger logger = LoggerFactory.getLogger(SensorIngestPipeline.class);
+
+	static final int MAX_DELTA = 1_000;
+
+	private final ParkingSpotCatalog parkingSpotCatalog;
+	private final SpotAvailabilityCounters spotAvailabilityCounters;
+	private final AvailabilityWriteBehind availabilityWriteBehind;
+	private final long maxSkewMillis;
+	private final long maxAgeMillis;
+	private final long publishTimeoutNanos;
+
+	private final SensorEventRing ring;
+	// Only touched by the dedup thread; stats() reads them without locking, so their numbers are approximate
+	private final RotatingBloomFilter seen;
+	private final RecentEventIds recent;
+	private final List<SensorEventStage> stages;
+	private final Thread[] threads;
+
+	// Each written only by its stage's thread, published at the end of its batches
+	private volatile long invalid;
+	private volatile long duplicates;
+	private volatile long bloomFalsePositives;
+	private volatile long applied;
+	private final LongAdder timedOut = new LongAdder();
+
+	public SensorIngestPipeline(ParkingSpotCatalog parkingSpotCatalog,
+			SpotAvailabilityCounters spotAvailabilityCounters, AvailabilityWriteBehind availabilityWriteBehind,
+			@Value("${parking.ingest.ring-size:65536}") int ringSize,
+			@Value("${parking.ingest.dedup.max-ids:4194304}") int maxEventIds,
+			@Value("${parking.ingest.dedup.window-ms:300000}") long dedupWindowMillis,
+			@Value("${parking.ingest.dedup.bloom-memory-mb:64}") int bloomMemoryMb,
+			@Value("${parking.ingest.dedup.bloom-fpp:0.001}") double bloomFpp,
+			@Value("${parking.ingest.max-skew-ms:300000}") long maxSkewMillis,
+			@Value("${parking.ingest.max-age-ms:86400000}") long maxAgeMillis,
+			@Value("${parking.ingest.publish-timeout-ms:1000}") long publishTimeoutMillis) {
+		this.parkingSpotCatalog = parkingSpotCatalog;
+		this.spotAvailabilityCounters = spotAvailabilityCounters;
+		this.availabilityWriteBehind = availabilityWriteBehind;
+		this.maxSkewMillis = maxSkewMillis;
+		this.maxAgeMillis = maxAgeMillis;
+		this.publishTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(publishTimeoutMillis);
+		this.ring = new SensorEventRing(ringSize);
+		this.seen = new RotatingBloomFilter(bloomMemoryMb * 1024L * 1024L, RotatingBloomFilter.DEFAULT_GENERATIONS,
+				bloomFpp, dedupWindowMillis, System.currentTimeMillis());
+		// Holds ids for the whole window, at least as long as the filter remembers them
+		this.recent = new RecentEventIds(maxEventIds, dedupWindowMillis);
+
+		SensorEventStage validate = new SensorEventStage("validate", ring, null, new Validator());
+		SensorEventStage dedup = new SensorEventStage("dedup", ring, validate.getSequence(), new Deduplicator());
+		SensorEventStage apply = new SensorEventStage("apply", ring, dedup.getSequence(), new Applier());
+		SensorEventStage persist = new SensorEventStage("persist", ring, apply.getSequence(),
+				(event, endOfBatch) -> {
+					if (event.status == SensorEvent.OK) {
+						availabilityWriteBehind.enqueue(event.spotId);
+					}
+				});
+		ring.gateOn(persist.getSequence());
+		this.stages = List.of(validate, dedup, apply, persist);
+		this.threads = new Thread[stages.size()];
+	}
+
+	@PostConstruct
+	public void start() {
+		for (int i = 0; i < stages.size(); i++) {
+			threads[i] = new Thread(stages.get(i), "ingest-" + stages.get(i).getName());
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+	}
+
+	/**
+	 * Drains what is in the ring, stage by stage, before the write-behind
+	 * buffer flushes on its own shutdown.
+	 */
+	@PreDestroy
+	public void stop() {
+		for (int i = 0; i < stages.size(); i++) {
+			stages.get(i).halt();
+			try {
+				threads[i].join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		logger.info("Sensor ingest pipeline stopped at sequence {}", stages.get(stages.size() - 1).getSequence().get());
+	}
+
+	/**
+	 * Puts one event into the ring; false if the ring stayed full for the
+	 * publish timeout. A timestamp of 0 means now; a null event id means the
+	 * event is never taken for a resend.
+	 */
+	public boolean publish(String spotId, String eventId, int delta, long timestampMillis) {
+		long sequence = ring.claim(publishTimeoutNanos);
+		if (sequence < 0) {
+			timedOut.increment();
+			return false;
+		}
+		ring.get(sequence).set(spotId, eventId, delta,
+				timestampMillis > 0 ? timestampMillis : System.currentTimeMillis());
+		ring.publish(sequence);
+		return true;
+	}
+
+	/**
+	 * Waits until every published event has passed the last stage; for tests
+	 * and shutdown.
+	 */
+	boolean awaitDrained(long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		Sequence last = stages.get(stages.size() - 1).getSequence();
+		while (last.get() < ring.getClaimed()) {
+			if (System.currentTimeMillis() > deadline) {
+				return false;
+			}
+			LockSupport.parkNanos(100_000);
+		}
+		return true;
+	}
+
+	// ============ STAGES ============
+
+	private final class Validator implements SensorEventStage.Handler {
+		private long count;
+
+		@Override
+		public void onEvent(SensorEvent event, boolean endOfBatch) {
+			ParkingSpot spot = event.spotId != null ? parkingSpotCatalog.get(event.spotId) : null;
+			long now = System.currentTimeMillis();
+			if (spot == null || event.delta == 0 || Math.abs(event.delta) > MAX_DELTA
+					|| event.timestampMillis > now + maxSkewMillis || event.timestampMillis < now - maxAgeMillis) {
+				event.status = SensorEvent.INVALID;
+				count++;
+			} else {
+				event.spot = spot;
+			}
+			if (endOfBatch) {
+				invalid = count;
+			}
+		}
+	}
+
+	private final class Deduplicator implements SensorEventStage.Handler {
+		private long count;
+		private long falsePositives;
+
+		@Override
+		public void onEvent(SensorEvent event, boolean endOfBatch) {
+			if (event.status == SensorEvent.OK && event.eventId != null) {
+				long fingerprint = fingerprint(event.spotId, event.eventId);
+				if (!seen.mightContain(fingerprint)) {
+					seen.put(fingerprint);
+					recent.add(fingerprint, System.currentTimeMillis());
+				} else if (recent.contains(fingerprint)) {
+					event.status = SensorEvent.DUPLICATE;
+					count++;
+				} else {
+					falsePositives++;
+					recent.add(fingerprint, System.currentTimeMillis());
+				}
+			}
+			if (endOfBatch) {
+				long now = System.currentTimeMillis();
+				seen.rotateIfDue(now);
+				recent.expire(now);
+				duplicates = count;
+				bloomFalsePositives = falsePositives;
+			}
+		}
+	}
+
+	private final class Applier implements SensorEventStage.Handler {
+		private long count;
+
+		@Override
+		public void onEvent(SensorEvent event, boolean endOfBatch) {
+			if (event.status == SensorEvent.OK) {
+				ParkingSpot spot = event.spot;
+				int capacity = spot.getTotalSpaces() > 0 ? spot.getTotalSpaces() : Integer.MAX_VALUE;
+				if (spotAvailabilityCounters.adjust(event.spotId, event.delta, capacity) < 0) {
+					event.status = SensorEvent.INVALID;
+				} else {
+					count++;
+				}
+			}
+			if (endOfBatch) {
+				applied = count;
+			}
+		}
+	}
+
+	// The event id's hash with the spot's mixed in, as ids need only be unique per spot; never 0
+	static long fingerprint(String spotId, String eventId) {
+		long hash = RotatingBloomFilter.hash(eventId);
+		hash ^= RotatingBloomFilter.hash(spotId) * 0x9e3779b97f4a7c15L;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		return hash != 0 ? hash : 1;
+	}
+
+	public Map<String, Object> stats() {
+		long published = ring.getClaimed() + 1;
+		long passed = stages.get(stages.size() - 1).getSequence().get() + 1;
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("published", published);
+		stats.put("inFlight", published - passed);
+		stats.put("ringSize", ring.size());
+		stats.put("invalid", invalid);
+		stats.put("duplicates", duplicates);
+		stats.put("bloomFalsePositives", bloomFalsePositives);
+		stats.put("dedupFilter", seen.stats());
+		stats.put("recentEventIds", recent.size());
+		// Ids that left the table before the window ended; nonzero means max-ids is too small for the rate
+		stats.put("eventIdsEvictedEarly", recent.evictedEarly());
+		stats.put("applied", applied);
+		stats.put("refusedRingFull", timedOut.sum());
+		Map<String, Long> stageSequences = new LinkedHashMap<>();
+		stages.forEach(stage -> stageSequences.put(stage.getName(), stage.getSequence().get()));
+		stats.put("stageSequences", stageSequences);
+		return stats;
+	}
+}
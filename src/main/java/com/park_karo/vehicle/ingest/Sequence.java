@@ -0,0 +1,19 @@
+package com.park_karo.vehicle.ingest;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Position of a producer or stage in the ring. Padded so sequences written by
+ * different threads never share a cache line.
+ */
+final class Sequence extends AtomicLong {
+
+	private static final long serialVersionUID = 1L;
+
+	@SuppressWarnings("unused")
+	private long p1, p2, p3, p4, p5, p6, p7;
+
+	Sequence(long initial) {
+		super(initial);
+	}
+}
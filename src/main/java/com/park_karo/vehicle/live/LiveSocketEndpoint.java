@@ -0,0 +1,38 @@
+package com.park_karo.vehicle.live;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+
+/**
+ * One instance per WebSocket connection; hands everything to the
+ * {@link LiveSocketHub}.
+ */
+public class LiveSocketEndpoint extends Endpoint {
+
+	public static final String PATH = "/api/v1/parkingspots/live";
+
+	private final LiveSocketHub hub;
+
+	public LiveSocketEndpoint(LiveSocketHub hub) {
+		this.hub = hub;
+	}
+
+	@Override
+	public void onOpen(Session session, EndpointConfig config) {
+		session.addMessageHandler(String.class, (MessageHandler.Whole<String>) message -> hub.onMessage(session, message));
+		hub.open(session);
+	}
+
+	@Override
+	public void onClose(Session session, CloseReason closeReason) {
+		hub.close(session);
+	}
+
+	@Override
+	public void onError(Session session, Throwable error) {
+		hub.close(session);
+	}
+}
@@ -0,0 +1,314 @@
+package com.park_karo.vehicle.live;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.park_karo.vehicle.exception.CustomExceptions;
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.ParkingSpotCatalog;
+import com.park_karo.vehicle.parkingspot.SpotGridIndex;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+
+/**
+ * Fan-out behind the live WebSocket channel. Each session follows a set of
+ * spot ids and zones and receives one binary {@link SpotDeltaCodec} frame per
+ * {@link SpotDeltaFeed} tick with the changes among them.
+ *
+ * Every session keeps a map of pending deltas keyed by spot id and has at
+ * most one frame in flight, sent with the container's asynchronous API. While
+ * a frame is in flight, newer changes overwrite older ones in the map, so a
+ * slow client skips intermediate states and catches up with the latest one;
+ * what waits per session is bounded by what it follows, not by how much
+ * changed. A session whose frame has been in flight longer than
+ * {@code parking.live.ws.stall-ms} is closed.
+ */
+@Component
+public class LiveSocketHub {
+
+	private static final Logger logger = LoggerFactory.getLogger(LiveSocketHub.class);
+
+	static final int MAX_SPOT_IDS = 10_000;
+	static final int MAX_ZONES = 16;
+
+	private final ParkingSpotCatalog parkingSpotCatalog;
+	private final SpotGridIndex spotGridIndex;
+	private final ObjectMapper objectMapper;
+	private final int maxSessions;
+	private final long stallMillis;
+
+	private final Map<String, Subscriber> sessions = new ConcurrentHashMap<>();
+	private final Map<String, Set<Subscriber>> bySpotId = new ConcurrentHashMap<>();
+	private final ViewportSubscriptionIndex<Subscriber> byZone;
+
+	private final LongAdder framesSent = new LongAdder();
+	private final LongAdder bytesSent = new LongAdder();
+	private final LongAdder slowClosed = new LongAdder();
+
+	final class Subscriber {
+		private final Session session;
+		private Set<String> spotIds = Set.of();
+		private List<ViewportSubscriptionIndex.Entry<Subscriber>> zones = List.of();
+		private final Map<String, SpotDelta> pending = new LinkedHashMap<>();
+		private boolean inFlight;
+		private long inFlightSince;
+		private boolean closed;
+
+		private Subscriber(Session session) {
+			this.session = session;
+		}
+	}
+
+	public LiveSocketHub(ParkingSpotCatalog parkingSpotCatalog, SpotGridIndex spotGridIndex,
+			ObjectMapper objectMapper, @Value("${parking.live.ws.max-sessions:20000}") int maxSessions,
+			@Value("${parking.live.ws.stall-ms:10000}") long stallMillis,
+			@Value("${parking.live.cell-deg:0.01}") double cellDeg,
+			@Value("${parking.live.max-viewport-cells:4096}") int maxZoneCells) {
+		this.parkingSpotCatalog = parkingSpotCatalog;
+		this.spotGridIndex = spotGridIndex;
+		this.objectMapper = objectMapper;
+		this.maxSessions = maxSessions;
+		this.stallMillis = stallMillis;
+		this.byZone = new ViewportSubscriptionIndex<>(cellDeg, maxZoneCells);
+	}
+
+	// ============ SESSIONS ============
+
+	void open(Session session) {
+		if (sessions.size() >= maxSessions) {
+			closeAsync(session, new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too many live sessions"));
+			return;
+		}
+		sessions.put(session.getId(), new Subscriber(session));
+	}
+
+	void close(Session session) {
+		Subscriber subscriber = sessions.remove(session.getId());
+		if (subscriber != null) {
+			synchronized (subscriber) {
+				subscriber.closed = true;
+				unregister(subscriber);
+				subscriber.pending.clear();
+			}
+		}
+	}
+
+	/**
+	 * Replaces the session's subscription with the one in {@code message} and
+	 * sends the current state of everything it now follows.
+	 */
+	void onMessage(Session session, String message) {
+		Subscriber subscriber = sessions.get(session.getId());
+		if (subscriber == null) {
+			return;
+		}
+		try {
+			LiveSubscriptionRequest request = objectMapper.readValue(message, LiveSubscriptionRequest.class);
+			subscribe(subscriber, request);
+		} catch (IOException | CustomExceptions.ValidationBusinessException e) {
+			String reason = e instanceof IOException ? "Malformed subscription" : e.getMessage();
+			closeAsync(session, new CloseReason(CloseReason.CloseCodes.CANNOT_ACCEPT, truncate(reason)));
+			return;
+		}
+		flush(subscriber, System.currentTimeMillis());
+	}
+
+	private void subscribe(Subscriber subscriber, LiveSubscriptionRequest request) {
+		Set<String> spotIds = request.getSpotIds() != null ? new HashSet<>(request.getSpotIds()) : Set.of();
+		List<LiveSubscriptionRequest.Zone> zones = request.getZones() != null ? request.getZones() : List.of();
+		if (spotIds.size() > MAX_SPOT_IDS) {
+			throw new CustomExceptions.ValidationBusinessException("spotIds", "must have at most " + MAX_SPOT_IDS);
+		}
+		if (zones.size() > MAX_ZONES) {
+			throw new CustomExceptions.ValidationBusinessException("zones", "must have at most " + MAX_ZONES);
+		}
+		List<Viewport> viewports = zones.stream().map(LiveSubscriptionRequest.Zone::toViewport).toList();
+
+		synchronized (subscriber) {
+			if (subscriber.closed) {
+				return;
+			}
+			unregister(subscriber);
+			List<ViewportSubscriptionIndex.Entry<Subscriber>> entries = new ArrayList<>(viewports.size());
+			try {
+				for (Viewport viewport : viewports) {
+					entries.add(byZone.add(subscriber, viewport));
+				}
+			} catch (RuntimeException e) {
+				entries.forEach(byZone::remove);
+				throw e;
+			}
+			subscriber.zones = entries;
+			subscriber.spotIds = spotIds;
+			// Added inside compute, so unregister can't drop the set between lookup and add
+			for (String id : spotIds) {
+				bySpotId.compute(id, (key, followers) -> {
+					Set<Subscriber> set = followers != null ? followers : ConcurrentHashMap.newKeySet();
+					set.add(subscriber);
+					return set;
+				});
+			}
+
+			// Current state first, so the screen doesn't wait for the next change
+			subscriber.pending.clear();
+			for (String id : spotIds) {
+				ParkingSpot spot = parkingSpotCatalog.get(id);
+				if (spot != null) {
+					subscriber.pending.put(id, deltaOf(spot));
+				}
+			}
+			for (Viewport viewport : viewports) {
+				spotGridIndex.forEachCandidateInBox(viewport.getMinLat(), viewport.getMinLon(), viewport.getMaxLat(),
+						viewport.getMaxLon(), spot -> {
+							if (viewport.contains(spot.getLatitude(), spot.getLongitude())) {
+								subscriber.pending.put(spot.getId(), deltaOf(spot));
+							}
+						});
+			}
+		}
+	}
+
+	private void unregister(Subscriber subscriber) {
+		for (String id : subscriber.spotIds) {
+			bySpotId.computeIfPresent(id, (key, followers) -> {
+				followers.remove(subscriber);
+				return followers.isEmpty() ? null : followers;
+			});
+		}
+		subscriber.zones.forEach(byZone::remove);
+		subscriber.spotIds = Set.of();
+		subscriber.zones = List.of();
+	}
+
+	private static SpotDelta deltaOf(ParkingSpot spot) {
+		return new SpotDelta(spot.getId(), spot.getLatitude(), spot.getLongitude(), spot.getAvailableSpaces(),
+				spot.getHourlyRate(), false);
+	}
+
+	// ============ FAN-OUT ============
+
+	@EventListener
+	public void onDeltaBatch(SpotDeltaBatch batch) {
+		if (sessions.isEmpty()) {
+			return;
+		}
+		Set<Subscriber> touched = new HashSet<>();
+		for (SpotDelta delta : batch.getDeltas()) {
+			Set<Subscriber> followers = bySpotId.get(delta.getId());
+			if (followers != null) {
+				for (Subscriber subscriber : followers) {
+					queue(subscriber, delta);
+					touched.add(subscriber);
+				}
+			}
+			byZone.forEachContaining(delta.getLatitude(), delta.getLongitude(), subscriber -> {
+				queue(subscriber, delta);
+				touched.add(subscriber);
+			});
+		}
+		long now = System.currentTimeMillis();
+		for (Subscriber subscriber : touched) {
+			flush(subscriber, now);
+		}
+	}
+
+	private static void queue(Subscriber subscriber, SpotDelta delta) {
+		synchronized (subscriber) {
+			if (!subscriber.closed) {
+				subscriber.pending.put(delta.getId(), delta);
+			}
+		}
+	}
+
+	/**
+	 * Sends the pending deltas as one frame unless a frame is still in flight;
+	 * then they keep coalescing until it completes.
+	 */
+	private void flush(Subscriber subscriber, long now) {
+		ByteBuffer frame;
+		synchronized (subscriber) {
+			if (subscriber.closed || subscriber.pending.isEmpty()) {
+				return;
+			}
+			if (subscriber.inFlight) {
+				if (now - subscriber.inFlightSince > stallMillis) {
+					slowClosed.increment();
+					closeAsync(subscriber.session,
+							new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too slow to keep up"));
+				}
+				return;
+			}
+			frame = SpotDeltaCodec.encode(subscriber.pending.values());
+			subscriber.pending.clear();
+			subscriber.inFlight = true;
+			subscriber.inFlightSince = now;
+		}
+		int bytes = frame.remaining();
+		try {
+			subscriber.session.getAsyncRemote().sendBinary(frame, result -> {
+				boolean more;
+				synchronized (subscriber) {
+					subscriber.inFlight = false;
+					more = !subscriber.pending.isEmpty() && !subscriber.closed;
+				}
+				if (!result.isOK()) {
+					close(subscriber.session);
+					return;
+				}
+				framesSent.increment();
+				bytesSent.add(bytes);
+				if (more) {
+					// Straight on with what coalesced meanwhile, rather than waiting for the next tick
+					flush(subscriber, System.currentTimeMillis());
+				}
+			});
+		} catch (RuntimeException e) {
+			// Session closed underneath us
+			close(subscriber.session);
+		}
+	}
+
+	// Closing writes a frame, which can block on a stuck connection
+	private void closeAsync(Session session, CloseReason reason) {
+		CompletableFuture.runAsync(() -> {
+			try {
+				session.close(reason);
+			} catch (IOException e) {
+				logger.debug("Closing live session {} failed: {}", session.getId(), e.getMessage());
+			}
+		});
+	}
+
+	private static String truncate(String reason) {
+		// Close reasons are limited to 123 bytes
+		return reason == null ? "" : reason.length() > 100 ? reason.substring(0, 100) : reason;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("sessions", sessions.size());
+		stats.put("followedSpots", bySpotId.size());
+		stats.put("followedZones", byZone.size());
+		stats.put("framesSent", framesSent.sum());
+		stats.put("bytesSent", bytesSent.sum());
+		stats.put("slowSessionsClosed", slowClosed.sum());
+		return stats;
+	}
+}
@@ -0,0 +1,51 @@
+package com.park_karo.vehicle.live;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/live")
+public class LiveSpotController {
+
+	private static final Logger logger = LoggerFactory.getLogger(LiveSpotController.class);
+
+	private final ViewportSseBroadcaster viewportSseBroadcaster;
+	private final SpotDeltaFeed spotDeltaFeed;
+	private final LiveSocketHub liveSocketHub;
+
+	public LiveSpotController(ViewportSseBroadcaster viewportSseBroadcaster, SpotDeltaFeed spotDeltaFeed,
+			LiveSocketHub liveSocketHub) {
+		this.viewportSseBroadcaster = viewportSseBroadcaster;
+		this.spotDeltaFeed = spotDeltaFeed;
+		this.liveSocketHub = liveSocketHub;
+	}
+
+	/**
+	 * Stream of availability and rate changes for spots inside the bounding box
+	 */
+	@GetMapping(value = "/spots", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamViewport(@RequestParam double minLat, @RequestParam double minLon,
+			@RequestParam double maxLat, @RequestParam double maxLon) {
+		Viewport viewport = new Viewport(minLat, minLon, maxLat, maxLon);
+		logger.info("streamViewport called: viewport={}", viewport);
+		return viewportSseBroadcaster.subscribe(viewport);
+	}
+
+	@GetMapping("/stats")
+	public ResponseEntity<Map<String, Object>> getStats() {
+		Map<String, Object> stats = new java.util.HashMap<>(viewportSseBroadcaster.stats());
+		stats.put("trackedSpots", spotDeltaFeed.trackedSpots());
+		stats.put("websocket", liveSocketHub.stats());
+		stats.put("timestamp", java.time.Instant.now().toString());
+		return ResponseEntity.ok(stats);
+	}
+}
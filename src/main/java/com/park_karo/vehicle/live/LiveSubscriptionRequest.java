@@ -0,0 +1,75 @@
+package com.park_karo.vehicle.live;
+
+import java.util.List;
+
+/**
+ * Text message a WebSocket client sends to choose what it follows; each
+ * message replaces the previous subscription.
+ */
+public class LiveSubscriptionRequest {
+
+	private List<String> spotIds;
+	private List<Zone> zones;
+
+	/**
+	 * Bounding box of a parking zone.
+	 */
+	public static class Zone {
+		private double minLat;
+		private double minLon;
+		private double maxLat;
+		private double maxLon;
+
+		public double getMinLat() {
+			return minLat;
+		}
+
+		public void setMinLat(double minLat) {
+			this.minLat = minLat;
+		}
+
+		public double getMinLon() {
+			return minLon;
+		}
+
+		public void setMinLon(double minLon) {
+			this.minLon = minLon;
+		}
+
+		public double getMaxLat() {
+			return maxLat;
+		}
+
+		public void setMaxLat(double maxLat) {
+			this.maxLat = maxLat;
+		}
+
+		public double getMaxLon() {
+			return maxLon;
+		}
+
+		public void setMaxLon(double maxLon) {
+			this.maxLon = maxLon;
+		}
+
+		Viewport toViewport() {
+			return new Viewport(minLat, minLon, maxLat, maxLon);
+		}
+	}
+
+	public List<String> getSpotIds() {
+		return spotIds;
+	}
+
+	public void setSpotIds(List<String> spotIds) {
+		this.spotIds = spotIds;
+	}
+
+	public List<Zone> getZones() {
+		return zones;
+	}
+
+	public void setZones(List<Zone> zones) {
+		this.zones = zones;
+	}
+}
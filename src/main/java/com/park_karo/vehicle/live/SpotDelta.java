@@ -0,0 +1,58 @@
+package com.park_karo.vehicle.live;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Change of one spot as pushed to live subscribers: its new free spaces and
+ * rate, or {@code removed} when it left the catalog. The position is only
+ * used to route the change to viewports.
+ */
+@JsonInclude(JsonInclude.Include.NON_DEFAULT)
+public class SpotDelta {
+
+	private final String id;
+	private final double latitude;
+	private final double longitude;
+	private final int availableSpaces;
+	private final double hourlyRate;
+	private final boolean removed;
+
+	public SpotDelta(String id, double latitude, double longitude, int availableSpaces, double hourlyRate,
+			boolean removed) {
+		this.id = id;
+		this.latitude = latitude;
+		this.longitude = longitude;
+		this.availableSpaces = availableSpaces;
+		this.hourlyRate = hourlyRate;
+		this.removed = removed;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	@JsonIgnore
+	public double getLatitude() {
+		return latitude;
+	}
+
+	@JsonIgnore
+	public double getLongitude() {
+		return longitude;
+	}
+
+	@JsonInclude(JsonInclude.Include.ALWAYS)
+	public int getAvailableSpaces() {
+		return availableSpaces;
+	}
+
+	@JsonInclude(JsonInclude.Include.ALWAYS)
+	public double getHourlyRate() {
+		return hourlyRate;
+	}
+
+	public boolean isRemoved() {
+		return removed;
+	}
+}
@@ -0,0 +1,20 @@
+package com.park_karo.vehicle.live;
+
+import java.util.List;
+
+/**
+ * Published by {@link SpotDeltaFeed} once per tick with the coalesced changes
+ * since the previous tick, at most one per spot.
+ */
+public class SpotDeltaBatch {
+
+	private final List<SpotDelta> deltas;
+
+	public SpotDeltaBatch(List<SpotDelta> deltas) {
+		this.deltas = deltas;
+	}
+
+	public List<SpotDelta> getDeltas() {
+		return deltas;
+	}
+}
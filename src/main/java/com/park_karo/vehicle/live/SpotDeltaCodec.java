@@ -0,0 +1,110 @@
+package com.park_karo.vehicle.live;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Binary frame format of the live WebSocket channel, big-endian:
+ *
+ * <pre>
+ * frame := version:u8 (=1) count:u32 delta*count
+ * delta := flags:u8 id available:i32 hourlyRate:f32
+ * id    := 12 bytes                    if flags &amp; ID_OBJECT_ID
+ *        | length:u8 utf8[length]      otherwise
+ * </pre>
+ *
+ * Flag {@link #REMOVED} marks a spot that left the catalog. MongoDB ids,
+ * 24 hex characters as strings, are sent as their 12 raw bytes, so a delta is
+ * 21 bytes against roughly 70 as JSON.
+ */
+public final class SpotDeltaCodec {
+
+	public static final byte VERSION = 1;
+	public static final int REMOVED = 1;
+	public static final int ID_OBJECT_ID = 2;
+
+	private static final HexFormat HEX = HexFormat.of();
+
+	private SpotDeltaCodec() {
+	}
+
+	public static ByteBuffer encode(Collection<SpotDelta> deltas) {
+		int size = 5;
+		for (SpotDelta delta : deltas) {
+			size += 1 + idLength(delta.getId()) + 8;
+		}
+		ByteBuffer frame = ByteBuffer.allocate(size);
+		frame.put(VERSION);
+		frame.putInt(deltas.size());
+		for (SpotDelta delta : deltas) {
+			String id = delta.getId();
+			boolean objectId = isObjectId(id);
+			frame.put((byte) ((delta.isRemoved() ? REMOVED : 0) | (objectId ? ID_OBJECT_ID : 0)));
+			if (objectId) {
+				frame.put(HEX.parseHex(id));
+			} else {
+				byte[] utf8 = id.getBytes(StandardCharsets.UTF_8);
+				frame.put((byte) utf8.length);
+				frame.put(utf8);
+			}
+			frame.putInt(delta.getAvailableSpaces());
+			frame.putFloat((float) delta.getHourlyRate());
+		}
+		return frame.flip();
+	}
+
+	/**
+	 * Reads a frame back; positions are not part of the format and come back as 0.
+	 */
+	public static List<SpotDelta> decode(ByteBuffer frame) {
+		if (frame.get() != VERSION) {
+			throw new IllegalArgumentException("Unsupported frame version");
+		}
+		int count = frame.getInt();
+		List<SpotDelta> deltas = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			int flags = frame.get();
+			String id;
+			if ((flags & ID_OBJECT_ID) != 0) {
+				byte[] raw = new byte[12];
+				frame.get(raw);
+				id = HEX.formatHex(raw);
+			} else {
+				byte[] utf8 = new byte[frame.get() & 0xff];
+				frame.get(utf8);
+				id = new String(utf8, StandardCharsets.UTF_8);
+			}
+			deltas.add(new SpotDelta(id, 0, 0, frame.getInt(), frame.getFloat(), (flags & REMOVED) != 0));
+		}
+		return deltas;
+	}
+
+	private static int idLength(String id) {
+		if (isObjectId(id)) {
+			return 12;
+		}
+		int length = id.getBytes(StandardCharsets.UTF_8).length;
+		if (length > 255) {
+			throw new IllegalArgumentException("Spot id longer than 255 bytes: " + id);
+		}
+		return 1 + length;
+	}
+
+	// Lower-case only, so decoding gives back the same string
+	private static boolean isObjectId(String id) {
+		if (id.length() != 24) {
+			return false;
+		}
+		for (int i = 0; i < 24; i++) {
+			char c = id.charAt(i);
+			if (!(c >= '0' && c <= '9') && !(c >= 'a' && c <= 'f')) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,114 @@
+package com.park_karo.vehicle.live;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.SpotCatalogChangedEvent;
+
+/**
+ * Turns catalog changes into per-spot deltas of what live clients show: free
+ * spaces and rate.
+ *
+ * Each spot's last published state is remembered, so a reload or a rewrite
+ * that leaves both unchanged produces nothing. Changes wait in a map keyed by
+ * spot id until the next tick, so a spot updated many times within a tick is
+ * sent once with its latest values, and the tick publishes them all as one
+ * {@link SpotDeltaBatch}.
+ */
+@Component
+public class SpotDeltaFeed {
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	// Catalog events arrive one at a time under the catalog's lock
+	private final Map<String, SpotDelta> published = new HashMap<>();
+	private final Map<String, SpotDelta> pending = new ConcurrentHashMap<>();
+	private boolean seeded;
+
+	public SpotDeltaFeed(ApplicationEventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+	}
+
+	@EventListener
+	public void onCatalogChanged(SpotCatalogChangedEvent event) {
+		synchronized (published) {
+			// Seeding from the first load is not a change anyone is waiting for
+			boolean notify = seeded || !event.isReload();
+			if (event.isReload()) {
+				Set<String> gone = new HashSet<>(published.keySet());
+				event.getUpserted().forEach(spot -> gone.remove(spot.getId()));
+				gone.forEach(this::removed);
+				seeded = true;
+			}
+			event.getUpserted().forEach(spot -> changed(spot, notify));
+			event.getRemovedIds().forEach(this::removed);
+		}
+	}
+
+	private void changed(ParkingSpot spot, boolean notify) {
+		if (spot.getId() == null) {
+			return;
+		}
+		SpotDelta previous = published.get(spot.getId());
+		if (previous != null && previous.getAvailableSpaces() == spot.getAvailableSpaces()
+				&& previous.getHourlyRate() == spot.getHourlyRate() && previous.getLatitude() == spot.getLatitude()
+				&& previous.getLongitude() == spot.getLongitude()) {
+			return;
+		}
+		SpotDelta delta = new SpotDelta(spot.getId(), spot.getLatitude(), spot.getLongitude(),
+				spot.getAvailableSpaces(), spot.getHourlyRate(), false);
+		published.put(spot.getId(), delta);
+		if (notify) {
+			pending.put(spot.getId(), delta);
+		}
+	}
+
+	private void removed(String spotId) {
+		SpotDelta previous = published.remove(spotId);
+		if (previous != null) {
+			pending.put(spotId, new SpotDelta(spotId, previous.getLatitude(), previous.getLongitude(), 0, 0, true));
+		}
+	}
+
+	/**
+	 * Publishes the changes gathered since the last tick.
+	 */
+	@Scheduled(fixedRateString = "${parking.live.tick-ms:250}")
+	public void tick() {
+		List<SpotDelta> batch = drain();
+		if (!batch.isEmpty()) {
+			eventPublisher.publishEvent(new SpotDeltaBatch(batch));
+		}
+	}
+
+	List<SpotDelta> drain() {
+		if (pending.isEmpty()) {
+			return List.of();
+		}
+		List<SpotDelta> batch = new ArrayList<>(pending.size());
+		for (Map.Entry<String, SpotDelta> entry : pending.entrySet()) {
+			// A newer value put meanwhile stays for the next tick
+			if (pending.remove(entry.getKey(), entry.getValue())) {
+				batch.add(entry.getValue());
+			}
+		}
+		return batch;
+	}
+
+	public int trackedSpots() {
+		synchronized (published) {
+			return published.size();
+		}
+	}
+}
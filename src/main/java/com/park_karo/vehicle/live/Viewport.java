@@ -0,0 +1,52 @@
+package com.park_karo.vehicle.live;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+/**
+ * Bounding box a live subscriber is looking at, edges included.
+ */
+public final class Viewport {
+
+	private final double minLat;
+	private final double minLon;
+	private final double maxLat;
+	private final double maxLon;
+
+	public Viewport(double minLat, double minLon, double maxLat, double maxLon) {
+		if (minLat < -90 || maxLat > 90 || minLon < -180 || maxLon > 180) {
+			throw new CustomExceptions.ValidationBusinessException("viewport", "must lie within valid coordinates");
+		}
+		if (minLat > maxLat || minLon > maxLon) {
+			throw new CustomExceptions.ValidationBusinessException("viewport", "min corner must not exceed max corner");
+		}
+		this.minLat = minLat;
+		this.minLon = minLon;
+		this.maxLat = maxLat;
+		this.maxLon = maxLon;
+	}
+
+	public boolean contains(double lat, double lon) {
+		return lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon;
+	}
+
+	public double getMinLat() {
+		return minLat;
+	}
+
+	public double getMinLon() {
+		return minLon;
+	}
+
+	public double getMaxLat() {
+		return maxLat;
+	}
+
+	public double getMaxLon() {
+		return maxLon;
+	}
+
+	@Override
+	public String toString() {
+		return "[" + minLat + "," + minLon + " - " + maxLat + "," + maxLon + "]";
+	}
+}
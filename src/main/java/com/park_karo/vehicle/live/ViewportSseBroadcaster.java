@@ -0,0 +1,257 @@
+package com.park_karo.vehicle.live;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-Sent Events for live availability: each subscriber follows one
+ * viewport and receives, once per {@link SpotDeltaFeed} tick, a single
+ * {@code deltas} event with the changes inside it.
+ *
+ * Subscribers sit in a {@link ViewportSubscriptionIndex}, so routing a tick
+ * costs one cell lookup per changed spot rather than a pass over every
+ * connection, and a client far from the changes costs nothing. Writes go out
+ * on a small pool of their own, so a slow client never holds up the scheduler
+ * that drives the feed; a write that fails drops the subscriber.
+ *
+ * As in {@link LiveSocketHub}, every subscriber keeps its pending deltas keyed
+ * by spot id and has at most one write queued or running. Changes that arrive
+ * meanwhile overwrite older ones for the same spot, and when the write
+ * finishes the subscriber queues again behind the others, so events reach a
+ * client in order and one slow client holds at most one sender thread. A
+ * subscriber whose write has been running longer than
+ * {@code parking.live.stall-ms} is dropped.
+ */
+@Component
+public class ViewportSseBroadcaster {
+
+	private static final Logger logger = LoggerFactory.getLogger(ViewportSseBroadcaster.class);
+
+	private final ViewportSubscriptionIndex<Subscriber> index;
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final ExecutorService sender;
+	private final int maxSubscribers;
+	private final long timeoutMillis;
+	private final long stallMillis;
+
+	private final LongAdder eventsSent = new LongAdder();
+	private final LongAdder deltasSent = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder stalledClosed = new LongAdder();
+
+	private final class Subscriber {
+		private final SseEmitter emitter;
+		private ViewportSubscriptionIndex.Entry<Subscriber> entry;
+		// Guarded by this
+		private final Map<String, SpotDelta> pending = new LinkedHashMap<>();
+		private boolean keepAliveDue;
+		private boolean inFlight;
+		private long inFlightSince;
+		private boolean closed;
+
+		private Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		private boolean send(SseEmitter.SseEventBuilder event) {
+			try {
+				emitter.send(event);
+				return true;
+			} catch (IOException | IllegalStateException e) {
+				// Client went away; the completion callback unregisters it
+				emitter.completeWithError(e);
+				close();
+				return false;
+			}
+		}
+
+		private void close() {
+			synchronized (this) {
+				closed = true;
+				pending.clear();
+			}
+			if (subscribers.remove(this)) {
+				index.remove(entry);
+			}
+		}
+	}
+
+	public ViewportSseBroadcaster(@Value("${parking.live.cell-deg:0.01}") double cellDeg,
+			@Value("${parking.live.max-viewport-cells:4096}") int maxViewportCells,
+			@Value("${parking.live.max-subscribers:100000}") int maxSubscribers,
+			@Value("${parking.live.timeout-ms:1800000}") long timeoutMillis,
+			@Value("${parking.live.stall-ms:10000}") long stallMillis,
+			@Value("${parking.live.send-threads:4}") int sendThreads,
+			@Value("${parking.live.send-queue:200000}") int sendQueue) {
+		this.index = new ViewportSubscriptionIndex<>(cellDeg, maxViewportCells);
+		this.maxSubscribers = maxSubscribers;
+		this.timeoutMillis = timeoutMillis;
+		this.stallMillis = stallMillis;
+		AtomicInteger threadCount = new AtomicInteger();
+		// Holds at most one write per subscriber; bounded anyway in case the limits disagree
+		this.sender = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(sendQueue), runnable -> {
+					Thread thread = new Thread(runnable, "live-sse-" + threadCount.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	public SseEmitter subscribe(Viewport viewport) {
+		if (subscribers.size() >= maxSubscribers) {
+			// Shedding load, not a conflict with the viewport
+			throw new CustomExceptions.RateLimitExceededBusinessException(
+					"Live updates are at their subscriber limit; try again later");
+		}
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber = new Subscriber(emitter);
+		emitter.onCompletion(subscriber::close);
+		emitter.onTimeout(subscriber::close);
+		emitter.onError(e -> subscriber.close());
+		// Sent before the subscriber is routed to, so it always comes first
+		if (!subscriber.send(SseEmitter.event().name("subscribed").data(Map.of("viewport", viewport.toString())))) {
+			return emitter;
+		}
+		subscriber.entry = index.add(subscriber, viewport);
+		subscribers.add(subscriber);
+		return emitter;
+	}
+
+	@EventListener
+	public void onDeltaBatch(SpotDeltaBatch batch) {
+		Set<Subscriber> touched = new HashSet<>();
+		for (SpotDelta delta : batch.getDeltas()) {
+			index.forEachContaining(delta.getLatitude(), delta.getLongitude(), subscriber -> {
+				synchronized (subscriber) {
+					if (!subscriber.closed) {
+						subscriber.pending.put(delta.getId(), delta);
+					}
+				}
+				touched.add(subscriber);
+			});
+		}
+		long now = System.currentTimeMillis();
+		for (Subscriber subscriber : touched) {
+			flush(subscriber, now);
+		}
+	}
+
+	/**
+	 * Comment line to every subscriber, so proxies keep idle streams open and
+	 * dead connections are found.
+	 */
+	@Scheduled(fixedDelayString = "${parking.live.heartbeat-ms:15000}")
+	public void heartbeat() {
+		long now = System.currentTimeMillis();
+		for (Subscriber subscriber : subscribers) {
+			synchronized (subscriber) {
+				subscriber.keepAliveDue = true;
+			}
+			flush(subscriber, now);
+		}
+	}
+
+	/**
+	 * Queues a write of the subscriber's pending deltas unless one is already
+	 * queued or running; then they keep coalescing until it finishes.
+	 */
+	private void flush(Subscriber subscriber, long now) {
+		boolean stalled;
+		synchronized (subscriber) {
+			if (subscriber.closed || (subscriber.pending.isEmpty() && !subscriber.keepAliveDue)) {
+				return;
+			}
+			stalled = subscriber.inFlight && now - subscriber.inFlightSince > stallMillis;
+			if (subscriber.inFlight && !stalled) {
+				return;
+			}
+			subscriber.inFlight = true;
+			subscriber.inFlightSince = now;
+		}
+		if (stalled) {
+			stalledClosed.increment();
+			subscriber.close();
+			// Completing waits for the stuck write to release the emitter
+			CompletableFuture.runAsync(subscriber.emitter::complete);
+			return;
+		}
+		try {
+			sender.execute(() -> send(subscriber));
+		} catch (RejectedExecutionException e) {
+			dropped.increment();
+			// The deltas stay pending for the next tick
+			synchronized (subscriber) {
+				subscriber.inFlight = false;
+			}
+		}
+	}
+
+	private void send(Subscriber subscriber) {
+		List<SpotDelta> deltas;
+		boolean keepAlive;
+		synchronized (subscriber) {
+			deltas = new ArrayList<>(subscriber.pending.values());
+			subscriber.pending.clear();
+			// Any event keeps the stream open, so a keep-alive only goes out on its own
+			keepAlive = deltas.isEmpty() && subscriber.keepAliveDue;
+			subscriber.keepAliveDue = false;
+		}
+		if (!deltas.isEmpty()) {
+			if (subscriber.send(SseEmitter.event().name("deltas").data(deltas, MediaType.APPLICATION_JSON))) {
+				eventsSent.increment();
+				deltasSent.add(deltas.size());
+			}
+		} else if (keepAlive) {
+			subscriber.send(SseEmitter.event().comment("keep-alive"));
+		}
+		synchronized (subscriber) {
+			subscriber.inFlight = false;
+		}
+		// Whatever arrived during the write queues again, behind the other subscribers
+		flush(subscriber, System.currentTimeMillis());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		sender.shutdownNow();
+		subscribers.forEach(subscriber -> subscriber.emitter.complete());
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("subscribers", index.size());
+		stats.put("subscribedCells", index.cellCount());
+		stats.put("eventsSent", eventsSent.sum());
+		stats.put("deltasSent", deltasSent.sum());
+		stats.put("droppedSends", dropped.sum());
+		stats.put("stalledClosed", stalledClosed.sum());
+		return stats;
+	}
+}
@@ -0,0 +1,134 @@
+package com.park_karo.vehicle.live;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+/**
+ * Grid of subscribers by the cells their viewport overlaps, so a change is
+ * routed by looking at one cell instead of every subscriber.
+ *
+ * A subscriber is filed under each cell its viewport touches; routing a point
+ * looks up the point's cell and keeps the subscribers whose viewport really
+ * contains it. Viewports spanning more than {@code maxCells} cells are
+ * refused, which keeps both the registration and the fan-out per cell bounded.
+ * Safe for concurrent use.
+ */
+public class ViewportSubscriptionIndex<S> {
+
+	private final double cellDeg;
+	private final int maxCells;
+	private final Map<Long, Set<Entry<S>>> cells = new ConcurrentHashMap<>();
+	private final AtomicInteger size = new AtomicInteger();
+
+	/**
+	 * Registration handle; pass it to {@link ViewportSubscriptionIndex#remove}.
+	 */
+	public static final class Entry<S> {
+		private final S subscriber;
+		private final Viewport viewport;
+
+		private Entry(S subscriber, Viewport viewport) {
+			this.subscriber = subscriber;
+			this.viewport = viewport;
+		}
+
+		public S getSubscriber() {
+			return subscriber;
+		}
+
+		public Viewport getViewport() {
+			return viewport;
+		}
+	}
+
+	public ViewportSubscriptionIndex(double cellDeg, int maxCells) {
+		if (cellDeg <= 0) {
+			throw new IllegalArgumentException("cellDeg must be positive");
+		}
+		this.cellDeg = cellDeg;
+		this.maxCells = maxCells;
+	}
+
+	public Entry<S> add(S subscriber, Viewport viewport) {
+		int lat0 = latIndex(viewport.getMinLat());
+		int lat1 = latIndex(viewport.getMaxLat());
+		int lon0 = lonIndex(viewport.getMinLon());
+		int lon1 = lonIndex(viewport.getMaxLon());
+		if ((long) (lat1 - lat0 + 1) * (lon1 - lon0 + 1) > maxCells) {
+			throw new CustomExceptions.ValidationBusinessException("viewport",
+					"is too large; zoom in to follow live changes");
+		}
+		Entry<S> entry = new Entry<>(subscriber, viewport);
+		for (int lat = lat0; lat <= lat1; lat++) {
+			for (int lon = lon0; lon <= lon1; lon++) {
+				// Added inside compute, so a remove can't drop the set between lookup and add
+				cells.compute(cellKey(lat, lon), (key, subscribers) -> {
+					Set<Entry<S>> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+					set.add(entry);
+					return set;
+				});
+			}
+		}
+		size.incrementAndGet();
+		return entry;
+	}
+
+	public void remove(Entry<S> entry) {
+		Viewport viewport = entry.viewport;
+		boolean[] removed = new boolean[1];
+		for (int lat = latIndex(viewport.getMinLat()); lat <= latIndex(viewport.getMaxLat()); lat++) {
+			for (int lon = lonIndex(viewport.getMinLon()); lon <= lonIndex(viewport.getMaxLon()); lon++) {
+				// Emptied sets are dropped under the same bin lock that add takes
+				cells.computeIfPresent(cellKey(lat, lon), (key, subscribers) -> {
+					if (subscribers.remove(entry)) {
+						removed[0] = true;
+					}
+					return subscribers.isEmpty() ? null : subscribers;
+				});
+			}
+		}
+		if (removed[0]) {
+			size.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Calls {@code action} for every subscriber whose viewport contains the point.
+	 */
+	public void forEachContaining(double lat, double lon, Consumer<S> action) {
+		Set<Entry<S>> subscribers = cells.get(cellKey(latIndex(lat), lonIndex(lon)));
+		if (subscribers == null) {
+			return;
+		}
+		for (Entry<S> entry : subscribers) {
+			if (entry.viewport.contains(lat, lon)) {
+				action.accept(entry.subscriber);
+			}
+		}
+	}
+
+	public int size() {
+		return size.get();
+	}
+
+	public int cellCount() {
+		return cells.size();
+	}
+
+	private int latIndex(double lat) {
+		return (int) Math.floor((lat + 90.0) / cellDeg);
+	}
+
+	private int lonIndex(double lon) {
+		return (int) Math.floor((lon + 180.0) / cellDeg);
+	}
+
+	private static long cellKey(int latIdx, int lonIdx) {
+		return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+	}
+}
@@ -0,0 +1,162 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One spot's occupancy over one hour (UTC): the hour's summary, and while it
+ * is recent the per-minute values it was rolled up from.
+ *
+ * The id is {@code spotId:epochHour}, so rewriting a bucket as its hour fills
+ * up is a plain upsert. Minute arrays are dropped once they are older than
+ * {@code parking.occupancy.minute-retention-hours}; the whole bucket expires
+ * after 90 days.
+ */
+@Document(collection = "parking_occupancy_hourly")
+// Range reads for one spot, in time order
+@CompoundIndex(name = "spot_hour", def = "{'spotId': 1, 'hour': 1}")
+public class OccupancyBucket {
+
+	public static final int MINUTES = 60;
+
+	@Id
+	private String id;
+	private String spotId;
+	@Indexed(name = "hour_ttl", expireAfter = "90d")
+	private Instant hour;
+	private int min;
+	private int max;
+	private long sum;
+	private int samples;
+	// Per minute of the hour; samples 0 where nothing was recorded
+	private int[] minuteMin;
+	private int[] minuteMax;
+	private int[] minuteSum;
+	private int[] minuteSamples;
+
+	public OccupancyBucket() {
+	}
+
+	public OccupancyBucket(String spotId, int epochHour) {
+		this.id = idOf(spotId, epochHour);
+		this.spotId = spotId;
+		this.hour = Instant.ofEpochSecond(epochHour * 3600L);
+		this.min = Integer.MAX_VALUE;
+		this.max = Integer.MIN_VALUE;
+		this.minuteMin = new int[MINUTES];
+		this.minuteMax = new int[MINUTES];
+		this.minuteSum = new int[MINUTES];
+		this.minuteSamples = new int[MINUTES];
+	}
+
+	static String idOf(String spotId, int epochHour) {
+		return spotId + ':' + epochHour;
+	}
+
+	void addMinute(int minuteOfHour, int min, int max, int sum, int samples) {
+		minuteMin[minuteOfHour] = min;
+		minuteMax[minuteOfHour] = max;
+		minuteSum[minuteOfHour] = sum;
+		minuteSamples[minuteOfHour] = samples;
+		this.min = Math.min(this.min, min);
+		this.max = Math.max(this.max, max);
+		this.sum += sum;
+		this.samples += samples;
+	}
+
+	int epochHour() {
+		return (int) (hour.getEpochSecond() / 3600);
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getSpotId() {
+		return spotId;
+	}
+
+	public void setSpotId(String spotId) {
+		this.spotId = spotId;
+	}
+
+	public Instant getHour() {
+		return hour;
+	}
+
+	public void setHour(Instant hour) {
+		this.hour = hour;
+	}
+
+	public int getMin() {
+		return min;
+	}
+
+	public void setMin(int min) {
+		this.min = min;
+	}
+
+	public int getMax() {
+		return max;
+	}
+
+	public void setMax(int max) {
+		this.max = max;
+	}
+
+	public long getSum() {
+		return sum;
+	}
+
+	public void setSum(long sum) {
+		this.sum = sum;
+	}
+
+	public int getSamples() {
+		return samples;
+	}
+
+	public void setSamples(int samples) {
+		this.samples = samples;
+	}
+
+	public int[] getMinuteMin() {
+		return minuteMin;
+	}
+
+	public void setMinuteMin(int[] minuteMin) {
+		this.minuteMin = minuteMin;
+	}
+
+	public int[] getMinuteMax() {
+		return minuteMax;
+	}
+
+	public void setMinuteMax(int[] minuteMax) {
+		this.minuteMax = minuteMax;
+	}
+
+	public int[] getMinuteSum() {
+		return minuteSum;
+	}
+
+	public void setMinuteSum(int[] minuteSum) {
+		this.minuteSum = minuteSum;
+	}
+
+	public int[] getMinuteSamples() {
+		return minuteSamples;
+	}
+
+	public void setMinuteSamples(int[] minuteSamples) {
+		this.minuteSamples = minuteSamples;
+	}
+}
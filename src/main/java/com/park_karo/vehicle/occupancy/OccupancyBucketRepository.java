@@ -0,0 +1,15 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OccupancyBucketRepository
+		extends MongoRepository<OccupancyBucket, String>, OccupancyBucketRepositoryCustom {
+
+	// Served by the hour_ttl index; callers must close the stream
+	Stream<OccupancyBucket> streamByHourGreaterThanEqual(Instant hour);
+}
@@ -0,0 +1,29 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Hand-written queries for {@link OccupancyBucketRepository}.
+ */
+public interface OccupancyBucketRepositoryCustom {
+
+	/**
+	 * Writes the buckets in one unordered bulk of upserts by id. Returns how
+	 * many were inserted or changed.
+	 */
+	int upsertAll(Collection<OccupancyBucket> buckets);
+
+	/**
+	 * One spot's buckets with {@code from <= hour < to}, oldest first. Without
+	 * {@code withMinutes} only the hourly summaries are read.
+	 */
+	List<OccupancyBucket> findHours(String spotId, Instant from, Instant to, boolean withMinutes);
+
+	/**
+	 * Drops the minute arrays of buckets for hours before {@code hour}. Returns
+	 * how many buckets were trimmed.
+	 */
+	long dropMinutesBefore(Instant hour);
+}
@@ -0,0 +1,64 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.bulk.BulkWriteResult;
+
+/**
+ * Picked up by Spring Data as the implementation of
+ * {@link OccupancyBucketRepositoryCustom}.
+ */
+public class OccupancyBucketRepositoryImpl implements OccupancyBucketRepositoryCustom {
+
+	private static final String[] MINUTE_FIELDS = { "minuteMin", "minuteMax", "minuteSum", "minuteSamples" };
+
+	private final MongoTemplate mongoTemplate;
+
+	public OccupancyBucketRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public int upsertAll(Collection<OccupancyBucket> buckets) {
+		if (buckets.isEmpty()) {
+			return 0;
+		}
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OccupancyBucket.class);
+		for (OccupancyBucket bucket : buckets) {
+			bulk.replaceOne(new Query(Criteria.where("_id").is(bucket.getId())), bucket,
+					FindAndReplaceOptions.options().upsert());
+		}
+		BulkWriteResult result = bulk.execute();
+		return result.getModifiedCount() + result.getUpserts().size();
+	}
+
+	@Override
+	public List<OccupancyBucket> findHours(String spotId, Instant from, Instant to, boolean withMinutes) {
+		Query query = new Query(Criteria.where("spotId").is(spotId).and("hour").gte(from).lt(to))
+				.with(Sort.by("hour"));
+		if (!withMinutes) {
+			query.fields().exclude(MINUTE_FIELDS);
+		}
+		return mongoTemplate.find(query, OccupancyBucket.class);
+	}
+
+	@Override
+	public long dropMinutesBefore(Instant hour) {
+		Update update = new Update();
+		for (String field : MINUTE_FIELDS) {
+			update.unset(field);
+		}
+		Query query = new Query(Criteria.where("hour").lt(hour).and(MINUTE_FIELDS[0]).exists(true));
+		return mongoTemplate.updateMulti(query, update, OccupancyBucket.class).getModifiedCount();
+	}
+}
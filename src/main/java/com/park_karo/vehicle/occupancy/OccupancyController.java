@@ -0,0 +1,44 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/occupancy")
+public class OccupancyController {
+
+	private static final Logger logger = LoggerFactory.getLogger(OccupancyController.class);
+
+	private final OccupancyService occupancyService;
+
+	public OccupancyController(OccupancyService occupancyService) {
+		this.occupancyService = occupancyService;
+	}
+
+	/**
+	 * Free-space history of one spot; see {@link OccupancyService#getHistory}
+	 */
+	@GetMapping("/spots/{spotId}")
+	public ResponseEntity<Map<String, Object>> getHistory(@PathVariable String spotId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+			@RequestParam(required = false) String resolution) {
+		logger.info("getHistory called: spotId={}, range=[{}, {}), resolution={}", spotId, from, to, resolution);
+		return ResponseEntity.ok(occupancyService.getHistory(spotId, from, to, resolution));
+	}
+
+	@GetMapping("/stats")
+	public ResponseEntity<Map<String, Object>> getStats() {
+		return ResponseEntity.ok(occupancyService.getStats());
+	}
+}
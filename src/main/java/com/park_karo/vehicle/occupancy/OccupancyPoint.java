@@ -0,0 +1,59 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Instant;
+
+/**
+ * Free spaces at one spot over one interval: the lowest, highest and mean of
+ * the samples taken in it.
+ */
+public class OccupancyPoint {
+
+	private final Instant time;
+	private int minAvailable = Integer.MAX_VALUE;
+	private int maxAvailable = Integer.MIN_VALUE;
+	private long sum;
+	private int samples;
+
+	public OccupancyPoint(Instant time) {
+		this.time = time;
+	}
+
+	void add(int min, int max, long sum, int samples) {
+		if (samples <= 0) {
+			return;
+		}
+		this.minAvailable = Math.min(this.minAvailable, min);
+		this.maxAvailable = Math.max(this.maxAvailable, max);
+		this.sum += sum;
+		this.samples += samples;
+	}
+
+	void add(OccupancyPoint other) {
+		add(other.minAvailable, other.maxAvailable, other.sum, other.samples);
+	}
+
+	boolean isEmpty() {
+		return samples == 0;
+	}
+
+	/** Start of the interval. */
+	public Instant getTime() {
+		return time;
+	}
+
+	public int getMinAvailable() {
+		return minAvailable;
+	}
+
+	public int getMaxAvailable() {
+		return maxAvailable;
+	}
+
+	public double getAvgAvailable() {
+		return samples > 0 ? sum / (double) samples : 0;
+	}
+
+	public int getSamples() {
+		return samples;
+	}
+}
@@ -0,0 +1,229 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.ParkingSpotCatalog;
+import com.park_karo.vehicle.parkingspot.SpotAvailabilityCounters;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Records every spot's free spaces over time.
+ *
+ * Every {@code parking.occupancy.sample-ms} each spot's live counter goes into
+ * its {@link OccupancyRing}, the last 24 hours at minute resolution. Every
+ * {@code rollup-ms} the hours touched since the last rollup are written to
+ * MongoDB as one {@link OccupancyBucket} per spot and hour, in one bulk write;
+ * a failed rollup is retried from the same hour next time. Minute arrays older
+ * than {@code minute-retention-hours} are dropped, leaving hourly summaries
+ * until the buckets expire.
+ *
+ * On startup the rings are refilled from the last 24 hours of buckets, so the
+ * rings answer for recent history and the buckets for anything older.
+ */
+@Component
+public class OccupancyRecorder {
+
+	private static final Logger logger = LoggerFactory.getLogger(OccupancyRecorder.class);
+
+	private final ParkingSpotCatalog parkingSpotCatalog;
+	private final SpotAvailabilityCounters spotAvailabilityCounters;
+	private final OccupancyBucketRepository occupancyBucketRepository;
+	private final Duration minuteRetention;
+
+	private final Map<String, OccupancyRing> rings = new ConcurrentHashMap<>();
+	// First minute not yet written to MongoDB by a successful rollup; 0 before the first
+	private volatile int rolledUpTo;
+
+	private volatile long sampleRuns;
+	private volatile long bucketsWritten;
+	private volatile long failedRollups;
+	private volatile long lastRollupMillis;
+	private volatile long bucketsTrimmed;
+
+	public OccupancyRecorder(ParkingSpotCatalog parkingSpotCatalog, SpotAvailabilityCounters spotAvailabilityCounters,
+			OccupancyBucketRepository occupancyBucketRepository,
+			@Value("${parking.occupancy.minute-retention-hours:48}") int minuteRetentionHours) {
+		this.parkingSpotCatalog = parkingSpotCatalog;
+		this.spotAvailabilityCounters = spotAvailabilityCounters;
+		this.occupancyBucketRepository = occupancyBucketRepository;
+		this.minuteRetention = Duration.ofHours(minuteRetentionHours);
+	}
+
+	@Scheduled(fixedRateString = "${parking.occupancy.sample-ms:10000}")
+	public void sample() {
+		if (!parkingSpotCatalog.isLoaded()) {
+			return;
+		}
+		sample(epochMinute(System.currentTimeMillis()));
+	}
+
+	void sample(int epochMinute) {
+		for (ParkingSpot spot : parkingSpotCatalog.all()) {
+			int available = spotAvailabilityCounters.available(spot.getId());
+			if (available < 0) {
+				available = spot.getAvailableSpaces();
+			}
+			OccupancyRing ring = rings.computeIfAbsent(spot.getId(), id -> new OccupancyRing());
+			synchronized (ring) {
+				ring.record(epochMinute, available);
+			}
+		}
+		sampleRuns++;
+	}
+
+	@Scheduled(fixedDelayString = "${parking.occupancy.rollup-ms:300000}",
+			initialDelayString = "${parking.occupancy.rollup-ms:300000}")
+	public void scheduledRollup() {
+		rollup(epochMinute(System.currentTimeMillis()));
+	}
+
+	/**
+	 * Writes every hour from the last rollup's through the current one. Returns
+	 * how many buckets went out.
+	 */
+	synchronized int rollup(int nowMinute) {
+		long start = System.currentTimeMillis();
+		int fromHour = Math.max(rolledUpTo, nowMinute - OccupancyRing.MINUTES + 1) / 60;
+		int toHour = nowMinute / 60;
+		List<OccupancyBucket> buckets = new ArrayList<>();
+		rings.forEach((spotId, ring) -> {
+			synchronized (ring) {
+				for (int hour = fromHour; hour <= toHour; hour++) {
+					OccupancyBucket bucket = ring.toBucket(spotId, hour);
+					if (bucket != null) {
+						buckets.add(bucket);
+					}
+				}
+			}
+		});
+		try {
+			occupancyBucketRepository.upsertAll(buckets);
+		} catch (RuntimeException e) {
+			failedRollups++;
+			logger.error("Failed to write {} occupancy buckets; retrying with the next rollup: {}", buckets.size(),
+					e.getMessage());
+			return 0;
+		}
+		rolledUpTo = nowMinute;
+		bucketsWritten += buckets.size();
+		lastRollupMillis = System.currentTimeMillis() - start;
+		if (parkingSpotCatalog.isLoaded()) {
+			// Spots gone from the catalog keep their buckets but stop costing memory
+			rings.keySet().removeIf(spotId -> parkingSpotCatalog.get(spotId) == null);
+		}
+		logger.debug("Wrote {} occupancy buckets for hours {}..{} in {} ms", buckets.size(), fromHour, toHour,
+				lastRollupMillis);
+		return buckets.size();
+	}
+
+	@Scheduled(fixedDelayString = "${parking.occupancy.trim-ms:3600000}",
+			initialDelayString = "${parking.occupancy.trim-ms:3600000}")
+	public void trimMinutes() {
+		try {
+			long trimmed = occupancyBucketRepository.dropMinutesBefore(Instant.now().minus(minuteRetention));
+			bucketsTrimmed += trimmed;
+			logger.debug("Dropped minute detail from {} occupancy buckets", trimmed);
+		} catch (RuntimeException e) {
+			logger.error("Failed to trim occupancy minute detail: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Refills the rings from the buckets of the last 24 hours.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void restoreOnStartup() {
+		long start = System.currentTimeMillis();
+		int firstMinute = epochMinute(start) - OccupancyRing.MINUTES + 1;
+		int restored = 0;
+		try (Stream<OccupancyBucket> recent = occupancyBucketRepository
+				.streamByHourGreaterThanEqual(Instant.ofEpochSecond(firstMinute / 60 * 3600L))) {
+			for (OccupancyBucket bucket : (Iterable<OccupancyBucket>) recent::iterator) {
+				if (bucket.getMinuteSamples() == null) {
+					continue;
+				}
+				OccupancyRing ring = rings.computeIfAbsent(bucket.getSpotId(), id -> new OccupancyRing());
+				int hourStart = bucket.epochHour() * 60;
+				synchronized (ring) {
+					for (int i = 0; i < OccupancyBucket.MINUTES; i++) {
+						if (hourStart + i >= firstMinute) {
+							ring.restore(hourStart + i, bucket.getMinuteMin()[i], bucket.getMinuteMax()[i],
+									bucket.getMinuteSum()[i], bucket.getMinuteSamples()[i]);
+						}
+					}
+				}
+				restored++;
+			}
+			logger.info("✅ Occupancy history restored from {} hourly buckets in {} ms", restored,
+					System.currentTimeMillis() - start);
+		} catch (Exception e) {
+			logger.error("❌ Failed to restore occupancy history: {}", e.getMessage(), e);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		rollup(epochMinute(System.currentTimeMillis()));
+	}
+
+	/**
+	 * Points from the ring for {@code [fromMinute, toMinute)}; the caller keeps
+	 * the range inside the ring's 24 hours.
+	 */
+	List<OccupancyPoint> recent(String spotId, int fromMinute, int toMinute, int stepMinutes) {
+		List<OccupancyPoint> points = new ArrayList<>();
+		OccupancyRing ring = rings.get(spotId);
+		if (ring != null) {
+			synchronized (ring) {
+				ring.collect(fromMinute, toMinute, stepMinutes, points);
+			}
+		}
+		return points;
+	}
+
+	/**
+	 * First minute the rings answer for: the start of the oldest hour they hold
+	 * whole.
+	 */
+	static int ringStart(int nowMinute) {
+		return Math.floorDiv(nowMinute - OccupancyRing.MINUTES + 1 + 59, 60) * 60;
+	}
+
+	static int epochMinute(long epochMillis) {
+		return (int) Math.floorDiv(epochMillis, 60_000L);
+	}
+
+	Duration getMinuteRetention() {
+		return minuteRetention;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("spots", rings.size());
+		stats.put("ringMinutes", OccupancyRing.MINUTES);
+		stats.put("sampleRuns", sampleRuns);
+		stats.put("bucketsWritten", bucketsWritten);
+		stats.put("failedRollups", failedRollups);
+		stats.put("lastRollupMillis", lastRollupMillis);
+		stats.put("rolledUpTo", rolledUpTo > 0 ? Instant.ofEpochSecond(rolledUpTo * 60L) : null);
+		stats.put("bucketsTrimmed", bucketsTrimmed);
+		return stats;
+	}
+}
@@ -0,0 +1,30 @@
+package com.park_karo.vehicle.occupancy;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+/**
+ * Interval between the points of an occupancy query, in minutes.
+ */
+public enum OccupancyResolution {
+
+	MINUTE(1), HOUR(60), DAY(24 * 60);
+
+	private final int minutes;
+
+	OccupancyResolution(int minutes) {
+		this.minutes = minutes;
+	}
+
+	public int getMinutes() {
+		return minutes;
+	}
+
+	static OccupancyResolution parse(String value) {
+		for (OccupancyResolution resolution : values()) {
+			if (resolution.name().equalsIgnoreCase(value)) {
+				return resolution;
+			}
+		}
+		throw new CustomExceptions.ValidationBusinessException("resolution", "must be minute, hour or day");
+	}
+}
@@ -0,0 +1,100 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The last 24 hours of one spot's free-space samples at minute resolution, in
+ * parallel primitive arrays indexed by epoch minute modulo the ring size. A
+ * slot belongs to the minute stamped on it, so stale slots need no clearing.
+ *
+ * Not thread-safe; {@link OccupancyRecorder} locks per ring.
+ */
+final class OccupancyRing {
+
+	static final int MINUTES = 24 * 60;
+
+	// Epoch minute of each slot's data; 0 for a slot never written
+	private final int[] stamp = new int[MINUTES];
+	private final int[] min = new int[MINUTES];
+	private final int[] max = new int[MINUTES];
+	private final int[] sum = new int[MINUTES];
+	private final int[] samples = new int[MINUTES];
+
+	void record(int epochMinute, int available) {
+		int slot = claim(epochMinute);
+		if (samples[slot] == 0) {
+			min[slot] = available;
+			max[slot] = available;
+		} else {
+			min[slot] = Math.min(min[slot], available);
+			max[slot] = Math.max(max[slot], available);
+		}
+		sum[slot] += available;
+		samples[slot]++;
+	}
+
+	/**
+	 * Puts back a minute read from MongoDB, unless the ring already holds
+	 * samples for it.
+	 */
+	void restore(int epochMinute, int minuteMin, int minuteMax, int minuteSum, int minuteSamples) {
+		int slot = Math.floorMod(epochMinute, MINUTES);
+		if (minuteSamples <= 0 || (stamp[slot] == epochMinute && samples[slot] > 0)) {
+			return;
+		}
+		stamp[slot] = epochMinute;
+		min[slot] = minuteMin;
+		max[slot] = minuteMax;
+		sum[slot] = minuteSum;
+		samples[slot] = minuteSamples;
+	}
+
+	/**
+	 * Adds the points for {@code [fromMinute, toMinute)}, one per
+	 * {@code stepMinutes}, to {@code out}; intervals without samples are left
+	 * out.
+	 */
+	void collect(int fromMinute, int toMinute, int stepMinutes, List<OccupancyPoint> out) {
+		for (int start = fromMinute; start < toMinute; start += stepMinutes) {
+			OccupancyPoint point = new OccupancyPoint(Instant.ofEpochSecond(start * 60L));
+			for (int minute = start; minute < Math.min(start + stepMinutes, toMinute); minute++) {
+				int slot = Math.floorMod(minute, MINUTES);
+				if (stamp[slot] == minute) {
+					point.add(min[slot], max[slot], sum[slot], samples[slot]);
+				}
+			}
+			if (!point.isEmpty()) {
+				out.add(point);
+			}
+		}
+	}
+
+	/**
+	 * The hour's minutes as a bucket, or null if none has samples.
+	 */
+	OccupancyBucket toBucket(String spotId, int epochHour) {
+		OccupancyBucket bucket = null;
+		int first = epochHour * 60;
+		for (int i = 0; i < OccupancyBucket.MINUTES; i++) {
+			int slot = Math.floorMod(first + i, MINUTES);
+			if (stamp[slot] == first + i && samples[slot] > 0) {
+				if (bucket == null) {
+					bucket = new OccupancyBucket(spotId, epochHour);
+				}
+				bucket.addMinute(i, min[slot], max[slot], sum[slot], samples[slot]);
+			}
+		}
+		return bucket;
+	}
+
+	private int claim(int epochMinute) {
+		int slot = Math.floorMod(epochMinute, MINUTES);
+		if (stamp[slot] != epochMinute) {
+			stamp[slot] = epochMinute;
+			samples[slot] = 0;
+			sum[slot] = 0;
+		}
+		return slot;
+	}
+}
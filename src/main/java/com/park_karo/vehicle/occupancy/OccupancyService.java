@@ -0,0 +1,175 @@
+package com.park_karo.vehicle.occupancy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.ParkingSpotCatalog;
+
+/**
+ * Occupancy history of one spot at minute, hour or day resolution.
+ *
+ * Each resolution reads the coarsest data that answers it: the last 24 hours
+ * come from the in-memory rings, anything older from the hourly buckets, and
+ * hour and day points only read the buckets' summaries, never their minutes.
+ * Days are UTC days.
+ */
+@Service
+public class OccupancyService {
+
+	private final OccupancyRecorder occupancyRecorder;
+	private final OccupancyBucketRepository occupancyBucketRepository;
+	private final ParkingSpotCatalog parkingSpotCatalog;
+	private final int maxPoints;
+
+	public OccupancyService(OccupancyRecorder occupancyRecorder, OccupancyBucketRepository occupancyBucketRepository,
+			ParkingSpotCatalog parkingSpotCatalog, @Value("${parking.occupancy.max-points:5000}") int maxPoints) {
+		this.occupancyRecorder = occupancyRecorder;
+		this.occupancyBucketRepository = occupancyBucketRepository;
+		this.parkingSpotCatalog = parkingSpotCatalog;
+		this.maxPoints = maxPoints;
+	}
+
+	/**
+	 * @param to         defaults to now
+	 * @param from       defaults to 24 hours before {@code to}
+	 * @param resolution minute, hour or day; by default the finest that fits in
+	 *                   {@code parking.occupancy.max-points}
+	 */
+	public Map<String, Object> getHistory(String spotId, Instant from, Instant to, String resolution) {
+		ParkingSpot spot = parkingSpotCatalog.get(spotId);
+		if (spot == null) {
+			throw new CustomExceptions.ResourceNotFoundBusinessException("ParkingSpot", spotId);
+		}
+		Instant now = Instant.now();
+		if (to == null) {
+			to = now;
+		}
+		if (from == null) {
+			from = to.minusSeconds(24 * 3600L);
+		}
+		if (!to.isAfter(from)) {
+			throw new CustomExceptions.ValidationBusinessException("to", "must be after from");
+		}
+
+		OccupancyResolution step = resolution != null ? OccupancyResolution.parse(resolution)
+				: finestFitting(from, to, now);
+		int fromMinute = Math.floorDiv(OccupancyRecorder.epochMinute(from.toEpochMilli()), step.getMinutes())
+				* step.getMinutes();
+		int toMinute = Math.floorDiv(OccupancyRecorder.epochMinute(to.toEpochMilli() - 1), step.getMinutes())
+				* step.getMinutes() + step.getMinutes();
+		long points = (toMinute - fromMinute) / step.getMinutes();
+		if (points > maxPoints) {
+			throw new CustomExceptions.ValidationBusinessException("resolution",
+					String.format("%s over this range is %d points; at most %d", step.name().toLowerCase(), points,
+							maxPoints));
+		}
+		if (step == OccupancyResolution.MINUTE
+				&& from.isBefore(now.minus(occupancyRecorder.getMinuteRetention()))) {
+			throw new CustomExceptions.ValidationBusinessException("resolution", "minute data is kept for "
+					+ occupancyRecorder.getMinuteRetention().toHours() + " hours; use hour or day further back");
+		}
+
+		int nowMinute = OccupancyRecorder.epochMinute(now.toEpochMilli());
+		List<OccupancyPoint> series = switch (step) {
+		case MINUTE -> read(spotId, fromMinute, toMinute, 1, nowMinute);
+		case HOUR -> read(spotId, fromMinute, toMinute, 60, nowMinute);
+		case DAY -> downsample(read(spotId, fromMinute, toMinute, 60, nowMinute), step.getMinutes());
+		};
+
+		Map<String, Object> history = new LinkedHashMap<>();
+		history.put("spotId", spotId);
+		history.put("resolution", step.name().toLowerCase());
+		history.put("from", Instant.ofEpochSecond(fromMinute * 60L));
+		history.put("to", Instant.ofEpochSecond(toMinute * 60L));
+		history.put("totalSpaces", spot.getTotalSpaces() > 0 ? spot.getTotalSpaces() : null);
+		history.put("points", series);
+		return history;
+	}
+
+	/**
+	 * Minute or hour points over {@code [fromMinute, toMinute)}: from the
+	 * buckets before the rings' start, from the rings after it.
+	 */
+	private List<OccupancyPoint> read(String spotId, int fromMinute, int toMinute, int stepMinutes, int nowMinute) {
+		int ringStart = OccupancyRecorder.ringStart(nowMinute);
+		List<OccupancyPoint> points = new ArrayList<>();
+		if (fromMinute < ringStart) {
+			int end = Math.min(toMinute, ringStart);
+			List<OccupancyBucket> buckets = occupancyBucketRepository.findHours(spotId,
+					Instant.ofEpochSecond(Math.floorDiv(fromMinute, 60) * 3600L),
+					Instant.ofEpochSecond(Math.floorDiv(end + 59, 60) * 3600L), stepMinutes == 1);
+			for (OccupancyBucket bucket : buckets) {
+				if (stepMinutes == 1) {
+					addMinutes(bucket, fromMinute, end, points);
+				} else if (bucket.getSamples() > 0) {
+					OccupancyPoint point = new OccupancyPoint(bucket.getHour());
+					point.add(bucket.getMin(), bucket.getMax(), bucket.getSum(), bucket.getSamples());
+					points.add(point);
+				}
+			}
+		}
+		if (toMinute > ringStart) {
+			points.addAll(occupancyRecorder.recent(spotId, Math.max(fromMinute, ringStart), toMinute, stepMinutes));
+		}
+		return points;
+	}
+
+	private static void addMinutes(OccupancyBucket bucket, int fromMinute, int toMinute, List<OccupancyPoint> out) {
+		if (bucket.getMinuteSamples() == null) {
+			return;
+		}
+		int hourStart = bucket.epochHour() * 60;
+		for (int i = 0; i < OccupancyBucket.MINUTES; i++) {
+			int minute = hourStart + i;
+			if (minute >= fromMinute && minute < toMinute && bucket.getMinuteSamples()[i] > 0) {
+				OccupancyPoint point = new OccupancyPoint(Instant.ofEpochSecond(minute * 60L));
+				point.add(bucket.getMinuteMin()[i], bucket.getMinuteMax()[i], bucket.getMinuteSum()[i],
+						bucket.getMinuteSamples()[i]);
+				out.add(point);
+			}
+		}
+	}
+
+	/**
+	 * Merges time-ordered points into intervals of {@code stepMinutes}.
+	 */
+	static List<OccupancyPoint> downsample(List<OccupancyPoint> points, int stepMinutes) {
+		List<OccupancyPoint> merged = new ArrayList<>();
+		OccupancyPoint current = null;
+		long currentStart = Long.MIN_VALUE;
+		for (OccupancyPoint point : points) {
+			long start = Math.floorDiv(point.getTime().getEpochSecond(), stepMinutes * 60L) * stepMinutes * 60L;
+			if (current == null || start != currentStart) {
+				current = new OccupancyPoint(Instant.ofEpochSecond(start));
+				currentStart = start;
+				merged.add(current);
+			}
+			current.add(point);
+		}
+		return merged;
+	}
+
+	private OccupancyResolution finestFitting(Instant from, Instant to, Instant now) {
+		long minutes = (to.toEpochMilli() - from.toEpochMilli() + 59_999) / 60_000;
+		boolean minutesKept = !from.isBefore(now.minus(occupancyRecorder.getMinuteRetention()));
+		for (OccupancyResolution resolution : OccupancyResolution.values()) {
+			if ((resolution != OccupancyResolution.MINUTE || minutesKept)
+					&& minutes / resolution.getMinutes() < maxPoints) {
+				return resolution;
+			}
+		}
+		return OccupancyResolution.DAY;
+	}
+
+	public Map<String, Object> getStats() {
+		return occupancyRecorder.stats();
+	}
+}
@@ -0,0 +1,183 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for sensor readings of {@code availableSpaces}.
+ *
+ * A reading goes into {@link SpotAvailabilityCounters} at once, so reads and
+ * the indexes see it within one counter flush, and the spot is marked as
+ * waiting for MongoDB. Waiting spots are keyed by id, so a spot that flips
+ * many times between flushes is written once. Every
+ * {@code parking.availability.write-behind.flush-ms}, or as soon as
+ * {@code max-entries} spots are waiting, the net change of each goes out as an
+ * {@code $inc} in one unordered bulk write, so reservations that landed in
+ * MongoDB meanwhile are kept. A failed write puts its spots back.
+ *
+ * What a crash can lose is bounded by the flush interval; {@link #shutdown()}
+ * flushes what is left when the application stops.
+ */
+@Component
+public class AvailabilityWriteBehind {
+
+	private static final Logger logger = LoggerFactory.getLogger(AvailabilityWriteBehind.class);
+
+	private final ParkingSpotRepository parkingSpotRepository;
+	private final SpotAvailabilityCounters spotAvailabilityCounters;
+	private final int maxEntries;
+
+	// Spot id to when it first changed since its last write, for the lag metric
+	private final Map<String, Long> waiting = new ConcurrentHashMap<>();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	private final LongAdder readings = new LongAdder();
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder written = new LongAdder();
+	private final LongAdder failedFlushes = new LongAdder();
+	private volatile int lastFlushSize;
+	private volatile long lastFlushMillis;
+	private volatile long lastFlushLagMillis;
+	private volatile long maxFlushSize;
+
+	public AvailabilityWriteBehind(ParkingSpotRepository parkingSpotRepository,
+			SpotAvailabilityCounters spotAvailabilityCounters,
+			@Value("${parking.availability.write-behind.max-entries:5000}") int maxEntries) {
+		this.parkingSpotRepository = parkingSpotRepository;
+		this.spotAvailabilityCounters = spotAvailabilityCounters;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Records a reading; MongoDB gets it with the next flush.
+	 */
+	public void submit(String spotId, int availableSpaces) {
+		spotAvailabilityCounters.set(spotId, availableSpaces);
+		enqueue(spotId);
+	}
+
+	/**
+	 * Queues a spot whose counter the caller already changed through
+	 * {@link SpotAvailabilityCounters#adjust}.
+	 */
+	public void enqueue(String spotId) {
+		// Checked first so a spot that is already waiting costs no allocation
+		if (!waiting.containsKey(spotId)) {
+			waiting.putIfAbsent(spotId, System.currentTimeMillis());
+		}
+		readings.increment();
+		if (waiting.size() >= maxEntries && flushScheduled.compareAndSet(false, true)) {
+			// Off the caller's thread; the sensor request shouldn't wait for MongoDB
+			CompletableFuture.runAsync(() -> {
+				try {
+					flush();
+				} finally {
+					flushScheduled.set(false);
+				}
+			});
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${parking.availability.write-behind.flush-ms:1000}")
+	public void scheduledFlush() {
+		flush();
+	}
+
+	/**
+	 * Writes the net change of every waiting spot. Returns how many were
+	 * written.
+	 */
+	public synchronized int flush() {
+		if (waiting.isEmpty()) {
+			return 0;
+		}
+		long start = System.currentTimeMillis();
+		Map<String, Long> batch = new HashMap<>();
+		Map<String, Integer> values = new HashMap<>();
+		long oldest = start;
+		for (Map.Entry<String, Long> entry : waiting.entrySet()) {
+			String spotId = entry.getKey();
+			if (!waiting.remove(spotId, entry.getValue())) {
+				continue;
+			}
+			int change = spotAvailabilityCounters.unwritten(spotId);
+			if (change == 0) {
+				// Readings cancelled out, or the spot left the catalog meanwhile
+				continue;
+			}
+			batch.put(spotId, entry.getValue());
+			values.put(spotId, change);
+			oldest = Math.min(oldest, entry.getValue());
+		}
+		if (values.isEmpty()) {
+			return 0;
+		}
+
+		try {
+			parkingSpotRepository.addAvailableSpaces(values);
+		} catch (RuntimeException e) {
+			failedFlushes.increment();
+			// Back in line, keeping the original change time; newer readings already there win
+			batch.forEach(waiting::putIfAbsent);
+			logger.error("Failed to write {} availability readings; retrying with the next flush: {}", values.size(),
+					e.getMessage());
+			return 0;
+		}
+		values.forEach(spotAvailabilityCounters::markWritten);
+
+		long now = System.currentTimeMillis();
+		flushes.increment();
+		written.add(values.size());
+		lastFlushSize = values.size();
+		lastFlushMillis = now - start;
+		lastFlushLagMillis = now - oldest;
+		maxFlushSize = Math.max(maxFlushSize, values.size());
+		logger.debug("Wrote {} availability readings in {} ms (oldest {} ms old)", values.size(), lastFlushMillis,
+				lastFlushLagMillis);
+		return values.size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		int remaining = waiting.size();
+		if (remaining > 0) {
+			logger.info("Flushing {} availability readings before shutdown", remaining);
+			flush();
+		}
+	}
+
+	/**
+	 * Queue depth, lag and flush sizes.
+	 */
+	public Map<String, Object> stats() {
+		long now = System.currentTimeMillis();
+		long oldest = waiting.values().stream().mapToLong(Long::longValue).min().orElse(now);
+		long flushCount = flushes.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("queueDepth", waiting.size());
+		stats.put("oldestWaitingMillis", now - oldest);
+		stats.put("readings", readings.sum());
+		stats.put("flushes", flushCount);
+		stats.put("failedFlushes", failedFlushes.sum());
+		stats.put("written", written.sum());
+		stats.put("avgFlushSize", flushCount > 0 ? written.sum() / (double) flushCount : 0.0);
+		stats.put("maxFlushSize", maxFlushSize);
+		stats.put("lastFlushSize", lastFlushSize);
+		stats.put("lastFlushMillis", lastFlushMillis);
+		stats.put("lastFlushLagMillis", lastFlushLagMillis);
+		return stats;
+	}
+}
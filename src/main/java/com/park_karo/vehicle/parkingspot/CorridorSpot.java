@@ -0,0 +1,30 @@
+package com.park_karo.vehicle.parkingspot;
+
+/**
+ * A parking spot found along a route, with how far it is from the route and
+ * how far along the route its closest point lies.
+ */
+public class CorridorSpot {
+
+	private final ParkingSpot spot;
+	private final double distanceFromRouteKm;
+	private final double alongRouteKm;
+
+	public CorridorSpot(ParkingSpot spot, double distanceFromRouteKm, double alongRouteKm) {
+		this.spot = spot;
+		this.distanceFromRouteKm = distanceFromRouteKm;
+		this.alongRouteKm = alongRouteKm;
+	}
+
+	public ParkingSpot getSpot() {
+		return spot;
+	}
+
+	public double getDistanceFromRouteKm() {
+		return distanceFromRouteKm;
+	}
+
+	public double getAlongRouteKm() {
+		return alongRouteKm;
+	}
+}
@@ -0,0 +1,52 @@
+package com.park_karo.vehicle.parkingspot;
+
+/**
+ * Shared geodesic helpers for the parking spot search paths.
+ */
+public final class GeoUtils {
+
+	public static final double EARTH_RADIUS_KM = 6371.0;
+
+	/** Length of one degree of latitude (and of longitude at the equator) in km. */
+	public static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+
+	private GeoUtils() {
+	}
+
+	/**
+	 * Calculates the distance between two latitude and longitude points using the
+	 * Haversine formula. Distance is returned in Kilometers (km).
+	 */
+	public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+		double latDistance = Math.toRadians(lat2 - lat1);
+		double lonDistance = Math.toRadians(lon2 - lon1);
+
+		double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2) + Math.cos(Math.toRadians(lat1))
+				* Math.cos(Math.toRadians(lat2)) * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+
+		double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+		return EARTH_RADIUS_KM * c;
+	}
+
+	/**
+	 * Half-height in degrees of the latitude band that contains a circle of the
+	 * given radius.
+	 */
+	public static double latDeltaDeg(double radiusKm) {
+		return radiusKm / KM_PER_DEGREE;
+	}
+
+	/**
+	 * Half-width in degrees of the longitude band that contains a circle of the
+	 * given radius around {@code lat}. Returns 180 when the circle reaches a pole.
+	 */
+	public static double lonDeltaDeg(double lat, double radiusKm) {
+		double latDelta = latDeltaDeg(radiusKm);
+		if (Math.abs(lat) + latDelta >= 90.0) {
+			return 180.0;
+		}
+		double cosLat = Math.cos(Math.toRadians(Math.abs(lat) + latDelta));
+		return Math.min(180.0, radiusKm / (KM_PER_DEGREE * cosLat));
+	}
+}
@@ -0,0 +1,161 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hilbert space-filling curve over the lat/lon plane.
+ *
+ * Longitude and latitude are each quantised to {@link #ORDER} bits (about 38 m
+ * by 19 m per cell) and mapped to a single {@code long} key. Points that are
+ * close on the map mostly get close keys, so sorting by key keeps neighbours
+ * next to each other in memory and in the index. Every quadrant of the curve
+ * covers one contiguous key range, which is what lets {@link #ranges} turn a
+ * bounding box into a handful of key intervals.
+ */
+public final class HilbertCurve {
+
+	/** Bits per axis; keys use the low {@code 2 * ORDER} bits. */
+	public static final int ORDER = 20;
+
+	private static final int SIDE = 1 << ORDER;
+
+	/** Quadrants examined per level before the descent stops refining. */
+	private static final int MAX_PARTIAL_QUADS = 64;
+
+	private HilbertCurve() {
+	}
+
+	/**
+	 * Hilbert key of the cell that contains the point.
+	 */
+	public static long key(double lat, double lon) {
+		return index(ORDER, cellX(lon), cellY(lat));
+	}
+
+	/**
+	 * Covers the bounding box with at most {@code maxRanges} inclusive
+	 * {@code [start, end]} key ranges, sorted by start. The ranges may include
+	 * keys outside the box, never the other way round, so callers still apply
+	 * their exact filter. Boxes crossing the antimeridian are clamped to it.
+	 */
+	public static List<long[]> ranges(double minLat, double minLon, double maxLat, double maxLon, int maxRanges) {
+		int qx0 = cellX(minLon);
+		int qx1 = cellX(maxLon);
+		int qy0 = cellY(minLat);
+		int qy1 = cellY(maxLat);
+
+		List<long[]> ranges = new ArrayList<>();
+		List<int[]> frontier = List.of(new int[] { 0, 0 });
+		for (int level = 0; !frontier.isEmpty(); level++) {
+			int shift = ORDER - level;
+			List<int[]> partial = new ArrayList<>();
+			for (int[] quad : frontier) {
+				int x0 = quad[0] << shift;
+				int y0 = quad[1] << shift;
+				int x1 = x0 + (1 << shift) - 1;
+				int y1 = y0 + (1 << shift) - 1;
+				if (x1 < qx0 || x0 > qx1 || y1 < qy0 || y0 > qy1) {
+					continue;
+				}
+				if (x0 >= qx0 && x1 <= qx1 && y0 >= qy0 && y1 <= qy1) {
+					ranges.add(quadRange(level, quad[0], quad[1]));
+				} else {
+					partial.add(quad);
+				}
+			}
+			if (level == ORDER || partial.size() * 4 > MAX_PARTIAL_QUADS) {
+				// Stop refining: the remaining edge quadrants are covered whole
+				for (int[] quad : partial) {
+					ranges.add(quadRange(level, quad[0], quad[1]));
+				}
+				break;
+			}
+			List<int[]> children = new ArrayList<>(partial.size() * 4);
+			for (int[] quad : partial) {
+				int cx = quad[0] << 1;
+				int cy = quad[1] << 1;
+				children.add(new int[] { cx, cy });
+				children.add(new int[] { cx + 1, cy });
+				children.add(new int[] { cx, cy + 1 });
+				children.add(new int[] { cx + 1, cy + 1 });
+			}
+			frontier = children;
+		}
+		return merge(ranges, Math.max(1, maxRanges));
+	}
+
+	/**
+	 * Sorts and joins adjacent ranges, then closes the smallest gaps until at
+	 * most {@code maxRanges} remain.
+	 */
+	private static List<long[]> merge(List<long[]> ranges, int maxRanges) {
+		ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+		List<long[]> merged = new ArrayList<>();
+		for (long[] range : ranges) {
+			long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+			if (last != null && range[0] <= last[1] + 1) {
+				last[1] = Math.max(last[1], range[1]);
+			} else {
+				merged.add(new long[] { range[0], range[1] });
+			}
+		}
+		while (merged.size() > maxRanges) {
+			int smallest = 0;
+			long smallestGap = Long.MAX_VALUE;
+			for (int i = 0; i + 1 < merged.size(); i++) {
+				long gap = merged.get(i + 1)[0] - merged.get(i)[1];
+				if (gap < smallestGap) {
+					smallestGap = gap;
+					smallest = i;
+				}
+			}
+			merged.get(smallest)[1] = merged.remove(smallest + 1)[1];
+		}
+		return merged;
+	}
+
+	private static long[] quadRange(int level, int x, int y) {
+		int shift = 2 * (ORDER - level);
+		long d = index(level, x, y);
+		return new long[] { d << shift, ((d + 1) << shift) - 1 };
+	}
+
+	/**
+	 * Position of cell ({@code x}, {@code y}) along the Hilbert curve of the
+	 * given order. The curve of order {@code k} is the prefix of order
+	 * {@code k + 1}, so a quadrant's keys all share the quadrant's own index as
+	 * their high bits.
+	 */
+	static long index(int order, int x, int y) {
+		int n = 1 << order;
+		long d = 0;
+		for (int s = n >> 1; s > 0; s >>= 1) {
+			int rx = (x & s) > 0 ? 1 : 0;
+			int ry = (y & s) > 0 ? 1 : 0;
+			d += (long) s * s * ((3 * rx) ^ ry);
+			if (ry == 0) {
+				if (rx == 1) {
+					x = n - 1 - x;
+					y = n - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+		return d;
+	}
+
+	private static int cellX(double lon) {
+		return clamp((int) Math.floor((lon + 180.0) / 360.0 * SIDE));
+	}
+
+	private static int cellY(double lat) {
+		return clamp((int) Math.floor((lat + 90.0) / 180.0 * SIDE));
+	}
+
+	private static int clamp(int cell) {
+		return Math.max(0, Math.min(SIDE - 1, cell));
+	}
+}
@@ -0,0 +1,71 @@
+package com.park_karo.vehicle.parkingspot;
+
+/**
+ * One search origin in a batch nearby request.
+ */
+public class NearbyOrigin {
+
+	private String id; // Caller's key for this origin (e.g. vehicle id); defaults to "lat,lon"
+	private double lat;
+	private double lon;
+	private double radiusKm;
+	private Integer limit;
+
+	public NearbyOrigin() {
+	}
+
+	public NearbyOrigin(String id, double lat, double lon, double radiusKm, Integer limit) {
+		this.id = id;
+		this.lat = lat;
+		this.lon = lon;
+		this.radiusKm = radiusKm;
+		this.limit = limit;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public double getLat() {
+		return lat;
+	}
+
+	public void setLat(double lat) {
+		this.lat = lat;
+	}
+
+	public double getLon() {
+		return lon;
+	}
+
+	public void setLon(double lon) {
+		this.lon = lon;
+	}
+
+	public double getRadiusKm() {
+		return radiusKm;
+	}
+
+	public void setRadiusKm(double radiusKm) {
+		this.radiusKm = radiusKm;
+	}
+
+	public Integer getLimit() {
+		return limit;
+	}
+
+	public void setLimit(Integer limit) {
+		this.limit = limit;
+	}
+
+	/**
+	 * Key under which this origin's results are returned.
+	 */
+	public String resultKey() {
+		return id != null && !id.isBlank() ? id : lat + "," + lon;
+	}
+}
@@ -0,0 +1,27 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.List;
+
+/**
+ * One page of nearby results, sorted by (distance, id). Pass
+ * {@link #getNextCursor()} back to fetch the following page; it is null on the
+ * last page.
+ */
+public class NearbyPage {
+
+	private final List<SpotDistance> items;
+	private final String nextCursor;
+
+	public NearbyPage(List<SpotDistance> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<SpotDistance> getItems() {
+		return items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
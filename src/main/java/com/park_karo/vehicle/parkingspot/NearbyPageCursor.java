@@ -0,0 +1,51 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+/**
+ * Opaque keyset cursor for paginated nearby search. It carries the original
+ * query and the (distance, id) of the last spot returned, so the next page can
+ * resume right after it without recomputing earlier pages.
+ */
+final class NearbyPageCursor {
+
+	private static final String VERSION = "v1";
+
+	final double lat;
+	final double lon;
+	final double radiusKm;
+	final double lastDistanceKm;
+	final String lastId;
+
+	NearbyPageCursor(double lat, double lon, double radiusKm, double lastDistanceKm, String lastId) {
+		this.lat = lat;
+		this.lon = lon;
+		this.radiusKm = radiusKm;
+		this.lastDistanceKm = lastDistanceKm;
+		this.lastId = lastId;
+	}
+
+	String encode() {
+		// Double.toString round-trips exactly, so ties on distance resume correctly
+		String raw = String.join("|", VERSION, Double.toString(lat), Double.toString(lon), Double.toString(radiusKm),
+				Double.toString(lastDistanceKm), lastId);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	static NearbyPageCursor decode(String cursor) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\|", 6);
+			if (parts.length != 6 || !VERSION.equals(parts[0])) {
+				throw new IllegalArgumentException("unsupported cursor");
+			}
+			return new NearbyPageCursor(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+					Double.parseDouble(parts[3]), Double.parseDouble(parts[4]), parts[5]);
+		} catch (IllegalArgumentException e) {
+			throw new CustomExceptions.ValidationBusinessException("cursor", "is invalid or expired");
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.Locale;
+
+/**
+ * Which engine answers radius searches. Selected globally with
+ * {@code parking.nearby.mode} and overridable per request so the engines can be
+ * compared side by side.
+ */
+public enum NearbySearchMode {
+
+	/** In-JVM grid index over the spot catalog. */
+	MEMORY,
+
+	/** Full scan of the columnar catalog snapshot with a bounding-box prefilter. */
+	SCAN,
+
+	/** {@code $nearSphere} query against the 2dsphere index in MongoDB. */
+	MONGO,
+
+	/** Key-range scan of the Hilbert curve index in MongoDB. */
+	HILBERT;
+
+	public static NearbySearchMode from(String value) {
+		try {
+			return NearbySearchMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown nearby search mode: " + value);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * k-nearest-neighbour index over the spot catalog.
+ *
+ * A {@link SpotKdTree} holds the catalog as of the last rebuild. Updates that
+ * keep a spot in place (availability, price) are swapped straight into the
+ * tree; spots that are added, moved or deleted go to a small overlay that
+ * queries scan linearly and that shadows the tree. Once the overlay grows past
+ * a fraction of the tree the whole tree is rebuilt from the catalog.
+ */
+@Component
+public class NearestSpotIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(NearestSpotIndex.class);
+	private static final int MIN_OVERLAY_BEFORE_REBUILD = 1024;
+
+	private final ParkingSpotCatalog parkingSpotCatalog;
+
+	private volatile State state = new State(SpotKdTree.build(List.of()));
+	private volatile boolean ready;
+
+	public NearestSpotIndex(ParkingSpotCatalog parkingSpotCatalog) {
+		this.parkingSpotCatalog = parkingSpotCatalog;
+	}
+
+	// ============ MAINTENANCE ============
+
+	@EventListener
+	public void onCatalogChanged(SpotCatalogChangedEvent event) {
+		if (event.isReload()) {
+			rebuild(event.getUpserted());
+			ready = true;
+			return;
+		}
+
+		State current = state;
+		for (ParkingSpot spot : event.getUpserted()) {
+			String id = spot.getId();
+			int slot = current.tree.slotOf(id);
+			if (slot >= 0 && !current.shadowed.contains(id) && samePosition(current.tree.spotAt(slot), spot)) {
+				current.tree.replace(slot, spot);
+			} else {
+				// Overlay first so the spot never disappears from queries
+				current.overlay.put(id, spot);
+				if (slot >= 0) {
+					current.shadowed.add(id);
+				}
+			}
+		}
+		for (String id : event.getRemovedIds()) {
+			if (current.tree.slotOf(id) >= 0) {
+				current.shadowed.add(id);
+			}
+			current.overlay.remove(id);
+		}
+
+		int pending = current.overlay.size() + current.shadowed.size();
+		if (pending > Math.max(MIN_OVERLAY_BEFORE_REBUILD, current.tree.size() / 16)) {
+			rebuild(parkingSpotCatalog.all());
+		}
+	}
+
+	private void rebuild(Collection<ParkingSpot> spots) {
+		long start = System.currentTimeMillis();
+		SpotKdTree rebuilt = SpotKdTree.build(spots);
+		state = new State(rebuilt);
+		logger.info("Nearest-spot KD-tree rebuilt with {} spots in {} ms", rebuilt.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	private static boolean samePosition(ParkingSpot a, ParkingSpot b) {
+		return a.getLatitude() == b.getLatitude() && a.getLongitude() == b.getLongitude();
+	}
+
+	// ============ QUERIES ============
+
+	/**
+	 * Returns up to {@code k} spots within {@code maxDistanceKm}, nearest first.
+	 */
+	public List<SpotDistance> findNearest(double lat, double lon, int k, double maxDistanceKm) {
+		State current = state;
+		SpotKdTree.NearestHeap heap = new SpotKdTree.NearestHeap(k, maxDistanceKm);
+		current.tree.nearest(lat, lon, heap, current.shadowed::contains);
+		for (ParkingSpot spot : current.overlay.values()) {
+			heap.offer(spot, lat, lon);
+		}
+		return heap.toSortedList();
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * A tree plus the changes made since it was built, swapped as one unit on
+	 * rebuild.
+	 */
+	private static final class State {
+		final SpotKdTree tree;
+		final Map<String, ParkingSpot> overlay = new ConcurrentHashMap<>();
+		final Set<String> shadowed = ConcurrentHashMap.newKeySet();
+
+		State(SpotKdTree tree) {
+			this.tree = tree;
+		}
+	}
+}
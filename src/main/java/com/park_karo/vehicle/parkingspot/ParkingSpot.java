@@ -1,9 +1,26 @@
 package com.park_karo.vehicle.parkingspot;
 
+import java.util.Locale;
+import java.util.Map;
+
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Document(collection = "mumbai_parking_db")
+@CompoundIndexes({
+    // Equality on the type first, then the two range filters of /available and /type
+    @CompoundIndex(name = "type_rate_spaces", def = "{'vehicleTypeKey': 1, 'hourlyRate': 1, 'availableSpaces': 1}"),
+    @CompoundIndex(name = "rate_spaces", def = "{'hourlyRate': 1, 'availableSpaces': 1}")
+})
 public class ParkingSpot {
 
     @Id
@@ -12,9 +29,30 @@ public class ParkingSpot {
     private double latitude;
     private double longitude;
     private int availableSpaces;
+    // Capacity for advance bookings; 0 on documents written before it existed
+    private int totalSpaces;
     private double hourlyRate;
     private String vehicleType; 
 
+    // Upper-cased vehicleType so type filters can use an index instead of a case-insensitive scan
+    @JsonIgnore
+    private String vehicleTypeKey;
+
+    // VehicleTypes code of vehicleType; resolved on first use for spots MongoDB populated field by field
+    @JsonIgnore
+    @Transient
+    private int vehicleTypeCode = VehicleTypes.UNKNOWN;
+
+    // GeoJSON copy of latitude/longitude for the 2dsphere index, kept in sync by the setters
+    @JsonIgnore
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint location;
+
+    // Hilbert curve position of latitude/longitude, so nearby spots sort and index next to each other
+    @JsonIgnore
+    @Indexed
+    private long hilbertKey;
+
     public ParkingSpot() {
     }
 
@@ -26,7 +64,8 @@ public class ParkingSpot {
         this.longitude = longitude;
         this.availableSpaces = availableSpaces;
         this.hourlyRate = hourlyRate;
-        this.vehicleType = vehicleType;
+        setVehicleType(vehicleType);
+        updateLocation();
     }
 
     // Getters and Setters (Essential for Spring Data MongoDB)
@@ -53,6 +92,7 @@ public class ParkingSpot {
 
     public void setLatitude(double latitude) {
         this.latitude = latitude;
+        updateLocation();
     }
 
     public double getLongitude() {
@@ -61,6 +101,7 @@ public class ParkingSpot {
 
     public void setLongitude(double longitude) {
         this.longitude = longitude;
+        updateLocation();
     }
 
     public int getAvailableSpaces() {
@@ -71,6 +112,14 @@ public class ParkingSpot {
         this.availableSpaces = availableSpaces;
     }
 
+    public int getTotalSpaces() {
+        return totalSpaces;
+    }
+
+    public void setTotalSpaces(int totalSpaces) {
+        this.totalSpaces = totalSpaces;
+    }
+
     public double getHourlyRate() {
         return hourlyRate;
     }
@@ -84,6 +133,64 @@ public class ParkingSpot {
     }
 
     public void setVehicleType(String vehicleType) {
-        this.vehicleType = vehicleType;
+        // Lookups only, as every request body comes through here; the catalog registers new types
+        this.vehicleType = VehicleTypes.shared(vehicleType);
+        this.vehicleTypeCode = VehicleTypes.find(vehicleType);
+        this.vehicleTypeKey = vehicleTypeCode > VehicleTypes.NONE ? VehicleTypes.key(vehicleTypeCode)
+                : normalizeVehicleType(vehicleType);
+    }
+
+    public String getVehicleTypeKey() {
+        return vehicleTypeKey;
+    }
+
+    public int getVehicleTypeCode() {
+        int code = vehicleTypeCode;
+        if (code == VehicleTypes.UNKNOWN) {
+            // Only the indexes ask, as catalog events reach them, so the spot is in the catalog
+            code = VehicleTypes.code(vehicleType);
+            vehicleTypeCode = code;
+        }
+        return code;
+    }
+
+    /**
+     * Swaps the string fields for shared instances: the vehicle type strings
+     * from {@link VehicleTypes}, the name from {@code names} (one pool per
+     * catalog load) when given.
+     */
+    void deduplicateStrings(Map<String, String> names) {
+        // Entering the catalog, so the type is registered
+        vehicleType = VehicleTypes.canonical(vehicleType);
+        vehicleTypeCode = VehicleTypes.code(vehicleType);
+        vehicleTypeKey = vehicleTypeCode != VehicleTypes.NONE ? VehicleTypes.key(vehicleTypeCode)
+                : normalizeVehicleType(vehicleType);
+        if (names != null && name != null) {
+            String existing = names.putIfAbsent(name, name);
+            if (existing != null) {
+                name = existing;
+            }
+        }
+    }
+
+    /**
+     * Form of a vehicle type stored in {@code vehicleTypeKey} and used to query it.
+     */
+    public static String normalizeVehicleType(String vehicleType) {
+        return vehicleType != null ? vehicleType.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    public GeoJsonPoint getLocation() {
+        return location;
+    }
+
+    public long getHilbertKey() {
+        return hilbertKey;
+    }
+
+    private void updateLocation() {
+        // GeoJSON order is [longitude, latitude]
+        this.location = new GeoJsonPoint(longitude, latitude);
+        this.hilbertKey = HilbertCurve.key(latitude, longitude);
     }
 }
\ No newline at end of file
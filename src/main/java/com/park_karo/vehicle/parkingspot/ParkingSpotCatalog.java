@@ -0,0 +1,120 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of the {@code mumbai_parking_db} collection.
+ *
+ * The catalog is loaded once the application is ready and is then kept current
+ * by {@link ParkingSpotService} after its own writes and by {@link SpotCatalogSync}
+ * for everyone else's. Each change is published as a
+ * {@link SpotCatalogChangedEvent} so the in-memory indexes can update themselves
+ * incrementally. Mutations are serialised so listeners observe changes in the
+ * same order as the catalog; reads never block. Spots entering the catalog
+ * have their type strings swapped for the shared {@link VehicleTypes}
+ * instances, and a full load also deduplicates names.
+ */
+@Component
+public class ParkingSpotCatalog {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParkingSpotCatalog.class);
+
+	private final ParkingSpotRepository parkingSpotRepository;
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final Map<String, ParkingSpot> spotsById = new ConcurrentHashMap<>();
+	private volatile boolean loaded;
+
+	public ParkingSpotCatalog(ParkingSpotRepository parkingSpotRepository, ApplicationEventPublisher eventPublisher) {
+		this.parkingSpotRepository = parkingSpotRepository;
+		this.eventPublisher = eventPublisher;
+	}
+
+	/**
+	 * Replaces the catalog with the current contents of MongoDB. Called by
+	 * {@link SpotCatalogSync} on startup and whenever it can't follow changes.
+	 */
+	public void reload() {
+		long start = System.currentTimeMillis();
+		List<ParkingSpot> spots = parkingSpotRepository.findAll();
+		replaceAll(spots);
+		logger.info("✅ Parking spot catalog loaded with {} spots in {} ms", spots.size(),
+				System.currentTimeMillis() - start);
+	}
+
+	public synchronized void replaceAll(Collection<ParkingSpot> spots) {
+		spotsById.clear();
+		// Repeated names share one instance; the pool only lives for this load
+		Map<String, String> names = new HashMap<>();
+		for (ParkingSpot spot : spots) {
+			if (spot.getId() != null) {
+				spot.deduplicateStrings(names);
+				spotsById.put(spot.getId(), spot);
+			}
+		}
+		loaded = true;
+		eventPublisher.publishEvent(SpotCatalogChangedEvent.reload(Collections.unmodifiableCollection(spotsById.values())));
+	}
+
+	public synchronized void upsert(ParkingSpot spot) {
+		if (spot == null || spot.getId() == null) {
+			return;
+		}
+		spot.deduplicateStrings(null);
+		spotsById.put(spot.getId(), spot);
+		eventPublisher.publishEvent(SpotCatalogChangedEvent.upserted(List.of(spot)));
+	}
+
+	public synchronized void upsertAll(Collection<ParkingSpot> spots) {
+		List<ParkingSpot> changed = new ArrayList<>(spots.size());
+		for (ParkingSpot spot : spots) {
+			if (spot != null && spot.getId() != null) {
+				spot.deduplicateStrings(null);
+				spotsById.put(spot.getId(), spot);
+				changed.add(spot);
+			}
+		}
+		if (!changed.isEmpty()) {
+			eventPublisher.publishEvent(SpotCatalogChangedEvent.upserted(changed));
+		}
+	}
+
+	public synchronized void remove(Collection<String> spotIds) {
+		List<String> removed = new ArrayList<>(spotIds.size());
+		for (String id : spotIds) {
+			if (spotsById.remove(id) != null) {
+				removed.add(id);
+			}
+		}
+		if (!removed.isEmpty()) {
+			eventPublisher.publishEvent(SpotCatalogChangedEvent.removed(removed));
+		}
+	}
+
+	public ParkingSpot get(String id) {
+		return spotsById.get(id);
+	}
+
+	public Collection<ParkingSpot> all() {
+		return Collections.unmodifiableCollection(spotsById.values());
+	}
+
+	public int size() {
+		return spotsById.size();
+	}
+
+	public boolean isLoaded() {
+		return loaded;
+	}
+}
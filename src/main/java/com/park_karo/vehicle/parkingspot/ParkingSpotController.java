@@ -49,11 +49,125 @@ public class ParkingSpotController {
 
 	@GetMapping("/nearby")
 	public ResponseEntity<List<ParkingSpot>> findNearbyParkingSpots(@RequestParam double lat, @RequestParam double lon,
-			@RequestParam double radiusKm) {
+			@RequestParam double radiusKm, @RequestParam(required = false) String mode,
+			@RequestParam(required = false, defaultValue = "0") int limit) {
 
-		logger.info("Sync findNearbyParkingSpots called: lat={}, lon={}, radius={}km", lat, lon, radiusKm);
+		logger.info("Sync findNearbyParkingSpots called: lat={}, lon={}, radius={}km, mode={}, limit={}", lat, lon,
+				radiusKm, mode, limit);
 
-		List<ParkingSpot> spots = parkingSpotService.findNearbyParkingSpots(lat, lon, radiusKm);
+		List<ParkingSpot> spots = parkingSpotService.findNearbyParkingSpots(lat, lon, radiusKm,
+				mode != null ? NearbySearchMode.from(mode) : null, limit);
+		return ResponseEntity.ok(spots);
+	}
+
+	@GetMapping("/nearby/page")
+	public ResponseEntity<NearbyPage> findNearbyPage(@RequestParam(required = false) Double lat,
+			@RequestParam(required = false) Double lon, @RequestParam(required = false) Double radiusKm,
+			@RequestParam(required = false, defaultValue = "20") int pageSize,
+			@RequestParam(required = false) String cursor) {
+
+		logger.info("Sync findNearbyPage called: lat={}, lon={}, radius={}km, pageSize={}, cursor={}", lat, lon,
+				radiusKm, pageSize, cursor != null);
+
+		NearbyPage page = parkingSpotService.findNearbyPage(lat, lon, radiusKm, pageSize, cursor);
+		return ResponseEntity.ok(page);
+	}
+
+	@GetMapping("/nearest")
+	public ResponseEntity<List<SpotDistance>> findNearestParkingSpots(@RequestParam double lat,
+			@RequestParam double lon, @RequestParam(required = false, defaultValue = "10") int k,
+			@RequestParam(required = false, defaultValue = "50.0") double maxDistanceKm) {
+
+		logger.info("Sync findNearestParkingSpots called: lat={}, lon={}, k={}, maxDistance={}km", lat, lon, k,
+				maxDistanceKm);
+
+		List<SpotDistance> spots = parkingSpotService.findNearestParkingSpots(lat, lon, k, maxDistanceKm);
+		return ResponseEntity.ok(spots);
+	}
+
+	@PostMapping("/nearby/batch")
+	public ResponseEntity<Map<String, List<SpotDistance>>> findNearbyBatch(@RequestBody List<NearbyOrigin> origins) {
+		logger.info("Sync findNearbyBatch called with {} origins", origins.size());
+		Map<String, List<SpotDistance>> results = parkingSpotService.findNearbyBatch(origins);
+		return ResponseEntity.ok(results);
+	}
+
+	@PostMapping("/search")
+	public ResponseEntity<List<ParkingSpot>> searchSpots(@RequestBody(required = false) SpotSearchRequest request) {
+		logger.info("Sync searchSpots called");
+		SpotSearchResult result = parkingSpotService.searchSpots(request);
+		return ResponseEntity.ok().header("X-Query-Plan", result.getPlan().toHeaderValue()).body(result.getSpots());
+	}
+
+	@PostMapping("/{id}/reserve")
+	public ResponseEntity<Map<String, Object>> reserveSpace(@PathVariable String id) {
+		logger.info("Sync reserveSpace called: spotId={}", id);
+		int available = parkingSpotService.reserveSpace(id);
+		return ResponseEntity.ok(Map.of("spotId", id, "availableSpaces", available));
+	}
+
+	@PostMapping("/{id}/release")
+	public ResponseEntity<Map<String, Object>> releaseSpace(@PathVariable String id) {
+		logger.info("Sync releaseSpace called: spotId={}", id);
+		int available = parkingSpotService.releaseSpace(id);
+		return ResponseEntity.ok(Map.of("spotId", id, "availableSpaces", available));
+	}
+
+	@GetMapping("/{id}/availability")
+	public ResponseEntity<Map<String, Object>> getAvailableSpaces(@PathVariable String id) {
+		int available = parkingSpotService.getAvailableSpaces(id);
+		return ResponseEntity.ok(Map.of("spotId", id, "availableSpaces", available));
+	}
+
+	/**
+	 * Sensor readings of free spaces, written to MongoDB behind the response
+	 */
+	@PostMapping("/availability/readings")
+	public ResponseEntity<Map<String, Object>> submitAvailabilityReadings(
+			@RequestBody List<SpotAvailabilityReading> readings) {
+		int accepted = parkingSpotService.submitAvailabilityReadings(readings);
+		return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("accepted", accepted));
+	}
+
+	@GetMapping("/availability/write-behind/stats")
+	public ResponseEntity<Map<String, Object>> getWriteBehindStats() {
+		return ResponseEntity.ok(parkingSpotService.getWriteBehindStats());
+	}
+
+	@GetMapping("/price")
+	public ResponseEntity<List<ParkingSpot>> findByPriceRange(@RequestParam(required = false) String vehicleType,
+			@RequestParam(required = false) Double minPrice, @RequestParam(required = false) Double maxPrice,
+			@RequestParam(required = false, defaultValue = "50") int limit) {
+		logger.info("Sync findByPriceRange called: type={}, price=[{}, {}], limit={}", vehicleType, minPrice, maxPrice,
+				limit);
+		List<ParkingSpot> spots = parkingSpotService.findByPriceRange(vehicleType, minPrice, maxPrice, limit);
+		return ResponseEntity.ok(spots);
+	}
+
+	@GetMapping("/cheapest")
+	public ResponseEntity<List<ParkingSpot>> findCheapest(@RequestParam(required = false) String vehicleType,
+			@RequestParam(required = false, defaultValue = "10") int n,
+			@RequestParam(required = false, defaultValue = "1") int minSpaces) {
+		logger.info("Sync findCheapest called: type={}, n={}, minSpaces={}", vehicleType, n, minSpaces);
+		List<ParkingSpot> spots = parkingSpotService.findCheapest(vehicleType, n, minSpaces);
+		return ResponseEntity.ok(spots);
+	}
+
+	@GetMapping("/clusters")
+	public ResponseEntity<List<SpotCluster>> findClusters(@RequestParam double minLat, @RequestParam double minLon,
+			@RequestParam double maxLat, @RequestParam double maxLon, @RequestParam int zoom) {
+		logger.info("Sync findClusters called: bbox=[{}, {}, {}, {}], zoom={}", minLat, minLon, maxLat, maxLon, zoom);
+		List<SpotCluster> clusters = parkingSpotService.findClusters(minLat, minLon, maxLat, maxLon, zoom);
+		return ResponseEntity.ok(clusters);
+	}
+
+	@GetMapping("/corridor")
+	public ResponseEntity<List<CorridorSpot>> findAlongRoute(@RequestParam String polyline,
+			@RequestParam(required = false, defaultValue = "200") double bufferMeters,
+			@RequestParam(required = false, defaultValue = "0") int limit) {
+		logger.info("Sync findAlongRoute called: polylineLength={}, buffer={}m, limit={}", polyline.length(),
+				bufferMeters, limit);
+		List<CorridorSpot> spots = parkingSpotService.findAlongRoute(polyline, bufferMeters, limit);
 		return ResponseEntity.ok(spots);
 	}
 
@@ -95,14 +209,16 @@ public class ParkingSpotController {
 	 */
 	@GetMapping("/nearby/async")
 	public CompletableFuture<ResponseEntity<List<ParkingSpot>>> findNearbyParkingSpotsAsync(@RequestParam double lat,
-			@RequestParam double lon, @RequestParam double radiusKm) {
+			@RequestParam double lon, @RequestParam double radiusKm, @RequestParam(required = false) String mode,
+			@RequestParam(required = false, defaultValue = "0") int limit) {
 
 		String requestId = java.util.UUID.randomUUID().toString();
-		logger.info("Async findNearbyParkingSpots started. Request ID: {}, lat={}, lon={}, radius={}km", requestId, lat,
-				lon, radiusKm);
+		logger.info("Async findNearbyParkingSpots started. Request ID: {}, lat={}, lon={}, radius={}km, mode={}",
+				requestId, lat, lon, radiusKm, mode);
 
+		NearbySearchMode searchMode = mode != null ? NearbySearchMode.from(mode) : null;
 		CompletableFuture<ResponseEntity<List<ParkingSpot>>> future = parkingSpotService
-				.findNearbyParkingSpotsAsync(lat, lon, radiusKm).thenApply(spots -> {
+				.findNearbyParkingSpotsAsync(lat, lon, radiusKm, searchMode, limit).thenApply(spots -> {
 					logger.info("Async findNearbyParkingSpots completed. Request ID: {}, found {} spots", requestId,
 							spots.size());
 					return ResponseEntity.ok(spots);
@@ -216,6 +332,24 @@ public class ParkingSpotController {
 		return ResponseEntity.ok(status);
 	}
 
+	/**
+	 * Hit/miss/eviction counters of the nearby and availability result cache
+	 */
+	@GetMapping("/cache/stats")
+	public ResponseEntity<Map<String, Object>> getResultCacheStats() {
+		Map<String, Object> stats = new java.util.HashMap<>(parkingSpotService.getResultCacheStats());
+		stats.put("timestamp", java.time.Instant.now().toString());
+		return ResponseEntity.ok(stats);
+	}
+
+	/**
+	 * How the in-memory catalog is kept current: change stream or periodic reload
+	 */
+	@GetMapping("/catalog/sync/stats")
+	public ResponseEntity<Map<String, Object>> getCatalogSyncStats() {
+		return ResponseEntity.ok(parkingSpotService.getCatalogSyncStats());
+	}
+
 	/**
 	 * Cancel a specific async request
 	 */
@@ -0,0 +1,61 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Backfills {@code vehicleTypeKey} on spots written before it existed and makes
+ * sure the compound indexes behind the type and availability queries are
+ * present. Safe to run on every startup: only documents without a key are
+ * touched.
+ */
+@Component
+public class ParkingSpotFilterIndexMigration implements CommandLineRunner {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParkingSpotFilterIndexMigration.class);
+
+	private final MongoTemplate mongoTemplate;
+
+	public ParkingSpotFilterIndexMigration(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public void run(String... args) {
+		try {
+			// Same normalisation as ParkingSpot.normalizeVehicleType, done by the server
+			Document setKey = new Document("$set", new Document("vehicleTypeKey",
+					new Document("$toUpper", new Document("$trim", new Document("input", "$vehicleType")))));
+
+			UpdateResult result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(ParkingSpot.class))
+					.updateMany(Filters.and(Filters.exists("vehicleTypeKey", false), Filters.type("vehicleType", "string")),
+							List.of(setKey));
+
+			if (result.getModifiedCount() > 0) {
+				logger.info("✅ Backfilled vehicleTypeKey on {} parking spots", result.getModifiedCount());
+			} else {
+				logger.debug("All parking spots already have a vehicleTypeKey");
+			}
+
+			// Same names as the @CompoundIndex definitions so auto index creation does not conflict
+			mongoTemplate.indexOps(ParkingSpot.class).createIndex(new Index().on("vehicleTypeKey", Sort.Direction.ASC)
+					.on("hourlyRate", Sort.Direction.ASC).on("availableSpaces", Sort.Direction.ASC)
+					.named("type_rate_spaces"));
+			mongoTemplate.indexOps(ParkingSpot.class).createIndex(new Index().on("hourlyRate", Sort.Direction.ASC)
+					.on("availableSpaces", Sort.Direction.ASC).named("rate_spaces"));
+		} catch (Exception e) {
+			logger.error("❌ Parking spot filter index migration failed: {}", e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeospatialIndex;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Backfills the location-derived fields ({@code location} and
+ * {@code hilbertKey}) on spots written before they existed and makes sure their
+ * indexes are present. Safe to run on every startup: only documents missing a
+ * field are touched.
+ */
+@Component
+public class ParkingSpotLocationMigration implements CommandLineRunner {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParkingSpotLocationMigration.class);
+
+	private static final int BATCH_SIZE = 1000;
+
+	private final MongoTemplate mongoTemplate;
+
+	public ParkingSpotLocationMigration(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public void run(String... args) {
+		try {
+			// Pipeline update so the server copies longitude/latitude itself
+			Document setLocation = new Document("$set", new Document("location",
+					new Document("type", "Point").append("coordinates", List.of("$longitude", "$latitude"))));
+
+			MongoCollection<Document> collection = mongoTemplate
+					.getCollection(mongoTemplate.getCollectionName(ParkingSpot.class));
+			UpdateResult result = collection.updateMany(Filters.exists("location", false), List.of(setLocation));
+
+			if (result.getModifiedCount() > 0) {
+				logger.info("✅ Backfilled GeoJSON location on {} parking spots", result.getModifiedCount());
+			} else {
+				logger.debug("All parking spots already have a GeoJSON location");
+			}
+
+			// Same name as the @GeoSpatialIndexed index so auto index creation does not conflict
+			mongoTemplate.indexOps(ParkingSpot.class).createIndex(
+					new GeospatialIndex("location").typed(GeoSpatialIndexType.GEO_2DSPHERE).named("location"));
+
+			long keyed = backfillHilbertKeys(collection);
+			if (keyed > 0) {
+				logger.info("✅ Backfilled Hilbert key on {} parking spots", keyed);
+			}
+			// Named like the @Indexed index for the same reason; the server default would be hilbertKey_1
+			mongoTemplate.indexOps(ParkingSpot.class)
+					.createIndex(new Index().on("hilbertKey", Sort.Direction.ASC).named("hilbertKey"));
+		} catch (Exception e) {
+			logger.error("❌ Parking spot location migration failed: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * The curve is computed in Java, so keys are written back in unordered bulk
+	 * batches rather than with a server-side pipeline.
+	 */
+	private long backfillHilbertKeys(MongoCollection<Document> collection) {
+		long modified = 0;
+		List<WriteModel<Document>> batch = new ArrayList<>(BATCH_SIZE);
+		for (Document doc : collection.find(Filters.exists("hilbertKey", false))
+				.projection(Projections.include("latitude", "longitude"))) {
+			Number lat = doc.get("latitude", Number.class);
+			Number lon = doc.get("longitude", Number.class);
+			if (lat == null || lon == null) {
+				continue;
+			}
+			batch.add(new UpdateOneModel<>(Filters.eq("_id", doc.get("_id")),
+					Updates.set("hilbertKey", HilbertCurve.key(lat.doubleValue(), lon.doubleValue()))));
+			if (batch.size() == BATCH_SIZE) {
+				modified += collection.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			modified += collection.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+		}
+		return modified;
+	}
+}
@@ -1,11 +1,21 @@
 package com.park_karo.vehicle.parkingspot;
 
+import java.util.List;
+
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ParkingSpotRepository extends MongoRepository<ParkingSpot, String> {
+public interface ParkingSpotRepository extends MongoRepository<ParkingSpot, String>, ParkingSpotRepositoryCustom {
     // Basic CRUD methods are inherited.
     @Override
     long count(); // Used to check if data already exists for initialization.
+
+    // Served by the type_rate_spaces / rate_spaces compound indexes; pass ParkingSpot.normalizeVehicleType(...)
+    List<ParkingSpot> findByVehicleTypeKey(String vehicleTypeKey);
+
+    List<ParkingSpot> findByVehicleTypeKeyAndHourlyRateLessThanEqualAndAvailableSpacesGreaterThanEqual(
+            String vehicleTypeKey, double maxPrice, int minSpaces);
+
+    List<ParkingSpot> findByHourlyRateLessThanEqualAndAvailableSpacesGreaterThanEqual(double maxPrice, int minSpaces);
 }
\ No newline at end of file
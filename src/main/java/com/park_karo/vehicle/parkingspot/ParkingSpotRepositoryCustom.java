@@ -0,0 +1,53 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written queries for {@link ParkingSpotRepository} that derived query
+ * methods cannot express.
+ */
+public interface ParkingSpotRepositoryCustom {
+
+	/**
+	 * Server-side radius search on the 2dsphere-indexed {@code location} field.
+	 * Results come back sorted nearest first, capped at {@code limit} (0 means no
+	 * limit).
+	 */
+	List<ParkingSpot> findNearSphere(double lat, double lon, double radiusKm, int limit);
+
+	/**
+	 * Server-side radius search on the {@code hilbertKey} index: the circle's
+	 * bounding box is covered by a few key ranges, the server filters them to the
+	 * box and the exact distance check runs here. Results are unordered.
+	 */
+	List<ParkingSpot> findWithinRadiusByHilbertKey(double lat, double lon, double radiusKm);
+
+	/**
+	 * Pushes the search filters down as index-friendly range and {@code $in}
+	 * conditions. A radius is sent as its bounding box, so callers still apply
+	 * the exact check; sort and limit are only pushed when that cannot change
+	 * the result.
+	 */
+	List<ParkingSpot> findMatching(SpotSearchCriteria criteria);
+
+	/**
+	 * Adds {@code delta} to the spot's {@code availableSpaces} in one conditional
+	 * {@code findAndModify}; a negative delta only applies while at least that
+	 * many spaces are free, and a positive one only while the result stays within
+	 * {@code totalSpaces} where that is set. Returns the spot with just its id and
+	 * new {@code availableSpaces}, or null when the spot is missing or the guard
+	 * failed.
+	 */
+	ParkingSpot addAvailableSpaces(String spotId, int delta);
+
+	/**
+	 * Adds a delta to {@code availableSpaces} of many spots in one unordered
+	 * bulk write, so the server applies the updates in parallel and one failure
+	 * doesn't stop the rest. Each update adds to what the server holds, so
+	 * single-spot updates that land concurrently are kept, and clamps the sum
+	 * to [0, {@code totalSpaces}] there, as the sensors may disagree with
+	 * reservations made meanwhile. Returns how many spots matched.
+	 */
+	int addAvailableSpaces(Map<String, Integer> deltaBySpotId);
+}
@@ -0,0 +1,132 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Picked up by Spring Data as the implementation of
+ * {@link ParkingSpotRepositoryCustom}.
+ */
+public class ParkingSpotRepositoryImpl implements ParkingSpotRepositoryCustom {
+
+	// Each range is one index interval on the server; a few more cost little and read fewer keys
+	private static final int MAX_HILBERT_RANGES = 8;
+
+	private final MongoTemplate mongoTemplate;
+
+	public ParkingSpotRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public List<ParkingSpot> findNearSphere(double lat, double lon, double radiusKm, int limit) {
+		// With a GeoJSON point $nearSphere takes $maxDistance in metres and sorts by distance
+		Query query = new Query(
+				Criteria.where("location").nearSphere(new GeoJsonPoint(lon, lat)).maxDistance(radiusKm * 1000.0));
+		if (limit > 0) {
+			query.limit(limit);
+		}
+		return mongoTemplate.find(query, ParkingSpot.class);
+	}
+
+	@Override
+	public List<ParkingSpot> findWithinRadiusByHilbertKey(double lat, double lon, double radiusKm) {
+		double latDelta = GeoUtils.latDeltaDeg(radiusKm);
+		double lonDelta = GeoUtils.lonDeltaDeg(lat, radiusKm);
+		List<Criteria> keyRanges = HilbertCurve
+				.ranges(lat - latDelta, lon - lonDelta, lat + latDelta, lon + lonDelta, MAX_HILBERT_RANGES).stream()
+				.map(range -> Criteria.where("hilbertKey").gte(range[0]).lte(range[1])).toList();
+
+		Query query = new Query(new Criteria().orOperator(keyRanges).and("latitude").gte(lat - latDelta)
+				.lte(lat + latDelta).and("longitude").gte(lon - lonDelta).lte(lon + lonDelta));
+		return mongoTemplate.find(query, ParkingSpot.class).stream()
+				.filter(spot -> GeoUtils.distanceKm(lat, lon, spot.getLatitude(), spot.getLongitude()) <= radiusKm)
+				.toList();
+	}
+
+	@Override
+	public List<ParkingSpot> findMatching(SpotSearchCriteria criteria) {
+		Criteria where = new Criteria();
+		if (criteria.hasGeo) {
+			where.and("latitude").gte(criteria.minLat).lte(criteria.maxLat).and("longitude").gte(criteria.minLon)
+					.lte(criteria.maxLon);
+		}
+		if (criteria.hasPriceBound()) {
+			Criteria rate = where.and("hourlyRate");
+			if (criteria.minPrice != Double.NEGATIVE_INFINITY) {
+				rate.gte(criteria.minPrice);
+			}
+			if (criteria.maxPrice != Double.POSITIVE_INFINITY) {
+				rate.lte(criteria.maxPrice);
+			}
+		}
+		if (criteria.minSpaces != Integer.MIN_VALUE) {
+			where.and("availableSpaces").gte(criteria.minSpaces);
+		}
+		if (criteria.typeKeys != null) {
+			where.and("vehicleTypeKey").in(criteria.typeKeys);
+		}
+
+		Query query = new Query(where);
+		// A radius still needs its exact check here, and distance order needs the spots first
+		if (!criteria.hasRadius && criteria.sort != SpotSearchCriteria.Sort.DISTANCE) {
+			switch (criteria.sort) {
+			case PRICE -> query.with(Sort.by("hourlyRate", "_id"));
+			case AVAILABILITY -> query.with(Sort.by(Sort.Order.desc("availableSpaces"), Sort.Order.asc("_id")));
+			default -> query.with(Sort.by("_id"));
+			}
+			query.limit(criteria.limit);
+		}
+		return mongoTemplate.find(query, ParkingSpot.class);
+	}
+
+	@Override
+	public ParkingSpot addAvailableSpaces(String spotId, int delta) {
+		Criteria where = Criteria.where("_id").is(spotId);
+		if (delta < 0) {
+			where.and("availableSpaces").gte(-delta);
+		} else if (delta > 0) {
+			// Never more free than the spot has; documents without totalSpaces have no bound
+			where.orOperator(Criteria.where("totalSpaces").not().gt(0),
+					Criteria.expr(ComparisonOperators.valueOf(ArithmeticOperators.valueOf("availableSpaces").add(delta))
+							.lessThanEqualTo("totalSpaces")));
+		}
+		Query query = new Query(where);
+		query.fields().include("availableSpaces");
+		return mongoTemplate.findAndModify(query, new Update().inc("availableSpaces", delta),
+				FindAndModifyOptions.options().returnNew(true), ParkingSpot.class);
+	}
+
+	@Override
+	public int addAvailableSpaces(Map<String, Integer> deltaBySpotId) {
+		if (deltaBySpotId.isEmpty()) {
+			return 0;
+		}
+		BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ParkingSpot.class);
+		deltaBySpotId.forEach((spotId, delta) -> bulk.updateOne(new Query(Criteria.where("_id").is(spotId)),
+				AggregationUpdate.update().set("availableSpaces").toValue(boundedSum(delta))));
+		return bulk.execute().getMatchedCount();
+	}
+
+	// availableSpaces + delta, kept within [0, totalSpaces] against what the server holds at the time
+	static AggregationExpression boundedSum(int delta) {
+		Document sum = new Document("$add", List.of("$availableSpaces", delta));
+		Document capped = new Document("$cond", List.of(new Document("$gt", List.of("$totalSpaces", 0)),
+				new Document("$min", List.of("$totalSpaces", sum)), sum));
+		return context -> new Document("$max", List.of(0, capped));
+	}
+}
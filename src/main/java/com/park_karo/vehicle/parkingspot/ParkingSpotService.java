@@ -1,43 +1,485 @@
 package com.park_karo.vehicle.parkingspot;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import com.park_karo.vehicle.exception.CustomExceptions;
+
 @Service
 public class ParkingSpotService {
 
 	private static final Logger logger = LoggerFactory.getLogger(ParkingSpotService.class);
 	private final ParkingSpotRepository parkingSpotRepository;
-
-	public ParkingSpotService(ParkingSpotRepository parkingSpotRepository) {
+	private final ParkingSpotCatalog parkingSpotCatalog;
+	private final SpotGridIndex spotGridIndex;
+	private final NearestSpotIndex nearestSpotIndex;
+	private final SpotScanEngine spotScanEngine;
+	private final SpotClusterPyramid spotClusterPyramid;
+	private final SpotResultCache spotResultCache;
+	private final SpotBitmapIndex spotBitmapIndex;
+	private final SpotSearchPlanner spotSearchPlanner;
+	private final SpotPriceIndex spotPriceIndex;
+	private final SpotAvailabilityCounters spotAvailabilityCounters;
+	private final SpotCatalogSync spotCatalogSync;
+	private final AvailabilityWriteBehind availabilityWriteBehind;
+	private final NearbySearchMode defaultNearbyMode;
+
+	static final int MAX_NEAREST_K = 500;
+	static final int MAX_BATCH_ORIGINS = 1000;
+	static final int DEFAULT_BATCH_LIMIT = 20;
+	static final int MAX_BATCH_LIMIT = 200;
+	static final double MAX_CORRIDOR_BUFFER_METERS = 5000;
+	static final int MAX_ROUTE_POINTS = 10_000;
+	static final int MAX_PAGE_SIZE = 200;
+	static final int MAX_READINGS = 10_000;
+	// Below this many origins the fork-join hand-off costs more than it saves
+	static final int BATCH_PARALLEL_THRESHOLD = 32;
+
+	public ParkingSpotService(ParkingSpotRepository parkingSpotRepository, ParkingSpotCatalog parkingSpotCatalog,
+			SpotGridIndex spotGridIndex, NearestSpotIndex nearestSpotIndex, SpotScanEngine spotScanEngine,
+			SpotClusterPyramid spotClusterPyramid, SpotResultCache spotResultCache, SpotBitmapIndex spotBitmapIndex,
+			SpotSearchPlanner spotSearchPlanner, SpotPriceIndex spotPriceIndex,
+			SpotAvailabilityCounters spotAvailabilityCounters, SpotCatalogSync spotCatalogSync,
+			AvailabilityWriteBehind availabilityWriteBehind,
+			@Value("${parking.nearby.mode:memory}") String defaultNearbyMode) {
 		this.parkingSpotRepository = parkingSpotRepository;
+		this.parkingSpotCatalog = parkingSpotCatalog;
+		this.spotGridIndex = spotGridIndex;
+		this.nearestSpotIndex = nearestSpotIndex;
+		this.spotScanEngine = spotScanEngine;
+		this.spotClusterPyramid = spotClusterPyramid;
+		this.spotResultCache = spotResultCache;
+		this.spotBitmapIndex = spotBitmapIndex;
+		this.spotSearchPlanner = spotSearchPlanner;
+		this.spotPriceIndex = spotPriceIndex;
+		this.spotAvailabilityCounters = spotAvailabilityCounters;
+		this.spotCatalogSync = spotCatalogSync;
+		this.availabilityWriteBehind = availabilityWriteBehind;
+		this.defaultNearbyMode = NearbySearchMode.from(defaultNearbyMode);
 	}
 
 	// ============ SYNC METHODS (Original) ============
 
 	public List<ParkingSpot> findAllParkingSpots() {
-		return parkingSpotRepository.findAll();
+		return List.copyOf(allSpots());
 	}
 
 	public ParkingSpot save(ParkingSpot parkingSpot) {
-		return parkingSpotRepository.save(parkingSpot);
+		ParkingSpot savedSpot = parkingSpotRepository.save(parkingSpot);
+		parkingSpotCatalog.upsert(savedSpot);
+		return savedSpot;
+	}
+
+	/**
+	 * Takes one space at the spot; fails with a conflict when none is free.
+	 * Returns the free spaces left.
+	 */
+	public int reserveSpace(String spotId) {
+		ParkingSpot updated = parkingSpotRepository.addAvailableSpaces(spotId, -1);
+		if (updated == null) {
+			if (!parkingSpotRepository.existsById(spotId)) {
+				throw new CustomExceptions.ResourceNotFoundBusinessException("ParkingSpot", spotId);
+			}
+			throw new CustomExceptions.CapacityExhaustedBusinessException("ParkingSpot", spotId);
+		}
+		spotAvailabilityCounters.apply(spotId, -1);
+		return updated.getAvailableSpaces();
+	}
+
+	/**
+	 * Gives one space back to the spot; fails with a conflict when every space
+	 * is already free. Returns the free spaces after the release.
+	 */
+	public int releaseSpace(String spotId) {
+		ParkingSpot updated = parkingSpotRepository.addAvailableSpaces(spotId, 1);
+		if (updated == null) {
+			if (!parkingSpotRepository.existsById(spotId)) {
+				throw new CustomExceptions.ResourceNotFoundBusinessException("ParkingSpot", spotId);
+			}
+			throw new CustomExceptions.CapacityExhaustedBusinessException(
+					String.format("ParkingSpot with ID %s has no reserved space to release", spotId));
+		}
+		spotAvailabilityCounters.apply(spotId, 1);
+		return updated.getAvailableSpaces();
+	}
+
+	/**
+	 * Takes sensor readings of free spaces. They apply in memory at once and
+	 * reach MongoDB with the next write-behind flush. Returns how many were
+	 * accepted.
+	 */
+	public int submitAvailabilityReadings(List<SpotAvailabilityReading> readings) {
+		if (readings == null || readings.isEmpty() || readings.size() > MAX_READINGS) {
+			throw new CustomExceptions.ValidationBusinessException("readings",
+					"must contain between 1 and " + MAX_READINGS + " entries");
+		}
+		for (SpotAvailabilityReading reading : readings) {
+			ParkingSpot spot = reading.getSpotId() != null ? parkingSpotCatalog.get(reading.getSpotId()) : null;
+			if (spot == null) {
+				throw new CustomExceptions.ResourceNotFoundBusinessException("ParkingSpot", reading.getSpotId());
+			}
+			if (reading.getAvailableSpaces() < 0
+					|| (spot.getTotalSpaces() > 0 && reading.getAvailableSpaces() > spot.getTotalSpaces())) {
+				throw new CustomExceptions.ValidationBusinessException("availableSpaces",
+						"must be between 0 and the spot's total spaces");
+			}
+		}
+		readings.forEach(reading -> availabilityWriteBehind.submit(reading.getSpotId(), reading.getAvailableSpaces()));
+		return readings.size();
+	}
+
+	public Map<String, Object> getWriteBehindStats() {
+		return availabilityWriteBehind.stats();
+	}
+
+	/**
+	 * Free spaces of the spot from the in-memory counters, without touching
+	 * MongoDB once the spot is known.
+	 */
+	public int getAvailableSpaces(String spotId) {
+		int available = spotAvailabilityCounters.available(spotId);
+		if (available >= 0) {
+			return available;
+		}
+		ParkingSpot spot = parkingSpotCatalog.get(spotId);
+		if (spot != null) {
+			return spot.getAvailableSpaces();
+		}
+		return parkingSpotRepository.findById(spotId).map(ParkingSpot::getAvailableSpaces)
+				.orElseThrow(() -> new CustomExceptions.ResourceNotFoundBusinessException("ParkingSpot", spotId));
 	}
 
 	public List<ParkingSpot> findNearbyParkingSpots(double searchLat, double searchLon, double radiusKm) {
-		logger.info("Finding nearby spots synchronously for lat: {}, lon: {}, radius: {}km", searchLat, searchLon,
-				radiusKm);
+		return findNearbyParkingSpots(searchLat, searchLon, radiusKm, null, 0);
+	}
+
+	/**
+	 * Radius search using the given engine (or {@code parking.nearby.mode} when
+	 * {@code mode} is null). A positive {@code limit} returns only the closest
+	 * {@code limit} spots, nearest first.
+	 */
+	public List<ParkingSpot> findNearbyParkingSpots(double searchLat, double searchLon, double radiusKm,
+			NearbySearchMode mode, int limit) {
+		NearbySearchMode effectiveMode = mode != null ? mode : defaultNearbyMode;
+		logger.info("Finding nearby spots synchronously for lat: {}, lon: {}, radius: {}km, mode: {}", searchLat,
+				searchLon, radiusKm, effectiveMode);
+
+		if (effectiveMode == NearbySearchMode.MONGO) {
+			return parkingSpotRepository.findNearSphere(searchLat, searchLon, radiusKm, limit);
+		}
+
+		List<ParkingSpot> nearbySpots;
+		if (effectiveMode == NearbySearchMode.HILBERT) {
+			nearbySpots = parkingSpotRepository.findWithinRadiusByHilbertKey(searchLat, searchLon, radiusKm);
+		} else if (effectiveMode == NearbySearchMode.SCAN && parkingSpotCatalog.isLoaded()) {
+			nearbySpots = spotScanEngine.scanRadius(searchLat, searchLon, radiusKm);
+		} else if (spotGridIndex.isReady()) {
+			nearbySpots = spotResultCache.findWithinRadius(searchLat, searchLon, radiusKm);
+		} else {
+			nearbySpots = allSpots().stream().filter(spot -> {
+				double distance = calculateDistance(searchLat, searchLon, spot.getLatitude(), spot.getLongitude());
+				return distance <= radiusKm;
+			}).toList();
+		}
+		return limit > 0 ? closestFirst(nearbySpots, searchLat, searchLon, limit) : nearbySpots;
+	}
+
+	/**
+	 * Returns the {@code k} spots closest to the given point, nearest first, no
+	 * further away than {@code maxDistanceKm}.
+	 */
+	public List<SpotDistance> findNearestParkingSpots(double searchLat, double searchLon, int k, double maxDistanceKm) {
+		if (k < 1 || k > MAX_NEAREST_K) {
+			throw new CustomExceptions.ValidationBusinessException("k", "must be between 1 and " + MAX_NEAREST_K);
+		}
+		logger.info("Finding {} nearest spots for lat: {}, lon: {}, maxDistance: {}km", k, searchLat, searchLon,
+				maxDistanceKm);
+
+		if (nearestSpotIndex.isReady()) {
+			return nearestSpotIndex.findNearest(searchLat, searchLon, k, maxDistanceKm);
+		}
+
+		SpotKdTree.NearestHeap heap = new SpotKdTree.NearestHeap(k, maxDistanceKm);
+		allSpots().forEach(spot -> heap.offer(spot, searchLat, searchLon));
+		return heap.toSortedList();
+	}
+
+	/**
+	 * Answers many radius searches at once against the shared grid index (or a
+	 * single load of the collection while the index is being built). Each
+	 * origin's results are sorted nearest first and capped at its limit. Large
+	 * batches are split across the fork-join pool.
+	 */
+	public Map<String, List<SpotDistance>> findNearbyBatch(List<NearbyOrigin> origins) {
+		if (origins == null || origins.isEmpty() || origins.size() > MAX_BATCH_ORIGINS) {
+			throw new CustomExceptions.ValidationBusinessException("origins",
+					"must contain between 1 and " + MAX_BATCH_ORIGINS + " entries");
+		}
+		Set<String> keys = new HashSet<>();
+		for (NearbyOrigin origin : origins) {
+			// Results are keyed by origin, so two origins with one key would lose a result
+			if (!keys.add(origin.resultKey())) {
+				throw new CustomExceptions.ValidationBusinessException("origins",
+						"contains " + origin.resultKey() + " more than once; give each origin a distinct id");
+			}
+			if (origin.getRadiusKm() <= 0) {
+				throw new CustomExceptions.ValidationBusinessException("radiusKm", "must be positive");
+			}
+			if (origin.getLimit() != null && (origin.getLimit() < 1 || origin.getLimit() > MAX_BATCH_LIMIT)) {
+				throw new CustomExceptions.ValidationBusinessException("limit",
+						"must be between 1 and " + MAX_BATCH_LIMIT);
+			}
+		}
+		logger.info("Finding nearby spots for a batch of {} origins", origins.size());
+
+		Collection<ParkingSpot> sharedScan = spotGridIndex.isReady() ? null : allSpots();
+
+		@SuppressWarnings("unchecked")
+		List<SpotDistance>[] results = new List[origins.size()];
+		if (origins.size() < BATCH_PARALLEL_THRESHOLD) {
+			for (int i = 0; i < origins.size(); i++) {
+				results[i] = searchOrigin(origins.get(i), sharedScan);
+			}
+		} else {
+			ForkJoinPool.commonPool().invoke(new BatchSearchTask(origins, sharedScan, results, 0, origins.size()));
+		}
+
+		Map<String, List<SpotDistance>> byOrigin = new LinkedHashMap<>();
+		for (int i = 0; i < origins.size(); i++) {
+			byOrigin.put(origins.get(i).resultKey(), results[i]);
+		}
+		return byOrigin;
+	}
+
+	private List<SpotDistance> searchOrigin(NearbyOrigin origin, Collection<ParkingSpot> sharedScan) {
+		int limit = origin.getLimit() != null ? origin.getLimit() : DEFAULT_BATCH_LIMIT;
+		double lat = origin.getLat();
+		double lon = origin.getLon();
+		double radiusKm = origin.getRadiusKm();
+		SpotKdTree.NearestHeap heap = new SpotKdTree.NearestHeap(limit, radiusKm);
+
+		if (sharedScan == null) {
+			double latDelta = GeoUtils.latDeltaDeg(radiusKm);
+			double lonDelta = GeoUtils.lonDeltaDeg(lat, radiusKm);
+			spotGridIndex.forEachCandidateInBox(lat - latDelta, lon - lonDelta, lat + latDelta, lon + lonDelta,
+					spot -> heap.offer(spot, lat, lon));
+		} else {
+			sharedScan.forEach(spot -> heap.offer(spot, lat, lon));
+		}
+		return heap.toSortedList();
+	}
 
-		List<ParkingSpot> allSpots = parkingSpotRepository.findAll();
+	/**
+	 * Splits a batch in halves until a slice is small enough to search
+	 * sequentially.
+	 */
+	private final class BatchSearchTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final List<NearbyOrigin> origins;
+		private final transient Collection<ParkingSpot> sharedScan;
+		private final List<SpotDistance>[] results;
+		private final int from;
+		private final int to;
+
+		BatchSearchTask(List<NearbyOrigin> origins, Collection<ParkingSpot> sharedScan, List<SpotDistance>[] results,
+				int from, int to) {
+			this.origins = origins;
+			this.sharedScan = sharedScan;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
 
-		return allSpots.stream().filter(spot -> {
-			double distance = calculateDistance(searchLat, searchLon, spot.getLatitude(), spot.getLongitude());
-			return distance <= radiusKm;
-		}).toList();
+		@Override
+		protected void compute() {
+			if (to - from <= BATCH_PARALLEL_THRESHOLD / 4) {
+				for (int i = from; i < to; i++) {
+					results[i] = searchOrigin(origins.get(i), sharedScan);
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new BatchSearchTask(origins, sharedScan, results, from, mid),
+					new BatchSearchTask(origins, sharedScan, results, mid, to));
+		}
+	}
+
+	/**
+	 * Returns the precomputed spot clusters for a map viewport at the given zoom.
+	 */
+	public List<SpotCluster> findClusters(double minLat, double minLon, double maxLat, double maxLon, int zoom) {
+		if (minLat > maxLat || minLon > maxLon) {
+			throw new CustomExceptions.ValidationBusinessException("bbox", "min corner must not exceed max corner");
+		}
+		List<SpotCluster> clusters = spotClusterPyramid.findClusters(minLat, minLon, maxLat, maxLon, zoom);
+		logger.info("Found {} clusters for bbox [{}, {}, {}, {}] at zoom {}", clusters.size(), minLat, minLon, maxLat,
+				maxLon, zoom);
+		return clusters;
+	}
+
+	/**
+	 * Returns the spots within {@code bufferMeters} of an encoded route polyline,
+	 * ordered by their position along the route.
+	 */
+	public List<CorridorSpot> findAlongRoute(String encodedPolyline, double bufferMeters, int limit) {
+		if (encodedPolyline == null || encodedPolyline.isBlank()) {
+			throw new CustomExceptions.ValidationBusinessException("polyline", "is required");
+		}
+		if (bufferMeters <= 0 || bufferMeters > MAX_CORRIDOR_BUFFER_METERS) {
+			throw new CustomExceptions.ValidationBusinessException("bufferMeters",
+					"must be between 0 and " + MAX_CORRIDOR_BUFFER_METERS);
+		}
+		List<double[]> route = PolylineCodec.decode(encodedPolyline);
+		if (route.isEmpty() || route.size() > MAX_ROUTE_POINTS) {
+			throw new CustomExceptions.ValidationBusinessException("polyline",
+					"must decode to between 1 and " + MAX_ROUTE_POINTS + " points");
+		}
+
+		List<CorridorSpot> spots = SpotCorridorSearch.search(readyGridIndex(), route, bufferMeters / 1000.0);
+		logger.info("Found {} spots within {}m of a {}-point route", spots.size(), bufferMeters, route.size());
+		return limit > 0 && spots.size() > limit ? spots.subList(0, limit) : spots;
+	}
+
+	/**
+	 * Returns one page of the spots within {@code radiusKm}, sorted by distance
+	 * and then id. The first call passes the search point and radius; later
+	 * calls pass the returned cursor, which carries the query and the position
+	 * of the last spot so the next page resumes right after it.
+	 */
+	public NearbyPage findNearbyPage(Double searchLat, Double searchLon, Double radiusKm, int pageSize,
+			String cursor) {
+		if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+			throw new CustomExceptions.ValidationBusinessException("pageSize",
+					"must be between 1 and " + MAX_PAGE_SIZE);
+		}
+		NearbyPageCursor position;
+		if (cursor != null && !cursor.isBlank()) {
+			position = NearbyPageCursor.decode(cursor);
+			if ((searchLat != null && searchLat != position.lat) || (searchLon != null && searchLon != position.lon)
+					|| (radiusKm != null && radiusKm != position.radiusKm)) {
+				throw new CustomExceptions.ValidationBusinessException("cursor", "does not match the search");
+			}
+		} else {
+			if (searchLat == null || searchLon == null || radiusKm == null) {
+				throw new CustomExceptions.ValidationBusinessException("lat/lon/radiusKm",
+						"are required without a cursor");
+			}
+			if (radiusKm <= 0) {
+				throw new CustomExceptions.ValidationBusinessException("radiusKm", "must be positive");
+			}
+			position = new NearbyPageCursor(searchLat, searchLon, radiusKm, -1, "");
+		}
+
+		List<SpotDistance> items = readyGridIndex().findPageWithinRadius(position.lat, position.lon,
+				position.radiusKm, position.lastDistanceKm, position.lastId, pageSize);
+		String nextCursor = null;
+		if (items.size() == pageSize) {
+			SpotDistance last = items.get(items.size() - 1);
+			nextCursor = new NearbyPageCursor(position.lat, position.lon, position.radiusKm, last.getDistanceKm(),
+					last.getSpot().getId()).encode();
+		}
+		logger.info("Nearby page of {} spots for lat: {}, lon: {}, radius: {}km (more: {})", items.size(),
+				position.lat, position.lon, position.radiusKm, nextCursor != null);
+		return new NearbyPage(items, nextCursor);
+	}
+
+	private SpotGridIndex readyGridIndex() {
+		if (spotGridIndex.isReady()) {
+			return spotGridIndex;
+		}
+		// Catalog still loading: index the collection once for this request
+		SpotGridIndex index = new SpotGridIndex(spotGridIndex.getCellDeg());
+		index.onCatalogChanged(SpotCatalogChangedEvent.reload(allSpots()));
+		return index;
+	}
+
+	/**
+	 * Multi-criteria search; the planner picks the access path. See
+	 * {@link SpotSearchPlanner}.
+	 */
+	public SpotSearchResult searchSpots(SpotSearchRequest request) {
+		return spotSearchPlanner.search(request);
+	}
+
+	/**
+	 * Spots priced within {@code [minPrice, maxPrice]}, cheapest first, answered
+	 * from the price index once it is built.
+	 */
+	public List<ParkingSpot> findByPriceRange(String vehicleType, Double minPrice, Double maxPrice, int limit) {
+		double min = minPrice != null ? minPrice : Double.NEGATIVE_INFINITY;
+		double max = maxPrice != null ? maxPrice : Double.POSITIVE_INFINITY;
+		if (min > max) {
+			throw new CustomExceptions.ValidationBusinessException("minPrice", "must not exceed maxPrice");
+		}
+		validatePriceLimit("limit", limit);
+		if (!spotPriceIndex.isReady()) {
+			SpotSearchRequest request = priceSearch(vehicleType, limit);
+			request.setMinPrice(minPrice);
+			request.setMaxPrice(maxPrice);
+			return spotSearchPlanner.search(request).getSpots();
+		}
+		return cheapestFirst(spotPriceIndex.findInPriceRange(vehicleType, min, max, limit), limit);
+	}
+
+	/**
+	 * The {@code n} cheapest spots with at least {@code minSpaces} free.
+	 */
+	public List<ParkingSpot> findCheapest(String vehicleType, int n, int minSpaces) {
+		validatePriceLimit("n", n);
+		if (!spotPriceIndex.isReady()) {
+			SpotSearchRequest request = priceSearch(vehicleType, n);
+			request.setMinSpaces(minSpaces);
+			return spotSearchPlanner.search(request).getSpots();
+		}
+		return cheapestFirst(spotPriceIndex.findCheapest(vehicleType, n, minSpaces), n);
+	}
+
+	private static void validatePriceLimit(String field, int limit) {
+		if (limit < 1 || limit > SpotSearchCriteria.MAX_LIMIT) {
+			throw new CustomExceptions.ValidationBusinessException(field,
+					"must be between 1 and " + SpotSearchCriteria.MAX_LIMIT);
+		}
+	}
+
+	private static SpotSearchRequest priceSearch(String vehicleType, int limit) {
+		SpotSearchRequest request = new SpotSearchRequest();
+		if (vehicleType != null && !vehicleType.isBlank()) {
+			request.setVehicleTypes(List.of(vehicleType));
+		}
+		request.setSort("price");
+		request.setLimit(limit);
+		return request;
+	}
+
+	// The index walk keeps spots tied on the last rate; order them by id and cut to the limit
+	private static List<ParkingSpot> cheapestFirst(List<ParkingSpot> spots, int limit) {
+		return spots.stream()
+				.sorted(Comparator.comparingDouble(ParkingSpot::getHourlyRate).thenComparing(ParkingSpot::getId,
+						Comparator.nullsLast(Comparator.naturalOrder())))
+				.limit(limit).toList();
+	}
+
+	public Map<String, Object> getResultCacheStats() {
+		return spotResultCache.stats();
+	}
+
+	public Map<String, Object> getCatalogSyncStats() {
+		return spotCatalogSync.stats();
 	}
 
 	// ============ ASYNC METHODS (New) ============
@@ -50,7 +492,7 @@ public class ParkingSpotService {
 		logger.info("Async findAllParkingSpots started on thread: {}", Thread.currentThread().getName());
 
 		try {
-			List<ParkingSpot> spots = parkingSpotRepository.findAll();
+			List<ParkingSpot> spots = List.copyOf(allSpots());
 			logger.info("Async findAllParkingSpots completed. Found {} spots", spots.size());
 			return CompletableFuture.completedFuture(spots);
 		} catch (Exception e) {
@@ -60,17 +502,62 @@ public class ParkingSpotService {
 	}
 
 	/**
-	 * Async: Find nearby parking spots with parallel processing
+	 * Async: Find nearby parking spots with the configured search engine
 	 */
 	@Async("threadPoolTaskExecutor")
 	public CompletableFuture<List<ParkingSpot>> findNearbyParkingSpotsAsync(double searchLat, double searchLon,
 			double radiusKm) {
+		return findNearbyParkingSpotsAsync(searchLat, searchLon, radiusKm, null, 0);
+	}
+
+	/**
+	 * Async: Find nearby parking spots, using the grid index once it is built and
+	 * falling back to a parallel scan of the collection until then, or MongoDB's
+	 * $nearSphere in MONGO mode and Hilbert key ranges in HILBERT mode
+	 */
+	@Async("threadPoolTaskExecutor")
+	public CompletableFuture<List<ParkingSpot>> findNearbyParkingSpotsAsync(double searchLat, double searchLon,
+			double radiusKm, NearbySearchMode mode, int limit) {
 
-		logger.info("Async findNearbyParkingSpots started on thread: {} for lat: {}, lon: {}, radius: {}km",
-				Thread.currentThread().getName(), searchLat, searchLon, radiusKm);
+		NearbySearchMode effectiveMode = mode != null ? mode : defaultNearbyMode;
+		logger.info("Async findNearbyParkingSpots started on thread: {} for lat: {}, lon: {}, radius: {}km, mode: {}",
+				Thread.currentThread().getName(), searchLat, searchLon, radiusKm, effectiveMode);
 
 		try {
-			List<ParkingSpot> allSpots = parkingSpotRepository.findAll();
+			if (effectiveMode == NearbySearchMode.MONGO) {
+				List<ParkingSpot> nearbySpots = parkingSpotRepository.findNearSphere(searchLat, searchLon, radiusKm,
+						limit);
+				logger.info("Async findNearbyParkingSpots completed. Found {} nearby spots via $nearSphere",
+						nearbySpots.size());
+				return CompletableFuture.completedFuture(nearbySpots);
+			}
+
+			if (effectiveMode == NearbySearchMode.HILBERT) {
+				List<ParkingSpot> nearbySpots = parkingSpotRepository.findWithinRadiusByHilbertKey(searchLat,
+						searchLon, radiusKm);
+				logger.info("Async findNearbyParkingSpots completed. Found {} nearby spots via Hilbert key ranges",
+						nearbySpots.size());
+				return CompletableFuture.completedFuture(
+						limit > 0 ? closestFirst(nearbySpots, searchLat, searchLon, limit) : nearbySpots);
+			}
+
+			if (effectiveMode == NearbySearchMode.SCAN && parkingSpotCatalog.isLoaded()) {
+				List<ParkingSpot> nearbySpots = spotScanEngine.scanRadius(searchLat, searchLon, radiusKm);
+				logger.info("Async findNearbyParkingSpots completed. Found {} nearby spots via columnar scan",
+						nearbySpots.size());
+				return CompletableFuture.completedFuture(
+						limit > 0 ? closestFirst(nearbySpots, searchLat, searchLon, limit) : nearbySpots);
+			}
+
+			if (spotGridIndex.isReady()) {
+				List<ParkingSpot> nearbySpots = spotResultCache.findWithinRadius(searchLat, searchLon, radiusKm);
+				logger.info("Async findNearbyParkingSpots completed. Found {} nearby spots via grid index",
+						nearbySpots.size());
+				return CompletableFuture.completedFuture(
+						limit > 0 ? closestFirst(nearbySpots, searchLat, searchLon, limit) : nearbySpots);
+			}
+
+			Collection<ParkingSpot> allSpots = allSpots();
 
 			// Use parallel stream for faster filtering
 			List<ParkingSpot> nearbySpots = allSpots.parallelStream().filter(spot -> {
@@ -81,7 +568,8 @@ public class ParkingSpotService {
 			logger.info("Async findNearbyParkingSpots completed. Found {} nearby spots out of {} total",
 					nearbySpots.size(), allSpots.size());
 
-			return CompletableFuture.completedFuture(nearbySpots);
+			return CompletableFuture.completedFuture(
+					limit > 0 ? closestFirst(nearbySpots, searchLat, searchLon, limit) : nearbySpots);
 		} catch (Exception e) {
 			logger.error("Async findNearbyParkingSpots failed: {}", e.getMessage(), e);
 			return CompletableFuture.failedFuture(e);
@@ -97,12 +585,15 @@ public class ParkingSpotService {
 				vehicleType);
 
 		try {
-			// Simulate database query
-			Thread.sleep(100); // Simulate DB delay
-
-			List<ParkingSpot> allSpots = parkingSpotRepository.findAll();
-			List<ParkingSpot> filteredSpots = allSpots.stream()
-					.filter(spot -> vehicleType.equalsIgnoreCase(spot.getVehicleType())).toList();
+			List<ParkingSpot> filteredSpots;
+			if (parkingSpotCatalog.isLoaded()) {
+				int code = VehicleTypes.find(vehicleType);
+				filteredSpots = parkingSpotCatalog.all().stream().filter(spot -> spot.getVehicleTypeCode() == code)
+						.toList();
+			} else {
+				filteredSpots = parkingSpotRepository.findByVehicleTypeKey(ParkingSpot.normalizeVehicleType(vehicleType));
+			}
+			logger.info("Async findByVehicleType completed. Found {} spots", filteredSpots.size());
 
 			return CompletableFuture.completedFuture(filteredSpots);
 		} catch (Exception e) {
@@ -121,6 +612,7 @@ public class ParkingSpotService {
 
 		try {
 			List<ParkingSpot> savedSpots = parkingSpotRepository.saveAll(parkingSpots);
+			parkingSpotCatalog.upsertAll(savedSpots);
 			logger.info("Async saveAll completed. Saved {} spots", savedSpots.size());
 			return CompletableFuture.completedFuture(savedSpots);
 		} catch (Exception e) {
@@ -141,14 +633,31 @@ public class ParkingSpotService {
 				Thread.currentThread().getName(), maxPrice, minSpaces, vehicleType);
 
 		try {
-			List<ParkingSpot> allSpots = parkingSpotRepository.findAll();
-
-			// Process in parallel
-			List<ParkingSpot> availableSpots = allSpots.parallelStream()
-					.filter(spot -> spot.getHourlyRate() <= maxPrice)
-					.filter(spot -> spot.getAvailableSpaces() >= minSpaces).filter(spot -> vehicleType == null
-							|| vehicleType.isEmpty() || vehicleType.equalsIgnoreCase(spot.getVehicleType()))
-					.toList();
+			if (spotBitmapIndex.isReady()) {
+				List<ParkingSpot> availableSpots = spotResultCache.findAvailable(maxPrice, minSpaces, vehicleType,
+						() -> spotBitmapIndex.findAvailable(maxPrice, minSpaces, vehicleType));
+				logger.info("Async findAvailableSpots completed. Found {} available spots via bitmap index",
+						availableSpots.size());
+				return CompletableFuture.completedFuture(availableSpots);
+			}
+
+			if (parkingSpotCatalog.isLoaded()) {
+				int code = VehicleTypes.find(vehicleType);
+				List<ParkingSpot> availableSpots = parkingSpotCatalog.all().stream()
+						.filter(spot -> spot.getHourlyRate() <= maxPrice && spot.getAvailableSpaces() >= minSpaces
+								&& (code == VehicleTypes.NONE || spot.getVehicleTypeCode() == code))
+						.toList();
+				logger.info("Async findAvailableSpots completed. Found {} available spots in the catalog",
+						availableSpots.size());
+				return CompletableFuture.completedFuture(availableSpots);
+			}
+
+			// Catalog not loaded yet: let MongoDB filter on the compound indexes
+			List<ParkingSpot> availableSpots = vehicleType == null || vehicleType.isEmpty()
+					? parkingSpotRepository.findByHourlyRateLessThanEqualAndAvailableSpacesGreaterThanEqual(maxPrice,
+							minSpaces)
+					: parkingSpotRepository.findByVehicleTypeKeyAndHourlyRateLessThanEqualAndAvailableSpacesGreaterThanEqual(
+							ParkingSpot.normalizeVehicleType(vehicleType), maxPrice, minSpaces);
 
 			logger.info("Async findAvailableSpots completed. Found {} available spots", availableSpots.size());
 
@@ -161,20 +670,19 @@ public class ParkingSpotService {
 
 	// ============ HELPER METHOD ============
 
-	/**
-	 * Calculates the distance between two latitude and longitude points using the
-	 * Haversine formula. Distance is returned in Kilometers (km).
-	 */
-	private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-		final int R = 6371; // Radius of the earth in km
-		double latDistance = Math.toRadians(lat2 - lat1);
-		double lonDistance = Math.toRadians(lon2 - lon1);
-
-		double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2) + Math.cos(Math.toRadians(lat1))
-				* Math.cos(Math.toRadians(lat2)) * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+	// The catalog once it is loaded, so reads don't go back to MongoDB; the collection before that
+	private Collection<ParkingSpot> allSpots() {
+		return parkingSpotCatalog.isLoaded() ? parkingSpotCatalog.all() : parkingSpotRepository.findAll();
+	}
 
-		double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+	private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
+		return GeoUtils.distanceKm(lat1, lon1, lat2, lon2);
+	}
 
-		return R * c; // Final distance in km
+	private List<ParkingSpot> closestFirst(List<ParkingSpot> spots, double lat, double lon, int limit) {
+		return spots.stream()
+				.sorted(Comparator.comparingDouble(
+						spot -> calculateDistance(lat, lon, spot.getLatitude(), spot.getLongitude())))
+				.limit(limit).toList();
 	}
-}
\ No newline at end of file
+}
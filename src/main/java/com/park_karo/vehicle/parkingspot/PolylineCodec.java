@@ -0,0 +1,58 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoder for the Encoded Polyline Algorithm Format (precision 5) used by
+ * Google Maps and most routing APIs.
+ */
+public final class PolylineCodec {
+
+	private PolylineCodec() {
+	}
+
+	/**
+	 * Decodes an encoded polyline into {@code [lat, lon]} pairs.
+	 *
+	 * @throws IllegalArgumentException if the string is truncated or malformed
+	 */
+	public static List<double[]> decode(String encoded) {
+		List<double[]> points = new ArrayList<>();
+		int index = 0;
+		int lat = 0;
+		int lon = 0;
+		int length = encoded.length();
+
+		while (index < length) {
+			int[] latResult = decodeValue(encoded, index);
+			index = latResult[1];
+			int[] lonResult = decodeValue(encoded, index);
+			index = lonResult[1];
+			lat += latResult[0];
+			lon += lonResult[0];
+			points.add(new double[] { lat / 1e5, lon / 1e5 });
+		}
+		return points;
+	}
+
+	/** Returns {value, nextIndex}. */
+	private static int[] decodeValue(String encoded, int index) {
+		int result = 0;
+		int shift = 0;
+		int b;
+		do {
+			if (index >= encoded.length()) {
+				throw new IllegalArgumentException("Truncated polyline at index " + index);
+			}
+			b = encoded.charAt(index++) - 63;
+			if (b < 0 || b > 63) {
+				throw new IllegalArgumentException("Invalid polyline character at index " + (index - 1));
+			}
+			result |= (b & 0x1f) << shift;
+			shift += 5;
+		} while (b >= 0x20 && shift < 32);
+		int value = (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+		return new int[] { value, index };
+	}
+}
@@ -0,0 +1,211 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory mirror of each spot's {@code availableSpaces} for the
+ * reserve/release endpoints.
+ *
+ * MongoDB stays the authority: every check-in is a conditional
+ * {@code findAndModify}, and only a successful one adds its delta here. Each
+ * spot's counter is a {@link LongAdder}, whose cells are striped and padded,
+ * so bursts of check-ins on a few hot spots don't serialise on one cache line
+ * and reads never wait for writers. Deltas commute, so the mirror agrees with
+ * the database whatever order the updates land in.
+ *
+ * Publishing a catalog event per check-in would rebuild index entries
+ * thousands of times a second. Instead, changed spots are marked dirty and
+ * a scheduled flush copies their counters into the catalog as one batch.
+ * Whole-document writes and reloads go the other way and rebase the counters,
+ * keeping any sensor change that is still waiting to be written on top.
+ */
+@Component
+public class SpotAvailabilityCounters {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotAvailabilityCounters.class);
+
+	private final ParkingSpotCatalog parkingSpotCatalog;
+
+	private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+	private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+	// Net sensor change per spot that MongoDB hasn't been given yet; catalog events rebase underneath it
+	private final Map<String, LongAdder> unwritten = new ConcurrentHashMap<>();
+	// Set while this component's own flush is being published, so the listener doesn't rebase from it
+	private final ThreadLocal<Boolean> flushing = ThreadLocal.withInitial(() -> false);
+
+	public SpotAvailabilityCounters(ParkingSpotCatalog parkingSpotCatalog) {
+		this.parkingSpotCatalog = parkingSpotCatalog;
+	}
+
+	/**
+	 * Records a delta that MongoDB has already applied. A spot without a
+	 * counter is seeded from its catalog copy, which none of the racing
+	 * updates are in, so every caller adds its own delta on top; a spot not in
+	 * the catalog is left alone, as the document that loads it will hold the
+	 * delta already.
+	 */
+	public void apply(String spotId, int delta) {
+		LongAdder counter = counters.get(spotId);
+		if (counter == null) {
+			ParkingSpot spot = parkingSpotCatalog.get(spotId);
+			if (spot == null) {
+				return;
+			}
+			counter = counters.computeIfAbsent(spotId, id -> {
+				LongAdder seeded = new LongAdder();
+				seeded.add(spot.getAvailableSpaces());
+				return seeded;
+			});
+		}
+		counter.add(delta);
+		dirty.add(spotId);
+	}
+
+	/**
+	 * Overwrites the spot's free spaces with a reading MongoDB hasn't seen yet;
+	 * see {@link AvailabilityWriteBehind}.
+	 */
+	public void set(String spotId, int available) {
+		LongAdder counter = counters.computeIfAbsent(spotId, id -> new LongAdder());
+		long change = available - counter.sum();
+		counter.add(change);
+		addUnwritten(spotId, change);
+		dirty.add(spotId);
+	}
+
+	/**
+	 * Applies a sensor delta MongoDB hasn't seen yet, keeping the result within
+	 * {@code [0, capacity]}. Returns the new value, or -1 for an unknown spot.
+	 */
+	public int adjust(String spotId, int delta, int capacity) {
+		LongAdder counter = counters.get(spotId);
+		if (counter == null) {
+			return -1;
+		}
+		long current = counter.sum();
+		long target = Math.max(0, Math.min(capacity, current + delta));
+		counter.add(target - current);
+		addUnwritten(spotId, target - current);
+		dirty.add(spotId);
+		return (int) target;
+	}
+
+	/**
+	 * Net change sensors made to the spot since its last write, or 0 if none is
+	 * waiting. Writing it with {@code $inc} keeps reservations that MongoDB
+	 * applied in the meantime.
+	 */
+	public int unwritten(String spotId) {
+		LongAdder change = unwritten.get(spotId);
+		return change != null ? (int) change.sum() : 0;
+	}
+
+	/**
+	 * Called once MongoDB has applied {@code change}; sensor changes made
+	 * since stay waiting.
+	 */
+	public void markWritten(String spotId, int change) {
+		unwritten.computeIfPresent(spotId, (id, waiting) -> {
+			waiting.add(-change);
+			return waiting.sum() != 0 ? waiting : null;
+		});
+	}
+
+	/**
+	 * Current free spaces of the spot, or -1 if it has no counter.
+	 */
+	public int available(String spotId) {
+		LongAdder counter = counters.get(spotId);
+		return counter != null ? (int) counter.sum() : -1;
+	}
+
+	/**
+	 * Copies the counters of spots changed since the last flush into the
+	 * catalog, so the indexes see them as one batch.
+	 */
+	@Scheduled(fixedDelayString = "${parking.availability.flush-ms:250}")
+	public void flush() {
+		if (dirty.isEmpty()) {
+			return;
+		}
+		List<ParkingSpot> changed = new ArrayList<>();
+		for (Iterator<String> it = dirty.iterator(); it.hasNext();) {
+			String spotId = it.next();
+			it.remove();
+			ParkingSpot spot = parkingSpotCatalog.get(spotId);
+			LongAdder counter = counters.get(spotId);
+			if (spot == null || counter == null) {
+				continue;
+			}
+			int available = (int) counter.sum();
+			if (spot.getAvailableSpaces() != available) {
+				spot.setAvailableSpaces(available);
+				changed.add(spot);
+			}
+		}
+		if (changed.isEmpty()) {
+			return;
+		}
+		flushing.set(true);
+		try {
+			parkingSpotCatalog.upsertAll(changed);
+		} finally {
+			flushing.set(false);
+		}
+		logger.debug("Flushed availability of {} spots into the catalog", changed.size());
+	}
+
+	@EventListener
+	public void onCatalogChanged(SpotCatalogChangedEvent event) {
+		if (flushing.get()) {
+			return;
+		}
+		if (event.isReload()) {
+			Set<String> ids = idsOf(event.getUpserted());
+			counters.keySet().retainAll(ids);
+			unwritten.keySet().retainAll(ids);
+		}
+		for (String removedId : event.getRemovedIds()) {
+			counters.remove(removedId);
+			unwritten.remove(removedId);
+		}
+		for (ParkingSpot spot : event.getUpserted()) {
+			// Relative, so check-ins that land while the document is rewritten are kept
+			LongAdder counter = counters.computeIfAbsent(spot.getId(), id -> new LongAdder());
+			int change = unwritten(spot.getId());
+			counter.add(spot.getAvailableSpaces() + change - counter.sum());
+			if (change != 0) {
+				// Put the reading back over the stale value on the next flush
+				dirty.add(spot.getId());
+			}
+		}
+	}
+
+	// Atomic per spot with markWritten, which drops the entry once it reaches zero
+	private void addUnwritten(String spotId, long change) {
+		unwritten.compute(spotId, (id, waiting) -> {
+			LongAdder sum = waiting != null ? waiting : new LongAdder();
+			sum.add(change);
+			return sum;
+		});
+	}
+
+	private static Set<String> idsOf(Iterable<ParkingSpot> spots) {
+		Set<String> ids = new HashSet<>();
+		spots.forEach(spot -> ids.add(spot.getId()));
+		return ids;
+	}
+}
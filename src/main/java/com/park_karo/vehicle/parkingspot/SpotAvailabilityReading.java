@@ -0,0 +1,26 @@
+package com.park_karo.vehicle.parkingspot;
+
+/**
+ * One sensor reading: the free spaces a spot reports right now.
+ */
+public class SpotAvailabilityReading {
+
+	private String spotId;
+	private int availableSpaces;
+
+	public String getSpotId() {
+		return spotId;
+	}
+
+	public void setSpotId(String spotId) {
+		this.spotId = spotId;
+	}
+
+	public int getAvailableSpaces() {
+		return availableSpaces;
+	}
+
+	public void setAvailableSpaces(int availableSpaces) {
+		this.availableSpaces = availableSpaces;
+	}
+}
@@ -0,0 +1,267 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compressed bitmap index over the low-cardinality spot attributes.
+ *
+ * Every spot gets a small integer ordinal, and there is one Roaring bitmap per
+ * vehicle type, per hourly-rate bucket and per availability bucket. A filter
+ * ANDs the type bitmap with the union of the buckets wholly inside the price and
+ * space bounds; only the boundary buckets, which straddle a bound, have their
+ * members checked against the exact values. Catalog changes flip the few bits
+ * of the spots involved, and ordinals of removed spots are reused.
+ */
+@Component
+public class SpotBitmapIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotBitmapIndex.class);
+
+	static final int RATE_BUCKETS = 32;
+
+	/** Lower edges of the availability buckets; the first one also takes negative counts. */
+	static final int[] AVAILABILITY_EDGES = { 0, 1, 2, 3, 5, 10, 20, 50, 100 };
+
+	private final double rateBucketWidth;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> ordinalById = new HashMap<>();
+	private final RoaringBitmap live = new RoaringBitmap();
+	private final RoaringBitmap freeOrdinals = new RoaringBitmap();
+	private final Map<Integer, RoaringBitmap> byType = new HashMap<>();
+	private final RoaringBitmap[] byRate = newBitmaps(RATE_BUCKETS);
+	private final RoaringBitmap[] byAvailability = newBitmaps(AVAILABILITY_EDGES.length);
+
+	// Values as indexed, per ordinal, so boundary checks agree with the bitmaps
+	private ParkingSpot[] spots = new ParkingSpot[1024];
+	private int[] typeCodes = new int[1024];
+	private double[] rates = new double[1024];
+	private int[] available = new int[1024];
+	private int nextOrdinal;
+	private volatile boolean ready;
+
+	public SpotBitmapIndex(@Value("${parking.bitmap.rate-bucket-width:10}") double rateBucketWidth) {
+		if (rateBucketWidth <= 0) {
+			throw new IllegalArgumentException("parking.bitmap.rate-bucket-width must be positive");
+		}
+		this.rateBucketWidth = rateBucketWidth;
+	}
+
+	private static RoaringBitmap[] newBitmaps(int count) {
+		RoaringBitmap[] bitmaps = new RoaringBitmap[count];
+		for (int i = 0; i < count; i++) {
+			bitmaps[i] = new RoaringBitmap();
+		}
+		return bitmaps;
+	}
+
+	// ============ MAINTENANCE ============
+
+	@EventListener
+	public void onCatalogChanged(SpotCatalogChangedEvent event) {
+		lock.writeLock().lock();
+		try {
+			if (event.isReload()) {
+				clear();
+			}
+			event.getRemovedIds().forEach(this::removeLocked);
+			event.getUpserted().forEach(this::putLocked);
+			if (event.isReload()) {
+				for (RoaringBitmap bitmap : byType.values()) {
+					bitmap.runOptimize();
+				}
+				ready = true;
+				logger.info("Spot bitmap index built: {} spots, {} vehicle types", live.getCardinality(),
+						byType.size());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void clear() {
+		ordinalById.clear();
+		live.clear();
+		freeOrdinals.clear();
+		byType.clear();
+		Arrays.stream(byRate).forEach(RoaringBitmap::clear);
+		Arrays.stream(byAvailability).forEach(RoaringBitmap::clear);
+		Arrays.fill(spots, null);
+		nextOrdinal = 0;
+	}
+
+	private void putLocked(ParkingSpot spot) {
+		Integer existing = ordinalById.get(spot.getId());
+		int ordinal;
+		if (existing != null) {
+			ordinal = existing;
+			unindex(ordinal);
+		} else {
+			ordinal = allocateOrdinal();
+			ordinalById.put(spot.getId(), ordinal);
+		}
+		spots[ordinal] = spot;
+		typeCodes[ordinal] = spot.getVehicleTypeCode();
+		rates[ordinal] = spot.getHourlyRate();
+		available[ordinal] = spot.getAvailableSpaces();
+
+		live.add(ordinal);
+		byType.computeIfAbsent(typeCodes[ordinal], k -> new RoaringBitmap()).add(ordinal);
+		byRate[rateBucket(rates[ordinal])].add(ordinal);
+		byAvailability[availabilityBucket(available[ordinal])].add(ordinal);
+	}
+
+	private void removeLocked(String spotId) {
+		Integer ordinal = ordinalById.remove(spotId);
+		if (ordinal != null) {
+			unindex(ordinal);
+			spots[ordinal] = null;
+			freeOrdinals.add(ordinal);
+		}
+	}
+
+	private void unindex(int ordinal) {
+		live.remove(ordinal);
+		RoaringBitmap typeBitmap = byType.get(typeCodes[ordinal]);
+		if (typeBitmap != null) {
+			typeBitmap.remove(ordinal);
+			if (typeBitmap.isEmpty()) {
+				byType.remove(typeCodes[ordinal]);
+			}
+		}
+		byRate[rateBucket(rates[ordinal])].remove(ordinal);
+		byAvailability[availabilityBucket(available[ordinal])].remove(ordinal);
+	}
+
+	private int allocateOrdinal() {
+		if (!freeOrdinals.isEmpty()) {
+			int ordinal = freeOrdinals.first();
+			freeOrdinals.remove(ordinal);
+			return ordinal;
+		}
+		if (nextOrdinal == spots.length) {
+			int capacity = spots.length * 2;
+			spots = Arrays.copyOf(spots, capacity);
+			typeCodes = Arrays.copyOf(typeCodes, capacity);
+			rates = Arrays.copyOf(rates, capacity);
+			available = Arrays.copyOf(available, capacity);
+		}
+		return nextOrdinal++;
+	}
+
+	// ============ QUERIES ============
+
+	/**
+	 * Returns spots priced at or below {@code maxPrice} with at least
+	 * {@code minSpaces} free, optionally restricted to one vehicle type.
+	 */
+	public List<ParkingSpot> findAvailable(double maxPrice, int minSpaces, String vehicleType) {
+		lock.readLock().lock();
+		try {
+			RoaringBitmap matches = match(maxPrice, minSpaces, vehicleType);
+			List<ParkingSpot> result = new ArrayList<>(matches.getCardinality());
+			matches.forEach((int ordinal) -> result.add(spots[ordinal]));
+			return result;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Number of spots {@link #findAvailable} would return, without
+	 * materialising them.
+	 */
+	public int countAvailable(double maxPrice, int minSpaces, String vehicleType) {
+		lock.readLock().lock();
+		try {
+			return match(maxPrice, minSpaces, vehicleType).getCardinality();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private RoaringBitmap match(double maxPrice, int minSpaces, String vehicleType) {
+		RoaringBitmap candidates;
+		if (vehicleType == null || vehicleType.isEmpty()) {
+			candidates = live.clone();
+		} else {
+			RoaringBitmap typeBitmap = byType.get(VehicleTypes.find(vehicleType));
+			if (typeBitmap == null) {
+				return new RoaringBitmap();
+			}
+			candidates = typeBitmap.clone();
+		}
+
+		// Buckets on the inner side of the one holding each bound are wholly inside it
+		int priceBoundary = rateBucket(maxPrice);
+		candidates.and(FastAggregation.or(Arrays.copyOfRange(byRate, 0, priceBoundary + 1)));
+		int spaceBoundary = availabilityBucket(minSpaces);
+		candidates.and(
+				FastAggregation.or(Arrays.copyOfRange(byAvailability, spaceBoundary, byAvailability.length)));
+
+		// Members of the boundary buckets still need the exact comparison
+		RoaringBitmap boundary = RoaringBitmap.and(candidates,
+				RoaringBitmap.or(byRate[priceBoundary], byAvailability[spaceBoundary]));
+		boundary.forEach((int ordinal) -> {
+			if (!(rates[ordinal] <= maxPrice) || available[ordinal] < minSpaces) {
+				candidates.remove(ordinal);
+			}
+		});
+		return candidates;
+	}
+
+	/**
+	 * Number of indexed spots of the vehicle type, or of all spots when
+	 * {@code vehicleType} is empty.
+	 */
+	public int countByType(String vehicleType) {
+		lock.readLock().lock();
+		try {
+			if (vehicleType == null || vehicleType.isEmpty()) {
+				return live.getCardinality();
+			}
+			RoaringBitmap typeBitmap = byType.get(VehicleTypes.find(vehicleType));
+			return typeBitmap != null ? typeBitmap.getCardinality() : 0;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public int size() {
+		return live.getCardinality();
+	}
+
+	// ============ BUCKETING ============
+
+	private int rateBucket(double rate) {
+		if (!(rate > 0)) {
+			return 0;
+		}
+		return (int) Math.min(RATE_BUCKETS - 1, Math.floor(rate / rateBucketWidth));
+	}
+
+	static int availabilityBucket(int spaces) {
+		int bucket = 0;
+		while (bucket + 1 < AVAILABILITY_EDGES.length && AVAILABILITY_EDGES[bucket + 1] <= spaces) {
+			bucket++;
+		}
+		return bucket;
+	}
+}
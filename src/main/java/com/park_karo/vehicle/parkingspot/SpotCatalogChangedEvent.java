@@ -0,0 +1,48 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by {@link ParkingSpotCatalog} whenever the in-memory spot catalog
+ * changes. In-memory indexes listen for it to stay in sync with MongoDB.
+ *
+ * A reload event carries the complete catalog in {@link #getUpserted()};
+ * listeners should discard their previous state before applying it.
+ */
+public class SpotCatalogChangedEvent {
+
+	private final boolean reload;
+	private final Collection<ParkingSpot> upserted;
+	private final Collection<String> removedIds;
+
+	private SpotCatalogChangedEvent(boolean reload, Collection<ParkingSpot> upserted, Collection<String> removedIds) {
+		this.reload = reload;
+		this.upserted = upserted;
+		this.removedIds = removedIds;
+	}
+
+	public static SpotCatalogChangedEvent reload(Collection<ParkingSpot> allSpots) {
+		return new SpotCatalogChangedEvent(true, allSpots, List.of());
+	}
+
+	public static SpotCatalogChangedEvent upserted(Collection<ParkingSpot> spots) {
+		return new SpotCatalogChangedEvent(false, spots, List.of());
+	}
+
+	public static SpotCatalogChangedEvent removed(Collection<String> spotIds) {
+		return new SpotCatalogChangedEvent(false, List.of(), spotIds);
+	}
+
+	public boolean isReload() {
+		return reload;
+	}
+
+	public Collection<ParkingSpot> getUpserted() {
+		return upserted;
+	}
+
+	public Collection<String> getRemovedIds() {
+		return removedIds;
+	}
+}
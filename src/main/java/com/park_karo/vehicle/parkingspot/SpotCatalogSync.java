@@ -0,0 +1,326 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoException;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the {@link ParkingSpotCatalog} current with changes made to
+ * {@code mumbai_parking_db} by any writer, not just this instance.
+ *
+ * A background thread tails a change stream on the collection and applies
+ * each batch of changes to the catalog as one upsert and one removal, so the
+ * indexes see a single event per batch. The stream is opened before the
+ * catalog is loaded, so nothing written in between is lost; replaying a
+ * change the load already saw is harmless because every change carries the
+ * whole document. After a dropped connection the stream resumes from the last
+ * resume token, without a reload. Only when the token has fallen off the
+ * oplog, or the collection was dropped or renamed, is the catalog reloaded in
+ * full, on a fresh stream.
+ *
+ * The token is only kept in memory. The catalog is held in memory too, so a
+ * restart has to load it in full anyway, and that load already covers
+ * whatever a saved token would replay.
+ *
+ * Change streams need a replica set. Against a standalone server the thread
+ * falls back to reloading the catalog on a fixed interval, retrying the
+ * stream each time.
+ */
+@Component
+public class SpotCatalogSync {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotCatalogSync.class);
+
+	// Server error codes: no change streams on a standalone server, and resume tokens that can't be used
+	private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+	private static final int INVALID_RESUME_TOKEN = 260;
+	private static final int CHANGE_STREAM_FATAL_ERROR = 280;
+	private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+	// Caps the changes held back before they reach the catalog during a burst
+	private static final int MAX_BATCH = 1000;
+
+	public enum Mode {
+		STARTING, STREAM, POLLING, STOPPED
+	}
+
+	private final MongoTemplate mongoTemplate;
+	private final ParkingSpotCatalog parkingSpotCatalog;
+	private final boolean changeStreamEnabled;
+	private final long reloadIntervalMillis;
+	private final long retryMillis;
+	private final String collectionName;
+
+	// Package-private so tests can drive step() without the thread
+	volatile boolean running;
+	private volatile Mode mode = Mode.STARTING;
+	private Thread worker;
+
+	// Only touched by the worker thread
+	private BsonDocument resumeToken;
+	private boolean needsReload = true;
+
+	private volatile long changesApplied;
+	private volatile long fullReloads;
+	private volatile Instant lastChangeAt;
+
+	public SpotCatalogSync(MongoTemplate mongoTemplate, ParkingSpotCatalog parkingSpotCatalog,
+			@Value("${parking.catalog.change-stream.enabled:true}") boolean changeStreamEnabled,
+			@Value("${parking.catalog.reload-interval-ms:60000}") long reloadIntervalMillis,
+			@Value("${parking.catalog.retry-ms:5000}") long retryMillis) {
+		this.mongoTemplate = mongoTemplate;
+		this.parkingSpotCatalog = parkingSpotCatalog;
+		this.changeStreamEnabled = changeStreamEnabled;
+		this.reloadIntervalMillis = reloadIntervalMillis;
+		this.retryMillis = retryMillis;
+		this.collectionName = mongoTemplate.getCollectionName(ParkingSpot.class);
+	}
+
+	/**
+	 * Starts syncing once the {@link DataInitializer} has seeded the collection;
+	 * the first thing the thread does is load the catalog.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		worker = new Thread(this::run, "catalog-sync");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		running = false;
+		mode = Mode.STOPPED;
+		if (worker != null) {
+			worker.interrupt();
+		}
+	}
+
+	private void run() {
+		while (running) {
+			step();
+		}
+	}
+
+	/**
+	 * One pass of the sync loop: follows the stream until it fails or the sync
+	 * stops, then handles the failure.
+	 */
+	void step() {
+		if (!changeStreamEnabled) {
+			poll();
+			return;
+		}
+		try {
+			tail();
+		} catch (MongoServerException e) {
+			if (e.getCode() == CHANGE_STREAMS_UNSUPPORTED) {
+				if (mode != Mode.POLLING) {
+					logger.warn("Change streams unavailable ({}); reloading the catalog every {} ms instead",
+							e.getMessage(), reloadIntervalMillis);
+				}
+				poll();
+			} else if (isLostResumePoint(e)) {
+				logger.warn("Catalog change stream cannot resume ({}); reloading the catalog", e.getMessage());
+				resumeToken = null;
+				needsReload = true;
+				// Don't hammer the server if the fresh stream fails the same way
+				pause(retryMillis);
+			} else {
+				logger.error("Catalog change stream failed: {}", e.getMessage(), e);
+				pause(retryMillis);
+			}
+		} catch (MongoException e) {
+			// Network trouble: resume from the last token once the server is back
+			logger.warn("Catalog change stream interrupted: {}", e.getMessage());
+			pause(retryMillis);
+		} catch (RuntimeException e) {
+			logger.error("Catalog sync failed: {}", e.getMessage(), e);
+			pause(retryMillis);
+		}
+	}
+
+	private void poll() {
+		mode = Mode.POLLING;
+		reloadCatalog();
+		// The stream has to start from a fresh load once it works again
+		needsReload = true;
+		resumeToken = null;
+		pause(reloadIntervalMillis);
+	}
+
+	/**
+	 * Opens the stream, resuming from the last token unless the catalog is
+	 * about to be reloaded, and applies changes until the stream is
+	 * invalidated or the sync stops.
+	 */
+	private void tail() {
+		if (needsReload) {
+			// The load covers everything before the stream opens; replaying older changes is wasted work
+			resumeToken = null;
+		}
+		ChangeStreamIterable<Document> stream = collection().watch().fullDocument(FullDocument.UPDATE_LOOKUP)
+				.maxAwaitTime(1, TimeUnit.SECONDS);
+		if (resumeToken != null) {
+			stream = stream.resumeAfter(resumeToken);
+		}
+
+		try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+			if (needsReload) {
+				// A failed load leaves needsReload set and goes back through the retry
+				parkingSpotCatalog.reload();
+				fullReloads++;
+				needsReload = false;
+			}
+			if (mode != Mode.STREAM) {
+				logger.info("✅ Catalog following {} through a change stream{}", collectionName,
+						resumeToken != null ? " (resumed)" : "");
+			}
+			mode = Mode.STREAM;
+
+			// Latest state per spot id; null means deleted
+			Map<String, ParkingSpot> pending = new LinkedHashMap<>();
+			while (running) {
+				ChangeStreamDocument<Document> change = cursor.tryNext();
+				if (change == null) {
+					apply(pending);
+					resumeToken = cursor.getResumeToken();
+					continue;
+				}
+				switch (change.getOperationType()) {
+				case INSERT, UPDATE, REPLACE -> {
+					String id = idOf(change.getDocumentKey());
+					Document document = change.getFullDocument();
+					if (id == null) {
+						break;
+					}
+					// An update whose document is gone by lookup time is followed by its delete
+					pending.put(id, document != null ? mongoTemplate.getConverter().read(ParkingSpot.class, document)
+							: null);
+				}
+				case DELETE -> {
+					String id = idOf(change.getDocumentKey());
+					if (id != null) {
+						pending.put(id, null);
+					}
+				}
+				case DROP, RENAME, DROP_DATABASE, INVALIDATE -> {
+					apply(pending);
+					logger.warn("Catalog change stream invalidated by {}; reloading", change.getOperationType());
+					resumeToken = null;
+					needsReload = true;
+					return;
+				}
+				default -> {
+					// Index builds and other events don't touch documents
+				}
+				}
+				resumeToken = change.getResumeToken();
+				if (pending.size() >= MAX_BATCH) {
+					apply(pending);
+				}
+			}
+			apply(pending);
+		}
+	}
+
+	private void apply(Map<String, ParkingSpot> pending) {
+		if (pending.isEmpty()) {
+			return;
+		}
+		List<ParkingSpot> upserted = new ArrayList<>(pending.size());
+		List<String> removed = new ArrayList<>();
+		pending.forEach((id, spot) -> {
+			if (spot != null) {
+				upserted.add(spot);
+			} else {
+				removed.add(id);
+			}
+		});
+		parkingSpotCatalog.upsertAll(upserted);
+		parkingSpotCatalog.remove(removed);
+		changesApplied += pending.size();
+		lastChangeAt = Instant.now();
+		pending.clear();
+	}
+
+	private void reloadCatalog() {
+		try {
+			parkingSpotCatalog.reload();
+			fullReloads++;
+		} catch (RuntimeException e) {
+			logger.error("❌ Failed to reload parking spot catalog: {}", e.getMessage(), e);
+		}
+	}
+
+	private static boolean isLostResumePoint(MongoServerException e) {
+		int code = e.getCode();
+		return code == CHANGE_STREAM_HISTORY_LOST || code == INVALID_RESUME_TOKEN || code == CHANGE_STREAM_FATAL_ERROR;
+	}
+
+	private static String idOf(BsonDocument documentKey) {
+		BsonValue id = documentKey.get("_id");
+		if (id == null) {
+			return null;
+		}
+		return id.isObjectId() ? id.asObjectId().getValue().toHexString()
+				: id.isString() ? id.asString().getValue() : id.toString();
+	}
+
+	private MongoCollection<Document> collection() {
+		return mongoTemplate.getCollection(collectionName);
+	}
+
+	private void pause(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			running = false;
+		}
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public Map<String, Object> stats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("mode", mode);
+		stats.put("catalogLoaded", parkingSpotCatalog.isLoaded());
+		stats.put("catalogSize", parkingSpotCatalog.size());
+		stats.put("changesApplied", changesApplied);
+		stats.put("fullReloads", fullReloads);
+		stats.put("lastChangeAt", lastChangeAt);
+		stats.put("resumable", resumeToken != null);
+		return stats;
+	}
+}
@@ -0,0 +1,48 @@
+package com.park_karo.vehicle.parkingspot;
+
+/**
+ * Aggregate of the parking spots inside one map cluster cell.
+ */
+public class SpotCluster {
+
+	private final String cellId;
+	private final int count;
+	private final double centroidLat;
+	private final double centroidLon;
+	private final double minPrice;
+	private final long totalAvailableSpaces;
+
+	public SpotCluster(String cellId, int count, double centroidLat, double centroidLon, double minPrice,
+			long totalAvailableSpaces) {
+		this.cellId = cellId;
+		this.count = count;
+		this.centroidLat = centroidLat;
+		this.centroidLon = centroidLon;
+		this.minPrice = minPrice;
+		this.totalAvailableSpaces = totalAvailableSpaces;
+	}
+
+	public String getCellId() {
+		return cellId;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public double getCentroidLat() {
+		return centroidLat;
+	}
+
+	public double getCentroidLon() {
+		return centroidLon;
+	}
+
+	public double getMinPrice() {
+		return minPrice;
+	}
+
+	public long getTotalAvailableSpaces() {
+		return totalAvailableSpaces;
+	}
+}
@@ -0,0 +1,221 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hierarchical grid of precomputed spot clusters, one level per map zoom.
+ *
+ * At zoom {@code z} a cell is a quarter of a web-map tile wide, i.e.
+ * {@code 360 / 2^(z+2)} degrees. Every cell keeps a running count, coordinate
+ * sums for the centroid, total free spaces and a price histogram for the
+ * minimum price. Catalog changes are applied as deltas to the one cell per level
+ * that contains the spot, so an availability update costs O(levels) and the
+ * pyramid is never rebuilt outside of a full catalog reload.
+ */
+@Component
+public class SpotClusterPyramid {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotClusterPyramid.class);
+
+	static final int MIN_ZOOM = 6;
+	static final int MAX_ZOOM = 17;
+	private static final int CELLS_PER_TILE_LOG2 = 2;
+
+	private final List<Map<Long, ClusterCell>> levels = new ArrayList<>();
+	private final double[] cellDeg = new double[MAX_ZOOM - MIN_ZOOM + 1];
+
+	// What each spot currently contributes, so updates can be applied as deltas
+	private final Map<String, Contribution> contributions = new ConcurrentHashMap<>();
+
+	public SpotClusterPyramid() {
+		for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+			levels.add(new ConcurrentHashMap<>());
+			cellDeg[zoom - MIN_ZOOM] = 360.0 / (1L << (zoom + CELLS_PER_TILE_LOG2));
+		}
+	}
+
+	// ============ MAINTENANCE ============
+
+	@EventListener
+	public synchronized void onCatalogChanged(SpotCatalogChangedEvent event) {
+		if (event.isReload()) {
+			levels.forEach(Map::clear);
+			contributions.clear();
+		}
+		for (String id : event.getRemovedIds()) {
+			Contribution previous = contributions.remove(id);
+			if (previous != null) {
+				apply(previous, -1);
+			}
+		}
+		for (ParkingSpot spot : event.getUpserted()) {
+			Contribution next = new Contribution(spot);
+			Contribution previous = contributions.put(spot.getId(), next);
+			if (previous == null) {
+				apply(next, 1);
+			} else if (previous.samePosition(next)) {
+				updateInPlace(previous, next);
+			} else {
+				apply(previous, -1);
+				apply(next, 1);
+			}
+		}
+		if (event.isReload()) {
+			logger.info("Spot cluster pyramid built for zoom {}-{} from {} spots", MIN_ZOOM, MAX_ZOOM,
+					contributions.size());
+		}
+	}
+
+	private void apply(Contribution c, int sign) {
+		for (int level = 0; level < levels.size(); level++) {
+			long key = cellKey(level, c.lat, c.lon);
+			Map<Long, ClusterCell> cells = levels.get(level);
+			if (sign > 0) {
+				cells.computeIfAbsent(key, k -> new ClusterCell()).add(c);
+			} else {
+				cells.computeIfPresent(key, (k, cell) -> cell.remove(c) ? null : cell);
+			}
+		}
+	}
+
+	private void updateInPlace(Contribution previous, Contribution next) {
+		if (previous.available == next.available && previous.rate == next.rate) {
+			return;
+		}
+		for (int level = 0; level < levels.size(); level++) {
+			ClusterCell cell = levels.get(level).get(cellKey(level, next.lat, next.lon));
+			if (cell != null) {
+				cell.replace(previous, next);
+			}
+		}
+	}
+
+	// ============ QUERIES ============
+
+	/**
+	 * Returns the clusters of the given zoom level that intersect the bounding
+	 * box. Zoom levels outside the pyramid are clamped to its range.
+	 */
+	public List<SpotCluster> findClusters(double minLat, double minLon, double maxLat, double maxLon, int zoom) {
+		int clampedZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+		int level = clampedZoom - MIN_ZOOM;
+		Map<Long, ClusterCell> cells = levels.get(level);
+
+		int minLatIdx = index(level, minLat + 90.0);
+		int maxLatIdx = index(level, maxLat + 90.0);
+		int minLonIdx = index(level, minLon + 180.0);
+		int maxLonIdx = index(level, maxLon + 180.0);
+
+		List<SpotCluster> clusters = new ArrayList<>();
+		long boxCells = (long) (maxLatIdx - minLatIdx + 1) * (maxLonIdx - minLonIdx + 1);
+		if (boxCells > cells.size()) {
+			cells.forEach((key, cell) -> {
+				int latIdx = (int) (key >> 32);
+				int lonIdx = (int) (long) key;
+				if (latIdx >= minLatIdx && latIdx <= maxLatIdx && lonIdx >= minLonIdx && lonIdx <= maxLonIdx) {
+					addCluster(clusters, clampedZoom, latIdx, lonIdx, cell);
+				}
+			});
+		} else {
+			for (int latIdx = minLatIdx; latIdx <= maxLatIdx; latIdx++) {
+				for (int lonIdx = minLonIdx; lonIdx <= maxLonIdx; lonIdx++) {
+					ClusterCell cell = cells.get(SpotGridIndex.cellKey(latIdx, lonIdx));
+					if (cell != null) {
+						addCluster(clusters, clampedZoom, latIdx, lonIdx, cell);
+					}
+				}
+			}
+		}
+		return clusters;
+	}
+
+	private static void addCluster(List<SpotCluster> clusters, int zoom, int latIdx, int lonIdx, ClusterCell cell) {
+		SpotCluster cluster = cell.toCluster(zoom + "/" + latIdx + "/" + lonIdx);
+		if (cluster != null) {
+			clusters.add(cluster);
+		}
+	}
+
+	private int index(int level, double shiftedDeg) {
+		return (int) Math.floor(shiftedDeg / cellDeg[level]);
+	}
+
+	private long cellKey(int level, double lat, double lon) {
+		return SpotGridIndex.cellKey(index(level, lat + 90.0), index(level, lon + 180.0));
+	}
+
+	// ============ AGGREGATES ============
+
+	private static final class Contribution {
+		final double lat;
+		final double lon;
+		final int available;
+		final double rate;
+
+		Contribution(ParkingSpot spot) {
+			this.lat = spot.getLatitude();
+			this.lon = spot.getLongitude();
+			this.available = spot.getAvailableSpaces();
+			this.rate = spot.getHourlyRate();
+		}
+
+		boolean samePosition(Contribution other) {
+			return lat == other.lat && lon == other.lon;
+		}
+	}
+
+	/**
+	 * Running aggregate for one cell. Reads and writes are synchronised on the
+	 * cell so a query never sees a half-applied update.
+	 */
+	private static final class ClusterCell {
+		private int count;
+		private double sumLat;
+		private double sumLon;
+		private long totalAvailable;
+		private final TreeMap<Double, Integer> priceCounts = new TreeMap<>();
+
+		synchronized void add(Contribution c) {
+			count++;
+			sumLat += c.lat;
+			sumLon += c.lon;
+			totalAvailable += c.available;
+			priceCounts.merge(c.rate, 1, Integer::sum);
+		}
+
+		/** Returns true when the cell is empty afterwards. */
+		synchronized boolean remove(Contribution c) {
+			count--;
+			sumLat -= c.lat;
+			sumLon -= c.lon;
+			totalAvailable -= c.available;
+			priceCounts.computeIfPresent(c.rate, (rate, n) -> n > 1 ? n - 1 : null);
+			return count <= 0;
+		}
+
+		synchronized void replace(Contribution previous, Contribution next) {
+			totalAvailable += next.available - previous.available;
+			if (previous.rate != next.rate) {
+				priceCounts.computeIfPresent(previous.rate, (rate, n) -> n > 1 ? n - 1 : null);
+				priceCounts.merge(next.rate, 1, Integer::sum);
+			}
+		}
+
+		synchronized SpotCluster toCluster(String cellId) {
+			if (count <= 0) {
+				return null;
+			}
+			return new SpotCluster(cellId, count, sumLat / count, sumLon / count, priceCounts.firstKey(),
+					totalAvailable);
+		}
+	}
+}
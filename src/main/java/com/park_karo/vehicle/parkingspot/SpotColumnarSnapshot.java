@@ -0,0 +1,138 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable struct-of-arrays copy of the spot catalog.
+ *
+ * Each row is one spot; the columns are plain primitive arrays so scans walk
+ * contiguous memory instead of chasing {@link ParkingSpot} pointers, and the
+ * trigonometry a Haversine check needs for each stored point ({@code toRadians},
+ * {@code cos(lat)}) is computed once at build time. Vehicle types are stored
+ * as their {@link VehicleTypes} codes.
+ *
+ * Rows are sorted by {@link HilbertCurve} key, so spots that are close on the
+ * map sit next to each other in every column and a bounding box maps to a few
+ * contiguous row ranges (see {@link #rowsFrom} and {@link #rowsTo}).
+ *
+ * Value-only changes (availability, price, type) produce a new snapshot that
+ * shares the geometry columns with this one; anything that adds, removes or
+ * moves a spot needs a full {@link #build}.
+ */
+final class SpotColumnarSnapshot {
+
+	final int size;
+	final ParkingSpot[] spots;
+	final long[] hilbertKey;
+	final double[] latRad;
+	final double[] lonRad;
+	final double[] cosLat;
+	final int[] available;
+	final float[] rate;
+	final int[] typeCode;
+
+	private final Map<String, Integer> rowById;
+
+	private SpotColumnarSnapshot(ParkingSpot[] spots, long[] hilbertKey, double[] latRad, double[] lonRad, double[] cosLat,
+			int[] available, float[] rate, int[] typeCode, Map<String, Integer> rowById) {
+		this.size = spots.length;
+		this.spots = spots;
+		this.hilbertKey = hilbertKey;
+		this.latRad = latRad;
+		this.lonRad = lonRad;
+		this.cosLat = cosLat;
+		this.available = available;
+		this.rate = rate;
+		this.typeCode = typeCode;
+		this.rowById = rowById;
+	}
+
+	static SpotColumnarSnapshot build(Collection<ParkingSpot> source) {
+		ParkingSpot[] spots = source.toArray(new ParkingSpot[0]);
+		Arrays.sort(spots, Comparator.comparingLong(SpotColumnarSnapshot::keyOf));
+		int n = spots.length;
+		long[] hilbertKey = new long[n];
+		double[] latRad = new double[n];
+		double[] lonRad = new double[n];
+		double[] cosLat = new double[n];
+		int[] available = new int[n];
+		float[] rate = new float[n];
+		int[] typeCode = new int[n];
+		Map<String, Integer> rowById = new HashMap<>(n * 4 / 3 + 1);
+
+		for (int i = 0; i < n; i++) {
+			ParkingSpot spot = spots[i];
+			hilbertKey[i] = keyOf(spot);
+			latRad[i] = Math.toRadians(spot.getLatitude());
+			lonRad[i] = Math.toRadians(spot.getLongitude());
+			cosLat[i] = Math.cos(latRad[i]);
+			available[i] = spot.getAvailableSpaces();
+			rate[i] = (float) spot.getHourlyRate();
+			typeCode[i] = spot.getVehicleTypeCode();
+			rowById.put(spot.getId(), i);
+		}
+		return new SpotColumnarSnapshot(spots, hilbertKey, latRad, lonRad, cosLat, available, rate, typeCode,
+				rowById);
+	}
+
+	// Derived from the coordinates rather than read from the entity, so spots
+	// loaded before the backfill still sort correctly
+	private static long keyOf(ParkingSpot spot) {
+		return HilbertCurve.key(spot.getLatitude(), spot.getLongitude());
+	}
+
+	/**
+	 * Returns a copy with the value columns of the given rows replaced, sharing
+	 * the geometry columns with this snapshot.
+	 */
+	SpotColumnarSnapshot withValues(Map<Integer, ParkingSpot> changedRows) {
+		ParkingSpot[] newSpots = spots.clone();
+		int[] newAvailable = available.clone();
+		float[] newRate = rate.clone();
+		int[] newTypeCode = typeCode.clone();
+		changedRows.forEach((row, spot) -> {
+			newSpots[row] = spot;
+			newAvailable[row] = spot.getAvailableSpaces();
+			newRate[row] = (float) spot.getHourlyRate();
+			newTypeCode[row] = spot.getVehicleTypeCode();
+		});
+		return new SpotColumnarSnapshot(newSpots, hilbertKey, latRad, lonRad, cosLat, newAvailable, newRate, newTypeCode,
+				rowById);
+	}
+
+	/**
+	 * First row whose key is at least {@code key}.
+	 */
+	int rowsFrom(long key) {
+		int lo = 0;
+		int hi = size;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (hilbertKey[mid] < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * One past the last row whose key is at most {@code key}.
+	 */
+	int rowsTo(long key) {
+		return key == Long.MAX_VALUE ? size : rowsFrom(key + 1);
+	}
+
+	/**
+	 * Row of the spot, or -1 if it is not in this snapshot.
+	 */
+	int rowOf(String spotId) {
+		Integer row = rowById.get(spotId);
+		return row != null ? row : -1;
+	}
+}
@@ -0,0 +1,75 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds parking spots within a buffer distance of a route polyline.
+ *
+ * Each segment asks the {@link SpotGridIndex} only for the cells around its own
+ * buffered bounding box, so the work is proportional to the spots near the
+ * route rather than spots × segments. Distances are measured in a local
+ * equirectangular projection centred on the segment, which is accurate to well
+ * under a metre for city-scale segments.
+ */
+final class SpotCorridorSearch {
+
+	private SpotCorridorSearch() {
+	}
+
+	/**
+	 * Returns the spots within {@code bufferKm} of the route, ordered by the
+	 * position of their closest approach along the route.
+	 */
+	static List<CorridorSpot> search(SpotGridIndex index, List<double[]> route, double bufferKm) {
+		Map<String, CorridorSpot> best = new HashMap<>();
+		double latDelta = GeoUtils.latDeltaDeg(bufferKm);
+
+		if (route.size() == 1) {
+			double[] p = route.get(0);
+			index.forEachWithinRadius(p[0], p[1], bufferKm, spot -> best.put(spot.getId(),
+					new CorridorSpot(spot, GeoUtils.distanceKm(p[0], p[1], spot.getLatitude(), spot.getLongitude()), 0)));
+		}
+
+		double routeOffsetKm = 0;
+		for (int i = 0; i + 1 < route.size(); i++) {
+			double[] a = route.get(i);
+			double[] b = route.get(i + 1);
+
+			double kx = GeoUtils.KM_PER_DEGREE * Math.cos(Math.toRadians(a[0]));
+			double ky = GeoUtils.KM_PER_DEGREE;
+			double bx = (b[1] - a[1]) * kx;
+			double by = (b[0] - a[0]) * ky;
+			double segmentLenSq = bx * bx + by * by;
+			double segmentLen = Math.sqrt(segmentLenSq);
+			double segmentStart = routeOffsetKm;
+
+			double lonDelta = GeoUtils.lonDeltaDeg(Math.max(Math.abs(a[0]), Math.abs(b[0])), bufferKm);
+			index.forEachCandidateInBox(Math.min(a[0], b[0]) - latDelta, Math.min(a[1], b[1]) - lonDelta,
+					Math.max(a[0], b[0]) + latDelta, Math.max(a[1], b[1]) + lonDelta, spot -> {
+						double px = (spot.getLongitude() - a[1]) * kx;
+						double py = (spot.getLatitude() - a[0]) * ky;
+						double t = segmentLenSq > 0 ? Math.max(0, Math.min(1, (px * bx + py * by) / segmentLenSq)) : 0;
+						double dx = px - t * bx;
+						double dy = py - t * by;
+						double distance = Math.sqrt(dx * dx + dy * dy);
+						if (distance > bufferKm) {
+							return;
+						}
+						CorridorSpot previous = best.get(spot.getId());
+						if (previous == null || distance < previous.getDistanceFromRouteKm()) {
+							best.put(spot.getId(), new CorridorSpot(spot, distance, segmentStart + t * segmentLen));
+						}
+					});
+			routeOffsetKm += segmentLen;
+		}
+
+		List<CorridorSpot> result = new ArrayList<>(best.values());
+		result.sort(Comparator.comparingDouble(CorridorSpot::getAlongRouteKm)
+				.thenComparingDouble(CorridorSpot::getDistanceFromRouteKm));
+		return result;
+	}
+}
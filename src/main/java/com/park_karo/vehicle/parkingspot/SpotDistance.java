@@ -0,0 +1,23 @@
+package com.park_karo.vehicle.parkingspot;
+
+/**
+ * A parking spot together with its distance from the search point.
+ */
+public class SpotDistance {
+
+	private final ParkingSpot spot;
+	private final double distanceKm;
+
+	public SpotDistance(ParkingSpot spot, double distanceKm) {
+		this.spot = spot;
+		this.distanceKm = distanceKm;
+	}
+
+	public ParkingSpot getSpot() {
+		return spot;
+	}
+
+	public double getDistanceKm() {
+		return distanceKm;
+	}
+}
@@ -0,0 +1,355 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Uniform lat/lon cell grid over the parking spot catalog.
+ *
+ * Every spot is bucketed into a fixed-size cell (0.01° by default, roughly
+ * 1.1 km in Mumbai). Radius queries only visit the cells overlapping the
+ * circle's bounding box and run the exact Haversine check on the spots inside
+ * them, so the cost grows with the density around the search point instead of
+ * with the size of the collection.
+ */
+@Component
+public class SpotGridIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotGridIndex.class);
+
+	/** Page order for keyset pagination: distance, then id as a tie-breaker. */
+	static final Comparator<SpotDistance> PAGE_ORDER = Comparator.comparingDouble(SpotDistance::getDistanceKm)
+			.thenComparing(d -> d.getSpot().getId());
+
+	private final double cellDeg;
+
+	// Replaced whole on a reload, so queries read the field once and keep that grid
+	private volatile Map<Long, Map<String, ParkingSpot>> cells = new ConcurrentHashMap<>();
+	private volatile Map<String, Long> cellBySpotId = new ConcurrentHashMap<>();
+	private volatile boolean ready;
+
+	public SpotGridIndex(@Value("${parking.index.grid-cell-deg:0.01}") double cellDeg) {
+		if (cellDeg <= 0) {
+			throw new IllegalArgumentException("parking.index.grid-cell-deg must be positive");
+		}
+		this.cellDeg = cellDeg;
+	}
+
+	// ============ MAINTENANCE ============
+
+	@EventListener
+	public void onCatalogChanged(SpotCatalogChangedEvent event) {
+		if (event.isReload()) {
+			// Built on the side; queries keep the old grid until the new one is complete
+			Map<Long, Map<String, ParkingSpot>> newCells = new ConcurrentHashMap<>();
+			Map<String, Long> newCellBySpotId = new ConcurrentHashMap<>();
+			event.getUpserted().forEach(spot -> put(newCells, newCellBySpotId, spot));
+			cellBySpotId = newCellBySpotId;
+			cells = newCells;
+			ready = true;
+			logger.info("Spot grid index rebuilt: {} spots in {} cells", newCellBySpotId.size(), newCells.size());
+			return;
+		}
+		event.getRemovedIds().forEach(this::remove);
+		event.getUpserted().forEach(this::put);
+	}
+
+	public void put(ParkingSpot spot) {
+		put(cells, cellBySpotId, spot);
+	}
+
+	private void put(Map<Long, Map<String, ParkingSpot>> cells, Map<String, Long> cellBySpotId, ParkingSpot spot) {
+		String id = spot.getId();
+		long cell = cellKey(latIndex(spot.getLatitude()), lonIndex(spot.getLongitude()));
+		Long previousCell = cellBySpotId.put(id, cell);
+		if (previousCell != null && previousCell != cell) {
+			removeFromCell(cells, previousCell, id);
+		}
+		cells.computeIfAbsent(cell, k -> new ConcurrentHashMap<>()).put(id, spot);
+	}
+
+	public void remove(String spotId) {
+		Long cell = cellBySpotId.remove(spotId);
+		if (cell != null) {
+			removeFromCell(cells, cell, spotId);
+		}
+	}
+
+	private static void removeFromCell(Map<Long, Map<String, ParkingSpot>> cells, long cell, String spotId) {
+		cells.computeIfPresent(cell, (k, spots) -> {
+			spots.remove(spotId);
+			return spots.isEmpty() ? null : spots;
+		});
+	}
+
+	// ============ QUERIES ============
+
+	/**
+	 * Returns every spot within {@code radiusKm} of the given point.
+	 */
+	public List<ParkingSpot> findWithinRadius(double lat, double lon, double radiusKm) {
+		List<ParkingSpot> result = new ArrayList<>();
+		forEachWithinRadius(lat, lon, radiusKm, result::add);
+		return result;
+	}
+
+	public void forEachWithinRadius(double lat, double lon, double radiusKm, Consumer<ParkingSpot> action) {
+		double latDelta = GeoUtils.latDeltaDeg(radiusKm);
+		double lonDelta = GeoUtils.lonDeltaDeg(lat, radiusKm);
+		forEachCandidateInBox(lat - latDelta, lon - lonDelta, lat + latDelta, lon + lonDelta, spot -> {
+			if (GeoUtils.distanceKm(lat, lon, spot.getLatitude(), spot.getLongitude()) <= radiusKm) {
+				action.accept(spot);
+			}
+		});
+	}
+
+	/**
+	 * Visits every spot stored in a cell that overlaps the box. Spots near the
+	 * edges of the box may lie outside it; callers apply their own exact test.
+	 */
+	public void forEachCandidateInBox(double minLat, double minLon, double maxLat, double maxLon,
+			Consumer<ParkingSpot> action) {
+		forEachCellInBox(minLat, minLon, maxLat, maxLon, spots -> spots.values().forEach(action));
+	}
+
+	/**
+	 * Number of spots {@link #forEachCandidateInBox} would visit, counted from
+	 * the cell sizes without touching the spots.
+	 */
+	public int countCandidatesInBox(double minLat, double minLon, double maxLat, double maxLon) {
+		int[] count = new int[1];
+		forEachCellInBox(minLat, minLon, maxLat, maxLon, spots -> count[0] += spots.size());
+		return count[0];
+	}
+
+	private void forEachCellInBox(double minLat, double minLon, double maxLat, double maxLon,
+			Consumer<Map<String, ParkingSpot>> action) {
+		Map<Long, Map<String, ParkingSpot>> cells = this.cells;
+		int minLatIdx = latIndex(Math.max(-90.0, minLat));
+		int maxLatIdx = latIndex(Math.min(90.0, maxLat));
+		int minLonIdx = lonIndex(Math.max(-180.0, minLon));
+		int maxLonIdx = lonIndex(Math.min(180.0, maxLon));
+
+		long boxCells = (long) (maxLatIdx - minLatIdx + 1) * (maxLonIdx - minLonIdx + 1);
+		if (boxCells > cells.size()) {
+			// Sparse grid: cheaper to walk the occupied cells than the box
+			cells.forEach((key, spots) -> {
+				int latIdx = (int) (key >> 32);
+				int lonIdx = (int) (long) key;
+				if (latIdx >= minLatIdx && latIdx <= maxLatIdx && lonIdx >= minLonIdx && lonIdx <= maxLonIdx) {
+					action.accept(spots);
+				}
+			});
+			return;
+		}
+
+		for (int latIdx = minLatIdx; latIdx <= maxLatIdx; latIdx++) {
+			for (int lonIdx = minLonIdx; lonIdx <= maxLonIdx; lonIdx++) {
+				Map<String, ParkingSpot> spots = cells.get(cellKey(latIdx, lonIdx));
+				if (spots != null) {
+					action.accept(spots);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} spots within {@code radiusKm}, ordered by
+	 * (distance, id), that come strictly after ({@code afterKm}, {@code afterId})
+	 * in that order. Pass a negative {@code afterKm} for the first page.
+	 *
+	 * Cells are visited in rings of growing Chebyshev distance around the query
+	 * cell. Rings that lie entirely inside {@code afterKm} are skipped, and the
+	 * walk stops as soon as the nearest possible point of the next ring is
+	 * farther than the current worst candidate, so the cost depends on the page
+	 * size and the local density rather than on the radius. When the rings would
+	 * cover more cells than are occupied, the occupied cells are ranked instead.
+	 */
+	public List<SpotDistance> findPageWithinRadius(double lat, double lon, double radiusKm, double afterKm,
+			String afterId, int limit) {
+		Map<Long, Map<String, ParkingSpot>> cells = this.cells;
+		RingBounds bounds = new RingBounds(lat, radiusKm);
+		int lat0 = latIndex(lat);
+		int lon0 = lonIndex(lon);
+		PriorityQueue<SpotDistance> page = new PriorityQueue<>(limit + 1, PAGE_ORDER.reversed());
+		Consumer<Map<String, ParkingSpot>> visitCell = spots -> spots.values().forEach(spot -> {
+			double distance = GeoUtils.distanceKm(lat, lon, spot.getLatitude(), spot.getLongitude());
+			if (distance > radiusKm || distance < afterKm
+					|| (distance == afterKm && spot.getId().compareTo(afterId) <= 0)) {
+				return;
+			}
+			SpotDistance candidate = new SpotDistance(spot, distance);
+			if (page.size() < limit) {
+				page.add(candidate);
+			} else if (PAGE_ORDER.compare(candidate, page.peek()) < 0) {
+				page.poll();
+				page.add(candidate);
+			}
+		});
+
+		// Rings are walked while they cost fewer lookups than there are occupied cells
+		int maxRing = bounds.maxRing();
+		int firstRing = bounds.firstRingReaching(afterKm);
+		int completedRing = firstRing - 1;
+		long lookupBudget = Math.max(cells.size(), 1);
+		boolean exhausted = false;
+		for (int ring = firstRing;; ring++) {
+			double lower = bounds.ringLowerKm(ring);
+			if (ring > maxRing || lower > radiusKm || (page.size() == limit && lower > page.peek().getDistanceKm())) {
+				exhausted = true;
+				break;
+			}
+			long ringSize = ring == 0 ? 1 : 8L * ring;
+			if (ringSize > lookupBudget) {
+				break;
+			}
+			lookupBudget -= ringSize;
+			forEachCellOnRing(lat0, lon0, ring, key -> {
+				Map<String, ParkingSpot> spots = cells.get(key);
+				if (spots != null) {
+					visitCell.accept(spots);
+				}
+			});
+			completedRing = ring;
+		}
+
+		if (!exhausted) {
+			// Sparse grid: rank the remaining occupied cells by their nearest possible point
+			int skipRing = completedRing;
+			List<long[]> ranked = new ArrayList<>();
+			cells.forEach((key, spots) -> {
+				int dLat = Math.abs((int) (key >> 32) - lat0);
+				int dLon = Math.abs((int) (long) key - lon0);
+				double lower = bounds.lowerKm(dLat, dLon);
+				if (Math.max(dLat, dLon) > skipRing && lower <= radiusKm && bounds.upperKm(dLat, dLon) >= afterKm) {
+					ranked.add(new long[] { Double.doubleToLongBits(lower), key });
+				}
+			});
+			ranked.sort(Comparator.comparingDouble(e -> Double.longBitsToDouble(e[0])));
+			for (long[] entry : ranked) {
+				if (page.size() == limit && Double.longBitsToDouble(entry[0]) > page.peek().getDistanceKm()) {
+					break;
+				}
+				Map<String, ParkingSpot> spots = cells.get(entry[1]);
+				if (spots != null) {
+					visitCell.accept(spots);
+				}
+			}
+		}
+
+		List<SpotDistance> result = new ArrayList<>(page);
+		result.sort(PAGE_ORDER);
+		return result;
+	}
+
+	private static void forEachCellOnRing(int lat0, int lon0, int ring, LongConsumer action) {
+		if (ring == 0) {
+			action.accept(cellKey(lat0, lon0));
+			return;
+		}
+		for (int dLon = -ring; dLon <= ring; dLon++) {
+			action.accept(cellKey(lat0 - ring, lon0 + dLon));
+			action.accept(cellKey(lat0 + ring, lon0 + dLon));
+		}
+		for (int dLat = -ring + 1; dLat < ring; dLat++) {
+			action.accept(cellKey(lat0 + dLat, lon0 - ring));
+			action.accept(cellKey(lat0 + dLat, lon0 + ring));
+		}
+	}
+
+	/**
+	 * Distance bounds, in km, between the query point and a cell a given number
+	 * of rows and columns away from the query cell. Cell widths are taken at the
+	 * extreme latitudes of the search band and padded by a small factor so the
+	 * bounds stay conservative against the great-circle distance.
+	 */
+	private final class RingBounds {
+		private static final double SAFETY = 0.01;
+
+		private final double cellLatKm;
+		private final double minCellLonKm;
+		private final double maxCellLonKm;
+		private final double radiusKm;
+
+		RingBounds(double lat, double radiusKm) {
+			double band = GeoUtils.latDeltaDeg(radiusKm);
+			double farLat = Math.min(90.0, Math.abs(lat) + band);
+			double nearLat = Math.max(0.0, Math.abs(lat) - band);
+			this.cellLatKm = cellDeg * GeoUtils.KM_PER_DEGREE;
+			this.minCellLonKm = cellLatKm * Math.cos(Math.toRadians(farLat));
+			this.maxCellLonKm = cellLatKm * Math.cos(Math.toRadians(nearLat));
+			this.radiusKm = radiusKm;
+		}
+
+		double lowerKm(int dLat, int dLon) {
+			double byLat = Math.max(dLat - 1, 0) * cellLatKm;
+			double byLon = Math.max(dLon - 1, 0) * minCellLonKm;
+			return Math.max(byLat, byLon) * (1 - SAFETY);
+		}
+
+		/** Lower bound over every cell of the ring. */
+		double ringLowerKm(int ring) {
+			return Math.max(ring - 1, 0) * Math.min(cellLatKm, minCellLonKm) * (1 - SAFETY);
+		}
+
+		double upperKm(int dLat, int dLon) {
+			return Math.hypot((dLat + 1) * cellLatKm, (dLon + 1) * maxCellLonKm) * (1 + SAFETY);
+		}
+
+		int maxRing() {
+			double step = Math.min(cellLatKm, minCellLonKm) * (1 - SAFETY);
+			if (step <= 0) {
+				return Integer.MAX_VALUE / 4;
+			}
+			return (int) Math.min(Integer.MAX_VALUE / 4, Math.ceil(radiusKm / step) + 1);
+		}
+
+		/** First ring that can hold a point farther than {@code afterKm}. */
+		int firstRingReaching(double afterKm) {
+			double diagonal = Math.hypot(cellLatKm, maxCellLonKm) * (1 + SAFETY);
+			return afterKm <= 0 ? 0 : Math.max(0, (int) Math.floor(afterKm / diagonal) - 1);
+		}
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public int size() {
+		return cellBySpotId.size();
+	}
+
+	public int cellCount() {
+		return cells.size();
+	}
+
+	public double getCellDeg() {
+		return cellDeg;
+	}
+
+	// ============ CELL ADDRESSING ============
+
+	int latIndex(double lat) {
+		return (int) Math.floor((lat + 90.0) / cellDeg);
+	}
+
+	int lonIndex(double lon) {
+		return (int) Math.floor((lon + 180.0) / cellDeg);
+	}
+
+	static long cellKey(int latIdx, int lonIdx) {
+		return ((long) latIdx << 32) | (lonIdx & 0xffffffffL);
+	}
+}
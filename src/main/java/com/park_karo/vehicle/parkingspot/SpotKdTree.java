@@ -0,0 +1,306 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, array-backed KD-tree over parking spots.
+ *
+ * Spots are stored as unit vectors on the sphere, so the straight-line (chord)
+ * distance between two points is monotonic in their great-circle distance and
+ * nearest-neighbour search needs no trigonometry in the inner loop. The tree is
+ * laid out implicitly: the node for the range {@code [lo, hi)} lives at its
+ * midpoint, with the left and right halves as children.
+ */
+final class SpotKdTree {
+
+	private final ParkingSpot[] spots;
+	private final double[][] coords; // [axis][slot]
+	private final byte[] splitAxis;
+	private final Map<String, Integer> slotById;
+
+	private SpotKdTree(ParkingSpot[] spots, double[][] coords, byte[] splitAxis) {
+		this.spots = spots;
+		this.coords = coords;
+		this.splitAxis = splitAxis;
+		this.slotById = new HashMap<>(spots.length * 4 / 3 + 1);
+		for (int i = 0; i < spots.length; i++) {
+			slotById.put(spots[i].getId(), i);
+		}
+	}
+
+	static SpotKdTree build(Collection<ParkingSpot> source) {
+		ParkingSpot[] spots = source.toArray(new ParkingSpot[0]);
+		int n = spots.length;
+		double[][] coords = new double[3][n];
+		for (int i = 0; i < n; i++) {
+			double lat = Math.toRadians(spots[i].getLatitude());
+			double lon = Math.toRadians(spots[i].getLongitude());
+			double cosLat = Math.cos(lat);
+			coords[0][i] = cosLat * Math.cos(lon);
+			coords[1][i] = cosLat * Math.sin(lon);
+			coords[2][i] = Math.sin(lat);
+		}
+		byte[] splitAxis = new byte[n];
+		buildRange(spots, coords, splitAxis, 0, n);
+		return new SpotKdTree(spots, coords, splitAxis);
+	}
+
+	private static void buildRange(ParkingSpot[] spots, double[][] coords, byte[] splitAxis, int lo, int hi) {
+		while (hi - lo > 1) {
+			int axis = widestAxis(coords, lo, hi);
+			int mid = (lo + hi) >>> 1;
+			select(spots, coords, axis, lo, hi - 1, mid);
+			splitAxis[mid] = (byte) axis;
+			// Recurse into the smaller half, loop on the larger one
+			if (mid - lo < hi - mid - 1) {
+				buildRange(spots, coords, splitAxis, lo, mid);
+				lo = mid + 1;
+			} else {
+				buildRange(spots, coords, splitAxis, mid + 1, hi);
+				hi = mid;
+			}
+		}
+	}
+
+	private static int widestAxis(double[][] coords, int lo, int hi) {
+		int best = 0;
+		double bestSpread = -1;
+		for (int axis = 0; axis < 3; axis++) {
+			double min = Double.POSITIVE_INFINITY;
+			double max = Double.NEGATIVE_INFINITY;
+			double[] values = coords[axis];
+			for (int i = lo; i < hi; i++) {
+				min = Math.min(min, values[i]);
+				max = Math.max(max, values[i]);
+			}
+			if (max - min > bestSpread) {
+				bestSpread = max - min;
+				best = axis;
+			}
+		}
+		return best;
+	}
+
+	/** Quickselect so that slot {@code k} holds the median along {@code axis}. */
+	private static void select(ParkingSpot[] spots, double[][] coords, int axis, int left, int right, int k) {
+		double[] values = coords[axis];
+		while (right > left) {
+			double pivot = values[(left + right) >>> 1];
+			int i = left;
+			int j = right;
+			while (i <= j) {
+				while (values[i] < pivot) {
+					i++;
+				}
+				while (values[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(spots, coords, i, j);
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) {
+				right = j;
+			} else if (k >= i) {
+				left = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private static void swap(ParkingSpot[] spots, double[][] coords, int a, int b) {
+		ParkingSpot spot = spots[a];
+		spots[a] = spots[b];
+		spots[b] = spot;
+		for (double[] values : coords) {
+			double v = values[a];
+			values[a] = values[b];
+			values[b] = v;
+		}
+	}
+
+	// ============ QUERIES ============
+
+	int size() {
+		return spots.length;
+	}
+
+	/**
+	 * Returns the tree slot holding the spot, or -1 if it is not in the tree.
+	 */
+	int slotOf(String spotId) {
+		Integer slot = slotById.get(spotId);
+		return slot != null ? slot : -1;
+	}
+
+	ParkingSpot spotAt(int slot) {
+		return spots[slot];
+	}
+
+	/**
+	 * Swaps in a newer copy of a spot whose position has not changed.
+	 */
+	void replace(int slot, ParkingSpot spot) {
+		spots[slot] = spot;
+	}
+
+	/**
+	 * Offers the tree's nearest spots to {@code heap}, skipping ids matched by
+	 * {@code excluded}. Subtrees that cannot beat the heap's current worst entry
+	 * are pruned.
+	 */
+	void nearest(double lat, double lon, NearestHeap heap, Predicate<String> excluded) {
+		if (spots.length == 0) {
+			return;
+		}
+		double latRad = Math.toRadians(lat);
+		double lonRad = Math.toRadians(lon);
+		double cosLat = Math.cos(latRad);
+		double[] query = { cosLat * Math.cos(lonRad), cosLat * Math.sin(lonRad), Math.sin(latRad) };
+		search(query, 0, spots.length, heap, excluded);
+	}
+
+	private void search(double[] query, int lo, int hi, NearestHeap heap, Predicate<String> excluded) {
+		if (lo >= hi) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		double dx = coords[0][mid] - query[0];
+		double dy = coords[1][mid] - query[1];
+		double dz = coords[2][mid] - query[2];
+		double chordSq = dx * dx + dy * dy + dz * dz;
+		if (chordSq <= heap.boundChordSq() && !excluded.test(spots[mid].getId())) {
+			heap.offer(spots[mid], chordSq);
+		}
+		if (hi - lo == 1) {
+			return;
+		}
+
+		int axis = splitAxis[mid];
+		double diff = query[axis] - coords[axis][mid];
+		if (diff < 0) {
+			search(query, lo, mid, heap, excluded);
+			if (diff * diff <= heap.boundChordSq()) {
+				search(query, mid + 1, hi, heap, excluded);
+			}
+		} else {
+			search(query, mid + 1, hi, heap, excluded);
+			if (diff * diff <= heap.boundChordSq()) {
+				search(query, lo, mid, heap, excluded);
+			}
+		}
+	}
+
+	/**
+	 * Fixed-capacity max-heap of the best candidates seen so far, keyed by squared
+	 * chord length on the unit sphere.
+	 */
+	static final class NearestHeap {
+
+		private final ParkingSpot[] spots;
+		private final double[] chordSq;
+		private final double maxChordSq;
+		private int size;
+
+		NearestHeap(int capacity, double maxDistanceKm) {
+			this.spots = new ParkingSpot[capacity];
+			this.chordSq = new double[capacity];
+			double maxChord = 2 * Math.sin(Math.min(Math.PI, maxDistanceKm / GeoUtils.EARTH_RADIUS_KM) / 2);
+			this.maxChordSq = maxChord * maxChord;
+		}
+
+		/** Squared chord a candidate must not exceed to enter the heap. */
+		double boundChordSq() {
+			return size < spots.length ? maxChordSq : chordSq[0];
+		}
+
+		void offer(ParkingSpot spot, double candidateChordSq) {
+			if (candidateChordSq > boundChordSq()) {
+				return;
+			}
+			if (size < spots.length) {
+				int i = size++;
+				spots[i] = spot;
+				chordSq[i] = candidateChordSq;
+				siftUp(i);
+			} else {
+				spots[0] = spot;
+				chordSq[0] = candidateChordSq;
+				siftDown(0);
+			}
+		}
+
+		void offer(ParkingSpot spot, double lat, double lon) {
+			double latRad = Math.toRadians(lat);
+			double lonRad = Math.toRadians(lon);
+			double spotLat = Math.toRadians(spot.getLatitude());
+			double spotLon = Math.toRadians(spot.getLongitude());
+			double dx = Math.cos(spotLat) * Math.cos(spotLon) - Math.cos(latRad) * Math.cos(lonRad);
+			double dy = Math.cos(spotLat) * Math.sin(spotLon) - Math.cos(latRad) * Math.sin(lonRad);
+			double dz = Math.sin(spotLat) - Math.sin(latRad);
+			offer(spot, dx * dx + dy * dy + dz * dz);
+		}
+
+		/** Drains the heap into a list ordered nearest first. */
+		List<SpotDistance> toSortedList() {
+			List<SpotDistance> result = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				result.add(null);
+			}
+			while (size > 0) {
+				double chord = Math.sqrt(chordSq[0]);
+				double distanceKm = 2 * GeoUtils.EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+				result.set(size - 1, new SpotDistance(spots[0], distanceKm));
+				size--;
+				spots[0] = spots[size];
+				chordSq[0] = chordSq[size];
+				spots[size] = null;
+				siftDown(0);
+			}
+			return result;
+		}
+
+		private void siftUp(int i) {
+			while (i > 0) {
+				int parent = (i - 1) >>> 1;
+				if (chordSq[parent] >= chordSq[i]) {
+					return;
+				}
+				swap(i, parent);
+				i = parent;
+			}
+		}
+
+		private void siftDown(int i) {
+			while (true) {
+				int left = 2 * i + 1;
+				if (left >= size) {
+					return;
+				}
+				int largest = left + 1 < size && chordSq[left + 1] > chordSq[left] ? left + 1 : left;
+				if (chordSq[i] >= chordSq[largest]) {
+					return;
+				}
+				swap(i, largest);
+				i = largest;
+			}
+		}
+
+		private void swap(int a, int b) {
+			ParkingSpot spot = spots[a];
+			spots[a] = spots[b];
+			spots[b] = spot;
+			double c = chordSq[a];
+			chordSq[a] = chordSq[b];
+			chordSq[b] = c;
+		}
+	}
+}
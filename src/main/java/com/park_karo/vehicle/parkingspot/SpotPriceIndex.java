@@ -0,0 +1,384 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Price-sorted primitive index over the spot catalog, one column per vehicle
+ * type plus one across all types.
+ *
+ * A column is a {@code float[]} of hourly rates in ascending order with a
+ * parallel {@code int[]} of spot ordinals, so a price range is two binary
+ * searches and the cheapest spots are the front of the array. Columns are
+ * immutable: a rate or type change builds a new copy of the affected columns
+ * and publishes it in a new snapshot, so readers never lock and always see
+ * consistent columns.
+ * Large batches rebuild the columns instead of copying once per spot.
+ */
+@Component
+public class SpotPriceIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotPriceIndex.class);
+
+	/** Key of the column holding every spot. */
+	static final int ANY_TYPE = Integer.MIN_VALUE;
+
+	// Writer-side bookkeeping, guarded by the event listener's lock
+	private final Map<String, Entry> entriesById = new HashMap<>();
+	private final List<Integer> freeOrdinals = new ArrayList<>();
+	private int nextOrdinal;
+	private ParkingSpot[] spotsByOrdinal = new ParkingSpot[1024];
+
+	// Columns and the ordinal table they point into, published together
+	private volatile Snapshot snapshot = new Snapshot(Map.of(), spotsByOrdinal);
+	private volatile boolean ready;
+
+	// ============ MAINTENANCE ============
+
+	@EventListener
+	public synchronized void onCatalogChanged(SpotCatalogChangedEvent event) {
+		if (event.isReload()) {
+			entriesById.clear();
+			freeOrdinals.clear();
+			nextOrdinal = 0;
+			// A fresh table, so readers of the previous snapshot keep resolving their own ordinals
+			spotsByOrdinal = new ParkingSpot[Math.max(1024, event.getUpserted().size())];
+		}
+
+		Map<Integer, List<Entry>> removedByType = new HashMap<>();
+		Map<Integer, List<Entry>> addedByType = new HashMap<>();
+		for (String id : event.getRemovedIds()) {
+			Entry previous = entriesById.remove(id);
+			if (previous != null) {
+				removedByType.computeIfAbsent(previous.typeCode, k -> new ArrayList<>()).add(previous);
+				freeOrdinals.add(previous.ordinal);
+			}
+		}
+		for (ParkingSpot spot : event.getUpserted()) {
+			Entry previous = entriesById.get(spot.getId());
+			int ordinal = previous != null ? previous.ordinal : allocateOrdinal();
+			setSpot(ordinal, spot);
+			Entry next = new Entry(ordinal, (float) spot.getHourlyRate(), spot.getVehicleTypeCode());
+			if (previous != null && previous.rate == next.rate && previous.typeCode == next.typeCode) {
+				continue;
+			}
+			if (previous != null) {
+				removedByType.computeIfAbsent(previous.typeCode, k -> new ArrayList<>()).add(previous);
+			}
+			addedByType.computeIfAbsent(next.typeCode, k -> new ArrayList<>()).add(next);
+			entriesById.put(spot.getId(), next);
+		}
+
+		int changes = removedByType.values().stream().mapToInt(List::size).sum()
+				+ addedByType.values().stream().mapToInt(List::size).sum();
+		Map<Integer, PriceColumn> columns;
+		if (event.isReload() || changes > Math.max(64, entriesById.size() / 64)) {
+			columns = rebuild();
+		} else if (changes > 0) {
+			columns = applyCopyOnWrite(new HashMap<>(snapshot.columns), removedByType, addedByType);
+		} else {
+			columns = snapshot.columns;
+		}
+		snapshot = new Snapshot(Map.copyOf(columns), spotsByOrdinal);
+		if (event.isReload()) {
+			ready = true;
+			logger.info("Spot price index built: {} spots in {} type columns", entriesById.size(),
+					columns.size() - 1);
+		}
+	}
+
+	private Map<Integer, PriceColumn> rebuild() {
+		Map<Integer, List<Entry>> byType = new HashMap<>();
+		for (Entry entry : entriesById.values()) {
+			byType.computeIfAbsent(entry.typeCode, k -> new ArrayList<>()).add(entry);
+		}
+		Map<Integer, PriceColumn> rebuilt = new HashMap<>();
+		byType.forEach((type, entries) -> rebuilt.put(type, PriceColumn.of(entries)));
+		rebuilt.put(ANY_TYPE, PriceColumn.of(entriesById.values()));
+		return rebuilt;
+	}
+
+	private static Map<Integer, PriceColumn> applyCopyOnWrite(Map<Integer, PriceColumn> columns,
+			Map<Integer, List<Entry>> removedByType, Map<Integer, List<Entry>> addedByType) {
+		List<Entry> allRemoved = new ArrayList<>();
+		List<Entry> allAdded = new ArrayList<>();
+		removedByType.values().forEach(allRemoved::addAll);
+		addedByType.values().forEach(allAdded::addAll);
+		replaceColumn(columns, ANY_TYPE, allRemoved, allAdded);
+
+		Set<Integer> touched = new HashSet<>(removedByType.keySet());
+		touched.addAll(addedByType.keySet());
+		for (int type : touched) {
+			replaceColumn(columns, type, removedByType.getOrDefault(type, List.of()),
+					addedByType.getOrDefault(type, List.of()));
+		}
+		return columns;
+	}
+
+	private static void replaceColumn(Map<Integer, PriceColumn> columns, int type, List<Entry> removed,
+			List<Entry> added) {
+		PriceColumn current = columns.getOrDefault(type, PriceColumn.EMPTY);
+		PriceColumn next = current.without(removed).with(added);
+		if (next.size == 0 && type != ANY_TYPE) {
+			columns.remove(type);
+		} else {
+			columns.put(type, next);
+		}
+	}
+
+	private int allocateOrdinal() {
+		if (!freeOrdinals.isEmpty()) {
+			return freeOrdinals.remove(freeOrdinals.size() - 1);
+		}
+		return nextOrdinal++;
+	}
+
+	private void setSpot(int ordinal, ParkingSpot spot) {
+		ParkingSpot[] table = spotsByOrdinal;
+		if (ordinal >= table.length) {
+			table = Arrays.copyOf(table, Math.max(ordinal + 1, table.length * 2));
+		}
+		table[ordinal] = spot;
+		spotsByOrdinal = table;
+	}
+
+	private static final class Snapshot {
+		final Map<Integer, PriceColumn> columns;
+		final ParkingSpot[] spots;
+
+		Snapshot(Map<Integer, PriceColumn> columns, ParkingSpot[] spots) {
+			this.columns = columns;
+			this.spots = spots;
+		}
+	}
+
+	// ============ QUERIES ============
+
+	/**
+	 * Spots of the vehicle type (any type when empty) priced within
+	 * {@code [minPrice, maxPrice]}, cheapest first, at most {@code limit}
+	 * (0 means no limit).
+	 */
+	public List<ParkingSpot> findInPriceRange(String vehicleType, double minPrice, double maxPrice, int limit) {
+		return walk(vehicleType, minPrice, maxPrice, limit, spot -> true);
+	}
+
+	/**
+	 * The {@code n} cheapest spots of the vehicle type (any type when empty)
+	 * with at least {@code minSpaces} free, cheapest first.
+	 */
+	public List<ParkingSpot> findCheapest(String vehicleType, int n, int minSpaces) {
+		return walk(vehicleType, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, n,
+				spot -> spot.getAvailableSpaces() >= minSpaces);
+	}
+
+	/**
+	 * Walks the column from the first rate at or above {@code minPrice} and
+	 * collects spots passing {@code filter} until {@code limit} are found. Spots
+	 * tied on rate with the last one collected are still included so callers can
+	 * break ties themselves.
+	 */
+	List<ParkingSpot> walk(String vehicleType, double minPrice, double maxPrice, int limit,
+			Predicate<ParkingSpot> filter) {
+		Snapshot current = snapshot;
+		PriceColumn column = current.columns.get(columnKey(vehicleType));
+		if (column == null || minPrice > maxPrice) {
+			return List.of();
+		}
+		ParkingSpot[] table = current.spots;
+		// Float rounding is monotonic, so the rounded bounds select a superset of the exact range
+		int from = column.lowerBound((float) minPrice);
+		int to = column.upperBound((float) maxPrice);
+		List<ParkingSpot> result = new ArrayList<>();
+		float lastRate = Float.NaN;
+		for (int i = from; i < to; i++) {
+			if (limit > 0 && result.size() >= limit && column.rates[i] != lastRate) {
+				break;
+			}
+			ParkingSpot spot = table[column.ordinals[i]];
+			if (spot == null) {
+				continue;
+			}
+			double rate = spot.getHourlyRate();
+			if (rate >= minPrice && rate <= maxPrice && filter.test(spot)) {
+				result.add(spot);
+				lastRate = column.rates[i];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Number of spots of the vehicle type whose indexed rate falls in the range;
+	 * two binary searches, used as a planner estimate.
+	 */
+	public int countInPriceRange(String vehicleType, double minPrice, double maxPrice) {
+		PriceColumn column = snapshot.columns.get(columnKey(vehicleType));
+		if (column == null || minPrice > maxPrice) {
+			return 0;
+		}
+		return Math.max(0, column.upperBound((float) maxPrice) - column.lowerBound((float) minPrice));
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public int size() {
+		PriceColumn all = snapshot.columns.get(ANY_TYPE);
+		return all != null ? all.size : 0;
+	}
+
+	private static int columnKey(String vehicleType) {
+		return vehicleType == null || vehicleType.isBlank() ? ANY_TYPE : VehicleTypes.find(vehicleType);
+	}
+
+	// ============ COLUMNS ============
+
+	private static final class Entry {
+		final int ordinal;
+		final float rate;
+		final int typeCode;
+
+		Entry(int ordinal, float rate, int typeCode) {
+			this.ordinal = ordinal;
+			this.rate = rate;
+			this.typeCode = typeCode;
+		}
+	}
+
+	/**
+	 * Immutable rate-sorted column, ordered by (rate, ordinal) so every entry
+	 * has exactly one position.
+	 */
+	private static final class PriceColumn {
+		static final PriceColumn EMPTY = new PriceColumn(new float[0], new int[0]);
+
+		final int size;
+		final float[] rates;
+		final int[] ordinals;
+
+		PriceColumn(float[] rates, int[] ordinals) {
+			this.size = rates.length;
+			this.rates = rates;
+			this.ordinals = ordinals;
+		}
+
+		static PriceColumn of(Collection<Entry> entries) {
+			Entry[] sorted = entries.toArray(new Entry[0]);
+			Arrays.sort(sorted, PriceColumn::compare);
+			float[] rates = new float[sorted.length];
+			int[] ordinals = new int[sorted.length];
+			for (int i = 0; i < sorted.length; i++) {
+				rates[i] = sorted[i].rate;
+				ordinals[i] = sorted[i].ordinal;
+			}
+			return new PriceColumn(rates, ordinals);
+		}
+
+		private static int compare(Entry a, Entry b) {
+			int byRate = Float.compare(a.rate, b.rate);
+			return byRate != 0 ? byRate : Integer.compare(a.ordinal, b.ordinal);
+		}
+
+		PriceColumn without(List<Entry> removed) {
+			if (removed.isEmpty()) {
+				return this;
+			}
+			boolean[] drop = new boolean[size];
+			int dropped = 0;
+			for (Entry entry : removed) {
+				int at = positionOf(entry.rate, entry.ordinal);
+				if (at >= 0 && !drop[at]) {
+					drop[at] = true;
+					dropped++;
+				}
+			}
+			float[] newRates = new float[size - dropped];
+			int[] newOrdinals = new int[size - dropped];
+			for (int i = 0, j = 0; i < size; i++) {
+				if (!drop[i]) {
+					newRates[j] = rates[i];
+					newOrdinals[j++] = ordinals[i];
+				}
+			}
+			return new PriceColumn(newRates, newOrdinals);
+		}
+
+		PriceColumn with(List<Entry> added) {
+			if (added.isEmpty()) {
+				return this;
+			}
+			PriceColumn addition = of(added);
+			float[] newRates = new float[size + addition.size];
+			int[] newOrdinals = new int[size + addition.size];
+			int i = 0;
+			int j = 0;
+			int k = 0;
+			while (i < size || j < addition.size) {
+				boolean takeOld = j >= addition.size || (i < size && (rates[i] < addition.rates[j]
+						|| (rates[i] == addition.rates[j] && ordinals[i] < addition.ordinals[j])));
+				if (takeOld) {
+					newRates[k] = rates[i];
+					newOrdinals[k++] = ordinals[i++];
+				} else {
+					newRates[k] = addition.rates[j];
+					newOrdinals[k++] = addition.ordinals[j++];
+				}
+			}
+			return new PriceColumn(newRates, newOrdinals);
+		}
+
+		private int positionOf(float rate, int ordinal) {
+			int lo = lowerBound(rate);
+			for (int i = lo; i < size && rates[i] == rate; i++) {
+				if (ordinals[i] == ordinal) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/** First position with a rate of at least {@code rate}. */
+		int lowerBound(float rate) {
+			int lo = 0;
+			int hi = size;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (rates[mid] < rate) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+
+		/** First position with a rate above {@code rate}. */
+		int upperBound(float rate) {
+			int lo = 0;
+			int hi = size;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (rates[mid] <= rate) {
+					lo = mid + 1;
+				} else {
+					hi = mid;
+				}
+			}
+			return lo;
+		}
+	}
+}
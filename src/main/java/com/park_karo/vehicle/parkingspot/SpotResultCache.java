@@ -0,0 +1,339 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Short-lived result cache for nearby and availability searches.
+ *
+ * Nearby searches are keyed by the quantised cell of the search point and a
+ * radius bucket. The cached value is every spot within
+ * {@code bucket + half cell diagonal} of the cell centre, a superset of the
+ * answer for any point in the cell, and each request filters it exactly against
+ * its own origin and radius. Availability searches are keyed by their filter
+ * tuple.
+ *
+ * Entries are evicted by Caffeine's W-TinyLFU policy and expire after a short
+ * TTL. On top of that, every entry registers the cells (or vehicle type) it
+ * depends on, and a catalog change in a cell drops exactly the entries that
+ * cover it. Per-dependency epochs stop a computation that raced with an
+ * invalidation from caching stale data.
+ */
+@Component
+public class SpotResultCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotResultCache.class);
+
+	private static final double[] RADIUS_BUCKETS_KM = { 0.25, 0.5, 1, 2, 3, 5, 7.5, 10 };
+	private static final long ANY_TYPE_TOKEN = Long.MIN_VALUE;
+	private static final int EPOCH_STRIPES = 1024;
+
+	private final SpotGridIndex spotGridIndex;
+	private final boolean enabled;
+	private final double cellDeg;
+
+	private final Cache<Object, List<ParkingSpot>> cache;
+	private final Map<Long, Set<Object>> dependents = new ConcurrentHashMap<>();
+	private final Map<Object, Registration> registrations = new ConcurrentHashMap<>();
+	private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+	// Last known cell and type token of every spot, to invalidate where it used to be
+	private final Map<String, long[]> tokensBySpotId = new ConcurrentHashMap<>();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	public SpotResultCache(SpotGridIndex spotGridIndex, @Value("${parking.cache.enabled:true}") boolean enabled,
+			@Value("${parking.cache.cell-deg:0.005}") double cellDeg,
+			@Value("${parking.cache.max-entries:10000}") long maxEntries,
+			@Value("${parking.cache.ttl-seconds:30}") long ttlSeconds) {
+		this.spotGridIndex = spotGridIndex;
+		this.enabled = enabled;
+		this.cellDeg = cellDeg;
+		this.cache = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+				.recordStats().executor(Runnable::run)
+				.removalListener((Object key, List<ParkingSpot> value, RemovalCause cause) -> {
+					if (key != null) {
+						unregister(key, value);
+					}
+				}).build();
+	}
+
+	// ============ LOOKUPS ============
+
+	/**
+	 * Radius search through the cache. Falls back to the grid index directly for
+	 * radii larger than the biggest bucket.
+	 */
+	public List<ParkingSpot> findWithinRadius(double lat, double lon, double radiusKm) {
+		int bucket = radiusBucket(radiusKm);
+		if (!enabled || bucket < 0) {
+			return spotGridIndex.findWithinRadius(lat, lon, radiusKm);
+		}
+
+		int latIdx = (int) Math.floor((lat + 90.0) / cellDeg);
+		int lonIdx = (int) Math.floor((lon + 180.0) / cellDeg);
+		NearbyKey key = new NearbyKey(latIdx, lonIdx, bucket);
+
+		List<ParkingSpot> candidates = cache.getIfPresent(key);
+		if (candidates == null) {
+			double centerLat = (latIdx + 0.5) * cellDeg - 90.0;
+			double centerLon = (lonIdx + 0.5) * cellDeg - 180.0;
+			double halfDiagonalKm = GeoUtils.distanceKm(centerLat, centerLon, centerLat + cellDeg / 2,
+					centerLon + cellDeg / 2);
+			double supersetRadiusKm = RADIUS_BUCKETS_KM[bucket] + halfDiagonalKm;
+			long[] tokens = coveredCells(centerLat, centerLon, supersetRadiusKm);
+			candidates = load(key, tokens, () -> spotGridIndex.findWithinRadius(centerLat, centerLon, supersetRadiusKm));
+		}
+
+		List<ParkingSpot> result = new ArrayList<>();
+		for (ParkingSpot spot : candidates) {
+			if (GeoUtils.distanceKm(lat, lon, spot.getLatitude(), spot.getLongitude()) <= radiusKm) {
+				result.add(spot);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Availability search through the cache; {@code loader} runs on a miss.
+	 */
+	public List<ParkingSpot> findAvailable(double maxPrice, int minSpaces, String vehicleType,
+			Supplier<List<ParkingSpot>> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		String type = vehicleType == null || vehicleType.isEmpty() ? null : ParkingSpot.normalizeVehicleType(vehicleType);
+		AvailabilityKey key = new AvailabilityKey(maxPrice, minSpaces, type);
+		List<ParkingSpot> cached = cache.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+		long[] tokens = { type == null ? ANY_TYPE_TOKEN : typeToken(type) };
+		return load(key, tokens, loader);
+	}
+
+	private List<ParkingSpot> load(Object key, long[] tokens, Supplier<List<ParkingSpot>> loader) {
+		long[] before = readEpochs(tokens);
+		List<ParkingSpot> value = List.copyOf(loader.get());
+
+		registrations.put(key, new Registration(tokens, value));
+		for (long token : tokens) {
+			dependents.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(key);
+		}
+		cache.put(key, value);
+
+		// An invalidation that ran while we were loading may have missed this entry
+		if (!Arrays.equals(before, readEpochs(tokens))) {
+			cache.invalidate(key);
+		}
+		return value;
+	}
+
+	// ============ INVALIDATION ============
+
+	@EventListener
+	public void onCatalogChanged(SpotCatalogChangedEvent event) {
+		if (event.isReload()) {
+			for (int i = 0; i < EPOCH_STRIPES; i++) {
+				epochs.incrementAndGet(i);
+			}
+			cache.invalidateAll();
+			tokensBySpotId.clear();
+			event.getUpserted().forEach(spot -> tokensBySpotId.put(spot.getId(), tokensOf(spot)));
+			logger.info("Spot result cache cleared after catalog reload (enabled={}, cellDeg={})", enabled, cellDeg);
+			return;
+		}
+		for (String id : event.getRemovedIds()) {
+			long[] previous = tokensBySpotId.remove(id);
+			if (previous != null) {
+				invalidate(previous[0]);
+				invalidate(previous[1]);
+				invalidate(ANY_TYPE_TOKEN);
+			}
+		}
+		for (ParkingSpot spot : event.getUpserted()) {
+			long[] current = tokensOf(spot);
+			long[] previous = tokensBySpotId.put(spot.getId(), current);
+			invalidate(current[0]);
+			invalidate(current[1]);
+			if (previous != null) {
+				if (previous[0] != current[0]) {
+					invalidate(previous[0]);
+				}
+				if (previous[1] != current[1]) {
+					invalidate(previous[1]);
+				}
+			}
+			invalidate(ANY_TYPE_TOKEN);
+		}
+	}
+
+	private void invalidate(long token) {
+		epochs.incrementAndGet(stripe(token));
+		Set<Object> keys = dependents.get(token);
+		if (keys != null && !keys.isEmpty()) {
+			List<Object> snapshot = new ArrayList<>(keys);
+			cache.invalidateAll(snapshot);
+			invalidations.addAndGet(snapshot.size());
+		}
+	}
+
+	private void unregister(Object key, List<ParkingSpot> value) {
+		// Only if the entry was not reloaded in the meantime; a fresh load owns the registration
+		Registration registration = registrations.get(key);
+		if (registration == null || registration.value != value || !registrations.remove(key, registration)) {
+			return;
+		}
+		for (long token : registration.tokens) {
+			dependents.computeIfPresent(token, (t, keys) -> {
+				keys.remove(key);
+				return keys.isEmpty() ? null : keys;
+			});
+		}
+	}
+
+	// ============ STATS ============
+
+	public Map<String, Object> stats() {
+		CacheStats stats = cache.stats();
+		Map<String, Object> result = new HashMap<>();
+		result.put("enabled", enabled);
+		result.put("entries", cache.estimatedSize());
+		result.put("hits", stats.hitCount());
+		result.put("misses", stats.missCount());
+		result.put("hitRate", stats.hitRate());
+		result.put("evictions", stats.evictionCount());
+		result.put("invalidations", invalidations.get());
+		result.put("trackedDependencies", dependents.size());
+		return result;
+	}
+
+	// ============ KEYS ============
+
+	private static int radiusBucket(double radiusKm) {
+		for (int i = 0; i < RADIUS_BUCKETS_KM.length; i++) {
+			if (radiusKm <= RADIUS_BUCKETS_KM[i]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Invalidation cells overlapping the bounding box of a circle. */
+	private long[] coveredCells(double lat, double lon, double radiusKm) {
+		double latDelta = GeoUtils.latDeltaDeg(radiusKm);
+		double lonDelta = GeoUtils.lonDeltaDeg(lat, radiusKm);
+		int minLat = (int) Math.floor((lat - latDelta + 90.0) / cellDeg);
+		int maxLat = (int) Math.floor((lat + latDelta + 90.0) / cellDeg);
+		int minLon = (int) Math.floor((lon - lonDelta + 180.0) / cellDeg);
+		int maxLon = (int) Math.floor((lon + lonDelta + 180.0) / cellDeg);
+		long[] tokens = new long[(maxLat - minLat + 1) * (maxLon - minLon + 1)];
+		int i = 0;
+		for (int la = minLat; la <= maxLat; la++) {
+			for (int lo = minLon; lo <= maxLon; lo++) {
+				tokens[i++] = SpotGridIndex.cellKey(la, lo);
+			}
+		}
+		return tokens;
+	}
+
+	/** {cell token, type token} of a spot. */
+	private long[] tokensOf(ParkingSpot spot) {
+		long cell = SpotGridIndex.cellKey((int) Math.floor((spot.getLatitude() + 90.0) / cellDeg),
+				(int) Math.floor((spot.getLongitude() + 180.0) / cellDeg));
+		String type = spot.getVehicleTypeKey();
+		return new long[] { cell, type == null ? ANY_TYPE_TOKEN : typeToken(type) };
+	}
+
+	/** Type tokens are negative so they never collide with (non-negative) cell keys. */
+	private static long typeToken(String upperType) {
+		return Long.MIN_VALUE + 1 + (upperType.hashCode() & 0x7fffffffL);
+	}
+
+	private long[] readEpochs(long[] tokens) {
+		long[] values = new long[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			values[i] = epochs.get(stripe(tokens[i]));
+		}
+		return values;
+	}
+
+	private static int stripe(long token) {
+		return (int) ((token ^ (token >>> 32)) * 0x9E3779B9L >>> 22) & (EPOCH_STRIPES - 1);
+	}
+
+	private static final class Registration {
+		final long[] tokens;
+		final List<ParkingSpot> value;
+
+		Registration(long[] tokens, List<ParkingSpot> value) {
+			this.tokens = tokens;
+			this.value = value;
+		}
+	}
+
+	private static final class NearbyKey {
+		final int latIdx;
+		final int lonIdx;
+		final int radiusBucket;
+
+		NearbyKey(int latIdx, int lonIdx, int radiusBucket) {
+			this.latIdx = latIdx;
+			this.lonIdx = lonIdx;
+			this.radiusBucket = radiusBucket;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof NearbyKey k && k.latIdx == latIdx && k.lonIdx == lonIdx
+					&& k.radiusBucket == radiusBucket;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(latIdx, lonIdx, radiusBucket);
+		}
+	}
+
+	private static final class AvailabilityKey {
+		final double maxPrice;
+		final int minSpaces;
+		final String vehicleType;
+
+		AvailabilityKey(double maxPrice, int minSpaces, String vehicleType) {
+			this.maxPrice = maxPrice;
+			this.minSpaces = minSpaces;
+			this.vehicleType = vehicleType;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof AvailabilityKey k && Double.compare(k.maxPrice, maxPrice) == 0
+					&& k.minSpaces == minSpaces && Objects.equals(k.vehicleType, vehicleType);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(maxPrice, minSpaces, vehicleType);
+		}
+	}
+}
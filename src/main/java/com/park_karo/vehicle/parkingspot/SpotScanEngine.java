@@ -0,0 +1,248 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Full-scan query engine over a {@link SpotColumnarSnapshot}.
+ *
+ * Catalog changes only mark the snapshot stale; the next query rebuilds it once,
+ * so a burst of writes costs a single rebuild. Value-only changes reuse the
+ * geometry columns of the previous snapshot. Queries always see one consistent
+ * snapshot.
+ *
+ * The scan loops are kept branch-light and index-only so the JIT can unroll and
+ * vectorise them. Radius search first turns the circle's bounding box into a
+ * few Hilbert key ranges and only walks the matching row runs of the
+ * key-sorted snapshot; within them a cheap bounding-box check on the radian
+ * columns runs before the exact Haversine test, which is compared against a
+ * precomputed threshold instead of calling {@code atan2}.
+ */
+@Component
+public class SpotScanEngine {
+
+	/** Key ranges per radius search; more ranges read fewer rows but cost more binary searches. */
+	static final int MAX_KEY_RANGES = 16;
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotScanEngine.class);
+
+	private final ParkingSpotCatalog parkingSpotCatalog;
+
+	private volatile SpotColumnarSnapshot snapshot = SpotColumnarSnapshot.build(List.of());
+	private final Map<Integer, ParkingSpot> pendingValueChanges = new HashMap<>();
+	private boolean structureStale;
+	private volatile boolean stale;
+
+	public SpotScanEngine(ParkingSpotCatalog parkingSpotCatalog) {
+		this.parkingSpotCatalog = parkingSpotCatalog;
+	}
+
+	// ============ MAINTENANCE ============
+
+	@EventListener
+	public synchronized void onCatalogChanged(SpotCatalogChangedEvent event) {
+		if (event.isReload() || !event.getRemovedIds().isEmpty()) {
+			markStructureStale();
+			return;
+		}
+		SpotColumnarSnapshot current = snapshot;
+		for (ParkingSpot spot : event.getUpserted()) {
+			int row = current.rowOf(spot.getId());
+			if (row < 0 || current.spots[row].getLatitude() != spot.getLatitude()
+					|| current.spots[row].getLongitude() != spot.getLongitude()) {
+				markStructureStale();
+				return;
+			}
+			pendingValueChanges.put(row, spot);
+		}
+		stale = true;
+	}
+
+	private void markStructureStale() {
+		structureStale = true;
+		pendingValueChanges.clear();
+		stale = true;
+	}
+
+	/**
+	 * Returns the current snapshot, rebuilding it first if the catalog changed
+	 * since it was taken.
+	 */
+	SpotColumnarSnapshot snapshot() {
+		if (!stale) {
+			return snapshot;
+		}
+		synchronized (this) {
+			if (stale) {
+				long start = System.nanoTime();
+				if (structureStale) {
+					snapshot = SpotColumnarSnapshot.build(parkingSpotCatalog.all());
+				} else {
+					snapshot = snapshot.withValues(pendingValueChanges);
+				}
+				logger.debug("Columnar snapshot refreshed ({}) with {} rows in {} us",
+						structureStale ? "full" : pendingValueChanges.size() + " changed", snapshot.size,
+						(System.nanoTime() - start) / 1000);
+				structureStale = false;
+				pendingValueChanges.clear();
+				stale = false;
+			}
+			return snapshot;
+		}
+	}
+
+	// ============ QUERIES ============
+
+	/**
+	 * Returns every spot within {@code radiusKm} of the given point.
+	 */
+	public List<ParkingSpot> scanRadius(double lat, double lon, double radiusKm) {
+		SpotColumnarSnapshot s = snapshot();
+		int n = s.size;
+		double[] latRad = s.latRad;
+		double[] lonRad = s.lonRad;
+		double[] cosLat = s.cosLat;
+
+		double qLat = Math.toRadians(lat);
+		double qLon = Math.toRadians(lon);
+		double qCosLat = Math.cos(qLat);
+		double latDeltaDeg = GeoUtils.latDeltaDeg(radiusKm);
+		double lonDeltaDeg = GeoUtils.lonDeltaDeg(lat, radiusKm);
+		double latDelta = Math.toRadians(latDeltaDeg);
+		double lonDelta = Math.toRadians(lonDeltaDeg);
+		double minLat = qLat - latDelta;
+		double maxLat = qLat + latDelta;
+		double minLon = qLon - lonDelta;
+		double maxLon = qLon + lonDelta;
+
+		// Haversine: d <= r  <=>  a <= sin^2(r / 2R)
+		double halfAngle = Math.min(Math.PI / 2, radiusKm / (2 * GeoUtils.EARTH_RADIUS_KM));
+		double maxA = Math.sin(halfAngle) * Math.sin(halfAngle);
+
+		// Pass 1: bounding-box prefilter over the row runs of the covering key ranges
+		List<long[]> ranges = HilbertCurve.ranges(lat - latDeltaDeg, lon - lonDeltaDeg, lat + latDeltaDeg,
+				lon + lonDeltaDeg, MAX_KEY_RANGES);
+		int[] candidates = new int[Math.min(n, 1024)];
+		int count = 0;
+		for (long[] range : ranges) {
+			int end = s.rowsTo(range[1]);
+			for (int i = s.rowsFrom(range[0]); i < end; i++) {
+				double la = latRad[i];
+				double lo = lonRad[i];
+				if (la >= minLat & la <= maxLat & lo >= minLon & lo <= maxLon) {
+					if (count == candidates.length) {
+						candidates = Arrays.copyOf(candidates, Math.min(n, count * 2));
+					}
+					candidates[count++] = i;
+				}
+			}
+		}
+
+		// Pass 2: exact Haversine on the survivors
+		List<ParkingSpot> result = new ArrayList<>(count);
+		for (int c = 0; c < count; c++) {
+			int i = candidates[c];
+			double sinDLat = Math.sin((latRad[i] - qLat) * 0.5);
+			double sinDLon = Math.sin((lonRad[i] - qLon) * 0.5);
+			double a = sinDLat * sinDLat + qCosLat * cosLat[i] * sinDLon * sinDLon;
+			if (a <= maxA) {
+				result.add(s.spots[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns spots priced at or below {@code maxPrice} with at least
+	 * {@code minSpaces} free, optionally restricted to one vehicle type.
+	 */
+	public List<ParkingSpot> scanAvailable(double maxPrice, int minSpaces, String vehicleType) {
+		SpotColumnarSnapshot s = snapshot();
+		int n = s.size;
+		int[] available = s.available;
+		float[] rate = s.rate;
+		int[] typeCode = s.typeCode;
+
+		// Rates are stored as float; rounding the bound the same way never drops a match, and the
+		// few rates that only round down to the bound are checked exactly
+		float maxRate = (float) maxPrice;
+		boolean anyType = vehicleType == null || vehicleType.isEmpty();
+		int wantedType = anyType ? VehicleTypes.UNKNOWN : VehicleTypes.find(vehicleType);
+		if (!anyType && wantedType == VehicleTypes.UNKNOWN) {
+			return List.of();
+		}
+
+		List<ParkingSpot> result = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			if (rate[i] <= maxRate & available[i] >= minSpaces & (anyType | typeCode[i] == wantedType)
+					&& s.spots[i].getHourlyRate() <= maxPrice) {
+				result.add(s.spots[i]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns every spot matching the search criteria. The value and bounding-box
+	 * columns act as a prefilter; survivors get the exact
+	 * {@link SpotSearchCriteria#matches} check. Geo searches only walk the row runs
+	 * of the box's Hilbert key ranges.
+	 */
+	List<ParkingSpot> scanMatching(SpotSearchCriteria criteria) {
+		SpotColumnarSnapshot s = snapshot();
+		double[] latRad = s.latRad;
+		double[] lonRad = s.lonRad;
+		int[] available = s.available;
+		float[] rate = s.rate;
+		int[] typeCode = s.typeCode;
+
+		// Float rounding is monotonic, so comparing against rounded bounds never drops a match
+		float minRate = (float) criteria.minPrice;
+		float maxRate = (float) criteria.maxPrice;
+		int minSpaces = criteria.minSpaces;
+		double minLat = Math.toRadians(criteria.minLat);
+		double maxLat = Math.toRadians(criteria.maxLat);
+		double minLon = Math.toRadians(criteria.minLon);
+		double maxLon = Math.toRadians(criteria.maxLon);
+
+		boolean anyType = criteria.typeKeys == null;
+		BitSet wantedType = criteria.typeCodes;
+
+		List<long[]> ranges = criteria.hasGeo
+				? HilbertCurve.ranges(criteria.minLat, criteria.minLon, criteria.maxLat, criteria.maxLon,
+						MAX_KEY_RANGES)
+				: List.of(new long[] { Long.MIN_VALUE, Long.MAX_VALUE });
+		List<ParkingSpot> result = new ArrayList<>();
+		for (long[] range : ranges) {
+			int end = s.rowsTo(range[1]);
+			for (int i = s.rowsFrom(range[0]); i < end; i++) {
+				double la = latRad[i];
+				double lo = lonRad[i];
+				int code = typeCode[i];
+				if (la >= minLat & la <= maxLat & lo >= minLon & lo <= maxLon & rate[i] >= minRate
+						& rate[i] <= maxRate & available[i] >= minSpaces
+						& (anyType || wantedType.get(code))
+						&& criteria.matches(s.spots[i])) {
+					result.add(s.spots[i]);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Rows in the current snapshot.
+	 */
+	int size() {
+		return snapshot().size;
+	}
+}
@@ -0,0 +1,179 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+/**
+ * Validated, normalised form of a {@link SpotSearchRequest}. Absent bounds
+ * become open intervals so every access path can apply the same checks, and
+ * {@link #matches} is the exact predicate each path's candidates are filtered
+ * with.
+ */
+final class SpotSearchCriteria {
+
+	static final int DEFAULT_LIMIT = 50;
+	static final int MAX_LIMIT = 500;
+
+	enum Sort {
+		DISTANCE, PRICE, AVAILABILITY, NONE
+	}
+
+	final boolean hasGeo;
+	final boolean hasRadius;
+	final double centerLat;
+	final double centerLon;
+	final double radiusKm;
+	final double minLat;
+	final double minLon;
+	final double maxLat;
+	final double maxLon;
+	final double minPrice;
+	final double maxPrice;
+	final int minSpaces;
+	/** Normalised type keys, or null for any type. */
+	final Set<String> typeKeys;
+	/** {@link VehicleTypes} codes of {@link #typeKeys}, unknown types left out. */
+	final BitSet typeCodes;
+	final Sort sort;
+	final int limit;
+
+	private SpotSearchCriteria(SpotSearchRequest request) {
+		boolean anyCircle = request.getLat() != null || request.getLon() != null || request.getRadiusKm() != null;
+		boolean anyBox = request.getMinLat() != null || request.getMinLon() != null || request.getMaxLat() != null
+				|| request.getMaxLon() != null;
+		if (anyCircle && anyBox) {
+			throw new CustomExceptions.ValidationBusinessException("geo", "use either a radius or a box, not both");
+		}
+
+		if (anyCircle) {
+			if (request.getLat() == null || request.getLon() == null || request.getRadiusKm() == null) {
+				throw new CustomExceptions.ValidationBusinessException("lat/lon/radiusKm", "must be given together");
+			}
+			if (request.getRadiusKm() <= 0) {
+				throw new CustomExceptions.ValidationBusinessException("radiusKm", "must be positive");
+			}
+			centerLat = request.getLat();
+			centerLon = request.getLon();
+			radiusKm = request.getRadiusKm();
+			double latDelta = GeoUtils.latDeltaDeg(radiusKm);
+			double lonDelta = GeoUtils.lonDeltaDeg(centerLat, radiusKm);
+			minLat = centerLat - latDelta;
+			maxLat = centerLat + latDelta;
+			minLon = centerLon - lonDelta;
+			maxLon = centerLon + lonDelta;
+		} else if (anyBox) {
+			if (request.getMinLat() == null || request.getMinLon() == null || request.getMaxLat() == null
+					|| request.getMaxLon() == null) {
+				throw new CustomExceptions.ValidationBusinessException("minLat/minLon/maxLat/maxLon",
+						"must be given together");
+			}
+			minLat = request.getMinLat();
+			minLon = request.getMinLon();
+			maxLat = request.getMaxLat();
+			maxLon = request.getMaxLon();
+			if (minLat > maxLat || minLon > maxLon) {
+				throw new CustomExceptions.ValidationBusinessException("box", "min corner must not exceed max corner");
+			}
+			centerLat = (minLat + maxLat) / 2;
+			centerLon = (minLon + maxLon) / 2;
+			radiusKm = Double.NaN;
+		} else {
+			centerLat = Double.NaN;
+			centerLon = Double.NaN;
+			radiusKm = Double.NaN;
+			minLat = -90.0;
+			maxLat = 90.0;
+			minLon = -180.0;
+			maxLon = 180.0;
+		}
+		hasGeo = anyCircle || anyBox;
+		hasRadius = anyCircle;
+
+		minPrice = request.getMinPrice() != null ? request.getMinPrice() : Double.NEGATIVE_INFINITY;
+		maxPrice = request.getMaxPrice() != null ? request.getMaxPrice() : Double.POSITIVE_INFINITY;
+		if (minPrice > maxPrice) {
+			throw new CustomExceptions.ValidationBusinessException("minPrice", "must not exceed maxPrice");
+		}
+		minSpaces = request.getMinSpaces() != null ? request.getMinSpaces() : Integer.MIN_VALUE;
+
+		Set<String> types = new LinkedHashSet<>();
+		if (request.getVehicleTypes() != null) {
+			for (String type : request.getVehicleTypes()) {
+				if (type != null && !type.isBlank()) {
+					types.add(ParkingSpot.normalizeVehicleType(type));
+				}
+			}
+		}
+		typeKeys = types.isEmpty() ? null : types;
+		typeCodes = new BitSet();
+		for (String type : types) {
+			int code = VehicleTypes.find(type);
+			if (code > VehicleTypes.NONE) {
+				typeCodes.set(code);
+			}
+		}
+
+		if (request.getSort() == null || request.getSort().isBlank()) {
+			sort = hasGeo ? Sort.DISTANCE : Sort.NONE;
+		} else {
+			try {
+				sort = Sort.valueOf(request.getSort().trim().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new CustomExceptions.ValidationBusinessException("sort",
+						"must be one of distance, price, availability, none");
+			}
+			if (sort == Sort.DISTANCE && !hasGeo) {
+				throw new CustomExceptions.ValidationBusinessException("sort", "distance needs a radius or a box");
+			}
+		}
+
+		limit = request.getLimit() != null ? request.getLimit() : DEFAULT_LIMIT;
+		if (limit < 1 || limit > MAX_LIMIT) {
+			throw new CustomExceptions.ValidationBusinessException("limit", "must be between 1 and " + MAX_LIMIT);
+		}
+	}
+
+	static SpotSearchCriteria from(SpotSearchRequest request) {
+		return new SpotSearchCriteria(request != null ? request : new SpotSearchRequest());
+	}
+
+	boolean hasPriceBound() {
+		return minPrice != Double.NEGATIVE_INFINITY || maxPrice != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Exact predicate every candidate must pass, whichever path produced it.
+	 */
+	boolean matches(ParkingSpot spot) {
+		double lat = spot.getLatitude();
+		double lon = spot.getLongitude();
+		if (hasGeo && (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon)) {
+			return false;
+		}
+		if (hasRadius && GeoUtils.distanceKm(centerLat, centerLon, lat, lon) > radiusKm) {
+			return false;
+		}
+		double rate = spot.getHourlyRate();
+		if (!(rate >= minPrice && rate <= maxPrice) || spot.getAvailableSpaces() < minSpaces) {
+			return false;
+		}
+		return typeKeys == null || typeCodes.get(spot.getVehicleTypeCode());
+	}
+
+	Comparator<ParkingSpot> comparator() {
+		Comparator<ParkingSpot> byId = Comparator.comparing(ParkingSpot::getId,
+				Comparator.nullsLast(Comparator.naturalOrder()));
+		return switch (sort) {
+		case DISTANCE -> Comparator.<ParkingSpot>comparingDouble(
+				s -> GeoUtils.distanceKm(centerLat, centerLon, s.getLatitude(), s.getLongitude())).thenComparing(byId);
+		case PRICE -> Comparator.comparingDouble(ParkingSpot::getHourlyRate).thenComparing(byId);
+		case AVAILABILITY -> Comparator.comparingInt(ParkingSpot::getAvailableSpaces).reversed().thenComparing(byId);
+		case NONE -> byId;
+		};
+	}
+}
@@ -0,0 +1,84 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * How a {@code POST /search} was answered: the access path the planner chose,
+ * the candidate rows it expected from each path it considered, and what the
+ * chosen path actually produced.
+ */
+public class SpotSearchPlan {
+
+	public enum AccessPath {
+		/** Grid index cells overlapping the geo filter. */
+		SPATIAL,
+		/** Bitmap index on vehicle type, price and availability buckets. */
+		BITMAP,
+		/** Price-sorted columns, walked from the lower price bound. */
+		PRICE,
+		/** Columnar snapshot scan with every filter applied per row. */
+		SCAN,
+		/** Filters pushed down to MongoDB. */
+		MONGO
+	}
+
+	private final AccessPath accessPath;
+	private final long estimatedRows;
+	private final Map<AccessPath, Long> estimates;
+	private final long actualRows;
+	private final long matchedRows;
+	private final int returnedRows;
+	private final long elapsedMicros;
+
+	public SpotSearchPlan(AccessPath accessPath, Map<AccessPath, Long> estimates, long actualRows, long matchedRows,
+			int returnedRows, long elapsedMicros) {
+		this.accessPath = accessPath;
+		this.estimatedRows = estimates.getOrDefault(accessPath, -1L);
+		this.estimates = estimates;
+		this.actualRows = actualRows;
+		this.matchedRows = matchedRows;
+		this.returnedRows = returnedRows;
+		this.elapsedMicros = elapsedMicros;
+	}
+
+	public AccessPath getAccessPath() {
+		return accessPath;
+	}
+
+	public long getEstimatedRows() {
+		return estimatedRows;
+	}
+
+	public Map<AccessPath, Long> getEstimates() {
+		return estimates;
+	}
+
+	public long getActualRows() {
+		return actualRows;
+	}
+
+	public long getMatchedRows() {
+		return matchedRows;
+	}
+
+	public int getReturnedRows() {
+		return returnedRows;
+	}
+
+	public long getElapsedMicros() {
+		return elapsedMicros;
+	}
+
+	/**
+	 * Single-line form for the {@code X-Query-Plan} response header. A
+	 * {@code -1} estimate means the path had no statistics to go on.
+	 */
+	public String toHeaderValue() {
+		String considered = estimates.entrySet().stream().map(e -> e.getKey() + ":" + e.getValue())
+				.collect(Collectors.joining(","));
+		return "path=" + accessPath + "; estimatedRows=" + estimatedRows + "; actualRows=" + actualRows
+				+ "; matchedRows=" + matchedRows + "; returnedRows=" + returnedRows + "; micros=" + elapsedMicros
+				+ "; considered=" + considered;
+	}
+}
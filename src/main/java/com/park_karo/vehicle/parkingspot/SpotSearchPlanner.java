@@ -0,0 +1,181 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.park_karo.vehicle.parkingspot.SpotSearchPlan.AccessPath;
+
+/**
+ * Cost-based planner behind {@code POST /search}.
+ *
+ * Each access path that is ready reports how many candidate rows it would
+ * produce, using statistics the indexes already keep: grid cell sizes for the
+ * geo filter, bitmap cardinalities for type/price/availability, binary
+ * searches into the price columns, and the catalog size. The estimates are
+ * weighted by a rough per-row cost for that path and the cheapest path runs.
+ * Its candidates then go through the exact {@link SpotSearchCriteria#matches}
+ * check, the sort and the limit, so every path returns the same answer.
+ */
+@Component
+public class SpotSearchPlanner {
+
+	private static final Logger logger = LoggerFactory.getLogger(SpotSearchPlanner.class);
+
+	// Relative costs per candidate row, calibrated against each other rather than in time units
+	static final double SPATIAL_ROW_COST = 1.0;
+	static final double BITMAP_ROW_COST = 0.6;
+	static final double BITMAP_SETUP_COST = 20;
+	// Like the grid, a price walk dereferences each spot before checking it
+	static final double PRICE_ROW_COST = 1.0;
+	static final double PRICE_SETUP_COST = 2;
+	static final double SCAN_ROW_COST = 0.1;
+	// Hilbert range decomposition and the binary searches into the snapshot
+	static final double SCAN_GEO_SETUP_COST = 100;
+	static final double MONGO_ROUND_TRIP_COST = 5_000;
+	static final double MONGO_ROW_COST = 5;
+
+	private final ParkingSpotRepository parkingSpotRepository;
+	private final ParkingSpotCatalog parkingSpotCatalog;
+	private final SpotGridIndex spotGridIndex;
+	private final SpotBitmapIndex spotBitmapIndex;
+	private final SpotScanEngine spotScanEngine;
+	private final SpotPriceIndex spotPriceIndex;
+
+	public SpotSearchPlanner(ParkingSpotRepository parkingSpotRepository, ParkingSpotCatalog parkingSpotCatalog,
+			SpotGridIndex spotGridIndex, SpotBitmapIndex spotBitmapIndex, SpotScanEngine spotScanEngine,
+			SpotPriceIndex spotPriceIndex) {
+		this.parkingSpotRepository = parkingSpotRepository;
+		this.parkingSpotCatalog = parkingSpotCatalog;
+		this.spotGridIndex = spotGridIndex;
+		this.spotBitmapIndex = spotBitmapIndex;
+		this.spotScanEngine = spotScanEngine;
+		this.spotPriceIndex = spotPriceIndex;
+	}
+
+	public SpotSearchResult search(SpotSearchRequest request) {
+		long start = System.nanoTime();
+		SpotSearchCriteria criteria = SpotSearchCriteria.from(request);
+
+		Map<AccessPath, Long> estimates = new EnumMap<>(AccessPath.class);
+		Map<AccessPath, Double> costs = new EnumMap<>(AccessPath.class);
+		estimate(criteria, estimates, costs);
+		AccessPath chosen = costs.entrySet().stream().min(Map.Entry.comparingByValue()).map(Map.Entry::getKey)
+				.orElse(AccessPath.MONGO);
+
+		List<ParkingSpot> candidates = execute(chosen, criteria);
+		List<ParkingSpot> matches = new ArrayList<>();
+		for (ParkingSpot spot : candidates) {
+			if (criteria.matches(spot)) {
+				matches.add(spot);
+			}
+		}
+		matches.sort(criteria.comparator());
+		List<ParkingSpot> page = matches.size() > criteria.limit ? matches.subList(0, criteria.limit) : matches;
+
+		SpotSearchPlan plan = new SpotSearchPlan(chosen, estimates, candidates.size(), matches.size(), page.size(),
+				(System.nanoTime() - start) / 1000);
+		logger.debug("Spot search plan: {}", plan.toHeaderValue());
+		return new SpotSearchResult(List.copyOf(page), plan);
+	}
+
+	// ============ PLANNING ============
+
+	private void estimate(SpotSearchCriteria criteria, Map<AccessPath, Long> estimates,
+			Map<AccessPath, Double> costs) {
+		int catalogSize = parkingSpotCatalog.size();
+
+		if (criteria.hasGeo && spotGridIndex.isReady()) {
+			long rows = spotGridIndex.countCandidatesInBox(criteria.minLat, criteria.minLon, criteria.maxLat,
+					criteria.maxLon);
+			estimates.put(AccessPath.SPATIAL, rows);
+			costs.put(AccessPath.SPATIAL, rows * SPATIAL_ROW_COST);
+		}
+
+		if (spotBitmapIndex.isReady()) {
+			long rows = 0;
+			for (String type : typesOrAny(criteria)) {
+				rows += spotBitmapIndex.countAvailable(criteria.maxPrice, criteria.minSpaces, type);
+			}
+			estimates.put(AccessPath.BITMAP, rows);
+			costs.put(AccessPath.BITMAP, typesOrAny(criteria).size() * BITMAP_SETUP_COST + rows * BITMAP_ROW_COST);
+		}
+
+		// Expected matches, treating the geo and attribute filters as independent
+		double selectivity = 1.0;
+		for (long rows : estimates.values()) {
+			selectivity *= catalogSize > 0 ? Math.min(1.0, (double) rows / catalogSize) : 1.0;
+		}
+		long expectedMatches = Math.round(catalogSize * selectivity);
+
+		if ((criteria.hasPriceBound() || criteria.sort == SpotSearchCriteria.Sort.PRICE) && spotPriceIndex.isReady()) {
+			long rows = 0;
+			for (String type : typesOrAny(criteria)) {
+				rows += spotPriceIndex.countInPriceRange(type, criteria.minPrice, criteria.maxPrice);
+			}
+			// Sorted by price, the walk stops once the limit is reached, after about limit / (matches per row) rows
+			long walked = rows;
+			if (criteria.sort == SpotSearchCriteria.Sort.PRICE && expectedMatches > 0) {
+				double matchesPerRow = Math.min(1.0, (double) expectedMatches / Math.max(rows, 1));
+				walked = Math.min(rows, (long) Math.ceil(criteria.limit / matchesPerRow) * typesOrAny(criteria).size());
+			}
+			estimates.put(AccessPath.PRICE, walked);
+			costs.put(AccessPath.PRICE, typesOrAny(criteria).size() * PRICE_SETUP_COST + walked * PRICE_ROW_COST);
+		}
+
+		if (parkingSpotCatalog.isLoaded()) {
+			// A geo scan only walks the Hilbert ranges around the box, roughly twice the grid candidates
+			long scanned = estimates.containsKey(AccessPath.SPATIAL)
+					? Math.min(catalogSize, 2 * estimates.get(AccessPath.SPATIAL))
+					: catalogSize;
+			estimates.put(AccessPath.SCAN, expectedMatches);
+			costs.put(AccessPath.SCAN, (criteria.hasGeo ? SCAN_GEO_SETUP_COST : 0) + scanned * SCAN_ROW_COST
+					+ expectedMatches * BITMAP_ROW_COST);
+		}
+
+		long mongoRows = parkingSpotCatalog.isLoaded() ? expectedMatches : -1;
+		estimates.put(AccessPath.MONGO, mongoRows);
+		costs.put(AccessPath.MONGO, MONGO_ROUND_TRIP_COST + Math.max(mongoRows, 0) * MONGO_ROW_COST);
+	}
+
+	private static List<String> typesOrAny(SpotSearchCriteria criteria) {
+		return criteria.typeKeys != null ? List.copyOf(criteria.typeKeys) : Collections.singletonList(null);
+	}
+
+	// ============ EXECUTION ============
+
+	private List<ParkingSpot> execute(AccessPath path, SpotSearchCriteria criteria) {
+		return switch (path) {
+		case SPATIAL -> {
+			List<ParkingSpot> candidates = new ArrayList<>();
+			spotGridIndex.forEachCandidateInBox(criteria.minLat, criteria.minLon, criteria.maxLat, criteria.maxLon,
+					candidates::add);
+			yield candidates;
+		}
+		case BITMAP -> {
+			List<ParkingSpot> candidates = new ArrayList<>();
+			for (String type : typesOrAny(criteria)) {
+				candidates.addAll(spotBitmapIndex.findAvailable(criteria.maxPrice, criteria.minSpaces, type));
+			}
+			yield candidates;
+		}
+		case PRICE -> {
+			int walkLimit = criteria.sort == SpotSearchCriteria.Sort.PRICE ? criteria.limit : 0;
+			List<ParkingSpot> candidates = new ArrayList<>();
+			for (String type : typesOrAny(criteria)) {
+				candidates.addAll(
+						spotPriceIndex.walk(type, criteria.minPrice, criteria.maxPrice, walkLimit, criteria::matches));
+			}
+			yield candidates;
+		}
+		case SCAN -> spotScanEngine.scanMatching(criteria);
+		case MONGO -> parkingSpotRepository.findMatching(criteria);
+		};
+	}
+}
@@ -0,0 +1,132 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.List;
+
+/**
+ * Body of {@code POST /search}: any combination of a geo radius or box, price
+ * range, minimum free spaces and vehicle types, plus sort order and limit.
+ * Every field is optional.
+ */
+public class SpotSearchRequest {
+
+	private Double lat; // Circle centre; with lon and radiusKm selects a radius search
+	private Double lon;
+	private Double radiusKm;
+	private Double minLat; // Bounding box; all four corners or none
+	private Double minLon;
+	private Double maxLat;
+	private Double maxLon;
+	private Double minPrice;
+	private Double maxPrice;
+	private Integer minSpaces;
+	private List<String> vehicleTypes; // Matches any of the listed types, case-insensitively
+	private String sort; // distance, price or availability; defaults to distance for geo searches
+	private Integer limit;
+
+	public SpotSearchRequest() {
+	}
+
+	public Double getLat() {
+		return lat;
+	}
+
+	public void setLat(Double lat) {
+		this.lat = lat;
+	}
+
+	public Double getLon() {
+		return lon;
+	}
+
+	public void setLon(Double lon) {
+		this.lon = lon;
+	}
+
+	public Double getRadiusKm() {
+		return radiusKm;
+	}
+
+	public void setRadiusKm(Double radiusKm) {
+		this.radiusKm = radiusKm;
+	}
+
+	public Double getMinLat() {
+		return minLat;
+	}
+
+	public void setMinLat(Double minLat) {
+		this.minLat = minLat;
+	}
+
+	public Double getMinLon() {
+		return minLon;
+	}
+
+	public void setMinLon(Double minLon) {
+		this.minLon = minLon;
+	}
+
+	public Double getMaxLat() {
+		return maxLat;
+	}
+
+	public void setMaxLat(Double maxLat) {
+		this.maxLat = maxLat;
+	}
+
+	public Double getMaxLon() {
+		return maxLon;
+	}
+
+	public void setMaxLon(Double maxLon) {
+		this.maxLon = maxLon;
+	}
+
+	public Double getMinPrice() {
+		return minPrice;
+	}
+
+	public void setMinPrice(Double minPrice) {
+		this.minPrice = minPrice;
+	}
+
+	public Double getMaxPrice() {
+		return maxPrice;
+	}
+
+	public void setMaxPrice(Double maxPrice) {
+		this.maxPrice = maxPrice;
+	}
+
+	public Integer getMinSpaces() {
+		return minSpaces;
+	}
+
+	public void setMinSpaces(Integer minSpaces) {
+		this.minSpaces = minSpaces;
+	}
+
+	public List<String> getVehicleTypes() {
+		return vehicleTypes;
+	}
+
+	public void setVehicleTypes(List<String> vehicleTypes) {
+		this.vehicleTypes = vehicleTypes;
+	}
+
+	public String getSort() {
+		return sort;
+	}
+
+	public void setSort(String sort) {
+		this.sort = sort;
+	}
+
+	public Integer getLimit() {
+		return limit;
+	}
+
+	public void setLimit(Integer limit) {
+		this.limit = limit;
+	}
+}
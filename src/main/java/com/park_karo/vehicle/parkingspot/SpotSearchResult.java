@@ -0,0 +1,25 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.List;
+
+/**
+ * Spots returned by {@code POST /search} together with the plan that found them.
+ */
+public class SpotSearchResult {
+
+	private final List<ParkingSpot> spots;
+	private final SpotSearchPlan plan;
+
+	public SpotSearchResult(List<ParkingSpot> spots, SpotSearchPlan plan) {
+		this.spots = spots;
+		this.plan = plan;
+	}
+
+	public List<ParkingSpot> getSpots() {
+		return spots;
+	}
+
+	public SpotSearchPlan getPlan() {
+		return plan;
+	}
+}
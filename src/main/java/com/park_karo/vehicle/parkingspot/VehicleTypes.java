@@ -0,0 +1,119 @@
+package com.park_karo.vehicle.parkingspot;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the vehicle types seen in the catalog.
+ *
+ * Each normalised type (see {@link ParkingSpot#normalizeVehicleType}) gets a
+ * small integer code the first time a catalog spot carries it, so type filters
+ * compare ints instead of strings and the indexes can use the code directly as
+ * an array or bitmap key. The registry also hands out one shared instance per
+ * key and per raw spelling, so a million spots hold a handful of type strings
+ * between them. Only the catalog registers; request bodies and query
+ * parameters use {@link #find} and {@link #shared}, which never add. Codes are
+ * stable for the life of the process; the catalog only ever has a few
+ * distinct types, so nothing is evicted.
+ */
+public final class VehicleTypes {
+
+	/** Code of spots with no vehicle type. */
+	public static final int NONE = 0;
+
+	/** Returned by {@link #find} for a type no spot has. */
+	public static final int UNKNOWN = -1;
+
+	private static final Map<String, Integer> codeByKey = new ConcurrentHashMap<>();
+	private static final Map<String, String> spellings = new ConcurrentHashMap<>();
+	private static volatile String[] keyByCode = { null };
+
+	private VehicleTypes() {
+	}
+
+	/**
+	 * Code of the vehicle type, registering it if it is new. Null and blank
+	 * types are {@link #NONE}. For spots entering the catalog only.
+	 */
+	public static int code(String vehicleType) {
+		String key = normalize(vehicleType);
+		if (key == null) {
+			return NONE;
+		}
+		Integer code = codeByKey.get(key);
+		return code != null ? code : register(key);
+	}
+
+	/**
+	 * Code of the vehicle type without registering it: {@link #NONE} for null or
+	 * blank, {@link #UNKNOWN} if no spot has ever had it. Use this for query
+	 * parameters so lookups cannot grow the registry.
+	 */
+	public static int find(String vehicleType) {
+		String key = normalize(vehicleType);
+		if (key == null) {
+			return NONE;
+		}
+		Integer code = codeByKey.get(key);
+		return code != null ? code : UNKNOWN;
+	}
+
+	/**
+	 * Shared normalised key of the code, or null for {@link #NONE}.
+	 */
+	public static String key(int code) {
+		return keyByCode[code];
+	}
+
+	/**
+	 * Shared instance equal to {@code vehicleType}, registering the spelling if
+	 * it is new, so repeated spellings loaded into the catalog collapse to one
+	 * string. For spots entering the catalog only.
+	 */
+	public static String canonical(String vehicleType) {
+		if (vehicleType == null) {
+			return null;
+		}
+		String existing = spellings.putIfAbsent(vehicleType, vehicleType);
+		return existing != null ? existing : vehicleType;
+	}
+
+	/**
+	 * The shared instance if the spelling is registered, else
+	 * {@code vehicleType} itself.
+	 */
+	public static String shared(String vehicleType) {
+		if (vehicleType == null) {
+			return null;
+		}
+		String existing = spellings.get(vehicleType);
+		return existing != null ? existing : vehicleType;
+	}
+
+	/**
+	 * One more than the highest code handed out, for sizing per-code arrays.
+	 */
+	public static int count() {
+		return keyByCode.length;
+	}
+
+	private static synchronized int register(String key) {
+		Integer existing = codeByKey.get(key);
+		if (existing != null) {
+			return existing;
+		}
+		String[] keys = Arrays.copyOf(keyByCode, keyByCode.length + 1);
+		int code = keys.length - 1;
+		keys[code] = key;
+		// Publish the key before the code, so whoever sees the code can resolve it
+		keyByCode = keys;
+		codeByKey.put(key, code);
+		return code;
+	}
+
+	private static String normalize(String vehicleType) {
+		String key = ParkingSpot.normalizeVehicleType(vehicleType);
+		return key == null || key.isEmpty() ? null : key;
+	}
+}
@@ -0,0 +1,187 @@
+package com.park_karo.vehicle.reservation;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: O(1) schedule and cancel for large numbers of
+ * timers that are mostly cancelled before they fire.
+ *
+ * Time is cut into ticks. Level 0 has one bucket per tick for the next 64
+ * ticks, level 1 one bucket per 64 ticks for the next 64 of those, and so on
+ * for {@link #LEVELS} levels; deadlines beyond the last level wait in an
+ * overflow list. A timer goes into the lowest level whose range still holds
+ * its deadline. When the wheel turns into a new bucket of a higher level, that
+ * bucket's timers cascade down to finer levels, so each timer is touched at
+ * most once per level before it fires. Buckets are intrusive doubly-linked
+ * lists, which makes cancelling an unlink.
+ *
+ * Not thread-safe on its own; callers serialise access.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+	static final int WHEEL_BITS = 6;
+	static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	static final int LEVELS = 4;
+
+	/**
+	 * Handle of a scheduled timer, used to cancel it.
+	 */
+	public static final class Timeout<T> {
+		private final T item;
+		private final long deadlineTick;
+		private Timeout<T> prev;
+		private Timeout<T> next;
+
+		private Timeout(T item, long deadlineTick) {
+			this.item = item;
+			this.deadlineTick = deadlineTick;
+		}
+
+		public T getItem() {
+			return item;
+		}
+
+		private boolean isLinked() {
+			return prev != null;
+		}
+	}
+
+	private final long tickMillis;
+	private final Timeout<T>[][] buckets;
+	private final Timeout<T> overflow;
+	private long currentTick;
+	private int size;
+
+	/**
+	 * @param tickMillis resolution; timers fire on the first tick at or after
+	 *                   their deadline
+	 * @param nowMillis  time the wheel starts at
+	 */
+	@SuppressWarnings("unchecked")
+	public HierarchicalTimingWheel(long tickMillis, long nowMillis) {
+		if (tickMillis <= 0) {
+			throw new IllegalArgumentException("tickMillis must be positive");
+		}
+		this.tickMillis = tickMillis;
+		this.currentTick = nowMillis / tickMillis;
+		this.buckets = new Timeout[LEVELS][WHEEL_SIZE];
+		for (Timeout<T>[] level : buckets) {
+			for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+				level[slot] = sentinel();
+			}
+		}
+		this.overflow = sentinel();
+	}
+
+	private static <T> Timeout<T> sentinel() {
+		Timeout<T> sentinel = new Timeout<>(null, Long.MIN_VALUE);
+		sentinel.prev = sentinel;
+		sentinel.next = sentinel;
+		return sentinel;
+	}
+
+	/**
+	 * Schedules {@code item} to fire at {@code deadlineMillis}. A deadline that
+	 * has already passed fires on the next tick.
+	 */
+	public Timeout<T> schedule(T item, long deadlineMillis) {
+		long deadlineTick = Math.max(ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+		Timeout<T> timeout = new Timeout<>(item, deadlineTick);
+		place(timeout);
+		size++;
+		return timeout;
+	}
+
+	/**
+	 * Cancels the timer; returns false if it already fired or was cancelled.
+	 */
+	public boolean cancel(Timeout<T> timeout) {
+		if (timeout == null || !timeout.isLinked()) {
+			return false;
+		}
+		unlink(timeout);
+		size--;
+		return true;
+	}
+
+	/**
+	 * Turns the wheel up to {@code nowMillis}, handing every timer that became
+	 * due to {@code onExpire} in deadline order. Returns how many fired.
+	 */
+	public int advanceTo(long nowMillis, Consumer<T> onExpire) {
+		long targetTick = nowMillis / tickMillis;
+		int fired = 0;
+		while (currentTick < targetTick) {
+			currentTick++;
+			cascade();
+			Timeout<T> bucket = buckets[0][(int) (currentTick & (WHEEL_SIZE - 1))];
+			while (bucket.next != bucket) {
+				Timeout<T> timeout = bucket.next;
+				unlink(timeout);
+				size--;
+				fired++;
+				onExpire.accept(timeout.item);
+			}
+		}
+		return fired;
+	}
+
+	/** Number of pending timers. */
+	public int size() {
+		return size;
+	}
+
+	public long getTickMillis() {
+		return tickMillis;
+	}
+
+	// Entering a new bucket on a higher level re-files its timers on the finer levels
+	private void cascade() {
+		if ((currentTick & ((1L << (WHEEL_BITS * LEVELS)) - 1)) == 0) {
+			refile(overflow);
+		}
+		for (int level = LEVELS - 1; level >= 1; level--) {
+			if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+				refile(buckets[level][(int) ((currentTick >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1))]);
+			}
+		}
+	}
+
+	private void refile(Timeout<T> bucket) {
+		Timeout<T> timeout = bucket.next;
+		bucket.next = bucket;
+		bucket.prev = bucket;
+		while (timeout != bucket) {
+			Timeout<T> next = timeout.next;
+			place(timeout);
+			timeout = next;
+		}
+	}
+
+	// Lowest level on which the deadline and the current tick share every higher digit
+	private void place(Timeout<T> timeout) {
+		long tick = timeout.deadlineTick;
+		Timeout<T> bucket = overflow;
+		for (int level = 0; level < LEVELS; level++) {
+			if (((tick ^ currentTick) >>> (WHEEL_BITS * (level + 1))) == 0) {
+				bucket = buckets[level][(int) ((tick >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1))];
+				break;
+			}
+		}
+		timeout.prev = bucket.prev;
+		timeout.next = bucket;
+		bucket.prev.next = timeout;
+		bucket.prev = timeout;
+	}
+
+	private void unlink(Timeout<T> timeout) {
+		timeout.prev.next = timeout.next;
+		timeout.next.prev = timeout.prev;
+		timeout.prev = null;
+		timeout.next = null;
+	}
+
+	private static long ceilDiv(long a, long b) {
+		return -Math.floorDiv(-a, b);
+	}
+}
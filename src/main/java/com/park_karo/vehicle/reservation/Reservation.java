@@ -0,0 +1,102 @@
+package com.park_karo.vehicle.reservation;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Document(collection = "parking_reservations")
+// Restart rebuilds the expiry wheel from the held reservations
+@CompoundIndex(name = "status_expires", def = "{'status': 1, 'expiresAt': 1}")
+public class Reservation {
+
+	@Id
+	private String id;
+	private String spotId;
+	private String userId;
+	private ReservationStatus status;
+	private Instant createdAt;
+	private Instant expiresAt;
+	// When the reservation left HELD, whichever way
+	private Instant closedAt;
+	// Idempotency-Key of the request that created it, if it sent one
+	@Indexed(unique = true, sparse = true)
+	private String idempotencyKey;
+
+	public Reservation() {
+	}
+
+	public Reservation(String spotId, String userId, Instant createdAt, Instant expiresAt) {
+		this.spotId = spotId;
+		this.userId = userId;
+		this.status = ReservationStatus.HELD;
+		this.createdAt = createdAt;
+		this.expiresAt = expiresAt;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getSpotId() {
+		return spotId;
+	}
+
+	public void setSpotId(String spotId) {
+		this.spotId = spotId;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public ReservationStatus getStatus() {
+		return status;
+	}
+
+	public void setStatus(ReservationStatus status) {
+		this.status = status;
+	}
+
+	public Instant getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Instant createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Instant getExpiresAt() {
+		return expiresAt;
+	}
+
+	public void setExpiresAt(Instant expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	public Instant getClosedAt() {
+		return closedAt;
+	}
+
+	public void setClosedAt(Instant closedAt) {
+		this.closedAt = closedAt;
+	}
+
+	public String getIdempotencyKey() {
+		return idempotencyKey;
+	}
+
+	public void setIdempotencyKey(String idempotencyKey) {
+		this.idempotencyKey = idempotencyKey;
+	}
+}
@@ -0,0 +1,60 @@
+package com.park_karo.vehicle.reservation;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.park_karo.vehicle.dedup.IdempotencyKeys;
+
+@RestController
+@RequestMapping("/api/v1/reservations")
+public class ReservationController {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReservationController.class);
+
+	private final ReservationService reservationService;
+
+	public ReservationController(ReservationService reservationService) {
+		this.reservationService = reservationService;
+	}
+
+	@PostMapping
+	public ResponseEntity<Reservation> createReservation(@RequestBody ReservationRequest request,
+			@RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+		logger.info("createReservation called: spotId={}, holdMinutes={}", request.getSpotId(),
+				request.getHoldMinutes());
+		return ResponseEntity.status(HttpStatus.CREATED).body(reservationService.create(request, idempotencyKey));
+	}
+
+	@PostMapping("/{id}/confirm")
+	public ResponseEntity<Reservation> confirmReservation(@PathVariable String id) {
+		logger.info("confirmReservation called: id={}", id);
+		return ResponseEntity.ok(reservationService.confirm(id));
+	}
+
+	@PostMapping("/{id}/cancel")
+	public ResponseEntity<Reservation> cancelReservation(@PathVariable String id) {
+		logger.info("cancelReservation called: id={}", id);
+		return ResponseEntity.ok(reservationService.cancel(id));
+	}
+
+	@GetMapping("/{id}")
+	public ResponseEntity<Reservation> getReservation(@PathVariable String id) {
+		return ResponseEntity.ok(reservationService.get(id));
+	}
+
+	@GetMapping("/expiry/stats")
+	public ResponseEntity<Map<String, Object>> getExpiryStats() {
+		return ResponseEntity.ok(reservationService.getExpiryStats());
+	}
+}
@@ -0,0 +1,17 @@
+package com.park_karo.vehicle.reservation;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservationRepository extends MongoRepository<Reservation, String>, ReservationRepositoryCustom {
+
+	// Served by the status_expires index; callers must close the stream
+	Stream<Reservation> streamByStatus(ReservationStatus status);
+
+	// Only reached when the Idempotency-Key filter may have seen the key
+	Optional<Reservation> findByIdempotencyKey(String idempotencyKey);
+}
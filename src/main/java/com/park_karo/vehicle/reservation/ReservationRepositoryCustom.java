@@ -0,0 +1,20 @@
+package com.park_karo.vehicle.reservation;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Hand-written queries for {@link ReservationRepository}.
+ */
+public interface ReservationRepositoryCustom {
+
+	/**
+	 * Moves the reservation to {@code to} in one conditional
+	 * {@code findAndModify}, only if its status is one of {@code from} and, when
+	 * {@code heldUntilAfter} is given, its hold has not run out by then. Returns
+	 * the updated reservation, or null if it didn't qualify, so of two racing
+	 * transitions only one wins.
+	 */
+	Reservation transition(String reservationId, Collection<ReservationStatus> from, ReservationStatus to,
+			Instant at, Instant heldUntilAfter);
+}
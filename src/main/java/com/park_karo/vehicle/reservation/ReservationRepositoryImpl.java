@@ -0,0 +1,34 @@
+package com.park_karo.vehicle.reservation;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Picked up by Spring Data as the implementation of
+ * {@link ReservationRepositoryCustom}.
+ */
+public class ReservationRepositoryImpl implements ReservationRepositoryCustom {
+
+	private final MongoTemplate mongoTemplate;
+
+	public ReservationRepositoryImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public Reservation transition(String reservationId, Collection<ReservationStatus> from, ReservationStatus to,
+			Instant at, Instant heldUntilAfter) {
+		Criteria where = Criteria.where("_id").is(reservationId).and("status").in(from);
+		if (heldUntilAfter != null) {
+			where.and("expiresAt").gt(heldUntilAfter);
+		}
+		return mongoTemplate.findAndModify(new Query(where), new Update().set("status", to).set("closedAt", at),
+				FindAndModifyOptions.options().returnNew(true), Reservation.class);
+	}
+}
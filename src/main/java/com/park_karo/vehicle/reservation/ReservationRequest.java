@@ -0,0 +1,36 @@
+package com.park_karo.vehicle.reservation;
+
+/**
+ * Body of {@code POST /api/v1/reservations}. {@code holdMinutes} defaults to
+ * {@code parking.reservation.default-hold-minutes}.
+ */
+public class ReservationRequest {
+
+	private String spotId;
+	private String userId;
+	private Integer holdMinutes;
+
+	public String getSpotId() {
+		return spotId;
+	}
+
+	public void setSpotId(String spotId) {
+		this.spotId = spotId;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public Integer getHoldMinutes() {
+		return holdMinutes;
+	}
+
+	public void setHoldMinutes(Integer holdMinutes) {
+		this.holdMinutes = holdMinutes;
+	}
+}
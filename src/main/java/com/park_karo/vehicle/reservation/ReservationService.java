@@ -0,0 +1,245 @@
+package com.park_karo.vehicle.reservation;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.park_karo.vehicle.dedup.IdempotencyKeys;
+import com.park_karo.vehicle.exception.CustomExceptions;
+import com.park_karo.vehicle.parkingspot.ParkingSpotService;
+
+/**
+ * Time-boxed holds on parking spots.
+ *
+ * Creating a reservation takes a space through the same guarded decrement as
+ * {@code /reserve}; cancelling or letting it expire gives the space back, and
+ * confirming keeps it. Every state change is a conditional update on the
+ * reservation document, so an expiry racing a cancel releases the space once.
+ *
+ * Pending holds sit in a {@link HierarchicalTimingWheel} that a scheduled tick
+ * turns, so expiring costs nothing per pending hold and MongoDB is never polled.
+ * The wheel only lives in memory; on startup it is refilled from the held
+ * reservations, and holds that ran out while the application was down expire
+ * straight away.
+ *
+ * A create carrying an {@code Idempotency-Key} that was already used returns
+ * the reservation the first request made instead of holding another space.
+ */
+@Service
+public class ReservationService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
+
+	static final String IDEMPOTENCY_SCOPE = "reservation";
+
+	private final ReservationRepository reservationRepository;
+	private final ParkingSpotService parkingSpotService;
+	private final IdempotencyKeys idempotencyKeys;
+	private final int defaultHoldMinutes;
+	private final int maxHoldMinutes;
+
+	private final HierarchicalTimingWheel<String> wheel;
+	private final Map<String, HierarchicalTimingWheel.Timeout<String>> timeouts = new ConcurrentHashMap<>();
+	private long expiredCount;
+
+	public ReservationService(ReservationRepository reservationRepository, ParkingSpotService parkingSpotService,
+			IdempotencyKeys idempotencyKeys,
+			@Value("${parking.reservation.default-hold-minutes:15}") int defaultHoldMinutes,
+			@Value("${parking.reservation.max-hold-minutes:120}") int maxHoldMinutes,
+			@Value("${parking.reservation.tick-ms:1000}") long tickMillis) {
+		this.reservationRepository = reservationRepository;
+		this.parkingSpotService = parkingSpotService;
+		this.idempotencyKeys = idempotencyKeys;
+		this.defaultHoldMinutes = defaultHoldMinutes;
+		this.maxHoldMinutes = maxHoldMinutes;
+		this.wheel = new HierarchicalTimingWheel<>(tickMillis, System.currentTimeMillis());
+	}
+
+	/**
+	 * @param idempotencyKey the request's {@code Idempotency-Key}, or null
+	 */
+	public Reservation create(ReservationRequest request, String idempotencyKey) {
+		if (idempotencyKey == null) {
+			return hold(request, null);
+		}
+		String previous = idempotencyKeys.begin(IDEMPOTENCY_SCOPE, idempotencyKey,
+				key -> reservationRepository.findByIdempotencyKey(key).map(Reservation::getId).orElse(null));
+		if (previous != null) {
+			logger.info("Replaying reservation {} for {} {}", previous, IdempotencyKeys.HEADER, idempotencyKey);
+			return get(previous);
+		}
+		Reservation reservation = null;
+		try {
+			reservation = hold(request, idempotencyKey);
+			return reservation;
+		} finally {
+			if (reservation != null) {
+				idempotencyKeys.complete(IDEMPOTENCY_SCOPE, idempotencyKey, reservation.getId());
+			} else {
+				idempotencyKeys.abandon(IDEMPOTENCY_SCOPE, idempotencyKey);
+			}
+		}
+	}
+
+	private Reservation hold(ReservationRequest request, String idempotencyKey) {
+		if (request == null || request.getSpotId() == null || request.getSpotId().isBlank()) {
+			throw new CustomExceptions.ValidationBusinessException("spotId", "is required");
+		}
+		int holdMinutes = request.getHoldMinutes() != null ? request.getHoldMinutes() : defaultHoldMinutes;
+		if (holdMinutes < 1 || holdMinutes > maxHoldMinutes) {
+			throw new CustomExceptions.ValidationBusinessException("holdMinutes",
+					"must be between 1 and " + maxHoldMinutes);
+		}
+
+		parkingSpotService.reserveSpace(request.getSpotId());
+		Instant now = Instant.now();
+		Reservation reservation = new Reservation(request.getSpotId(), request.getUserId(), now,
+				now.plus(Duration.ofMinutes(holdMinutes)));
+		reservation.setIdempotencyKey(idempotencyKey);
+		Reservation saved;
+		try {
+			saved = reservationRepository.save(reservation);
+		} catch (DuplicateKeyException e) {
+			parkingSpotService.releaseSpace(request.getSpotId());
+			// Another instance took the same key first
+			return reservationRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+		} catch (RuntimeException e) {
+			// No reservation to expire it later, so give the space back now
+			parkingSpotService.releaseSpace(request.getSpotId());
+			throw e;
+		}
+		schedule(saved);
+		logger.info("Reservation {} holds spot {} until {}", saved.getId(), saved.getSpotId(), saved.getExpiresAt());
+		return saved;
+	}
+
+	public Reservation confirm(String reservationId) {
+		Instant now = Instant.now();
+		Reservation confirmed = reservationRepository.transition(reservationId, EnumSet.of(ReservationStatus.HELD),
+				ReservationStatus.CONFIRMED, now, now);
+		if (confirmed == null) {
+			throw notTransitionable(reservationId, "confirmed");
+		}
+		unschedule(reservationId);
+		return confirmed;
+	}
+
+	public Reservation cancel(String reservationId) {
+		Reservation cancelled = reservationRepository.transition(reservationId,
+				EnumSet.of(ReservationStatus.HELD, ReservationStatus.CONFIRMED), ReservationStatus.CANCELLED,
+				Instant.now(), null);
+		if (cancelled == null) {
+			throw notTransitionable(reservationId, "cancelled");
+		}
+		unschedule(reservationId);
+		parkingSpotService.releaseSpace(cancelled.getSpotId());
+		return cancelled;
+	}
+
+	public Reservation get(String reservationId) {
+		return reservationRepository.findById(reservationId)
+				.orElseThrow(() -> new CustomExceptions.ResourceNotFoundBusinessException("Reservation", reservationId));
+	}
+
+	private RuntimeException notTransitionable(String reservationId, String action) {
+		Reservation current = get(reservationId);
+		return new CustomExceptions.OperationNotPermittedBusinessException(String.format(
+				"Reservation %s is %s and cannot be %s", reservationId, current.getStatus(), action));
+	}
+
+	// ============ EXPIRY ============
+
+	/**
+	 * Turns the wheel to now and releases every hold that ran out. The
+	 * database writes happen outside the wheel's lock.
+	 */
+	@Scheduled(fixedDelayString = "${parking.reservation.tick-ms:1000}")
+	public void expireDueHolds() {
+		List<String> due = new ArrayList<>();
+		synchronized (wheel) {
+			wheel.advanceTo(System.currentTimeMillis(), due::add);
+		}
+		for (String reservationId : due) {
+			timeouts.remove(reservationId);
+			try {
+				expire(reservationId);
+			} catch (RuntimeException e) {
+				logger.error("Failed to expire reservation {}: {}", reservationId, e.getMessage(), e);
+			}
+		}
+	}
+
+	private void expire(String reservationId) {
+		Reservation expired = reservationRepository.transition(reservationId, EnumSet.of(ReservationStatus.HELD),
+				ReservationStatus.EXPIRED, Instant.now(), null);
+		// Null: confirmed or cancelled meanwhile, the space is already accounted for
+		if (expired != null) {
+			parkingSpotService.releaseSpace(expired.getSpotId());
+			synchronized (wheel) {
+				expiredCount++;
+			}
+		}
+	}
+
+	/**
+	 * Refills the wheel from the held reservations after a restart.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildOnStartup() {
+		long start = System.currentTimeMillis();
+		int scheduled = 0;
+		try (Stream<Reservation> held = reservationRepository.streamByStatus(ReservationStatus.HELD)) {
+			for (Reservation reservation : (Iterable<Reservation>) held::iterator) {
+				schedule(reservation);
+				scheduled++;
+			}
+		} catch (Exception e) {
+			logger.error("❌ Failed to rebuild reservation expiry wheel: {}", e.getMessage(), e);
+			return;
+		}
+		logger.info("✅ Reservation expiry wheel rebuilt with {} held reservations in {} ms", scheduled,
+				System.currentTimeMillis() - start);
+	}
+
+	private void schedule(Reservation reservation) {
+		// Holds already past their deadline land on the next tick
+		synchronized (wheel) {
+			timeouts.put(reservation.getId(),
+					wheel.schedule(reservation.getId(), reservation.getExpiresAt().toEpochMilli()));
+		}
+	}
+
+	private void unschedule(String reservationId) {
+		HierarchicalTimingWheel.Timeout<String> timeout = timeouts.remove(reservationId);
+		if (timeout != null) {
+			synchronized (wheel) {
+				wheel.cancel(timeout);
+			}
+		}
+	}
+
+	public Map<String, Object> getExpiryStats() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		synchronized (wheel) {
+			stats.put("pendingHolds", wheel.size());
+			stats.put("expired", expiredCount);
+			stats.put("tickMillis", wheel.getTickMillis());
+		}
+		return stats;
+	}
+}
@@ -0,0 +1,12 @@
+package com.park_karo.vehicle.reservation;
+
+public enum ReservationStatus {
+	/** Space taken, waiting for the driver to arrive before {@code expiresAt}. */
+	HELD,
+	/** Driver arrived; the space stays taken. */
+	CONFIRMED,
+	/** Released by the user. */
+	CANCELLED,
+	/** Released because the hold ran out. */
+	EXPIRED
+}
@@ -0,0 +1,85 @@
+package com.park_karo.vehicle.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+class BookingCalendarTests {
+
+	private static final Instant NOW = Instant.parse("2026-03-10T09:30:00Z");
+
+	private static Instant at(String time) {
+		return Instant.parse("2026-03-10T" + time + "Z");
+	}
+
+	@Test
+	void partialMinutesRoundOutwards() {
+		BookingCalendar calendar = new BookingCalendar(NOW);
+		assertTrue(calendar.tryBook("a", 1, at("10:00:30"), at("10:01:10")));
+
+		// Start rounds down and end rounds up, so 10:00 and 10:01 are both taken
+		assertEquals(1, calendar.peakBooked("a", at("10:00:00"), at("10:00:01")));
+		assertEquals(1, calendar.peakBooked("a", at("10:01:59"), at("10:02:00")));
+		assertEquals(0, calendar.peakBooked("a", at("10:02:00"), at("10:03:00")));
+		assertEquals(0, calendar.peakBooked("a", at("09:59:00"), at("10:00:00")));
+		assertFalse(calendar.tryBook("a", 1, at("10:01:50"), at("10:30:00")));
+	}
+
+	@Test
+	void backToBackWindowsShareNoMinute() {
+		BookingCalendar calendar = new BookingCalendar(NOW);
+		assertTrue(calendar.tryBook("a", 1, at("10:00:00"), at("11:00:00")));
+		assertTrue(calendar.tryBook("a", 1, at("11:00:00"), at("12:00:00")));
+		assertFalse(calendar.tryBook("a", 1, at("10:59:00"), at("11:01:00")));
+
+		calendar.release("a", at("10:00:00"), at("11:00:00"));
+		assertTrue(calendar.tryBook("a", 1, at("10:30:00"), at("11:00:00")));
+	}
+
+	@Test
+	void windowsOffTheCalendarAreClampedOrRejected() {
+		BookingCalendar calendar = new BookingCalendar(NOW);
+		// Starts before the calendar, as a long stay may right after startup: only the rest is held
+		assertTrue(calendar.tryBook("a", 1, NOW.minus(Duration.ofDays(3)), NOW.plus(Duration.ofHours(1))));
+		assertEquals(1, calendar.peakBooked("a", NOW.minus(Duration.ofDays(3)), NOW));
+		assertFalse(calendar.tryBook("a", 1, NOW, NOW.plus(Duration.ofMinutes(30))));
+		calendar.release("a", NOW.minus(Duration.ofDays(3)), NOW.plus(Duration.ofHours(1)));
+		assertEquals(0, calendar.peakBooked("a", NOW.minus(Duration.ofDays(3)), NOW.plus(Duration.ofHours(1))));
+
+		assertThrows(CustomExceptions.ValidationBusinessException.class,
+				() -> calendar.tryBook("a", 1, NOW.minus(Duration.ofDays(4)), NOW.minus(Duration.ofDays(3))));
+		assertThrows(CustomExceptions.ValidationBusinessException.class, () -> calendar.tryBook("a", 1, NOW,
+				NOW.plus(Duration.ofMinutes(BookingCalendar.HORIZON_MINUTES + 2L * 24 * 60))));
+	}
+
+	@Test
+	void rebuildClampsOldBookingsAndReleaseUndoesThem() {
+		BookingCalendar calendar = new BookingCalendar(NOW);
+		Booking longStay = new Booking("a", "u1", NOW.minus(Duration.ofDays(5)), NOW.plus(Duration.ofHours(2)), NOW);
+		Booking ended = new Booking("a", "u2", NOW.minus(Duration.ofDays(5)), NOW.minus(Duration.ofDays(4)), NOW);
+		Booking upcoming = new Booking("b", "u3", NOW.plus(Duration.ofHours(1)), NOW.plus(Duration.ofHours(3)), NOW);
+
+		assertEquals(2, calendar.rebuild(List.of(longStay, ended, upcoming)));
+		assertEquals(2, calendar.spotCount());
+		assertEquals(1, calendar.peakBooked("a", NOW, NOW.plus(Duration.ofHours(1))));
+		assertEquals(1, calendar.peakBooked("b", NOW, NOW.plus(Duration.ofHours(4))));
+
+		// Cancelling a booking that started before the calendar releases the part that was loaded
+		calendar.release("a", longStay.getStart(), longStay.getEnd());
+		assertEquals(0, calendar.peakBooked("a", NOW, NOW.plus(Duration.ofHours(1))));
+		calendar.release("a", ended.getStart(), ended.getEnd());
+
+		// A rebuild replaces what was there
+		assertEquals(0, calendar.rebuild(List.of()));
+		assertEquals(0, calendar.peakBooked("b", NOW, NOW.plus(Duration.ofHours(4))));
+	}
+}
@@ -0,0 +1,74 @@
+package com.park_karo.vehicle.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class OccupancyTreeTests {
+
+	@Test
+	void peakMatchesBruteForceOverRandomBookingsAndCancellations() {
+		Random random = new Random(18);
+		int horizon = 5_000;
+		OccupancyTree tree = new OccupancyTree(horizon);
+		int[] booked = new int[horizon];
+
+		List<int[]> active = new ArrayList<>();
+		for (int i = 0; i < 4_000; i++) {
+			int from;
+			int to;
+			int delta;
+			if (!active.isEmpty() && random.nextInt(4) == 0) {
+				// Cancel an earlier booking
+				int[] window = active.remove(random.nextInt(active.size()));
+				from = window[0];
+				to = window[1];
+				delta = -1;
+			} else {
+				from = random.nextInt(horizon - 1);
+				to = Math.min(horizon, from + 1 + random.nextInt(300));
+				delta = 1;
+				active.add(new int[] { from, to });
+			}
+			tree.add(from, to, delta);
+			for (int m = from; m < to; m++) {
+				booked[m] += delta;
+			}
+
+			int qFrom = random.nextInt(horizon - 1);
+			int qTo = qFrom + 1 + random.nextInt(horizon - qFrom - 1);
+			int expected = 0;
+			for (int m = qFrom; m < qTo; m++) {
+				expected = Math.max(expected, booked[m]);
+			}
+			assertEquals(expected, tree.peak(qFrom, qTo));
+		}
+	}
+
+	@Test
+	void calendarRefusesTheBookingThatWouldExceedCapacity() {
+		Instant now = Instant.parse("2026-03-01T10:00:00Z");
+		BookingCalendar calendar = new BookingCalendar(now);
+		Instant nine = now.minus(Duration.ofHours(1));
+
+		assertTrue(calendar.tryBook("spot-1", 2, nine, nine.plus(Duration.ofHours(3))));
+		assertTrue(calendar.tryBook("spot-1", 2, nine.plus(Duration.ofHours(2)), nine.plus(Duration.ofHours(4))));
+		// 11:00-12:00 already has both spaces booked
+		assertFalse(calendar.tryBook("spot-1", 2, nine.plus(Duration.ofHours(1)), nine.plus(Duration.ofHours(3))));
+		// Touching windows do not overlap
+		assertTrue(calendar.tryBook("spot-1", 2, nine.plus(Duration.ofHours(4)), nine.plus(Duration.ofHours(5))));
+		assertEquals(2, calendar.peakBooked("spot-1", nine, nine.plus(Duration.ofHours(5))));
+
+		calendar.release("spot-1", nine, nine.plus(Duration.ofHours(3)));
+		assertTrue(calendar.tryBook("spot-1", 2, nine.plus(Duration.ofHours(1)), nine.plus(Duration.ofHours(3))));
+		assertEquals(0, calendar.peakBooked("spot-2", nine, nine.plus(Duration.ofHours(5))));
+	}
+}
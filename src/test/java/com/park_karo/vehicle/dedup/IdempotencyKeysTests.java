@@ -0,0 +1,51 @@
+package com.park_karo.vehicle.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+class IdempotencyKeysTests {
+
+	@Test
+	void replaysCompletedRequestsAndOnlyAsksMongoWhenTheFilterMightHaveSeenTheKey() {
+		Map<String, String> stored = new HashMap<>();
+		AtomicInteger lookups = new AtomicInteger();
+		Function<String, String> durable = key -> {
+			lookups.incrementAndGet();
+			return stored.get(key);
+		};
+		IdempotencyKeys keys = new IdempotencyKeys(86_400_000, 64, 0.001, 1);
+
+		for (int i = 0; i < 1_000; i++) {
+			assertNull(keys.begin("booking", "fresh-" + i, durable));
+			keys.abandon("booking", "fresh-" + i);
+		}
+		assertEquals(0, lookups.get(), "new keys never reach MongoDB");
+
+		assertNull(keys.begin("booking", "k1", durable));
+		assertThrows(CustomExceptions.ResourceAlreadyExistsBusinessException.class,
+				() -> keys.begin("booking", "k1", durable));
+		keys.complete("booking", "k1", "b1");
+		stored.put("k1", "b1");
+		assertEquals("b1", keys.begin("booking", "k1", durable));
+		// Same key, other endpoint
+		assertNull(keys.begin("reservation", "k1", durable));
+
+		// Past max-cached, the replay comes from MongoDB
+		assertNull(keys.begin("booking", "k2", durable));
+		keys.complete("booking", "k2", "b2");
+		stored.put("k2", "b2");
+		int before = lookups.get();
+		assertEquals("b2", keys.begin("booking", "k2", durable));
+		assertEquals(before + 1, lookups.get());
+	}
+}
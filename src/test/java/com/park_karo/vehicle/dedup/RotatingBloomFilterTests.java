@@ -0,0 +1,50 @@
+package com.park_karo.vehicle.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RotatingBloomFilterTests {
+
+	@Test
+	void staysNearItsTargetFalsePositiveRateAtCapacity() {
+		RotatingBloomFilter filter = new RotatingBloomFilter(1 << 20, 4, 0.01, 60_000, 0);
+		long capacity = (long) filter.stats().get("capacityPerGeneration");
+		for (long key = 0; key < capacity; key++) {
+			filter.put(key);
+		}
+		for (long key = 0; key < capacity; key++) {
+			assertTrue(filter.mightContain(key));
+		}
+		int falsePositives = 0;
+		int probes = 200_000;
+		for (long key = capacity; key < capacity + probes; key++) {
+			if (filter.mightContain(key)) {
+				falsePositives++;
+			}
+		}
+		double measured = falsePositives / (double) probes;
+		// Blocking costs a little over the textbook rate
+		assertTrue(measured < 0.01, "measured " + measured);
+		assertEquals(filter.estimatedFpp(), measured, 0.005);
+	}
+
+	@Test
+	void forgetsKeysOnceTheirGenerationRotatesOut() {
+		RotatingBloomFilter filter = new RotatingBloomFilter(64 * 1024, 4, 0.001, 4_000, 0);
+		filter.put(42);
+		filter.rotateIfDue(3_999);
+		assertTrue(filter.mightContain(42), "three rotations in, still inside the window");
+		filter.put(7);
+		filter.rotateIfDue(4_000);
+		assertFalse(filter.mightContain(42));
+		assertTrue(filter.mightContain(7));
+
+		// Idle for longer than the window clears everything once
+		filter.rotateIfDue(60_000);
+		assertFalse(filter.mightContain(7));
+		assertEquals(8L, filter.stats().get("rotations"));
+	}
+}
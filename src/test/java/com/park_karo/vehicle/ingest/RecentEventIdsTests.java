@@ -0,0 +1,58 @@
+package com.park_karo.vehicle.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class RecentEventIdsTests {
+
+	@Test
+	void matchesASetOfTheWindowsIds() {
+		Random random = new Random(24);
+		RecentEventIds recent = new RecentEventIds(5_000, 1_000);
+		Set<Long> expected = new HashSet<>();
+		Deque<long[]> arrivals = new ArrayDeque<>();
+		long now = 0;
+		for (int i = 0; i < 200_000; i++) {
+			now += random.nextInt(3);
+			while (!arrivals.isEmpty() && now - arrivals.peekFirst()[1] > 1_000) {
+				expected.remove(arrivals.pollFirst()[0]);
+			}
+			recent.expire(now);
+			// Small keys, so probe runs collide and deletions shift entries back
+			long fingerprint = 1 + random.nextInt(20_000);
+			assertEquals(expected.contains(fingerprint), recent.contains(fingerprint), () -> "at " + fingerprint);
+			if (!recent.contains(fingerprint)) {
+				recent.add(fingerprint, now);
+				expected.add(fingerprint);
+				arrivals.addLast(new long[] { fingerprint, now });
+			}
+		}
+		assertEquals(expected.size(), recent.size());
+		assertEquals(0, recent.evictedEarly());
+	}
+
+	@Test
+	void evictsTheOldestEarlyWhenFull() {
+		RecentEventIds recent = new RecentEventIds(3, 60_000);
+		for (long id = 1; id <= 4; id++) {
+			recent.add(id, id);
+		}
+		assertFalse(recent.contains(1));
+		assertTrue(recent.contains(2) && recent.contains(3) && recent.contains(4));
+		assertEquals(1, recent.evictedEarly());
+
+		recent.expire(60_003);
+		assertFalse(recent.contains(2));
+		assertTrue(recent.contains(3));
+		assertEquals(2, recent.size());
+	}
+}
@@ -0,0 +1,55 @@
+package com.park_karo.vehicle.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+class SensorIngestControllerTests {
+
+	private static final String BODY = """
+			{"spotId":"a","delta":-1,"timestamp":1700000000000}
+			{"spotId":"b","delta":1,"timestamp":1700000000001}
+			{"spotId":"c","delta":-1,"timestamp":1700000000002}
+			""";
+
+	@Test
+	void saturatedRingAsksForARetryFromTheFirstRefusedEvent() throws Exception {
+		SensorIngestPipeline pipeline = mock(SensorIngestPipeline.class);
+		when(pipeline.publish(anyString(), any(), anyInt(), anyLong())).thenReturn(true, true, false);
+		SensorIngestController controller = new SensorIngestController(pipeline);
+
+		ResponseEntity<Map<String, Object>> response = controller
+				.ingestNdjson(new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+		assertEquals(String.valueOf(SensorIngestController.RETRY_AFTER_SECONDS),
+				response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals(2, response.getBody().get("accepted"));
+	}
+
+	@Test
+	void acceptedBatchReportsItsCount() throws Exception {
+		SensorIngestPipeline pipeline = mock(SensorIngestPipeline.class);
+		when(pipeline.publish(anyString(), any(), anyInt(), anyLong())).thenReturn(true);
+		SensorIngestController controller = new SensorIngestController(pipeline);
+
+		ResponseEntity<Map<String, Object>> response = controller
+				.ingestNdjson(new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+		assertEquals(3, response.getBody().get("accepted"));
+	}
+}
@@ -0,0 +1,128 @@
+package com.park_karo.vehicle.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+import com.park_karo.vehicle.parkingspot.AvailabilityWriteBehind;
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.ParkingSpotCatalog;
+import com.park_karo.vehicle.parkingspot.ParkingSpotRepository;
+import com.park_karo.vehicle.parkingspot.SpotAvailabilityCounters;
+import com.park_karo.vehicle.parkingspot.SpotCatalogChangedEvent;
+
+class SensorIngestPipelineTests {
+
+	private static final String OBJECT_ID = "65a1b2c3d4e5f60718293a4b";
+
+	@Test
+	void validatesDeduplicatesAndAppliesInOrder() {
+		SpotAvailabilityCounters[] counters = new SpotAvailabilityCounters[1];
+		ParkingSpotCatalog catalog = new ParkingSpotCatalog(null,
+				event -> counters[0].onCatalogChanged((SpotCatalogChangedEvent) event));
+		counters[0] = new SpotAvailabilityCounters(catalog);
+		ParkingSpot spot = new ParkingSpot("a", "A", 19.0, 72.8, 10, 40, "CAR");
+		spot.setTotalSpaces(12);
+		catalog.replaceAll(List.of(spot));
+		AvailabilityWriteBehind writeBehind = new AvailabilityWriteBehind(mock(ParkingSpotRepository.class),
+				counters[0], 1_000_000);
+		SensorIngestPipeline pipeline = new SensorIngestPipeline(catalog, counters[0], writeBehind, 1024, 1 << 18,
+				60_000, 1, 0.001, 60_000, 3_600_000, 100);
+		pipeline.start();
+		try {
+			long now = System.currentTimeMillis();
+			assertTrue(pipeline.publish("a", "gate-1", -1, now));
+			assertTrue(pipeline.publish("a", "gate-1", -1, now)); // resent by the gateway
+			// Two real cars in the same millisecond
+			assertTrue(pipeline.publish("a", "gate-2", -1, now));
+			assertTrue(pipeline.publish("a", null, -1, now));
+			assertTrue(pipeline.publish("missing", "gate-3", -1, now));
+			assertTrue(pipeline.publish("a", "gate-4", -1, now + 3_600_000)); // clock far ahead
+			for (int i = 0; i < 10; i++) {
+				assertTrue(pipeline.publish("a", "exit-" + i, 1, now + 10 + i));
+			}
+			assertTrue(pipeline.awaitDrained(5_000));
+
+			assertEquals(12, counters[0].available("a"), "clamped to totalSpaces");
+			assertEquals(2L, pipeline.stats().get("invalid"));
+			assertEquals(1L, pipeline.stats().get("duplicates"));
+			assertEquals(13L, pipeline.stats().get("applied"));
+			assertEquals(1, writeBehind.stats().get("queueDepth"));
+
+			// Wraps the ring many times over without losing an event
+			int events = 200_000;
+			for (int i = 0; i < events; i++) {
+				assertTrue(pipeline.publish("a", "bulk-" + i, (i & 1) == 0 ? -1 : 1, now - 1_000 - i));
+			}
+			assertTrue(pipeline.awaitDrained(30_000));
+			// The 1 MB filter saturates; its false positives are let through by the exact table
+			assertTrue((long) pipeline.stats().get("bloomFalsePositives") > 0);
+			assertEquals(13L + events, pipeline.stats().get("applied"));
+			assertEquals(1L, pipeline.stats().get("duplicates"));
+
+			// Late resends are still recognised after all of that
+			assertTrue(pipeline.publish("a", "gate-1", -1, now));
+			assertTrue(pipeline.publish("a", "bulk-0", -1, now - 1_000));
+			assertTrue(pipeline.awaitDrained(5_000));
+			assertEquals(3L, pipeline.stats().get("duplicates"));
+			assertEquals(0L, pipeline.stats().get("eventIdsEvictedEarly"));
+		} finally {
+			pipeline.stop();
+		}
+	}
+
+	@Test
+	void readsBothWireFormats() throws IOException {
+		String ndjson = "{\"spotId\":\"a\",\"eventId\":\"g1\",\"delta\":-1,\"timestamp\":1700000000000}\n"
+				+ "{\"delta\":2,\"spotId\":\"b\"}\n";
+		List<String> seen = new ArrayList<>();
+		SensorEventParser.Sink sink = (spotId, eventId, delta, timestamp) -> seen
+				.add(spotId + ":" + eventId + ":" + delta + ":" + timestamp);
+		assertEquals(2, SensorEventParser.readNdjson(stream(ndjson.getBytes(StandardCharsets.UTF_8)), sink));
+		assertEquals(List.of("a:g1:-1:1700000000000", "b:null:2:0"), seen);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte('S');
+		out.writeByte('E');
+		out.writeByte(SensorEventParser.BINARY_VERSION);
+		out.writeInt(2);
+		out.writeByte(SensorEventParser.ID_OBJECT_ID | SensorEventParser.HAS_EVENT_ID);
+		out.write(HexFormat.of().parseHex(OBJECT_ID));
+		out.writeByte(2);
+		out.write("g2".getBytes(StandardCharsets.UTF_8));
+		out.writeShort(-1);
+		out.writeLong(1700000000001L);
+		out.writeByte(0);
+		out.writeByte(3);
+		out.write("lot".getBytes(StandardCharsets.UTF_8));
+		out.writeShort(4);
+		out.writeLong(1700000000002L);
+		seen.clear();
+		assertEquals(2, SensorEventParser.readBinary(stream(bytes.toByteArray()), sink));
+		assertEquals(List.of(OBJECT_ID + ":g2:-1:1700000000001", "lot:null:4:1700000000002"), seen);
+
+		// Cut short after the first event
+		byte[] truncated = Arrays.copyOf(bytes.toByteArray(), 7 + 1 + 12 + 3 + 2 + 8 + 3);
+		assertThrows(CustomExceptions.ValidationBusinessException.class,
+				() -> SensorEventParser.readBinary(stream(truncated), (spotId, eventId, delta, timestamp) -> true));
+	}
+
+	private static ByteArrayInputStream stream(byte[] bytes) {
+		return new ByteArrayInputStream(bytes);
+	}
+}
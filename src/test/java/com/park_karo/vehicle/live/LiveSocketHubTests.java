@@ -0,0 +1,89 @@
+package com.park_karo.vehicle.live;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.park_karo.vehicle.parkingspot.ParkingSpotCatalog;
+import com.park_karo.vehicle.parkingspot.SpotGridIndex;
+
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+
+class LiveSocketHubTests {
+
+	private static final String SPOT = "65f1c2a9b3d4e5f6a7b8c9d0";
+
+	@Test
+	void framesRoundTripCompactly() {
+		List<SpotDelta> deltas = List.of(new SpotDelta(SPOT, 19.0, 72.8, 7, 40.5, false),
+				new SpotDelta("legacy-12", 19.0, 72.8, 0, 0, true));
+		ByteBuffer frame = SpotDeltaCodec.encode(deltas);
+		assertEquals(5 + 21 + 19, frame.remaining());
+
+		List<SpotDelta> decoded = SpotDeltaCodec.decode(frame);
+		assertEquals(SPOT, decoded.get(0).getId());
+		assertEquals(7, decoded.get(0).getAvailableSpaces());
+		assertEquals(40.5, decoded.get(0).getHourlyRate());
+		assertEquals("legacy-12", decoded.get(1).getId());
+		assertTrue(decoded.get(1).isRemoved());
+	}
+
+	@Test
+	void slowSessionGetsOnlyTheLatestStateOnceItsFrameCompletes() {
+		LiveSocketHub hub = new LiveSocketHub(new ParkingSpotCatalog(null, event -> {
+		}), new SpotGridIndex(0.01), new ObjectMapper(), 100, 60_000, 0.01, 4096);
+
+		List<ByteBuffer> frames = new ArrayList<>();
+		List<SendHandler> handlers = new ArrayList<>();
+		RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+		doAnswer(invocation -> {
+			frames.add(invocation.getArgument(0));
+			handlers.add(invocation.getArgument(1));
+			return null;
+		}).when(remote).sendBinary(any(ByteBuffer.class), any(SendHandler.class));
+		Session session = mock(Session.class);
+		when(session.getId()).thenReturn("s1");
+		when(session.getAsyncRemote()).thenReturn(remote);
+
+		hub.open(session);
+		hub.onMessage(session, "{\"spotIds\":[\"" + SPOT + "\"]}");
+
+		hub.onDeltaBatch(batch(9));
+		assertEquals(1, frames.size());
+		// Frame still in flight: these coalesce instead of queueing
+		hub.onDeltaBatch(batch(8));
+		hub.onDeltaBatch(batch(7));
+		hub.onDeltaBatch(batch(6));
+		assertEquals(1, frames.size());
+
+		// Completion sends what coalesced without waiting for another tick
+		handlers.get(0).onResult(new SendResult());
+		assertEquals(2, frames.size());
+		List<SpotDelta> caughtUp = SpotDeltaCodec.decode(frames.get(1));
+		assertEquals(1, caughtUp.size());
+		assertEquals(6, caughtUp.get(0).getAvailableSpaces());
+
+		handlers.get(1).onResult(new SendResult());
+		assertEquals(2, frames.size());
+		assertEquals(1, hub.stats().get("followedSpots"));
+		hub.close(session);
+		assertEquals(0, hub.stats().get("followedSpots"));
+	}
+
+	private static SpotDeltaBatch batch(int available) {
+		return new SpotDeltaBatch(List.of(new SpotDelta(SPOT, 19.0, 72.8, available, 40.0, false)));
+	}
+}
@@ -0,0 +1,59 @@
+package com.park_karo.vehicle.live;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.SpotCatalogChangedEvent;
+
+class SpotDeltaFeedTests {
+
+	@Test
+	void coalescesRapidUpdatesAndSkipsUnchangedSpots() {
+		SpotDeltaFeed feed = new SpotDeltaFeed(event -> {
+		});
+		ParkingSpot a = spot("a", 10, 40.0);
+		ParkingSpot b = spot("b", 5, 30.0);
+		feed.onCatalogChanged(SpotCatalogChangedEvent.reload(List.of(a, b)));
+		assertTrue(feed.drain().isEmpty(), "the first load is not a change");
+
+		for (int available = 9; available >= 3; available--) {
+			feed.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.of(spot("a", available, 40.0))));
+		}
+		// Rewritten without a visible change
+		feed.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.of(spot("b", 5, 30.0))));
+
+		List<SpotDelta> batch = feed.drain();
+		assertEquals(1, batch.size());
+		assertEquals("a", batch.get(0).getId());
+		assertEquals(3, batch.get(0).getAvailableSpaces());
+		assertTrue(feed.drain().isEmpty());
+
+		// A reload without b removes it
+		feed.onCatalogChanged(SpotCatalogChangedEvent.reload(new ArrayList<>(List.of(spot("a", 3, 45.0)))));
+		batch = feed.drain();
+		assertEquals(2, batch.size());
+		for (SpotDelta delta : batch) {
+			if (delta.getId().equals("b")) {
+				assertTrue(delta.isRemoved());
+			} else {
+				assertEquals(45.0, delta.getHourlyRate());
+			}
+		}
+	}
+
+	private static ParkingSpot spot(String id, int available, double rate) {
+		ParkingSpot spot = new ParkingSpot();
+		spot.setId(id);
+		spot.setLatitude(19.07);
+		spot.setLongitude(72.87);
+		spot.setAvailableSpaces(available);
+		spot.setHourlyRate(rate);
+		return spot;
+	}
+}
@@ -0,0 +1,107 @@
+package com.park_karo.vehicle.live;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+class ViewportSubscriptionIndexTests {
+
+	@Test
+	void routesPointsToExactlyTheViewportsContainingThem() {
+		Random random = new Random(20);
+		ViewportSubscriptionIndex<Integer> index = new ViewportSubscriptionIndex<>(0.01, 4096);
+		List<Viewport> viewports = new ArrayList<>();
+		List<ViewportSubscriptionIndex.Entry<Integer>> entries = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			double lat = 18.9 + random.nextDouble() * 0.3;
+			double lon = 72.8 + random.nextDouble() * 0.2;
+			Viewport viewport = new Viewport(lat, lon, lat + random.nextDouble() * 0.05,
+					lon + random.nextDouble() * 0.05);
+			viewports.add(viewport);
+			entries.add(index.add(i, viewport));
+		}
+		// Every third subscriber disconnects
+		Set<Integer> closed = new HashSet<>();
+		for (int i = 0; i < entries.size(); i += 3) {
+			index.remove(entries.get(i));
+			closed.add(i);
+		}
+		assertEquals(500 - closed.size(), index.size());
+
+		for (int i = 0; i < 2_000; i++) {
+			double lat = 18.88 + random.nextDouble() * 0.4;
+			double lon = 72.78 + random.nextDouble() * 0.3;
+			Set<Integer> expected = new HashSet<>();
+			for (int s = 0; s < viewports.size(); s++) {
+				if (!closed.contains(s) && viewports.get(s).contains(lat, lon)) {
+					expected.add(s);
+				}
+			}
+			Set<Integer> routed = new HashSet<>();
+			index.forEachContaining(lat, lon, routed::add);
+			assertEquals(expected, routed);
+		}
+	}
+
+	@Test
+	void refusesViewportsSpanningTooManyCells() {
+		ViewportSubscriptionIndex<Integer> index = new ViewportSubscriptionIndex<>(0.01, 100);
+		assertThrows(CustomExceptions.ValidationBusinessException.class,
+				() -> index.add(1, new Viewport(18.0, 72.0, 19.0, 73.0)));
+		index.add(2, new Viewport(18.0, 72.0, 18.05, 72.05));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void concurrentChurnNeverLosesAStayingSubscriber() throws Exception {
+		ViewportSubscriptionIndex<Integer> index = new ViewportSubscriptionIndex<>(0.01, 4096);
+		// All inside one cell, so every add races a remove emptying the same set
+		Viewport viewport = new Viewport(19.001, 72.801, 19.002, 72.802);
+		int threads = 8;
+		int rounds = 20_000;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < rounds; i++) {
+						index.remove(index.add(thread * rounds + i, viewport));
+					}
+					// The last one stays and must still be routed to
+					index.add(-1 - thread, viewport);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(threads, index.size());
+		assertEquals(1, index.cellCount());
+		Set<Integer> routed = new HashSet<>();
+		index.forEachContaining(19.0015, 72.8015, routed::add);
+		assertEquals(threads, routed.size());
+		assertTrue(routed.stream().allMatch(id -> id < 0));
+	}
+}
@@ -0,0 +1,129 @@
+package com.park_karo.vehicle.occupancy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+import com.park_karo.vehicle.parkingspot.ParkingSpot;
+import com.park_karo.vehicle.parkingspot.ParkingSpotCatalog;
+import com.park_karo.vehicle.parkingspot.SpotAvailabilityCounters;
+import com.park_karo.vehicle.parkingspot.SpotCatalogChangedEvent;
+
+class OccupancyHistoryTests {
+
+	private final SpotAvailabilityCounters[] counters = new SpotAvailabilityCounters[1];
+	private final ParkingSpotCatalog catalog = new ParkingSpotCatalog(null,
+			event -> counters[0].onCatalogChanged((SpotCatalogChangedEvent) event));
+	private final OccupancyBucketRepository repository = mock(OccupancyBucketRepository.class);
+
+	OccupancyHistoryTests() {
+		counters[0] = new SpotAvailabilityCounters(catalog);
+		catalog.replaceAll(List.of(new ParkingSpot("a", "A", 19.0, 72.8, 10, 40, "CAR")));
+	}
+
+	@Test
+	void rollsMinutesUpIntoHourlyBucketsAndRestoresThem() {
+		List<OccupancyBucket> written = new ArrayList<>();
+		when(repository.upsertAll(anyCollection())).thenAnswer(invocation -> {
+			written.addAll(invocation.<Collection<OccupancyBucket>>getArgument(0));
+			return written.size();
+		});
+		OccupancyRecorder recorder = new OccupancyRecorder(catalog, counters[0], repository, 48);
+
+		int hour = 29_000_000 / 60;
+		recordAt(recorder, hour * 60 + 1, 10, 8, 6);
+		recordAt(recorder, hour * 60 + 2, 4);
+		recordAt(recorder, hour * 60 + 61, 7);
+		assertEquals(2, recorder.rollup(hour * 60 + 61));
+
+		OccupancyBucket first = written.get(0).getHour().getEpochSecond() == hour * 3600L ? written.get(0)
+				: written.get(1);
+		assertEquals(4, first.getMin());
+		assertEquals(10, first.getMax());
+		assertEquals(28, first.getSum());
+		assertEquals(4, first.getSamples());
+		assertEquals(3, first.getMinuteSamples()[1]);
+		assertEquals(6, first.getMinuteMin()[1]);
+
+		// Only the still-open hour is written again
+		written.clear();
+		recordAt(recorder, hour * 60 + 62, 5);
+		assertEquals(1, recorder.rollup(hour * 60 + 62));
+		assertEquals(2, written.get(0).getSamples());
+
+		OccupancyRing restored = new OccupancyRing();
+		restored.record(hour * 60 + 2, 1);
+		for (int i = 0; i < OccupancyBucket.MINUTES; i++) {
+			restored.restore(hour * 60 + i, first.getMinuteMin()[i], first.getMinuteMax()[i],
+					first.getMinuteSum()[i], first.getMinuteSamples()[i]);
+		}
+		List<OccupancyPoint> points = new ArrayList<>();
+		restored.collect(hour * 60, hour * 60 + 60, 1, points);
+		assertEquals(2, points.size());
+		assertEquals(8.0, points.get(0).getAvgAvailable());
+		assertEquals(1, points.get(1).getMaxAvailable(), "samples taken since startup win");
+	}
+
+	@Test
+	void answersEachResolutionFromTheCoarsestDataThatHasIt() {
+		int nowMinute = OccupancyRecorder.epochMinute(System.currentTimeMillis());
+		OccupancyRecorder recorder = new OccupancyRecorder(catalog, counters[0], repository, 48);
+		recordAt(recorder, nowMinute - 1, 9, 7);
+		recordAt(recorder, nowMinute, 3);
+
+		// Three days back the hour comes from its bucket's summary
+		int oldHour = nowMinute / 60 - 72;
+		OccupancyBucket old = new OccupancyBucket("a", oldHour);
+		old.addMinute(0, 2, 6, 8, 2);
+		old.addMinute(30, 10, 10, 10, 1);
+		when(repository.findHours(eq("a"), any(Instant.class), any(Instant.class), anyBoolean()))
+				.thenReturn(List.of(old));
+		OccupancyService service = new OccupancyService(recorder, repository, catalog, 5000);
+
+		List<OccupancyPoint> minutes = points(service.getHistory("a", null, null, "minute"));
+		assertEquals(2, minutes.size());
+		assertEquals(8.0, minutes.get(0).getAvgAvailable());
+
+		Instant fourDaysAgo = Instant.ofEpochSecond((nowMinute - 4 * 24 * 60) * 60L);
+		Map<String, Object> hourly = service.getHistory("a", fourDaysAgo, null, null);
+		assertEquals("hour", hourly.get("resolution"));
+		List<OccupancyPoint> hours = points(hourly);
+		assertEquals(Instant.ofEpochSecond(oldHour * 3600L), hours.get(0).getTime());
+		assertEquals(6.0, hours.get(0).getAvgAvailable());
+		assertEquals(10, hours.get(0).getMaxAvailable());
+		assertEquals(3, hours.get(hours.size() - 1).getMinAvailable());
+
+		List<OccupancyPoint> days = points(service.getHistory("a", fourDaysAgo, null, "day"));
+		assertEquals(6, days.stream().mapToInt(OccupancyPoint::getSamples).sum());
+		assertEquals(10, days.get(0).getMaxAvailable());
+
+		assertThrows(CustomExceptions.ValidationBusinessException.class,
+				() -> service.getHistory("a", fourDaysAgo, null, "minute"));
+	}
+
+	private void recordAt(OccupancyRecorder recorder, int epochMinute, int... available) {
+		for (int value : available) {
+			counters[0].set("a", value);
+			recorder.sample(epochMinute);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<OccupancyPoint> points(Map<String, Object> history) {
+		return (List<OccupancyPoint>) history.get("points");
+	}
+}
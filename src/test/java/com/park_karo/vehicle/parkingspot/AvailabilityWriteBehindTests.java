@@ -0,0 +1,67 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class AvailabilityWriteBehindTests {
+
+	@Test
+	void coalescesReadingsPerSpotAndRetriesFailedWrites() {
+		SpotAvailabilityCounters[] counters = new SpotAvailabilityCounters[1];
+		ParkingSpotCatalog catalog = new ParkingSpotCatalog(null,
+				event -> counters[0].onCatalogChanged((SpotCatalogChangedEvent) event));
+		counters[0] = new SpotAvailabilityCounters(catalog);
+		catalog.replaceAll(List.of(new ParkingSpot("a", "A", 19.0, 72.8, 20, 40, "CAR"),
+				new ParkingSpot("b", "B", 19.0, 72.8, 10, 40, "CAR")));
+
+		// What MongoDB holds
+		Map<String, Integer> stored = new HashMap<>(Map.of("a", 20, "b", 10));
+		List<Map<String, Integer>> writes = new ArrayList<>();
+		ParkingSpotRepository repository = mock(ParkingSpotRepository.class);
+		when(repository.addAvailableSpaces(anyMap())).thenThrow(new IllegalStateException("primary stepped down"))
+				.thenAnswer(invocation -> {
+					Map<String, Integer> deltas = invocation.getArgument(0);
+					deltas.forEach((spotId, delta) -> stored.merge(spotId, delta, Integer::sum));
+					writes.add(new HashMap<>(deltas));
+					return deltas.size();
+				});
+		AvailabilityWriteBehind writeBehind = new AvailabilityWriteBehind(repository, counters[0], 1_000);
+
+		for (int available = 20; available >= 5; available--) {
+			writeBehind.submit("a", available);
+		}
+		writeBehind.submit("b", 3);
+		assertEquals(5, counters[0].available("a"), "applied in memory before any write");
+
+		// A stale copy of the document arriving now must not undo the reading
+		catalog.upsert(new ParkingSpot("a", "A", 19.0, 72.8, 20, 40, "CAR"));
+		assertEquals(5, counters[0].available("a"));
+
+		assertEquals(0, writeBehind.flush());
+		assertEquals(2, writeBehind.stats().get("queueDepth"));
+
+		// A reservation lands in MongoDB while the readings wait; the write must not overwrite it
+		stored.merge("a", -1, Integer::sum);
+		counters[0].apply("a", -1);
+		assertEquals(4, counters[0].available("a"));
+
+		assertEquals(2, writeBehind.flush());
+		assertEquals(List.of(Map.of("a", -15, "b", -7)), writes);
+		assertEquals(Map.of("a", 4, "b", 3), stored);
+		assertEquals(0, writeBehind.stats().get("queueDepth"));
+
+		// Written, so the next document rebases the counter again
+		catalog.upsert(new ParkingSpot("a", "A", 19.0, 72.8, 2, 40, "CAR"));
+		assertEquals(2, counters[0].available("a"));
+		assertEquals(0, writeBehind.flush());
+	}
+}
@@ -0,0 +1,66 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HilbertCurveTests {
+
+	@Test
+	void coarserOrderIsPrefixOfFinerOrder() {
+		Random random = new Random(1);
+		for (int i = 0; i < 10_000; i++) {
+			int x = random.nextInt(1 << HilbertCurve.ORDER);
+			int y = random.nextInt(1 << HilbertCurve.ORDER);
+			long fine = HilbertCurve.index(HilbertCurve.ORDER, x, y);
+			for (int level = 1; level < HilbertCurve.ORDER; level += 3) {
+				int shift = HilbertCurve.ORDER - level;
+				assertEquals(HilbertCurve.index(level, x >> shift, y >> shift), fine >> (2 * shift));
+			}
+		}
+	}
+
+	@Test
+	void rangesCoverEveryPointInTheBox() {
+		Random random = new Random(2);
+		for (int box = 0; box < 200; box++) {
+			double minLat = 18.9 + random.nextDouble() * 0.3;
+			double minLon = 72.78 + random.nextDouble() * 0.2;
+			double maxLat = minLat + random.nextDouble() * 0.1;
+			double maxLon = minLon + random.nextDouble() * 0.1;
+			List<long[]> ranges = HilbertCurve.ranges(minLat, minLon, maxLat, maxLon, 16);
+			assertTrue(ranges.size() <= 16);
+
+			for (int p = 0; p < 200; p++) {
+				long key = HilbertCurve.key(minLat + random.nextDouble() * (maxLat - minLat),
+						minLon + random.nextDouble() * (maxLon - minLon));
+				assertTrue(ranges.stream().anyMatch(r -> key >= r[0] && key <= r[1]));
+			}
+		}
+	}
+
+	@Test
+	void scanRadiusMatchesFullScanOnKeySortedSnapshot() {
+		Random random = new Random(3);
+		ParkingSpotCatalog catalog = new ParkingSpotCatalog(null, event -> {
+		});
+		for (int i = 0; i < 5_000; i++) {
+			catalog.upsert(new ParkingSpot("spot-" + i, "Spot " + i, 18.89 + random.nextDouble() * 0.35,
+					72.77 + random.nextDouble() * 0.25, random.nextInt(50), 10 + random.nextInt(90), "CAR"));
+		}
+		SpotScanEngine engine = new SpotScanEngine(catalog);
+		engine.onCatalogChanged(SpotCatalogChangedEvent.reload(catalog.all()));
+
+		double[][] probes = { { 19.0760, 72.8777, 2.0 }, { 18.95, 72.83, 0.3 }, { 19.1, 72.9, 15.0 } };
+		for (double[] probe : probes) {
+			long expected = catalog.all().stream().filter(
+					s -> GeoUtils.distanceKm(probe[0], probe[1], s.getLatitude(), s.getLongitude()) <= probe[2])
+					.count();
+			assertEquals(expected, engine.scanRadius(probe[0], probe[1], probe[2]).size());
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class NearestSpotIndexTests {
+
+	private static ParkingSpot randomSpot(String id, Random random) {
+		return new ParkingSpot(id, id, 18.89 + random.nextDouble() * 0.35, 72.77 + random.nextDouble() * 0.25,
+				random.nextInt(50), 10 + random.nextInt(90), "CAR");
+	}
+
+	private static void assertMatchesBruteForce(NearestSpotIndex index, Map<String, ParkingSpot> expected,
+			long seed) {
+		Random random = new Random(seed);
+		for (int probe = 0; probe < 100; probe++) {
+			double lat = 18.89 + random.nextDouble() * 0.35;
+			double lon = 72.77 + random.nextDouble() * 0.25;
+			int k = 1 + random.nextInt(30);
+			double maxKm = 0.2 + random.nextDouble() * 5;
+			List<String> actual = index.findNearest(lat, lon, k, maxKm).stream().map(d -> d.getSpot().getId())
+					.toList();
+			assertEquals(SpotKdTreeTests.bruteForce(expected.values(), lat, lon, k, maxKm), actual);
+		}
+	}
+
+	@Test
+	void overlayShadowsTheTreeUntilTheRebuild() {
+		NearestSpotIndex[] index = new NearestSpotIndex[1];
+		ParkingSpotCatalog catalog = new ParkingSpotCatalog(null,
+				event -> index[0].onCatalogChanged((SpotCatalogChangedEvent) event));
+		index[0] = new NearestSpotIndex(catalog);
+
+		Random random = new Random(8);
+		Map<String, ParkingSpot> expected = new LinkedHashMap<>();
+		for (int i = 0; i < 3_000; i++) {
+			ParkingSpot spot = randomSpot("spot-" + i, random);
+			expected.put(spot.getId(), spot);
+		}
+		catalog.replaceAll(new ArrayList<>(expected.values()));
+		assertMatchesBruteForce(index[0], expected, 1);
+
+		// Below the rebuild threshold: moves, additions and removals go through the overlay
+		List<ParkingSpot> changed = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			changed.add(randomSpot("spot-" + i, random));
+			changed.add(randomSpot("new-" + i, random));
+		}
+		changed.forEach(spot -> expected.put(spot.getId(), spot));
+		catalog.upsertAll(changed);
+		List<String> removed = new ArrayList<>();
+		for (int i = 50; i < 150; i++) {
+			removed.add("spot-" + (i * 7));
+			removed.add("new-" + (i - 50) / 2);
+		}
+		removed.forEach(expected::remove);
+		catalog.remove(removed);
+		assertMatchesBruteForce(index[0], expected, 2);
+
+		// Same position: swapped into the tree in place, and the newer copy is returned
+		ParkingSpot stayed = expected.get("spot-2000");
+		ParkingSpot refreshed = new ParkingSpot(stayed.getId(), stayed.getName(), stayed.getLatitude(),
+				stayed.getLongitude(), 49, 10, "CAR");
+		expected.put(refreshed.getId(), refreshed);
+		catalog.upsert(refreshed);
+		assertEquals(49, index[0].findNearest(stayed.getLatitude(), stayed.getLongitude(), 1, 1).get(0).getSpot()
+				.getAvailableSpaces());
+
+		// Past the threshold the tree is rebuilt from the catalog
+		List<ParkingSpot> moved = new ArrayList<>();
+		for (int i = 0; i < 1_100; i++) {
+			moved.add(randomSpot("spot-" + (1_000 + i), random));
+		}
+		moved.forEach(spot -> expected.put(spot.getId(), spot));
+		catalog.upsertAll(moved);
+		assertMatchesBruteForce(index[0], expected, 3);
+	}
+}
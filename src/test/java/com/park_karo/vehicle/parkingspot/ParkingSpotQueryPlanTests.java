@@ -0,0 +1,121 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.mongodb.ExplainVerbosity;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+/**
+ * Guards the type and availability pushdown queries against falling back to a
+ * collection scan. Each test calls the {@link ParkingSpotRepository} method,
+ * captures the filter Spring Data actually sent, and explains that.
+ *
+ * Creates indexes and rewrites documents, so it only runs against a scratch
+ * database named by {@code PARKING_TEST_MONGODB_URI}, never the one in
+ * application.properties.
+ */
+@DataMongoTest
+@EnabledIfEnvironmentVariable(named = ParkingSpotQueryPlanTests.QUERY_PLAN_URI_ENV, matches = ".+")
+class ParkingSpotQueryPlanTests {
+
+	static final String QUERY_PLAN_URI_ENV = "PARKING_TEST_MONGODB_URI";
+
+	// Last find filter sent per collection
+	private static final Map<String, BsonDocument> sentFilters = new ConcurrentHashMap<>();
+
+	@DynamicPropertySource
+	static void testDatabase(DynamicPropertyRegistry registry) {
+		registry.add("spring.data.mongodb.uri", () -> System.getenv(QUERY_PLAN_URI_ENV));
+	}
+
+	@TestConfiguration
+	static class CaptureFinds {
+		@Bean
+		MongoClientSettingsBuilderCustomizer captureFindFilters() {
+			CommandListener listener = new CommandListener() {
+				@Override
+				public void commandStarted(CommandStartedEvent event) {
+					BsonDocument command = event.getCommand();
+					if ("find".equals(event.getCommandName()) && command.containsKey("filter")) {
+						sentFilters.put(command.getString("find").getValue(), command.getDocument("filter"));
+					}
+				}
+			};
+			return builder -> builder.addCommandListener(listener);
+		}
+	}
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ParkingSpotRepository parkingSpotRepository;
+
+	@BeforeEach
+	void ensureIndexes() {
+		new ParkingSpotFilterIndexMigration(mongoTemplate).run();
+		sentFilters.clear();
+	}
+
+	@Test
+	void typeQueryUsesIndex() {
+		parkingSpotRepository.findByVehicleTypeKey("CAR");
+		assertNoCollectionScan();
+	}
+
+	@Test
+	void typedAvailabilityQueryUsesIndex() {
+		parkingSpotRepository.findByVehicleTypeKeyAndHourlyRateLessThanEqualAndAvailableSpacesGreaterThanEqual("CAR",
+				50.0, 1);
+		assertNoCollectionScan();
+	}
+
+	@Test
+	void untypedAvailabilityQueryUsesIndex() {
+		parkingSpotRepository.findByHourlyRateLessThanEqualAndAvailableSpacesGreaterThanEqual(50.0, 1);
+		assertNoCollectionScan();
+	}
+
+	private void assertNoCollectionScan() {
+		String collection = mongoTemplate.getCollectionName(ParkingSpot.class);
+		BsonDocument filter = sentFilters.get(collection);
+		assertNotNull(filter, "no find was sent to " + collection);
+		Document explain = mongoTemplate.getCollection(collection).find(filter)
+				.explain(ExplainVerbosity.QUERY_PLANNER);
+		Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+		assertFalse(containsStage(winningPlan, "COLLSCAN"), () -> "Query " + filter + " scans: " + winningPlan.toJson());
+	}
+
+	private static boolean containsStage(Object node, String stage) {
+		if (node instanceof Document doc) {
+			if (stage.equals(doc.get("stage"))) {
+				return true;
+			}
+			return doc.values().stream().anyMatch(value -> containsStage(value, stage));
+		}
+		if (node instanceof List<?> list) {
+			return list.stream().anyMatch(value -> containsStage(value, stage));
+		}
+		return false;
+	}
+}
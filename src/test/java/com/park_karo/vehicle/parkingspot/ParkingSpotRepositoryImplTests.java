@@ -0,0 +1,119 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+class ParkingSpotRepositoryImplTests {
+
+	private static Document guardOf(int delta) {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		new ParkingSpotRepositoryImpl(mongoTemplate).addAvailableSpaces("a", delta);
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).findAndModify(query.capture(), any(UpdateDefinition.class),
+				any(FindAndModifyOptions.class), eq(ParkingSpot.class));
+		return query.getValue().getQueryObject();
+	}
+
+	@Test
+	void takingASpaceNeedsOneFree() {
+		Document guard = guardOf(-1);
+		assertEquals(new Document("$gte", 1), guard.get("availableSpaces"));
+		assertFalse(guard.containsKey("$or"));
+	}
+
+	@Test
+	void releasingASpaceStaysWithinTotalSpaces() {
+		Document guard = guardOf(1);
+		assertFalse(guard.containsKey("availableSpaces"));
+		List<?> either = guard.get("$or", List.class);
+		assertEquals(new Document("totalSpaces", new Document("$not", new Document("$gt", 0))), either.get(0));
+		// Rendered by the query mapper on the way out; render it the same way here
+		Document bound = ((Document) either.get(1)).get("$expr", AggregationExpression.class).toDocument();
+		assertEquals(List.of(new Document("$add", List.of("$availableSpaces", 1)), "$totalSpaces"),
+				bound.get("$lte"));
+	}
+
+	/** The $set the write-behind sends for each spot, rendered. */
+	private static Map<String, Document> flushOf(Map<String, Integer> deltas) {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		BulkOperations bulk = mock(BulkOperations.class, Mockito.RETURNS_DEEP_STUBS);
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ParkingSpot.class)).thenReturn(bulk);
+		new ParkingSpotRepositoryImpl(mongoTemplate).addAvailableSpaces(deltas);
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(bulk, Mockito.times(deltas.size())).updateOne(query.capture(), update.capture());
+		Map<String, Document> sets = new HashMap<>();
+		for (int i = 0; i < deltas.size(); i++) {
+			List<Document> pipeline = ((AggregationUpdate) update.getAllValues().get(i))
+					.toPipeline(Aggregation.DEFAULT_CONTEXT);
+			assertEquals(1, pipeline.size());
+			sets.put(query.getAllValues().get(i).getQueryObject().getString("_id"), pipeline.get(0).get("$set",
+					Document.class));
+		}
+		return sets;
+	}
+
+	/** Just enough of the aggregation language to run the flush's expression. */
+	private static Object eval(Object expression, Document spot) {
+		if (expression instanceof String field && field.startsWith("$")) {
+			return spot.get(field.substring(1));
+		}
+		if (!(expression instanceof Document operator)) {
+			return expression;
+		}
+		String name = operator.keySet().iterator().next();
+		List<?> args = operator.getList(name, Object.class);
+		if (name.equals("$cond")) {
+			return eval(args.get((Boolean) eval(args.get(0), spot) ? 1 : 2), spot);
+		}
+		List<Object> values = args.stream().map(arg -> eval(arg, spot)).toList();
+		return switch (name) {
+		case "$add" -> ((Number) values.get(0)).intValue() + ((Number) values.get(1)).intValue();
+		case "$min" -> Math.min(((Number) values.get(0)).intValue(), ((Number) values.get(1)).intValue());
+		case "$max" -> Math.max(((Number) values.get(0)).intValue(), ((Number) values.get(1)).intValue());
+		// Missing sorts below numbers
+		case "$gt" -> values.get(0) != null && ((Number) values.get(0)).intValue() > ((Number) values.get(1)).intValue();
+		default -> throw new IllegalArgumentException(name);
+		};
+	}
+
+	@Test
+	void flushStaysWithinBoundsWhenReservationsInterleave() {
+		// Sensors saw three cars leave a and ten arrive at b
+		Map<String, Document> sets = flushOf(Map.of("a", 3, "b", -10, "c", 4));
+
+		// Meanwhile reservations and releases moved what MongoDB holds
+		Document a = new Document("availableSpaces", 9).append("totalSpaces", 10);
+		Document b = new Document("availableSpaces", 4).append("totalSpaces", 10);
+		Document unbounded = new Document("availableSpaces", 9);
+		assertEquals(10, eval(sets.get("a").get("availableSpaces"), a), "capped at totalSpaces");
+		assertEquals(0, eval(sets.get("b").get("availableSpaces"), b), "never below zero");
+		assertEquals(13, eval(sets.get("c").get("availableSpaces"), unbounded), "no totalSpaces, no cap");
+
+		// Inside the bounds it is a plain sum
+		assertEquals(7, eval(sets.get("a").get("availableSpaces"),
+				new Document("availableSpaces", 4).append("totalSpaces", 10)));
+	}
+}
@@ -0,0 +1,113 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.park_karo.vehicle.exception.CustomExceptions;
+
+class ParkingSpotServiceTests {
+
+	private static List<ParkingSpot> randomMumbaiSpots(int count, long seed) {
+		Random random = new Random(seed);
+		List<ParkingSpot> spots = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			double lat = 18.89 + random.nextDouble() * 0.35;
+			double lon = 72.77 + random.nextDouble() * 0.25;
+			spots.add(new ParkingSpot("spot-" + i, "Spot " + i, lat, lon, random.nextInt(50), 10 + random.nextInt(90),
+					"CAR"));
+		}
+		return spots;
+	}
+
+	private static List<NearbyOrigin> randomOrigins(int count, long seed) {
+		Random random = new Random(seed);
+		List<NearbyOrigin> origins = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			origins.add(new NearbyOrigin("origin-" + i, 18.89 + random.nextDouble() * 0.35,
+					72.77 + random.nextDouble() * 0.25, 0.2 + random.nextDouble() * 3, i % 3 == 0 ? null : 1 + i % 7));
+		}
+		return origins;
+	}
+
+	private static List<String> bruteForce(List<ParkingSpot> spots, NearbyOrigin origin) {
+		int limit = origin.getLimit() != null ? origin.getLimit() : ParkingSpotService.DEFAULT_BATCH_LIMIT;
+		Comparator<ParkingSpot> byDistance = Comparator.comparingDouble(
+				s -> GeoUtils.distanceKm(origin.getLat(), origin.getLon(), s.getLatitude(), s.getLongitude()));
+		return spots.stream()
+				.filter(s -> GeoUtils.distanceKm(origin.getLat(), origin.getLon(), s.getLatitude(),
+						s.getLongitude()) <= origin.getRadiusKm())
+				.sorted(byDistance).limit(limit).map(ParkingSpot::getId).toList();
+	}
+
+	private static ParkingSpotService service(SpotGridIndex spotGridIndex) {
+		// Batch search only reads the grid; nothing else is touched
+		return new ParkingSpotService(null, null, spotGridIndex, null, null, null, null, null, null, null, null,
+				null, null, "memory");
+	}
+
+	private static ParkingSpotService service(ParkingSpotRepository repository) {
+		return new ParkingSpotService(repository, null, null, null, null, null, null, null, null, null, null, null,
+				null, "memory");
+	}
+
+	@Test
+	void batchMatchesBruteForceAcrossTheParallelSplit() {
+		List<ParkingSpot> spots = randomMumbaiSpots(5_000, 42);
+		SpotGridIndex grid = new SpotGridIndex(0.01);
+		grid.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+		ParkingSpotService service = service(grid);
+
+		// Sequential, exactly at the threshold, and split into uneven slices
+		int threshold = ParkingSpotService.BATCH_PARALLEL_THRESHOLD;
+		for (int size : new int[] { 5, threshold - 1, threshold, threshold + 1, 333 }) {
+			List<NearbyOrigin> origins = randomOrigins(size, size);
+			Map<String, List<SpotDistance>> results = service.findNearbyBatch(origins);
+
+			assertEquals(origins.stream().map(NearbyOrigin::resultKey).toList(), List.copyOf(results.keySet()),
+					"results in request order");
+			for (NearbyOrigin origin : origins) {
+				List<String> actual = results.get(origin.resultKey()).stream().map(d -> d.getSpot().getId())
+						.toList();
+				assertEquals(bruteForce(spots, origin), actual, () -> "batch of " + size + ", " + origin.getId());
+			}
+		}
+	}
+
+	@Test
+	void duplicateOriginsAreRejected() {
+		SpotGridIndex grid = new SpotGridIndex(0.01);
+		grid.onCatalogChanged(SpotCatalogChangedEvent.reload(randomMumbaiSpots(100, 7)));
+		ParkingSpotService service = service(grid);
+
+		assertThrows(CustomExceptions.ValidationBusinessException.class,
+				() -> service.findNearbyBatch(List.of(new NearbyOrigin("home", 19.0, 72.8, 1, null),
+						new NearbyOrigin("home", 19.1, 72.9, 1, null))));
+		// Without ids the coordinates are the key
+		assertThrows(CustomExceptions.ValidationBusinessException.class,
+				() -> service.findNearbyBatch(List.of(new NearbyOrigin(null, 19.0, 72.8, 1, null),
+						new NearbyOrigin(" ", 19.0, 72.8, 2, 5))));
+		assertEquals(2, service.findNearbyBatch(List.of(new NearbyOrigin(null, 19.0, 72.8, 1, null),
+				new NearbyOrigin("office", 19.0, 72.8, 1, null))).size());
+	}
+
+	@Test
+	void releasingIntoAFullSpotIsAConflict() {
+		ParkingSpotRepository repository = mock(ParkingSpotRepository.class);
+		when(repository.existsById("full")).thenReturn(true);
+		ParkingSpotService service = service(repository);
+
+		// The guarded $inc matched nothing: the spot exists, so every space is already free
+		assertThrows(CustomExceptions.CapacityExhaustedBusinessException.class, () -> service.releaseSpace("full"));
+		assertThrows(CustomExceptions.ResourceNotFoundBusinessException.class, () -> service.releaseSpace("gone"));
+	}
+}
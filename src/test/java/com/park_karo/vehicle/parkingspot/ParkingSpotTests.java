@@ -0,0 +1,41 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class ParkingSpotTests {
+
+	private static void assertInSync(ParkingSpot spot) {
+		// GeoJSON order is [longitude, latitude]
+		assertEquals(spot.getLongitude(), spot.getLocation().getX());
+		assertEquals(spot.getLatitude(), spot.getLocation().getY());
+		assertEquals(HilbertCurve.key(spot.getLatitude(), spot.getLongitude()), spot.getHilbertKey());
+	}
+
+	@Test
+	void constructorSetsLocationAndHilbertKey() {
+		assertInSync(new ParkingSpot("a", "A", 19.076, 72.8777, 5, 30, "CAR"));
+	}
+
+	@Test
+	void settersKeepLocationAndHilbertKeyInSync() {
+		ParkingSpot spot = new ParkingSpot("a", "A", 19.076, 72.8777, 5, 30, "CAR");
+		long before = spot.getHilbertKey();
+
+		spot.setLatitude(28.6139);
+		assertInSync(spot);
+		spot.setLongitude(77.209);
+		assertInSync(spot);
+		assertEquals(28.6139, spot.getLocation().getY());
+		assertEquals(77.209, spot.getLocation().getX());
+		assertNotEquals(before, spot.getHilbertKey(), "moved spots get a new key");
+
+		// Field by field, as MongoDB and Jackson populate it
+		ParkingSpot loaded = new ParkingSpot();
+		loaded.setLongitude(-0.1276);
+		loaded.setLatitude(51.5072);
+		assertInSync(loaded);
+	}
+}
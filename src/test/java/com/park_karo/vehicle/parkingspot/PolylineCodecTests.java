@@ -0,0 +1,33 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PolylineCodecTests {
+
+	@Test
+	void decodesTheReferencePolyline() {
+		// Example from Google's Encoded Polyline Algorithm Format page
+		List<double[]> points = PolylineCodec.decode("_p~iF~ps|U_ulLnnqC_mqNvxq`@");
+
+		double[][] expected = { { 38.5, -120.2 }, { 40.7, -120.95 }, { 43.252, -126.453 } };
+		assertEquals(expected.length, points.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i][0], points.get(i)[0], 1e-9, "lat " + i);
+			assertEquals(expected[i][1], points.get(i)[1], 1e-9, "lon " + i);
+		}
+		assertEquals(List.of(), PolylineCodec.decode(""));
+	}
+
+	@Test
+	void rejectsTruncatedAndMalformedInput() {
+		// Cut inside a value, and after a latitude with no longitude
+		assertThrows(IllegalArgumentException.class, () -> PolylineCodec.decode("_p~iF~ps|U_ulLnnq"));
+		assertThrows(IllegalArgumentException.class, () -> PolylineCodec.decode("_p~iF"));
+		assertThrows(IllegalArgumentException.class, () -> PolylineCodec.decode("_p~iF ps|U"));
+	}
+}
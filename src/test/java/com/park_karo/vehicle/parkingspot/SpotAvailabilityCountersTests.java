@@ -0,0 +1,109 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SpotAvailabilityCountersTests {
+
+	@Test
+	void concurrentDeltasOnHotSpotsAreNotLost() throws Exception {
+		SpotBitmapIndex bitmap = new SpotBitmapIndex(10);
+		SpotAvailabilityCounters[] counters = new SpotAvailabilityCounters[1];
+		ParkingSpotCatalog catalog = new ParkingSpotCatalog(null, event -> {
+			bitmap.onCatalogChanged((SpotCatalogChangedEvent) event);
+			counters[0].onCatalogChanged((SpotCatalogChangedEvent) event);
+		});
+		counters[0] = new SpotAvailabilityCounters(catalog);
+		List<ParkingSpot> spots = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			spots.add(new ParkingSpot("hot-" + i, "Hot " + i, 19.0, 72.8, 1_000, 20, "CAR"));
+		}
+		catalog.replaceAll(spots);
+
+		// Each thread reserves 3 and releases 1 per round, concurrently with flushes
+		int threads = 8;
+		int rounds = 2_000;
+		ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+		CountDownLatch done = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			pool.execute(() -> {
+				for (int r = 0; r < rounds; r++) {
+					String id = "hot-" + (r % 4);
+					counters[0].apply(id, -1);
+					counters[0].apply(id, -1);
+					counters[0].apply(id, -1);
+					counters[0].apply(id, 1);
+				}
+				done.countDown();
+			});
+		}
+		pool.execute(() -> {
+			while (done.getCount() > 0) {
+				counters[0].flush();
+			}
+		});
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+		counters[0].flush();
+
+		int expected = 1_000 - threads * rounds / 4 * 2;
+		for (int i = 0; i < 4; i++) {
+			assertEquals(expected, counters[0].available("hot-" + i));
+			assertEquals(expected, catalog.get("hot-" + i).getAvailableSpaces());
+		}
+		assertEquals(4, bitmap.countAvailable(100, expected, "car"));
+		assertEquals(0, bitmap.countAvailable(100, expected + 1, "car"));
+
+		// A whole-document write rebases the counter
+		catalog.upsert(new ParkingSpot("hot-0", "Hot 0", 19.0, 72.8, 7, 20, "CAR"));
+		assertEquals(7, counters[0].available("hot-0"));
+		counters[0].apply("hot-0", -1);
+		counters[0].flush();
+		assertEquals(6, catalog.get("hot-0").getAvailableSpaces());
+	}
+
+	@Test
+	void spotsWithoutACounterAreSeededOnceFromTheCatalog() throws Exception {
+		// Catalog events don't reach the counters, so none exist yet
+		ParkingSpotCatalog catalog = new ParkingSpotCatalog(null, event -> {
+		});
+		catalog.replaceAll(List.of(new ParkingSpot("cold", "Cold", 19.0, 72.8, 500, 20, "CAR")));
+		SpotAvailabilityCounters counters = new SpotAvailabilityCounters(catalog);
+
+		int threads = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(threads);
+		for (int t = 0; t < threads; t++) {
+			pool.execute(() -> {
+				try {
+					start.await();
+					for (int r = 0; r < 10; r++) {
+						counters.apply("cold", -1);
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				done.countDown();
+			});
+		}
+		start.countDown();
+		assertTrue(done.await(30, TimeUnit.SECONDS));
+		pool.shutdown();
+
+		assertEquals(500 - threads * 10, counters.available("cold"));
+		// Unknown to the catalog: its document will already hold the delta
+		counters.apply("new", -1);
+		assertEquals(-1, counters.available("new"));
+	}
+}
@@ -0,0 +1,69 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class SpotBitmapIndexTests {
+
+	private static final String[] TYPES = { "CAR", "BIKE", "Truck", null };
+
+	private static ParkingSpot randomSpot(Random random, String id) {
+		return new ParkingSpot(id, id, 19.0, 72.8, random.nextInt(120) - 5, random.nextInt(4000) / 20.0,
+				TYPES[random.nextInt(TYPES.length)]);
+	}
+
+	private static Set<String> bruteForce(List<ParkingSpot> spots, double maxPrice, int minSpaces, String type) {
+		return spots.stream().filter(s -> s.getHourlyRate() <= maxPrice).filter(s -> s.getAvailableSpaces() >= minSpaces)
+				.filter(s -> type == null || type.isEmpty() || type.equalsIgnoreCase(s.getVehicleType()))
+				.map(ParkingSpot::getId).collect(Collectors.toSet());
+	}
+
+	@Test
+	void filtersMatchFullScanAcrossUpdatesAndRemovals() {
+		Random random = new Random(11);
+		List<ParkingSpot> spots = new ArrayList<>();
+		for (int i = 0; i < 4_000; i++) {
+			spots.add(randomSpot(random, "spot-" + i));
+		}
+		SpotBitmapIndex index = new SpotBitmapIndex(10);
+		index.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+
+		// Rewrite some spots in place and remove others so ordinals get reused
+		for (int i = 0; i < 500; i++) {
+			int victim = random.nextInt(spots.size());
+			ParkingSpot updated = randomSpot(random, spots.get(victim).getId());
+			spots.set(victim, updated);
+			index.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.of(updated)));
+		}
+		List<String> removed = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			removed.add(spots.remove(random.nextInt(spots.size())).getId());
+		}
+		index.onCatalogChanged(SpotCatalogChangedEvent.removed(removed));
+		for (int i = 0; i < 200; i++) {
+			ParkingSpot added = randomSpot(random, "new-" + i);
+			spots.add(added);
+			index.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.of(added)));
+		}
+
+		assertEquals(spots.size(), index.size());
+		String[] queryTypes = { null, "", "car", "BIKE", "truck", "VAN" };
+		for (int q = 0; q < 300; q++) {
+			double maxPrice = random.nextInt(2200) / 10.0 - 5;
+			int minSpaces = random.nextInt(130) - 5;
+			String type = queryTypes[random.nextInt(queryTypes.length)];
+			Set<String> expected = bruteForce(spots, maxPrice, minSpaces, type);
+			Set<String> actual = index.findAvailable(maxPrice, minSpaces, type).stream().map(ParkingSpot::getId)
+					.collect(Collectors.toSet());
+			assertEquals(expected, actual);
+			assertEquals(expected.size(), index.countAvailable(maxPrice, minSpaces, type));
+		}
+	}
+}
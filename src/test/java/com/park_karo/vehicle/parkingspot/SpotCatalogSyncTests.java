@@ -0,0 +1,103 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoSocketReadException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+
+class SpotCatalogSyncTests {
+
+	private static final BsonDocument TOKEN = new BsonDocument("_data", new BsonString("8263A1"));
+
+	private ParkingSpotCatalog catalog;
+	private ChangeStreamIterable<Document> stream;
+	private MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor;
+	private SpotCatalogSync sync;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void mockCollection() {
+		catalog = mock(ParkingSpotCatalog.class);
+		stream = mock(ChangeStreamIterable.class);
+		cursor = mock(MongoChangeStreamCursor.class);
+		MongoCollection<Document> collection = mock(MongoCollection.class);
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.getCollectionName(ParkingSpot.class)).thenReturn("mumbai_parking_db");
+		when(mongoTemplate.getCollection("mumbai_parking_db")).thenReturn(collection);
+		when(collection.watch()).thenReturn(stream);
+		when(stream.fullDocument(any())).thenReturn(stream);
+		when(stream.maxAwaitTime(anyLong(), any())).thenReturn(stream);
+		when(stream.resumeAfter(any())).thenReturn(stream);
+		when(stream.cursor()).thenReturn(cursor);
+		when(cursor.getResumeToken()).thenReturn(TOKEN);
+
+		sync = new SpotCatalogSync(mongoTemplate, catalog, true, 1, 1);
+		sync.running = true;
+	}
+
+	@Test
+	void fallsBackToPollingWithoutChangeStreams() {
+		when(stream.cursor()).thenThrow(serverError(40573));
+
+		sync.step();
+
+		assertEquals(SpotCatalogSync.Mode.POLLING, sync.getMode());
+		verify(catalog).reload();
+	}
+
+	@Test
+	void resumesAfterANetworkErrorWithoutReloading() {
+		when(cursor.tryNext()).thenReturn(null).thenThrow(networkError()).thenThrow(networkError());
+
+		sync.step();
+		assertEquals(SpotCatalogSync.Mode.STREAM, sync.getMode());
+		assertEquals(true, sync.stats().get("resumable"));
+		sync.step();
+
+		verify(stream, times(1)).resumeAfter(TOKEN);
+		verify(catalog, times(1)).reload();
+	}
+
+	@Test
+	void reloadsOnAFreshStreamWhenTheResumePointIsLost() {
+		when(cursor.tryNext()).thenReturn(null).thenThrow(serverError(286)).thenThrow(networkError());
+
+		sync.step();
+		assertEquals(false, sync.stats().get("resumable"));
+		sync.step();
+
+		// The reload covers everything, so the stale token is never handed back
+		verify(stream, never()).resumeAfter(any());
+		verify(catalog, times(2)).reload();
+	}
+
+	private static MongoCommandException serverError(int code) {
+		BsonDocument response = new BsonDocument("ok", new BsonInt32(0)).append("code", new BsonInt32(code))
+				.append("errmsg", new BsonString("error " + code));
+		return new MongoCommandException(response, new ServerAddress());
+	}
+
+	private static MongoSocketReadException networkError() {
+		return new MongoSocketReadException("connection reset", new ServerAddress());
+	}
+}
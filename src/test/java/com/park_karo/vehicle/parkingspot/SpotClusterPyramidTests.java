@@ -0,0 +1,171 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+class SpotClusterPyramidTests {
+
+	private static ParkingSpot randomSpot(String id, Random random) {
+		return new ParkingSpot(id, id, 18.89 + random.nextDouble() * 0.35, 72.77 + random.nextDouble() * 0.25,
+				random.nextInt(50), 10 + random.nextInt(20) * 5, "CAR");
+	}
+
+	/** Clusters by cell id, grouped the slow way. */
+	private static Map<String, SpotCluster> bruteForce(Iterable<ParkingSpot> spots, int zoom, double minLat,
+			double minLon, double maxLat, double maxLon) {
+		double cellDeg = 360.0 / (1L << (zoom + 2));
+		int minLatIdx = (int) Math.floor((minLat + 90.0) / cellDeg);
+		int maxLatIdx = (int) Math.floor((maxLat + 90.0) / cellDeg);
+		int minLonIdx = (int) Math.floor((minLon + 180.0) / cellDeg);
+		int maxLonIdx = (int) Math.floor((maxLon + 180.0) / cellDeg);
+		Map<String, List<ParkingSpot>> groups = new TreeMap<>();
+		for (ParkingSpot spot : spots) {
+			int latIdx = (int) Math.floor((spot.getLatitude() + 90.0) / cellDeg);
+			int lonIdx = (int) Math.floor((spot.getLongitude() + 180.0) / cellDeg);
+			if (latIdx >= minLatIdx && latIdx <= maxLatIdx && lonIdx >= minLonIdx && lonIdx <= maxLonIdx) {
+				groups.computeIfAbsent(zoom + "/" + latIdx + "/" + lonIdx, k -> new ArrayList<>()).add(spot);
+			}
+		}
+		Map<String, SpotCluster> clusters = new TreeMap<>();
+		groups.forEach((cellId, group) -> clusters.put(cellId,
+				new SpotCluster(cellId, group.size(),
+						group.stream().mapToDouble(ParkingSpot::getLatitude).average().orElseThrow(),
+						group.stream().mapToDouble(ParkingSpot::getLongitude).average().orElseThrow(),
+						group.stream().mapToDouble(ParkingSpot::getHourlyRate).min().orElseThrow(),
+						group.stream().mapToLong(ParkingSpot::getAvailableSpaces).sum())));
+		return clusters;
+	}
+
+	private static void assertClusters(Map<String, SpotCluster> expected, List<SpotCluster> actual) {
+		Map<String, SpotCluster> byId = new TreeMap<>();
+		actual.forEach(cluster -> byId.put(cluster.getCellId(), cluster));
+		assertEquals(expected.keySet(), byId.keySet());
+		expected.forEach((cellId, want) -> {
+			SpotCluster got = byId.get(cellId);
+			assertEquals(want.getCount(), got.getCount(), cellId);
+			assertEquals(want.getCentroidLat(), got.getCentroidLat(), 1e-9, cellId);
+			assertEquals(want.getCentroidLon(), got.getCentroidLon(), 1e-9, cellId);
+			assertEquals(want.getMinPrice(), got.getMinPrice(), cellId);
+			assertEquals(want.getTotalAvailableSpaces(), got.getTotalAvailableSpaces(), cellId);
+		});
+	}
+
+	@Test
+	void clustersMatchBruteForceGroupingAtEveryZoom() {
+		Random random = new Random(6);
+		Map<String, ParkingSpot> spots = new LinkedHashMap<>();
+		for (int i = 0; i < 4_000; i++) {
+			spots.put("spot-" + i, randomSpot("spot-" + i, random));
+		}
+		SpotClusterPyramid pyramid = new SpotClusterPyramid();
+		pyramid.onCatalogChanged(SpotCatalogChangedEvent.reload(List.copyOf(spots.values())));
+
+		for (int zoom = SpotClusterPyramid.MIN_ZOOM; zoom <= SpotClusterPyramid.MAX_ZOOM; zoom++) {
+			assertClusters(bruteForce(spots.values(), zoom, -90, -180, 90, 180),
+					pyramid.findClusters(-90, -180, 90, 180, zoom));
+		}
+	}
+
+	@Test
+	void viewportOnlyReturnsIntersectingCells() {
+		Random random = new Random(7);
+		List<ParkingSpot> spots = new ArrayList<>();
+		for (int i = 0; i < 4_000; i++) {
+			spots.add(randomSpot("spot-" + i, random));
+		}
+		SpotClusterPyramid pyramid = new SpotClusterPyramid();
+		pyramid.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+
+		double[][] viewports = { { 19.0, 72.85, 19.02, 72.88 }, { 18.95, 72.8, 19.1, 72.95 },
+				{ 19.2, 72.99, 19.3, 73.1 }, { 28.5, 77.1, 28.7, 77.3 } };
+		for (double[] box : viewports) {
+			for (int zoom : new int[] { 10, 13, 16 }) {
+				assertClusters(bruteForce(spots, zoom, box[0], box[1], box[2], box[3]),
+						pyramid.findClusters(box[0], box[1], box[2], box[3], zoom));
+			}
+		}
+		assertTrue(pyramid.findClusters(28.5, 77.1, 28.7, 77.3, 12).isEmpty(), "nothing in Delhi");
+		// Zooms outside the pyramid are clamped
+		assertClusters(bruteForce(spots, SpotClusterPyramid.MAX_ZOOM, 19.0, 72.85, 19.02, 72.88),
+				pyramid.findClusters(19.0, 72.85, 19.02, 72.88, 21));
+	}
+
+	@Test
+	void minimumPriceFollowsUpdatesAndRemovals() {
+		SpotClusterPyramid pyramid = new SpotClusterPyramid();
+		Map<String, ParkingSpot> spots = new LinkedHashMap<>();
+		spots.put("cheap", new ParkingSpot("cheap", "Cheap", 19.0001, 72.8001, 4, 20, "CAR"));
+		spots.put("mid", new ParkingSpot("mid", "Mid", 19.0002, 72.8002, 6, 30, "CAR"));
+		spots.put("dear", new ParkingSpot("dear", "Dear", 19.0003, 72.8003, 8, 30, "CAR"));
+		pyramid.onCatalogChanged(SpotCatalogChangedEvent.reload(List.copyOf(spots.values())));
+		assertEquals(20, single(pyramid).getMinPrice());
+
+		pyramid.onCatalogChanged(SpotCatalogChangedEvent.removed(List.of("cheap")));
+		assertEquals(30, single(pyramid).getMinPrice());
+		// Two spots share the 30 bucket; dropping one keeps it
+		pyramid.onCatalogChanged(SpotCatalogChangedEvent
+				.upserted(List.of(new ParkingSpot("mid", "Mid", 19.0002, 72.8002, 6, 45, "CAR"))));
+		assertEquals(30, single(pyramid).getMinPrice());
+		pyramid.onCatalogChanged(SpotCatalogChangedEvent
+				.upserted(List.of(new ParkingSpot("dear", "Dear", 19.0003, 72.8003, 1, 12.5, "CAR"))));
+		assertEquals(12.5, single(pyramid).getMinPrice());
+		assertEquals(7, single(pyramid).getTotalAvailableSpaces());
+
+		// Random churn still agrees with grouping from scratch
+		Random random = new Random(9);
+		for (int i = 0; i < 2_000; i++) {
+			spots.put("spot-" + i, randomSpot("spot-" + i, random));
+		}
+		pyramid.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.copyOf(spots.values())));
+		for (int round = 0; round < 20; round++) {
+			List<ParkingSpot> changed = new ArrayList<>();
+			List<String> removed = new ArrayList<>();
+			for (int j = 0; j < 100; j++) {
+				String id = "spot-" + random.nextInt(2_500);
+				int action = random.nextInt(3);
+				ParkingSpot current = spots.get(id);
+				if (action == 0 && current != null) {
+					spots.remove(id);
+					removed.add(id);
+					changed.removeIf(spot -> spot.getId().equals(id));
+				} else if (action == 1 && current != null) {
+					// Same position, new price and availability
+					ParkingSpot updated = new ParkingSpot(id, id, current.getLatitude(), current.getLongitude(),
+							random.nextInt(50), 10 + random.nextInt(20) * 5, "CAR");
+					spots.put(id, updated);
+					changed.removeIf(spot -> spot.getId().equals(id));
+					changed.add(updated);
+					removed.remove(id);
+				} else {
+					ParkingSpot moved = randomSpot(id, random);
+					spots.put(id, moved);
+					changed.removeIf(spot -> spot.getId().equals(id));
+					changed.add(moved);
+					removed.remove(id);
+				}
+			}
+			pyramid.onCatalogChanged(SpotCatalogChangedEvent.removed(removed));
+			pyramid.onCatalogChanged(SpotCatalogChangedEvent.upserted(changed));
+		}
+		for (int zoom : new int[] { 8, 12, 15, 17 }) {
+			assertClusters(bruteForce(spots.values(), zoom, -90, -180, 90, 180),
+					pyramid.findClusters(-90, -180, 90, 180, zoom));
+		}
+	}
+
+	private static SpotCluster single(SpotClusterPyramid pyramid) {
+		// One zoom-10 cell, about 9 km across
+		List<SpotCluster> clusters = pyramid.findClusters(18.99, 72.79, 19.01, 72.81, 10);
+		assertEquals(1, clusters.size());
+		return clusters.get(0);
+	}
+}
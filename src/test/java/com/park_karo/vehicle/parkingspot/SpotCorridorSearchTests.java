@@ -0,0 +1,113 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpotCorridorSearchTests {
+
+	private static List<ParkingSpot> randomMumbaiSpots(int count, long seed) {
+		Random random = new Random(seed);
+		List<ParkingSpot> spots = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			spots.add(new ParkingSpot("spot-" + i, "Spot " + i, 18.89 + random.nextDouble() * 0.35,
+					72.77 + random.nextDouble() * 0.25, random.nextInt(50), 10 + random.nextInt(90), "CAR"));
+		}
+		return spots;
+	}
+
+	/** Closest approach over every segment, without the grid. */
+	private static List<CorridorSpot> bruteForce(List<ParkingSpot> spots, List<double[]> route, double bufferKm) {
+		List<CorridorSpot> result = new ArrayList<>();
+		for (ParkingSpot spot : spots) {
+			double bestDistance = Double.MAX_VALUE;
+			double bestAlong = 0;
+			double offset = 0;
+			for (int i = 0; i + 1 < route.size(); i++) {
+				double[] a = route.get(i);
+				double[] b = route.get(i + 1);
+				// Planar, in km, around the segment start
+				double kx = GeoUtils.KM_PER_DEGREE * Math.cos(Math.toRadians(a[0]));
+				double ky = GeoUtils.KM_PER_DEGREE;
+				double bx = (b[1] - a[1]) * kx;
+				double by = (b[0] - a[0]) * ky;
+				double px = (spot.getLongitude() - a[1]) * kx;
+				double py = (spot.getLatitude() - a[0]) * ky;
+				double length = Math.hypot(bx, by);
+				double t = length == 0 ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / (length * length)));
+				double distance = Math.hypot(px - t * bx, py - t * by);
+				if (distance < bestDistance) {
+					bestDistance = distance;
+					bestAlong = offset + t * length;
+				}
+				offset += length;
+			}
+			if (bestDistance <= bufferKm) {
+				result.add(new CorridorSpot(spot, bestDistance, bestAlong));
+			}
+		}
+		result.sort(Comparator.comparingDouble(CorridorSpot::getAlongRouteKm)
+				.thenComparingDouble(CorridorSpot::getDistanceFromRouteKm));
+		return result;
+	}
+
+	private static void assertCorridor(List<CorridorSpot> expected, List<CorridorSpot> actual) {
+		assertEquals(expected.stream().map(c -> c.getSpot().getId()).toList(),
+				actual.stream().map(c -> c.getSpot().getId()).toList());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getDistanceFromRouteKm(), actual.get(i).getDistanceFromRouteKm(), 1e-9);
+			assertEquals(expected.get(i).getAlongRouteKm(), actual.get(i).getAlongRouteKm(), 1e-9);
+		}
+	}
+
+	@Test
+	void corridorMatchesBruteForcePointToSegmentDistance() {
+		List<ParkingSpot> spots = randomMumbaiSpots(5_000, 11);
+		SpotGridIndex grid = new SpotGridIndex(0.01);
+		grid.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+
+		Random random = new Random(12);
+		for (int probe = 0; probe < 30; probe++) {
+			// A wandering route with the odd repeated point
+			List<double[]> route = new ArrayList<>();
+			double lat = 18.9 + random.nextDouble() * 0.3;
+			double lon = 72.78 + random.nextDouble() * 0.2;
+			for (int i = 0, points = 2 + random.nextInt(12); i < points; i++) {
+				route.add(new double[] { lat, lon });
+				if (random.nextInt(6) != 0) {
+					lat += (random.nextDouble() - 0.5) * 0.04;
+					lon += (random.nextDouble() - 0.5) * 0.04;
+				}
+			}
+			double bufferKm = 0.05 + random.nextDouble();
+			List<CorridorSpot> expected = bruteForce(spots, route, bufferKm);
+			assertCorridor(expected, SpotCorridorSearch.search(grid, route, bufferKm));
+		}
+	}
+
+	@Test
+	void coastalRouteAndSinglePointMatchBruteForce() {
+		// Marine Drive to Worli, roughly
+		List<double[]> route = List.of(new double[] { 18.9430, 72.8230 }, new double[] { 18.9570, 72.8120 },
+				new double[] { 18.9950, 72.8150 }, new double[] { 19.0170, 72.8170 });
+		List<ParkingSpot> spots = randomMumbaiSpots(5_000, 13);
+		SpotGridIndex grid = new SpotGridIndex(0.01);
+		grid.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+
+		List<CorridorSpot> found = SpotCorridorSearch.search(grid, route, 0.3);
+		assertFalse(found.isEmpty());
+		assertCorridor(bruteForce(spots, route, 0.3), found);
+
+		// A single point is a plain radius search
+		List<double[]> point = List.of(route.get(0));
+		assertEquals(spots.stream().filter(s -> GeoUtils.distanceKm(18.9430, 72.8230, s.getLatitude(),
+				s.getLongitude()) <= 0.5).map(ParkingSpot::getId).sorted().toList(),
+				SpotCorridorSearch.search(grid, point, 0.5).stream().map(c -> c.getSpot().getId()).sorted().toList());
+	}
+}
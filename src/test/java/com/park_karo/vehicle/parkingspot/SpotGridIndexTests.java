@@ -0,0 +1,129 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class SpotGridIndexTests {
+
+	private static List<ParkingSpot> randomMumbaiSpots(int count, long seed) {
+		Random random = new Random(seed);
+		List<ParkingSpot> spots = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			double lat = 18.89 + random.nextDouble() * 0.35;
+			double lon = 72.77 + random.nextDouble() * 0.25;
+			spots.add(new ParkingSpot("spot-" + i, "Spot " + i, lat, lon, random.nextInt(50),
+					10 + random.nextInt(90), i % 2 == 0 ? "CAR" : "BIKE"));
+		}
+		return spots;
+	}
+
+	private static Set<String> bruteForce(List<ParkingSpot> spots, double lat, double lon, double radiusKm) {
+		return spots.stream()
+				.filter(s -> GeoUtils.distanceKm(lat, lon, s.getLatitude(), s.getLongitude()) <= radiusKm)
+				.map(ParkingSpot::getId).collect(Collectors.toSet());
+	}
+
+	@Test
+	void radiusQueryMatchesFullScan() {
+		List<ParkingSpot> spots = randomMumbaiSpots(5_000, 42);
+		SpotGridIndex index = new SpotGridIndex(0.01);
+		index.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+
+		double[][] probes = { { 19.0760, 72.8777, 5.0 }, { 18.95, 72.83, 0.5 }, { 19.2, 72.95, 12.0 },
+				{ 19.0, 72.8, 50.0 } };
+		for (double[] probe : probes) {
+			Set<String> expected = bruteForce(spots, probe[0], probe[1], probe[2]);
+			Set<String> actual = index.findWithinRadius(probe[0], probe[1], probe[2]).stream()
+					.map(ParkingSpot::getId).collect(Collectors.toSet());
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	void upsertMovesSpotBetweenCells() {
+		ParkingSpot spot = new ParkingSpot("moving", "Moving", 19.0, 72.8, 3, 20, "CAR");
+		SpotGridIndex index = new SpotGridIndex(0.01);
+		index.onCatalogChanged(SpotCatalogChangedEvent.reload(List.of(spot)));
+
+		ParkingSpot moved = new ParkingSpot("moving", "Moving", 19.1, 72.9, 3, 20, "CAR");
+		index.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.of(moved)));
+
+		assertTrue(index.findWithinRadius(19.0, 72.8, 1.0).isEmpty());
+		assertEquals(1, index.findWithinRadius(19.1, 72.9, 1.0).size());
+		assertEquals(1, index.cellCount());
+
+		index.onCatalogChanged(SpotCatalogChangedEvent.removed(List.of("moving")));
+		assertEquals(0, index.size());
+		assertEquals(0, index.cellCount());
+	}
+
+	@Test
+	void pagesConcatenateToSortedFullScan() {
+		List<ParkingSpot> spots = randomMumbaiSpots(3_000, 7);
+		// Duplicate positions force ties on distance, which the id must break
+		spots.add(new ParkingSpot("tie-b", "Tie", 19.05, 72.85, 1, 10, "CAR"));
+		spots.add(new ParkingSpot("tie-a", "Tie", 19.05, 72.85, 1, 10, "CAR"));
+		SpotGridIndex index = new SpotGridIndex(0.01);
+		index.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+
+		double[][] probes = { { 19.05, 72.85, 3.0 }, { 19.0760, 72.8777, 400.0 }, { 18.5, 72.0, 150.0 } };
+		for (double[] probe : probes) {
+			List<String> expected = spots.stream()
+					.map(s -> new SpotDistance(s, GeoUtils.distanceKm(probe[0], probe[1], s.getLatitude(),
+							s.getLongitude())))
+					.filter(d -> d.getDistanceKm() <= probe[2]).sorted(SpotGridIndex.PAGE_ORDER)
+					.map(d -> d.getSpot().getId()).collect(Collectors.toList());
+
+			List<String> actual = new ArrayList<>();
+			double afterKm = -1;
+			String afterId = "";
+			List<SpotDistance> page;
+			do {
+				page = index.findPageWithinRadius(probe[0], probe[1], probe[2], afterKm, afterId, 37);
+				page.forEach(d -> actual.add(d.getSpot().getId()));
+				if (!page.isEmpty()) {
+					afterKm = page.get(page.size() - 1).getDistanceKm();
+					afterId = page.get(page.size() - 1).getSpot().getId();
+				}
+			} while (page.size() == 37);
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	void queriesDuringAReloadSeeAWholeGrid() throws Exception {
+		List<ParkingSpot> spots = randomMumbaiSpots(5_000, 44);
+		SpotGridIndex index = new SpotGridIndex(0.01);
+		index.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+		int expected = index.countCandidatesInBox(-90, -180, 90, 180);
+
+		AtomicBoolean reloading = new AtomicBoolean(true);
+		AtomicInteger partial = new AtomicInteger();
+		Thread reader = new Thread(() -> {
+			while (reloading.get()) {
+				if (index.countCandidatesInBox(-90, -180, 90, 180) != expected) {
+					partial.incrementAndGet();
+				}
+			}
+		});
+		reader.start();
+		for (int i = 0; i < 50; i++) {
+			index.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+		}
+		reloading.set(false);
+		reader.join();
+
+		assertEquals(0, partial.get());
+		assertEquals(spots.size(), index.size());
+	}
+}
@@ -0,0 +1,103 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class SpotKdTreeTests {
+
+	private static List<ParkingSpot> randomMumbaiSpots(int count, long seed) {
+		Random random = new Random(seed);
+		List<ParkingSpot> spots = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			spots.add(new ParkingSpot("spot-" + i, "Spot " + i, 18.89 + random.nextDouble() * 0.35,
+					72.77 + random.nextDouble() * 0.25, random.nextInt(50), 10 + random.nextInt(90), "CAR"));
+		}
+		return spots;
+	}
+
+	static List<String> bruteForce(Iterable<ParkingSpot> spots, double lat, double lon, int k, double maxKm) {
+		List<ParkingSpot> within = new ArrayList<>();
+		for (ParkingSpot spot : spots) {
+			if (GeoUtils.distanceKm(lat, lon, spot.getLatitude(), spot.getLongitude()) <= maxKm) {
+				within.add(spot);
+			}
+		}
+		return within.stream()
+				.sorted(Comparator.comparingDouble(
+						s -> GeoUtils.distanceKm(lat, lon, s.getLatitude(), s.getLongitude())))
+				.limit(k).map(ParkingSpot::getId).toList();
+	}
+
+	private static List<SpotDistance> nearest(SpotKdTree tree, double lat, double lon, int k, double maxKm) {
+		SpotKdTree.NearestHeap heap = new SpotKdTree.NearestHeap(k, maxKm);
+		tree.nearest(lat, lon, heap, id -> false);
+		return heap.toSortedList();
+	}
+
+	private static List<String> ids(List<SpotDistance> result) {
+		return result.stream().map(d -> d.getSpot().getId()).toList();
+	}
+
+	@Test
+	void nearestMatchesBruteForce() {
+		List<ParkingSpot> spots = randomMumbaiSpots(5_000, 3);
+		SpotKdTree tree = SpotKdTree.build(spots);
+		Random random = new Random(4);
+		for (int probe = 0; probe < 200; probe++) {
+			double lat = 18.85 + random.nextDouble() * 0.45;
+			double lon = 72.72 + random.nextDouble() * 0.35;
+			int k = 1 + random.nextInt(40);
+			double maxKm = probe % 2 == 0 ? 50 : 0.1 + random.nextDouble() * 2;
+
+			List<SpotDistance> result = nearest(tree, lat, lon, k, maxKm);
+			assertEquals(bruteForce(spots, lat, lon, k, maxKm), ids(result));
+			for (SpotDistance d : result) {
+				ParkingSpot spot = d.getSpot();
+				assertEquals(GeoUtils.distanceKm(lat, lon, spot.getLatitude(), spot.getLongitude()), d.getDistanceKm(),
+						1e-6);
+			}
+		}
+	}
+
+	@Test
+	void maxDistanceCutsOffAndKLargerThanTheTreeReturnsEverything() {
+		List<ParkingSpot> spots = randomMumbaiSpots(50, 5);
+		SpotKdTree tree = SpotKdTree.build(spots);
+
+		assertEquals(50, nearest(tree, 19.0, 72.9, 500, 1_000).size());
+		assertEquals(bruteForce(spots, 19.0, 72.9, 500, 1_000), ids(nearest(tree, 19.0, 72.9, 500, 1_000)));
+		assertEquals(bruteForce(spots, 19.0, 72.9, 500, 4), ids(nearest(tree, 19.0, 72.9, 500, 4)));
+		assertTrue(nearest(tree, 28.6, 77.2, 5, 10).isEmpty(), "nothing within 10 km of Delhi");
+		assertTrue(nearest(SpotKdTree.build(List.of()), 19.0, 72.9, 5, 10).isEmpty());
+	}
+
+	@Test
+	void tiesAreFilledFromTheTiedSpots() {
+		List<ParkingSpot> spots = new ArrayList<>(randomMumbaiSpots(200, 6));
+		Set<String> tied = new HashSet<>();
+		for (int i = 0; i < 10; i++) {
+			spots.add(new ParkingSpot("tied-" + i, "Tied " + i, 19.05, 72.85, 5, 40, "CAR"));
+			tied.add("tied-" + i);
+		}
+		SpotKdTree tree = SpotKdTree.build(spots);
+
+		// Query on the tied point: any 4 of the 10 are right, but they must be 4 distinct ones
+		List<String> result = ids(nearest(tree, 19.05, 72.85, 4, 1));
+		assertEquals(4, new HashSet<>(result).size());
+		assertTrue(tied.containsAll(result), result::toString);
+
+		// Asking for more than the tie holds takes all of it, then the next nearest
+		List<String> wider = ids(nearest(tree, 19.05, 72.85, 12, 50));
+		assertTrue(wider.subList(0, 10).containsAll(tied));
+		assertEquals(bruteForce(spots, 19.05, 72.85, 12, 50).subList(10, 12), wider.subList(10, 12));
+	}
+}
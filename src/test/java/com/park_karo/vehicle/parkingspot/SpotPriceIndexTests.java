@@ -0,0 +1,81 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class SpotPriceIndexTests {
+
+	private static final String[] TYPES = { "CAR", "BIKE", "Truck", null };
+
+	private static final Comparator<ParkingSpot> CHEAPEST_FIRST = Comparator
+			.comparingDouble(ParkingSpot::getHourlyRate).thenComparing(ParkingSpot::getId);
+
+	private static ParkingSpot randomSpot(Random random, String id) {
+		return new ParkingSpot(id, id, 19.0, 72.8, random.nextInt(60), random.nextInt(4000) / 20.0,
+				TYPES[random.nextInt(TYPES.length)]);
+	}
+
+	private static boolean ofType(ParkingSpot spot, String type) {
+		return type == null || type.isEmpty() || type.equalsIgnoreCase(spot.getVehicleType());
+	}
+
+	private static List<String> ids(List<ParkingSpot> spots, int limit) {
+		return spots.stream().sorted(CHEAPEST_FIRST).limit(limit).map(ParkingSpot::getId).collect(Collectors.toList());
+	}
+
+	@Test
+	void rangeAndCheapestMatchFullScanAcrossCopyOnWriteUpdates() {
+		Random random = new Random(3);
+		List<ParkingSpot> spots = new ArrayList<>();
+		for (int i = 0; i < 3_000; i++) {
+			spots.add(randomSpot(random, "spot-" + i));
+		}
+		SpotPriceIndex index = new SpotPriceIndex();
+		index.onCatalogChanged(SpotCatalogChangedEvent.reload(spots));
+
+		// Single-spot events take the copy-on-write path, the removal batch rebuilds
+		for (int i = 0; i < 400; i++) {
+			int victim = random.nextInt(spots.size());
+			ParkingSpot updated = randomSpot(random, spots.get(victim).getId());
+			spots.set(victim, updated);
+			index.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.of(updated)));
+		}
+		List<String> removed = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			removed.add(spots.remove(random.nextInt(spots.size())).getId());
+		}
+		index.onCatalogChanged(SpotCatalogChangedEvent.removed(removed));
+		for (int i = 0; i < 100; i++) {
+			ParkingSpot added = randomSpot(random, "new-" + i);
+			spots.add(added);
+			index.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.of(added)));
+		}
+
+		assertEquals(spots.size(), index.size());
+		String[] queryTypes = { null, "car", "BIKE", "truck", "VAN" };
+		for (int q = 0; q < 300; q++) {
+			String type = queryTypes[random.nextInt(queryTypes.length)];
+			double min = random.nextInt(2000) / 10.0;
+			double max = min + random.nextInt(1000) / 10.0;
+			int limit = 1 + random.nextInt(100);
+			int minSpaces = random.nextInt(60);
+
+			List<ParkingSpot> inRange = spots.stream().filter(s -> ofType(s, type))
+					.filter(s -> s.getHourlyRate() >= min && s.getHourlyRate() <= max).collect(Collectors.toList());
+			assertEquals(ids(inRange, limit), ids(index.findInPriceRange(type, min, max, limit), limit));
+			assertTrue(index.countInPriceRange(type, min, max) >= inRange.size());
+
+			List<ParkingSpot> roomy = spots.stream().filter(s -> ofType(s, type))
+					.filter(s -> s.getAvailableSpaces() >= minSpaces).collect(Collectors.toList());
+			assertEquals(ids(roomy, limit), ids(index.findCheapest(type, limit, minSpaces), limit));
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SpotResultCacheTests {
+
+	private SpotGridIndex grid;
+	private SpotResultCache cache;
+
+	@BeforeEach
+	void loadSpots() {
+		Random random = new Random(11);
+		List<ParkingSpot> spots = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			spots.add(new ParkingSpot("spot-" + i, "Spot " + i, 18.89 + random.nextDouble() * 0.35,
+					72.77 + random.nextDouble() * 0.25, random.nextInt(50), 10 + random.nextInt(90),
+					i % 2 == 0 ? "CAR" : "BIKE"));
+		}
+		grid = new SpotGridIndex(0.01);
+		cache = new SpotResultCache(grid, true, 0.005, 10_000, 300);
+		SpotCatalogChangedEvent reload = SpotCatalogChangedEvent.reload(spots);
+		grid.onCatalogChanged(reload);
+		cache.onCatalogChanged(reload);
+	}
+
+	@Test
+	void changeInACoveredCellDropsTheNearbyEntry() {
+		List<String> before = ids(cache.findWithinRadius(19.0, 72.8, 1));
+
+		// In the grid but not yet announced to the cache, so only a reload can see it
+		ParkingSpot fresh = new ParkingSpot("fresh", "Fresh", 19.001, 72.801, 5, 40, "CAR");
+		grid.put(fresh);
+		assertEquals(before, ids(cache.findWithinRadius(19.0, 72.8, 1)), "served from the cache");
+
+		// Far outside the entry's cells: the entry survives
+		cache.onCatalogChanged(
+				SpotCatalogChangedEvent.upserted(List.of(new ParkingSpot("far", "Far", 19.2, 72.95, 5, 40, "CAR"))));
+		assertFalse(ids(cache.findWithinRadius(19.0, 72.8, 1)).contains("fresh"));
+
+		cache.onCatalogChanged(SpotCatalogChangedEvent.upserted(List.of(fresh)));
+		assertTrue(ids(cache.findWithinRadius(19.0, 72.8, 1)).contains("fresh"));
+	}
+
+	@Test
+	void changeOfATypeDropsOnlyFiltersOnThatType() {
+		AtomicInteger carLoads = new AtomicInteger();
+		AtomicInteger bikeLoads = new AtomicInteger();
+		AtomicInteger anyLoads = new AtomicInteger();
+		Supplier<List<ParkingSpot>> cars = counting(carLoads);
+		Supplier<List<ParkingSpot>> bikes = counting(bikeLoads);
+		Supplier<List<ParkingSpot>> any = counting(anyLoads);
+
+		cache.findAvailable(50, 1, "car", cars);
+		cache.findAvailable(50, 1, "BIKE", bikes);
+		cache.findAvailable(50, 1, null, any);
+		cache.findAvailable(50, 1, "CAR", cars);
+		assertEquals(1, carLoads.get(), "type is normalised into the key");
+
+		cache.onCatalogChanged(SpotCatalogChangedEvent
+				.upserted(List.of(new ParkingSpot("spot-0", "Spot 0", 19.0, 72.8, 3, 40, "CAR"))));
+		cache.findAvailable(50, 1, "CAR", cars);
+		cache.findAvailable(50, 1, "BIKE", bikes);
+		cache.findAvailable(50, 1, null, any);
+		assertEquals(2, carLoads.get());
+		assertEquals(1, bikeLoads.get(), "a car change leaves bike filters cached");
+		assertEquals(2, anyLoads.get());
+
+		// spot-2 was a car
+		cache.onCatalogChanged(SpotCatalogChangedEvent.removed(List.of("spot-2")));
+		cache.findAvailable(50, 1, "BIKE", bikes);
+		assertEquals(1, bikeLoads.get());
+		cache.findAvailable(50, 1, null, any);
+		assertEquals(3, anyLoads.get());
+	}
+
+	@Test
+	void loadRacingAnInvalidationIsNotCached() {
+		AtomicInteger loads = new AtomicInteger();
+		Supplier<List<ParkingSpot>> racing = () -> {
+			loads.incrementAndGet();
+			// A change lands between reading the database and caching the result
+			cache.onCatalogChanged(SpotCatalogChangedEvent
+					.upserted(List.of(new ParkingSpot("spot-0", "Spot 0", 19.0, 72.8, 3, 40, "CAR"))));
+			return List.of();
+		};
+
+		cache.findAvailable(50, 1, "CAR", racing);
+		cache.findAvailable(50, 1, "CAR", racing);
+		assertEquals(2, loads.get());
+
+		AtomicInteger quiet = new AtomicInteger();
+		cache.findAvailable(60, 1, "CAR", counting(quiet));
+		cache.findAvailable(60, 1, "CAR", counting(quiet));
+		assertEquals(1, quiet.get());
+	}
+
+	private static Supplier<List<ParkingSpot>> counting(AtomicInteger loads) {
+		return () -> {
+			loads.incrementAndGet();
+			return List.of();
+		};
+	}
+
+	private static List<String> ids(List<ParkingSpot> spots) {
+		return spots.stream().map(ParkingSpot::getId).sorted().toList();
+	}
+}
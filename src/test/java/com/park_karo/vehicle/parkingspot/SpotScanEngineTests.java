@@ -0,0 +1,103 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SpotScanEngineTests {
+
+	private static final String[] TYPES = { "CAR", "BIKE", "TRUCK" };
+
+	private ParkingSpotCatalog catalog;
+	private SpotScanEngine engine;
+
+	@BeforeEach
+	void loadSpots() {
+		SpotScanEngine[] holder = new SpotScanEngine[1];
+		catalog = new ParkingSpotCatalog(null, event -> holder[0].onCatalogChanged((SpotCatalogChangedEvent) event));
+		engine = new SpotScanEngine(catalog);
+		holder[0] = engine;
+
+		Random random = new Random(21);
+		List<ParkingSpot> spots = new ArrayList<>();
+		for (int i = 0; i < 3_000; i++) {
+			// Whole, float-friendly and float-unfriendly rates
+			double rate = switch (i % 3) {
+			case 0 -> 10 + random.nextInt(90);
+			case 1 -> 10 + random.nextInt(90) + 0.5;
+			default -> 10 + random.nextDouble() * 90;
+			};
+			spots.add(new ParkingSpot("spot-" + i, "Spot " + i, 18.89 + random.nextDouble() * 0.35,
+					72.77 + random.nextDouble() * 0.25, random.nextInt(50), rate, TYPES[i % TYPES.length]));
+		}
+		// Round to the same float as 40.0 but cost more
+		spots.add(new ParkingSpot("just-over", "Just over", 19.0, 72.8, 10, 40.0000001, "CAR"));
+		spots.add(new ParkingSpot("exact", "Exact", 19.0, 72.8, 10, 40.0, "CAR"));
+		catalog.replaceAll(spots);
+	}
+
+	private Set<String> baseline(double maxPrice, int minSpaces, String vehicleType) {
+		String type = vehicleType == null ? null : ParkingSpot.normalizeVehicleType(vehicleType);
+		return catalog.all().stream()
+				.filter(s -> s.getHourlyRate() <= maxPrice && s.getAvailableSpaces() >= minSpaces
+						&& (type == null || type.equals(s.getVehicleTypeKey())))
+				.map(ParkingSpot::getId).collect(Collectors.toSet());
+	}
+
+	private static Set<String> ids(List<ParkingSpot> spots) {
+		return spots.stream().map(ParkingSpot::getId).collect(Collectors.toSet());
+	}
+
+	@Test
+	void availableScanMatchesTheBaselineFilter() {
+		Random random = new Random(22);
+		for (int probe = 0; probe < 200; probe++) {
+			double maxPrice = probe % 4 == 0 ? 10 + random.nextInt(90) : 10 + random.nextDouble() * 90;
+			int minSpaces = random.nextInt(50);
+			String type = probe % 4 == 3 ? null : TYPES[probe % 3].toLowerCase();
+			assertEquals(baseline(maxPrice, minSpaces, type), ids(engine.scanAvailable(maxPrice, minSpaces, type)));
+		}
+
+		Set<String> atForty = ids(engine.scanAvailable(40.0, 0, "CAR"));
+		assertEquals(baseline(40.0, 0, "CAR"), atForty);
+		assertTrue(atForty.contains("exact"));
+		assertFalse(atForty.contains("just-over"));
+		assertEquals(Set.of(), ids(engine.scanAvailable(1_000, 0, "HOVERCRAFT")));
+	}
+
+	@Test
+	void updatesAndRemovalsReachTheScan() {
+		engine.scanAvailable(40.0, 0, null);
+		ParkingSpot spot = catalog.get("spot-7");
+		catalog.upsert(new ParkingSpot(spot.getId(), spot.getName(), spot.getLatitude(), spot.getLongitude(), 49,
+				39.99, spot.getVehicleTypeKey()));
+		catalog.remove(List.of("spot-8"));
+
+		assertEquals(baseline(40.0, 49, null), ids(engine.scanAvailable(40.0, 49, null)));
+		assertTrue(ids(engine.scanAvailable(40.0, 49, null)).contains("spot-7"));
+		assertEquals(baseline(100, 0, null), ids(engine.scanAvailable(100, 0, null)));
+	}
+
+	@Test
+	void radiusScanMatchesHaversine() {
+		Random random = new Random(23);
+		for (int probe = 0; probe < 100; probe++) {
+			double lat = 18.89 + random.nextDouble() * 0.35;
+			double lon = 72.77 + random.nextDouble() * 0.25;
+			double radiusKm = 0.1 + random.nextDouble() * 5;
+			Set<String> expected = catalog.all().stream()
+					.filter(s -> GeoUtils.distanceKm(lat, lon, s.getLatitude(), s.getLongitude()) <= radiusKm)
+					.map(ParkingSpot::getId).collect(Collectors.toSet());
+			assertEquals(expected, ids(engine.scanRadius(lat, lon, radiusKm)));
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.park_karo.vehicle.parkingspot.SpotSearchPlan.AccessPath;
+
+class SpotSearchPlannerTests {
+
+	private static final String[] TYPES = { "CAR", "BIKE", "TRUCK" };
+
+	private ParkingSpotCatalog catalog;
+	private SpotSearchPlanner planner;
+
+	@BeforeEach
+	void buildIndexes() {
+		SpotGridIndex grid = new SpotGridIndex(0.01);
+		SpotBitmapIndex bitmap = new SpotBitmapIndex(10);
+		SpotPriceIndex price = new SpotPriceIndex();
+		SpotScanEngine[] scan = new SpotScanEngine[1];
+		catalog = new ParkingSpotCatalog(null, event -> {
+			grid.onCatalogChanged((SpotCatalogChangedEvent) event);
+			bitmap.onCatalogChanged((SpotCatalogChangedEvent) event);
+			price.onCatalogChanged((SpotCatalogChangedEvent) event);
+			scan[0].onCatalogChanged((SpotCatalogChangedEvent) event);
+		});
+		scan[0] = new SpotScanEngine(catalog);
+		planner = new SpotSearchPlanner(null, catalog, grid, bitmap, scan[0], price);
+
+		Random random = new Random(5);
+		for (int i = 0; i < 5_000; i++) {
+			catalog.upsert(new ParkingSpot("spot-" + i, "Spot " + i, 18.89 + random.nextDouble() * 0.35,
+					72.77 + random.nextDouble() * 0.25, random.nextInt(60), 10 + random.nextInt(190),
+					TYPES[random.nextInt(TYPES.length)]));
+		}
+		catalog.replaceAll(List.copyOf(catalog.all()));
+	}
+
+	private List<String> bruteForce(SpotSearchRequest request) {
+		SpotSearchCriteria criteria = SpotSearchCriteria.from(request);
+		return catalog.all().stream().filter(criteria::matches).sorted(criteria.comparator()).limit(criteria.limit)
+				.map(ParkingSpot::getId).collect(Collectors.toList());
+	}
+
+	@Test
+	void everyChosenPathReturnsTheExactAnswer() {
+		Random random = new Random(9);
+		for (int q = 0; q < 300; q++) {
+			SpotSearchRequest request = new SpotSearchRequest();
+			switch (random.nextInt(3)) {
+			case 0 -> {
+				request.setLat(18.9 + random.nextDouble() * 0.3);
+				request.setLon(72.78 + random.nextDouble() * 0.2);
+				request.setRadiusKm(0.2 + random.nextDouble() * 20);
+			}
+			case 1 -> {
+				request.setMinLat(18.9 + random.nextDouble() * 0.2);
+				request.setMinLon(72.78 + random.nextDouble() * 0.15);
+				request.setMaxLat(request.getMinLat() + random.nextDouble() * 0.1);
+				request.setMaxLon(request.getMinLon() + random.nextDouble() * 0.1);
+			}
+			default -> {
+			}
+			}
+			if (random.nextBoolean()) {
+				request.setMaxPrice(10 + random.nextDouble() * 200);
+			}
+			if (random.nextBoolean()) {
+				request.setMinPrice(random.nextDouble() * 100);
+				request.setMaxPrice(request.getMinPrice() + random.nextDouble() * 100);
+			}
+			if (random.nextBoolean()) {
+				request.setMinSpaces(random.nextInt(60));
+			}
+			if (random.nextBoolean()) {
+				request.setVehicleTypes(List.of(TYPES[random.nextInt(TYPES.length)].toLowerCase(), "BIKE"));
+			}
+			if (random.nextBoolean()) {
+				request.setSort(random.nextBoolean() ? "price" : "availability");
+			}
+			request.setLimit(1 + random.nextInt(200));
+
+			SpotSearchResult result = planner.search(request);
+			assertEquals(bruteForce(request),
+					result.getSpots().stream().map(ParkingSpot::getId).collect(Collectors.toList()),
+					() -> "plan " + result.getPlan().toHeaderValue());
+		}
+	}
+
+	@Test
+	void picksTheMostSelectivePath() {
+		SpotSearchRequest wideBox = new SpotSearchRequest();
+		wideBox.setMinLat(18.89);
+		wideBox.setMinLon(72.77);
+		wideBox.setMaxLat(19.07);
+		wideBox.setMaxLon(73.02);
+		wideBox.setMaxPrice(150.0);
+		assertEquals(AccessPath.SCAN, planner.search(wideBox).getPlan().getAccessPath());
+
+		SpotSearchRequest nearby = new SpotSearchRequest();
+		nearby.setLat(19.0);
+		nearby.setLon(72.85);
+		nearby.setRadiusKm(0.5);
+		assertEquals(AccessPath.SPATIAL, planner.search(nearby).getPlan().getAccessPath());
+
+		SpotSearchRequest cheapTrucks = new SpotSearchRequest();
+		cheapTrucks.setVehicleTypes(List.of("truck"));
+		cheapTrucks.setMaxPrice(20.0);
+		cheapTrucks.setMinSpaces(50);
+		assertEquals(AccessPath.BITMAP, planner.search(cheapTrucks).getPlan().getAccessPath());
+
+		SpotSearchRequest cheapest = new SpotSearchRequest();
+		cheapest.setSort("price");
+		cheapest.setLimit(10);
+		assertEquals(AccessPath.PRICE, planner.search(cheapest).getPlan().getAccessPath());
+	}
+}
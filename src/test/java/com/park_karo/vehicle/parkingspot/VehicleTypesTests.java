@@ -0,0 +1,54 @@
+package com.park_karo.vehicle.parkingspot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class VehicleTypesTests {
+
+	@Test
+	void spellingsOfOneTypeShareACodeAndKey() {
+		int code = VehicleTypes.code("Rickshaw");
+		assertEquals(code, VehicleTypes.code(" rickshaw "));
+		assertEquals(code, VehicleTypes.find("RICKSHAW"));
+		assertNotEquals(code, VehicleTypes.code("Tempo"));
+		assertEquals("RICKSHAW", VehicleTypes.key(code));
+
+		assertEquals(VehicleTypes.NONE, VehicleTypes.code(null));
+		assertEquals(VehicleTypes.NONE, VehicleTypes.code("  "));
+		assertEquals(VehicleTypes.UNKNOWN, VehicleTypes.find("Hovercraft"));
+		assertEquals(VehicleTypes.UNKNOWN, VehicleTypes.find("Hovercraft"), "lookups must not register");
+	}
+
+	@Test
+	void spotsFromSeparateDocumentsShareTypeStrings() {
+		ParkingSpot first = new ParkingSpot("a", "A", 19.0, 72.8, 1, 10, new String("Car"));
+		ParkingSpot second = new ParkingSpot("b", "B", 19.0, 72.8, 1, 10, new String("Car"));
+		new ParkingSpotCatalog(null, event -> {
+		}).replaceAll(List.of(first, second));
+		assertSame(first.getVehicleType(), second.getVehicleType());
+		assertSame(first.getVehicleTypeKey(), second.getVehicleTypeKey());
+		assertEquals(first.getVehicleTypeCode(), VehicleTypes.find("car"));
+	}
+
+	@Test
+	void onlyTheCatalogRegistersNewTypes() {
+		// As Jackson builds a request body
+		ParkingSpot body = new ParkingSpot();
+		body.setVehicleType("Zeppelin");
+		assertEquals("ZEPPELIN", body.getVehicleTypeKey());
+		assertEquals(VehicleTypes.UNKNOWN, VehicleTypes.find("zeppelin"));
+
+		ParkingSpotCatalog catalog = new ParkingSpotCatalog(null, event -> {
+		});
+		catalog.upsert(new ParkingSpot("z", "Z", 19.0, 72.8, 1, 10, "Zeppelin"));
+		int code = VehicleTypes.find("zeppelin");
+		assertNotEquals(VehicleTypes.UNKNOWN, code);
+		assertEquals(code, catalog.get("z").getVehicleTypeCode());
+		assertSame(VehicleTypes.key(code), catalog.get("z").getVehicleTypeKey());
+	}
+}
@@ -0,0 +1,66 @@
+package com.park_karo.vehicle.reservation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTests {
+
+	@Test
+	void timersFireOnTheFirstTickAtOrAfterTheirDeadline() {
+		Random random = new Random(17);
+		long tick = 10;
+		long now = 1_700_000_123_456L;
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(tick, now);
+
+		// Deadlines spread over every level and into the overflow list
+		Map<Integer, Long> deadlines = new HashMap<>();
+		List<HierarchicalTimingWheel.Timeout<Integer>> timeouts = new ArrayList<>();
+		for (int i = 0; i < 200_000; i++) {
+			long deadline = now + (long) Math.pow(10, 2 + random.nextDouble() * 6.5);
+			deadlines.put(i, deadline);
+			timeouts.add(wheel.schedule(i, deadline));
+		}
+		for (int i = 0; i < 200_000; i += 3) {
+			assertTrue(wheel.cancel(timeouts.get(i)));
+			assertFalse(wheel.cancel(timeouts.get(i)));
+			deadlines.remove(i);
+		}
+		assertEquals(deadlines.size(), wheel.size());
+
+		long end = now + 400_000_000L;
+		while (now < end) {
+			now += 1 + random.nextInt(3_000_000);
+			long current = now;
+			wheel.advanceTo(now, item -> {
+				Long deadline = deadlines.remove(item);
+				assertTrue(deadline != null, "fired twice or after cancel: " + item);
+				assertTrue(deadline <= current, "fired early: " + item);
+			});
+			// Nothing left behind that was already due on a past tick
+			long dueTick = now / tick * tick;
+			deadlines.values().forEach(d -> assertTrue(d > dueTick, "missed deadline " + d));
+		}
+		assertTrue(deadlines.isEmpty());
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void pastDeadlinesFireOnTheNextTick() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 10_000);
+		wheel.schedule("late", 5_000);
+		List<String> fired = new ArrayList<>();
+		wheel.advanceTo(10_999, fired::add);
+		assertTrue(fired.isEmpty());
+		wheel.advanceTo(11_000, fired::add);
+		assertEquals(List.of("late"), fired);
+	}
+}